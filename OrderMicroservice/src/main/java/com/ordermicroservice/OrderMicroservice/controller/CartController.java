@@ -24,6 +24,16 @@ public class CartController {
         CommonResponseDto response = cartService.addItemToCart(cartItemRequestDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+    @PostMapping("/addAll")
+    public ResponseEntity<CommonResponseDto> addItemsToCart(@RequestBody List<CartItemRequestDto> cartItemRequestDtos) {
+        CommonResponseDto response = cartService.addItemsToCart(cartItemRequestDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    @PutMapping("/replace/user/{userId}")
+    public ResponseEntity<CommonResponseDto> replaceCart(@PathVariable int userId, @RequestBody List<CartItemRequestDto> cartItemRequestDtos) {
+        CommonResponseDto response = cartService.replaceCart(userId, cartItemRequestDtos);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
     @PutMapping("/update/{cartId}")
     public ResponseEntity<CommonResponseDto> updateItemQuantity(  @PathVariable int cartId, @RequestParam int quantityChange) {
         CommonResponseDto response = cartService.updateCartItemQuantity(cartId, quantityChange);
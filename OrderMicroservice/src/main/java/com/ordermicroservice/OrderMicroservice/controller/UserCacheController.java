@@ -0,0 +1,24 @@
+package com.ordermicroservice.OrderMicroservice.controller;
+
+import com.ordermicroservice.OrderMicroservice.service.impl.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Lets the user service report changed users, so that their cached copies are dropped before
+ * they expire.
+ */
+@RestController
+@RequestMapping("/api/cache/users")
+public class UserCacheController {
+
+    @Autowired
+    private UserCache userCache;
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> invalidateUser(@PathVariable int userId) {
+        userCache.invalidate(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -26,6 +26,8 @@ public class OrderResponseDto {
 
         private int restaurantId;
 
+        private String customerName;
+
         public int getId() {
                 return id;
         }
@@ -89,6 +91,14 @@ public class OrderResponseDto {
         public void setRestaurantId(int restaurantId) {
                 this.restaurantId = restaurantId;
         }
+
+        public String getCustomerName() {
+                return customerName;
+        }
+
+        public void setCustomerName(String customerName) {
+                this.customerName = customerName;
+        }
 }
 
 
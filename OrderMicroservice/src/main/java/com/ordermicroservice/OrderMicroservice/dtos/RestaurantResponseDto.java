@@ -16,7 +16,9 @@ public class RestaurantResponseDto {
 
     private String openingHours;
 
-    private byte[] imageUrl;
+    private String imageUrl;
+
+    private String imageHash;
 
     private int ownerId;
 
@@ -84,12 +86,20 @@ public class RestaurantResponseDto {
         this.restaurantName = restaurantName;
     }
 
-    public byte[] getImageUrl() {
+    public String getImageUrl() {
         return imageUrl;
     }
 
-    public void setImageUrl(byte[] imageUrl) {
+    public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
 }
 
@@ -1,30 +1,49 @@
 package com.ordermicroservice.OrderMicroservice.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts",
+        indexes = {
+                // One row per item of a user's cart; also serves the lookups by user, and by user and restaurant
+                @Index(name = "uk_carts_user_restaurant_menu_item",
+                        columnList = "user_id, restaurant_id, menu_item_id", unique = true),
+                @Index(name = "idx_carts_updated_at", columnList = "updated_at")
+        })
 public class Cart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int cartId;
 
+    @Column(name = "user_id")
     private int userId;
 
+    @Column(name = "restaurant_id")
     private int restaurantId;
 
+    @Column(name = "menu_item_id")
     private int menuItemId;
 
     private int quantity;
 
+    // Price of the line, unitPrice times quantity
     private BigDecimal price;
 
-   // private LocalDateTime createdAt = LocalDateTime.now();
+    private BigDecimal unitPrice;
+
+    // Bookkeeping only, left out of the JSON of the cart and of the orders embedding it
+    @JsonIgnore
+    private LocalDateTime createdAt = LocalDateTime.now();
 
-    //private LocalDateTime updatedAt = LocalDateTime.now();
+    // Time of the last change, after which the cart expires unless changed again
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
 
     public int getCartId() {
         return cartId;
@@ -66,7 +85,7 @@ public class Cart {
         this.quantity = quantity;
     }
 
-  /*  public LocalDateTime getCreatedAt() {
+    public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
@@ -80,7 +99,12 @@ public class Cart {
 
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
-    }*/
+    }
+
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 
     public BigDecimal getPrice() {
         return price;
@@ -90,6 +114,14 @@ public class Cart {
         this.price = price;
     }
 
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
     public Cart()
     {
         super();
@@ -1,4 +1,5 @@
 package com.ordermicroservice.OrderMicroservice.exceptions;
+import feign.RetryableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -44,4 +45,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidCartRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCartRequestException(InvalidCartRequestException ex) {
+        ErrorResponse response = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ErrorResponse response = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // A call to another service that timed out or could not connect
+    @ExceptionHandler(RetryableException.class)
+    public ResponseEntity<ErrorResponse> handleRetryableException(RetryableException ex) {
+        ErrorResponse response = new ErrorResponse(
+                "A service this request depends on did not answer in time, please try again later",
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
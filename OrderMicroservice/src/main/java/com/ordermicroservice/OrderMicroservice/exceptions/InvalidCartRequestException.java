@@ -0,0 +1,9 @@
+package com.ordermicroservice.OrderMicroservice.exceptions;
+
+public class InvalidCartRequestException extends RuntimeException{
+
+    public InvalidCartRequestException(String message)
+    {
+        super(message);
+    }
+}
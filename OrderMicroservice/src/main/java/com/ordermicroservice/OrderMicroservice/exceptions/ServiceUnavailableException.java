@@ -0,0 +1,9 @@
+package com.ordermicroservice.OrderMicroservice.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException{
+
+    public ServiceUnavailableException(String message)
+    {
+        super(message);
+    }
+}
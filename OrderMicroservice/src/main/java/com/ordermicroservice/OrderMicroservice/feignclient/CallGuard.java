@@ -0,0 +1,200 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import java.time.Clock;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guards the calls made to one service with a bulkhead and a circuit breaker.
+ * <p>
+ * The bulkhead lets at most a fixed number of calls run at once and turns the others away
+ * straight off, so a slow service holds no more request threads than that. The circuit breaker
+ * keeps the outcomes of the last calls; once enough of them failed it opens and turns every call
+ * away for a while, then lets a few trial calls through: it closes again if they all succeed and
+ * reopens on the first failure. Outcomes of calls started before the breaker last changed state
+ * are ignored.
+ * </p>
+ */
+final class CallGuard {
+
+    /** The states of the circuit breaker. */
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int maxConcurrentCalls;
+
+    private final Semaphore permits;
+
+    private final int failureRateThreshold;
+
+    private final int minimumCalls;
+
+    private final long openMillis;
+
+    private final int halfOpenCalls;
+
+    private final Clock clock;
+
+    /** Outcomes of the last calls while closed, as a ring; true for failures. Guarded by {@code this}. */
+    private final boolean[] outcomes;
+
+    private int outcomeCount;
+
+    private int nextOutcome;
+
+    private int failureCount;
+
+    private State state = State.CLOSED;
+
+    /** Counts the state changes, so that late outcomes can be told apart. */
+    private long generation;
+
+    private long openedAt;
+
+    private int trialsStarted;
+
+    private int trialsSucceeded;
+
+    private final LongAdder successes = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a closed guard.
+     *
+     * @param maxConcurrentCalls the bulkhead size
+     * @param slidingWindowSize the number of last outcomes the breaker keeps
+     * @param minimumCalls the number of outcomes needed before the breaker can open
+     * @param failureRateThreshold the share of failed calls, in percent, that opens the breaker
+     * @param openMillis how long the breaker stays open before the trial calls
+     * @param halfOpenCalls the number of trial calls
+     * @param clock the clock timing the open breaker
+     */
+    CallGuard(int maxConcurrentCalls, int slidingWindowSize, int minimumCalls, int failureRateThreshold,
+              long openMillis, int halfOpenCalls, Clock clock) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.outcomes = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks to make a call. A permitted call must be followed by {@link #release(long, boolean)}.
+     *
+     * @return a ticket for the call, or -1 if the call is turned away
+     */
+    long acquire() {
+        if (!permits.tryAcquire()) {
+            rejections.increment();
+            return -1;
+        }
+        long ticket = admit();
+        if (ticket < 0) {
+            permits.release();
+            rejections.increment();
+        }
+        return ticket;
+    }
+
+    /**
+     * Records the outcome of a permitted call and frees its place in the bulkhead.
+     *
+     * @param ticket the ticket of the call
+     * @param succeeded whether the call succeeded
+     */
+    void release(long ticket, boolean succeeded) {
+        permits.release();
+        if (succeeded) {
+            successes.increment();
+        } else {
+            failures.increment();
+        }
+        record(ticket, succeeded);
+    }
+
+    synchronized State getState() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    long getSuccessCount() {
+        return successes.sum();
+    }
+
+    long getFailureCount() {
+        return failures.sum();
+    }
+
+    long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    private synchronized long admit() {
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < openMillis) {
+                return -1;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted == halfOpenCalls) {
+                return -1;
+            }
+            trialsStarted++;
+        }
+        return generation;
+    }
+
+    private synchronized void record(long ticket, boolean succeeded) {
+        if (ticket != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (!succeeded) {
+                transition(State.OPEN);
+            } else if (++trialsSucceeded == halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[nextOutcome] = !succeeded;
+        if (!succeeded) {
+            failureCount++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        if (outcomeCount >= minimumCalls && failureCount * 100 >= failureRateThreshold * outcomeCount) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+        outcomeCount = 0;
+        nextOutcome = 0;
+        failureCount = 0;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (to == State.OPEN) {
+            openedAt = clock.millis();
+        }
+    }
+}
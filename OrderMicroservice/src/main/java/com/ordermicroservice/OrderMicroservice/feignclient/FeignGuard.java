@@ -0,0 +1,148 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import com.ordermicroservice.OrderMicroservice.exceptions.ServiceUnavailableException;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Puts the calls of every Feign client behind a {@link CallGuard} of its own, keyed by the client
+ * name, so that a slow or failing service only holds a bounded number of request threads and is
+ * then left alone for a while. Calls turned away throw a {@link ServiceUnavailableException}.
+ * Connection failures, timeouts and 5xx answers count as failed calls.
+ * <p>
+ * Each client reads its settings from {@code feign.guard.<client name>.*}, falling back to
+ * {@code feign.guard.default.*}, in the way {@code feign.client.config} sets the timeouts.
+ * </p>
+ */
+@Component
+public class FeignGuard implements Capability, MeterBinder {
+
+    private final Environment environment;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<String, CallGuard> guards = new ConcurrentHashMap<>();
+
+    private MeterRegistry registry;
+
+    @Autowired
+    public FeignGuard(Environment environment) {
+        this(environment, Clock.systemUTC());
+    }
+
+    FeignGuard(Environment environment, Clock clock) {
+        this.environment = environment;
+        this.clock = clock;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    /**
+     * Gets the state of the circuit breaker of a client.
+     *
+     * @param name the client name
+     * @return the state, closed if the client made no call yet
+     */
+    public String getState(String name) {
+        CallGuard guard = guards.get(name);
+        return guard == null ? CallGuard.State.CLOSED.name() : guard.getState().name();
+    }
+
+    /**
+     * Publishes the calls of each client as {@code feign.guard.*} metrics, tagged with the client.
+     *
+     * @param registry the registry to publish to
+     */
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        guards.forEach(this::bind);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        String name = request.requestTemplate().feignTarget().name();
+        CallGuard guard = guard(name);
+        long ticket = guard.acquire();
+        if (ticket < 0) {
+            throw new ServiceUnavailableException(name + " is unavailable, please try again later");
+        }
+        boolean succeeded = false;
+        try {
+            Response response = client.execute(request, options);
+            succeeded = response.status() < 500;
+            return response;
+        } finally {
+            guard.release(ticket, succeeded);
+        }
+    }
+
+    private CallGuard guard(String name) {
+        CallGuard guard = guards.get(name);
+        if (guard != null) {
+            return guard;
+        }
+        synchronized (this) {
+            guard = guards.get(name);
+            if (guard == null) {
+                guard = new CallGuard(
+                        setting(name, "max-concurrent-calls", 10),
+                        setting(name, "sliding-window-size", 20),
+                        setting(name, "minimum-calls", 10),
+                        setting(name, "failure-rate-threshold", 50),
+                        setting(name, "open-millis", 10000),
+                        setting(name, "half-open-calls", 3),
+                        clock);
+                guards.put(name, guard);
+                if (registry != null) {
+                    bind(name, guard);
+                }
+            }
+            return guard;
+        }
+    }
+
+    private int setting(String name, String key, int defaultValue) {
+        Integer value = environment.getProperty("feign.guard." + name + "." + key, Integer.class);
+        return value != null ? value : environment.getProperty("feign.guard.default." + key, Integer.class, defaultValue);
+    }
+
+    private void bind(String name, CallGuard guard) {
+        FunctionCounter.builder("feign.guard.calls", guard, CallGuard::getSuccessCount)
+                .tags("client", name, "result", "success")
+                .description("Calls that succeeded")
+                .register(registry);
+        FunctionCounter.builder("feign.guard.calls", guard, CallGuard::getFailureCount)
+                .tags("client", name, "result", "failure")
+                .description("Calls that failed or timed out")
+                .register(registry);
+        FunctionCounter.builder("feign.guard.calls", guard, CallGuard::getRejectionCount)
+                .tags("client", name, "result", "rejected")
+                .description("Calls turned away by the bulkhead or the open circuit breaker")
+                .register(registry);
+        Gauge.builder("feign.guard.active", guard, CallGuard::getActiveCalls)
+                .tag("client", name)
+                .description("Calls in progress")
+                .register(registry);
+        Gauge.builder("feign.guard.open", guard, g -> g.getState() == CallGuard.State.CLOSED ? 0 : 1)
+                .tag("client", name)
+                .description("Whether the circuit breaker turns calls away or only lets trial calls through")
+                .register(registry);
+    }
+}
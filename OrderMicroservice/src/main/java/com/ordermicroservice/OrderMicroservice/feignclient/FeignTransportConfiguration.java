@@ -0,0 +1,80 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Feign clients on OkHttp over a shared pool of keep-alive connections, instead of a
+ * connection per call. HTTP/2 is negotiated with peers served over TLS; the peers listed in
+ * {@code feign.pool.h2c-hosts} are known to speak HTTP/2 in clear text and are called over it
+ * directly, every call to a peer then sharing one multiplexed connection.
+ * <p>
+ * Turned off with {@code feign.pool.enabled=false}, which leaves Feign on {@code HttpURLConnection}.
+ * The pool is published as the {@code okhttp.pool.*} metrics.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "feign.pool.enabled", matchIfMissing = true)
+public class FeignTransportConfiguration {
+
+    @Bean(destroyMethod = "evictAll")
+    public ConnectionPool feignConnectionPool(@Value("${feign.pool.max-idle-connections:50}") int maxIdleConnections,
+                                              @Value("${feign.pool.keep-alive-seconds:300}") long keepAliveSeconds) {
+        return new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    @Bean
+    public OkHttpConnectionPoolMetrics feignConnectionPoolMetrics(ConnectionPool feignConnectionPool,
+            @Value("${feign.pool.max-idle-connections:50}") int maxIdleConnections) {
+        return new OkHttpConnectionPoolMetrics(feignConnectionPool, "okhttp.pool", Tags.of("client", "feign"),
+                maxIdleConnections);
+    }
+
+    /**
+     * The OkHttp client the Feign clients share. Its timeouts are the Feign defaults, so that calls
+     * made with them need no client of their own.
+     */
+    @Bean
+    public okhttp3.OkHttpClient feignOkHttpClient(ConnectionPool feignConnectionPool,
+            @Value("${feign.client.config.default.connectTimeout:10000}") long connectTimeoutMillis,
+            @Value("${feign.client.config.default.readTimeout:60000}") long readTimeoutMillis) {
+        return new okhttp3.OkHttpClient.Builder()
+                .connectionPool(feignConnectionPool)
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public Client feignClient(okhttp3.OkHttpClient feignOkHttpClient,
+                              @Value("${feign.pool.h2c-hosts:}") List<String> h2cHosts) {
+        Client client = new OkHttpClient(feignOkHttpClient);
+        if (h2cHosts.isEmpty()) {
+            return client;
+        }
+        Set<String> hosts = new HashSet<>(h2cHosts);
+        Client h2cClient = new OkHttpClient(feignOkHttpClient.newBuilder()
+                .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE))
+                .build());
+        return (request, options) -> {
+            URI uri = URI.create(request.url());
+            boolean h2c = "http".equals(uri.getScheme()) && hosts.contains(uri.getHost() + ":" + uri.getPort());
+            return (h2c ? h2cClient : client).execute(request, options);
+        };
+    }
+}
@@ -4,16 +4,27 @@ import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "UserService", url = "http://localhost:8081")
+import java.util.List;
+
+@FeignClient(name = "UserService", url = "${user.service.url:http://localhost:8081}")
 public interface UserFeignClient {
 
     @GetMapping("/api/auth/getUserBy/{id}")
     UserResponseDto getUserById(@PathVariable("id") int id);
 
+    /**
+     * Looks up several users in one call. Unknown IDs are left out of the result.
+     *
+     * @param ids the user IDs
+     * @return the users found, in any order
+     */
+    @PostMapping("/api/auth/getUsersByIds")
+    List<UserResponseDto> getUsersByIds(@RequestBody List<Integer> ids);
+
     @PutMapping("/api/auth/wallet/{id}")
     void updateWalletBalance(@PathVariable("id") int id, @RequestBody Double amount);
 }
-
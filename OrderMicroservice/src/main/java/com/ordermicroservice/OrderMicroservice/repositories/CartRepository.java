@@ -1,15 +1,147 @@
 package com.ordermicroservice.OrderMicroservice.repositories;
 
 import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartRepository extends JpaRepository<Cart, Integer> {
+public interface CartRepository extends JpaRepository<Cart, Integer>, CartRepositoryCustom {
     Optional<Cart> findByUserIdAndMenuItemIdAndRestaurantId(int userId, int menuItemId, int restaurantId);
     List<Cart> findByUserId(int userId);
     List<Cart> findByUserIdAndRestaurantId(int userId , int restaurantId);
+
+    /**
+     * Adds one of a menu item to a user's cart in a single statement: inserts the cart item, or, if
+     * the cart holds it already, adds one to its quantity and prices the line from the unit price.
+     * The unique index on {@code (user_id, restaurant_id, menu_item_id)} makes concurrent first adds
+     * of an item end in one row. PostgreSQL only.
+     *
+     * @param userId the user ID
+     * @param restaurantId the restaurant ID
+     * @param menuItemId the menu item ID
+     * @param price the unit price, used only if the item is inserted
+     * @param now the time of the change
+     * @return the quantity of the item after the add, 1 if it was inserted
+     */
+    @Transactional
+    @Query(value = "INSERT INTO carts (user_id, restaurant_id, menu_item_id, quantity, price, unit_price, "
+            + "created_at, updated_at) "
+            + "VALUES (:userId, :restaurantId, :menuItemId, 1, :price, :price, :now, :now) "
+            + "ON CONFLICT (user_id, restaurant_id, menu_item_id) DO UPDATE SET "
+            + "quantity = carts.quantity + 1, "
+            + "unit_price = COALESCE(carts.unit_price, carts.price / carts.quantity), "
+            + "price = COALESCE(carts.unit_price, carts.price / carts.quantity) * (carts.quantity + 1), "
+            + "updated_at = EXCLUDED.updated_at "
+            + "RETURNING quantity", nativeQuery = true)
+    int addOne(@Param("userId") int userId, @Param("restaurantId") int restaurantId,
+               @Param("menuItemId") int menuItemId, @Param("price") BigDecimal price,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes all the items of a user's cart in one statement.
+     *
+     * @param userId the user ID
+     * @return the number of items deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.userId = :userId")
+    int deleteAllByUserIdInBatch(@Param("userId") int userId);
+
+    /**
+     * Changes the quantity of a cart item in place, unless that leaves none, and prices the line
+     * from the unit price. Items saved before the unit price was kept get it from their line price.
+     *
+     * @param cartId the cart item ID
+     * @param delta the quantity to add, negative to take away
+     * @param now the time of the change
+     * @return 1 if the item was changed, 0 if it does not exist or would be left with none
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.quantity = c.quantity + :delta, "
+            + "c.unitPrice = COALESCE(c.unitPrice, c.price / c.quantity), "
+            + "c.price = COALESCE(c.unitPrice, c.price / c.quantity) * (c.quantity + :delta), "
+            + "c.updatedAt = :now "
+            + "WHERE c.cartId = :cartId AND c.quantity + :delta > 0")
+    int addToQuantity(@Param("cartId") int cartId, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes a cart item if taking the quantity away leaves none.
+     *
+     * @param cartId the cart item ID
+     * @param delta the quantity to add, negative to take away
+     * @return 1 if the item was deleted, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Cart c WHERE c.cartId = :cartId AND c.quantity + :delta <= 0")
+    int deleteIfNoneLeft(@Param("cartId") int cartId, @Param("delta") int delta);
+
+    /**
+     * Locks a batch of the cart items left unchanged since a time, the oldest first, as a range of
+     * the index on {@code updated_at}. Items locked by other transactions, such as an order being
+     * placed, are skipped rather than waited for. The skip needs the dialect of PostgreSQL 9.5 or
+     * later; older dialects drop it and wait.
+     *
+     * @param cutoff the time
+     * @param pageable the batch size; the page number must be 0
+     * @return the locked cart items
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT c FROM Cart c WHERE c.updatedAt < :cutoff ORDER BY c.updatedAt")
+    List<Cart> lockUnchangedSince(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    long countByUpdatedAtBefore(LocalDateTime cutoff);
+
+    /**
+     * Finds a batch of the cart items saved before their changes were timed.
+     *
+     * @param pageable the batch size; the page number must be 0
+     * @return the cart item IDs
+     */
+    @Query("SELECT c.cartId FROM Cart c WHERE c.updatedAt IS NULL")
+    List<Integer> findUntimedIds(Pageable pageable);
+
+    /**
+     * Times cart items saved before their changes were timed as if changed now, so that they
+     * expire a full time to live later.
+     *
+     * @param cartIds the cart item IDs
+     * @param now the time
+     * @return the number of items timed
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.updatedAt = :now, c.createdAt = COALESCE(c.createdAt, :now) "
+            + "WHERE c.cartId IN :cartIds AND c.updatedAt IS NULL")
+    int time(@Param("cartIds") List<Integer> cartIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Times the items of users' carts as changed now, unless changed since a time, so that the
+     * carts in use are not swept.
+     *
+     * @param userIds the user IDs
+     * @param changedBefore the time
+     * @param now the time of the change
+     * @return the number of items timed
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.updatedAt = :now WHERE c.userId IN :userIds "
+            + "AND (c.updatedAt IS NULL OR c.updatedAt < :changedBefore)")
+    int touch(@Param("userIds") Collection<Integer> userIds, @Param("changedBefore") LocalDateTime changedBefore,
+              @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,34 @@
+package com.ordermicroservice.OrderMicroservice.repositories;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cart statements run as JDBC batches, sent to the database together rather than one round trip
+ * each.
+ */
+public interface CartRepositoryCustom {
+
+    /**
+     * Adds items to carts: inserts the items a cart does not hold, and adds to the quantity of
+     * those it does, pricing their lines from their unit price. The items must be different.
+     * PostgreSQL only.
+     *
+     * @param items the items, with their user, restaurant, menu item, quantity and unit price
+     * @param now the time of the change
+     */
+    @Transactional
+    void addAll(List<Cart> items, LocalDateTime now);
+
+    /**
+     * Inserts items that carts do not hold.
+     *
+     * @param items the items, with their user, restaurant, menu item, quantity and unit price
+     * @param now the time of the change
+     */
+    @Transactional
+    void insertAll(List<Cart> items, LocalDateTime now);
+}
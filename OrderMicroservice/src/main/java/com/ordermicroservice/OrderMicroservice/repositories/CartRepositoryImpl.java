@@ -0,0 +1,54 @@
+package com.ordermicroservice.OrderMicroservice.repositories;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class CartRepositoryImpl implements CartRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO carts (user_id, restaurant_id, menu_item_id, quantity, price, "
+            + "unit_price, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ADD = INSERT
+            + " ON CONFLICT (user_id, restaurant_id, menu_item_id) DO UPDATE SET "
+            + "quantity = carts.quantity + EXCLUDED.quantity, "
+            + "unit_price = COALESCE(carts.unit_price, carts.price / carts.quantity), "
+            + "price = COALESCE(carts.unit_price, carts.price / carts.quantity) * (carts.quantity + EXCLUDED.quantity), "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CartRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addAll(List<Cart> items, LocalDateTime now) {
+        batch(ADD, items, now);
+    }
+
+    @Override
+    public void insertAll(List<Cart> items, LocalDateTime now) {
+        batch(INSERT, items, now);
+    }
+
+    private void batch(String sql, List<Cart> items, LocalDateTime now) {
+        Timestamp time = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(sql, items, items.size(), (statement, item) -> {
+            statement.setInt(1, item.getUserId());
+            statement.setInt(2, item.getRestaurantId());
+            statement.setInt(3, item.getMenuItemId());
+            statement.setInt(4, item.getQuantity());
+            statement.setBigDecimal(5, item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            statement.setBigDecimal(6, item.getUnitPrice());
+            statement.setTimestamp(7, time);
+            statement.setTimestamp(8, time);
+        });
+    }
+}
@@ -8,6 +8,8 @@ import java.util.List;
 
 public interface CartService {
     CommonResponseDto addItemToCart(CartItemRequestDto cartItemRequestDto);
+    CommonResponseDto addItemsToCart(List<CartItemRequestDto> cartItemRequestDtos);
+    CommonResponseDto replaceCart(int userId, List<CartItemRequestDto> cartItemRequestDtos);
     CommonResponseDto updateCartItemQuantity(int cartId, int quantityChange);
     CommonResponseDto removeItemFromCart(int cartId);
     CommonResponseDto clearCartAfterOrderPlaced(int userId, int restaurantId);
@@ -0,0 +1,96 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+
+import java.math.BigDecimal;
+
+/**
+ * A change to one cart item waiting to be written to the carts table: its new quantity and prices,
+ * or its removal. Changes give the whole new state of the item, so writing one twice does no harm.
+ */
+final class CartChange {
+
+    private final int cartId;
+
+    private final int userId;
+
+    /** The new quantity, 0 if the item is removed. */
+    private final int quantity;
+
+    private final BigDecimal price;
+
+    private final BigDecimal unitPrice;
+
+    private CartChange(int cartId, int userId, int quantity, BigDecimal price, BigDecimal unitPrice) {
+        this.cartId = cartId;
+        this.userId = userId;
+        this.quantity = quantity;
+        this.price = price;
+        this.unitPrice = unitPrice;
+    }
+
+    static CartChange update(Cart item) {
+        return new CartChange(item.getCartId(), item.getUserId(), item.getQuantity(), item.getPrice(),
+                item.getUnitPrice());
+    }
+
+    static CartChange removal(Cart item) {
+        return new CartChange(item.getCartId(), item.getUserId(), 0, null, null);
+    }
+
+    int getCartId() {
+        return cartId;
+    }
+
+    int getUserId() {
+        return userId;
+    }
+
+    boolean isRemoval() {
+        return quantity == 0;
+    }
+
+    /**
+     * Applies the change to the row of the item.
+     *
+     * @param row the row, as loaded from the carts table
+     */
+    void applyTo(Cart row) {
+        row.setQuantity(quantity);
+        row.setPrice(price);
+        row.setUnitPrice(unitPrice);
+    }
+
+    /**
+     * Writes the change as a journal line: {@code cartId userId quantity price unitPrice}, without
+     * the prices for a removal.
+     *
+     * @return the line, without the line break
+     */
+    String toJournalLine() {
+        return isRemoval()
+                ? cartId + " " + userId + " 0"
+                : cartId + " " + userId + " " + quantity + " " + price.toPlainString() + " " + unitPrice.toPlainString();
+    }
+
+    /**
+     * Reads a change back from its journal line.
+     *
+     * @param line the line
+     * @return the change
+     * @throws IllegalArgumentException if the line is not a change
+     */
+    static CartChange fromJournalLine(String line) {
+        String[] fields = line.split(" ");
+        try {
+            int quantity = Integer.parseInt(fields[2]);
+            if (quantity == 0) {
+                return new CartChange(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), 0, null, null);
+            }
+            return new CartChange(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), quantity,
+                    new BigDecimal(fields[3]), new BigDecimal(fields[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Not a cart change: " + line, e);
+        }
+    }
+}
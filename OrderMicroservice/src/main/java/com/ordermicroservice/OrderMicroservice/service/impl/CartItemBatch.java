@@ -0,0 +1,84 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.exceptions.InvalidCartRequestException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the items of a batch of cart requests, all for one user, and merges the requests for the
+ * same item. A request without a quantity stands for one of the item.
+ */
+final class CartItemBatch {
+
+    /** Most items in one batch. */
+    static final int MAX_ITEMS = 100;
+
+    private CartItemBatch() {
+    }
+
+    /**
+     * Gets the user a batch of items to add is for.
+     *
+     * @param requests the requests
+     * @return the user ID
+     * @throws InvalidCartRequestException if there are no requests
+     */
+    static int userOf(List<CartItemRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidCartRequestException("No items to add.");
+        }
+        return requests.get(0).getUserId();
+    }
+
+    /**
+     * Merges the requests of a batch into the items to add, one per menu item and restaurant, in
+     * the order they are first requested. No requests make no items.
+     *
+     * @param userId the user the batch is for
+     * @param requests the requests
+     * @return the items, with their quantity, unit price and line price
+     * @throws InvalidCartRequestException if the batch is too long, or a request is for another
+     *                                     user, has a negative quantity or no price
+     */
+    static List<Cart> merge(int userId, List<CartItemRequestDto> requests) {
+        if (requests == null) {
+            return new ArrayList<>();
+        }
+        if (requests.size() > MAX_ITEMS) {
+            throw new InvalidCartRequestException("At most " + MAX_ITEMS + " items can be added at once.");
+        }
+        Map<Long, Cart> items = new LinkedHashMap<>();
+        for (CartItemRequestDto request : requests) {
+            if (request.getUserId() != userId) {
+                throw new InvalidCartRequestException("All items must be for the same user.");
+            }
+            if (request.getQuantity() < 0) {
+                throw new InvalidCartRequestException("Item quantities cannot be negative.");
+            }
+            if (request.getPrice() == null) {
+                throw new InvalidCartRequestException("Every item needs a price.");
+            }
+            Cart item = items.computeIfAbsent(key(request.getRestaurantId(), request.getMenuItemId()), key -> {
+                Cart first = new Cart(userId, request.getRestaurantId(), request.getMenuItemId(), 0);
+                first.setUnitPrice(request.getPrice());
+                return first;
+            });
+            item.setQuantity(item.getQuantity() + Math.max(1, request.getQuantity()));
+            item.setPrice(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return new ArrayList<>(items.values());
+    }
+
+    /**
+     * Gets the key of an item of a cart, unique like the item's row.
+     */
+    static long key(int restaurantId, int menuItemId) {
+        return ((long) restaurantId << 32) | (menuItemId & 0xFFFFFFFFL);
+    }
+}
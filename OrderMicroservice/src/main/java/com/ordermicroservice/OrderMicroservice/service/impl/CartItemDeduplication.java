@@ -0,0 +1,101 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * Merges the duplicate items of carts, so that the schema update can create the unique index that
+ * adding an item relies on.
+ * <p>
+ * Before adding an item became an upsert, two adds of a new item that raced could both insert it.
+ * On a database holding such duplicates the unique index on {@code (user_id, restaurant_id,
+ * menu_item_id)} cannot be created, and without it every add fails. So, until the index exists, each
+ * startup keeps the lowest {@code cart_id} of every duplicated item, with the quantities of all its
+ * rows summed and its line priced from its unit price, and deletes the other rows. This runs before
+ * the entity manager factory, and so before the schema update.
+ * </p>
+ */
+@Component
+public class CartItemDeduplication {
+
+    private static final Logger log = LoggerFactory.getLogger(CartItemDeduplication.class);
+
+    static final String UNIQUE_INDEX = "uk_carts_user_restaurant_menu_item";
+
+    private static final String SAME_ITEM = "d.user_id = carts.user_id AND d.restaurant_id = carts.restaurant_id "
+            + "AND d.menu_item_id = carts.menu_item_id";
+
+    // Set from the old values of the row, so the unit price comes from its own price and quantity
+    private static final String MERGE = "UPDATE carts SET "
+            + "quantity = (SELECT SUM(d.quantity) FROM carts d WHERE " + SAME_ITEM + "), "
+            + "unit_price = COALESCE(unit_price, price / NULLIF(quantity, 0)), "
+            + "price = COALESCE(unit_price, price / NULLIF(quantity, 0)) "
+            + "* (SELECT SUM(d.quantity) FROM carts d WHERE " + SAME_ITEM + "), "
+            + "updated_at = (SELECT MAX(d.updated_at) FROM carts d WHERE " + SAME_ITEM + ") "
+            + "WHERE cart_id IN (SELECT MIN(cart_id) FROM carts "
+            + "GROUP BY user_id, restaurant_id, menu_item_id HAVING COUNT(*) > 1)";
+
+    private static final String DELETE_DUPLICATES = "DELETE FROM carts WHERE EXISTS "
+            + "(SELECT 1 FROM carts d WHERE " + SAME_ITEM + " AND d.cart_id < carts.cart_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // On the data source directly: the JPA transaction manager needs the entity manager factory
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CartItemDeduplication(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Merges the duplicate cart items, unless the carts table is new or already has its unique index.
+     */
+    @PostConstruct
+    public void mergeDuplicates() {
+        if (!needsMerge()) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(MERGE);
+            return jdbcTemplate.update(DELETE_DUPLICATES);
+        });
+        if (deleted != null && deleted > 0) {
+            log.warn("Merged {} duplicate cart items into the rows they duplicated", deleted);
+        }
+    }
+
+    private boolean needsMerge() {
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables"
+                + " WHERE LOWER(table_schema) = LOWER(CURRENT_SCHEMA) AND LOWER(table_name) = 'carts'", Integer.class);
+        if (tables == null || tables == 0) {
+            return false;
+        }
+        // The schema update adds the index as a unique constraint
+        Integer constraints = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints"
+                + " WHERE LOWER(table_schema) = LOWER(CURRENT_SCHEMA) AND LOWER(table_name) = 'carts'"
+                + " AND LOWER(constraint_name) = ?", Integer.class, UNIQUE_INDEX);
+        return constraints == null || constraints == 0;
+    }
+
+    /**
+     * Makes the entity manager factory wait for the merge.
+     */
+    @Component
+    static class MergeBeforeSchemaUpdate extends EntityManagerFactoryDependsOnPostProcessor {
+
+        MergeBeforeSchemaUpdate() {
+            super(CartItemDeduplication.class);
+        }
+    }
+}
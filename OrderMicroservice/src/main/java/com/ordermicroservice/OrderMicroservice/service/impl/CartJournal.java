@@ -0,0 +1,128 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An append-only journal of the cart changes not yet written to the carts table, kept on local disk
+ * as numbered segment files {@code cart-journal-<n>.log}.
+ * <p>
+ * Every change is handed to the operating system as it is made, so that the changes survive the
+ * service going down; only a crash of the machine itself can lose the last ones. Writing out the
+ * pending changes starts a new segment, and the older segments are deleted once the changes are
+ * in the table. After a crash, the segments left over hold the changes still to be written, in
+ * order. Not thread-safe.
+ * </p>
+ */
+final class CartJournal implements Closeable {
+
+    private static final String PREFIX = "cart-journal-";
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+
+    private long segment;
+
+    private BufferedWriter writer;
+
+    /**
+     * Opens the journal in a directory, after the segments already in it.
+     *
+     * @param directory the directory, created if missing
+     * @throws IOException if the directory or the new segment cannot be created
+     */
+    CartJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Long> segments = segments();
+        segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        writer = open(segment);
+    }
+
+    /**
+     * Reads the changes left over in the segments before the current one, in the order they were
+     * made. A last line cut short by a crash, without its line break, is left out.
+     *
+     * @return the changes
+     * @throws IOException if a segment cannot be read
+     */
+    List<CartChange> readLeftOver() throws IOException {
+        List<CartChange> changes = new ArrayList<>();
+        for (long number : segments()) {
+            if (number >= segment) {
+                break;
+            }
+            String content = new String(Files.readAllBytes(path(number)), StandardCharsets.UTF_8);
+            int start = 0;
+            for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+                changes.add(CartChange.fromJournalLine(content.substring(start, end)));
+                start = end + 1;
+            }
+        }
+        return changes;
+    }
+
+    void append(CartChange change) throws IOException {
+        writer.write(change.toJournalLine());
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Closes the current segment and starts the next one.
+     *
+     * @return the number of the closed segment
+     * @throws IOException if the next segment cannot be created
+     */
+    long rotate() throws IOException {
+        writer.close();
+        writer = open(segment + 1);
+        return segment++;
+    }
+
+    /**
+     * Deletes the segments up to a closed one, once their changes are in the table.
+     *
+     * @param last the number of the last segment to delete
+     * @throws IOException if a segment cannot be deleted
+     */
+    void deleteUpTo(long last) throws IOException {
+        for (long number : segments()) {
+            if (number <= last && number < segment) {
+                Files.deleteIfExists(path(number));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private BufferedWriter open(long number) throws IOException {
+        return Files.newBufferedWriter(path(number), StandardCharsets.UTF_8);
+    }
+
+    private Path path(long number) {
+        return directory.resolve(PREFIX + number + SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -4,79 +4,106 @@ import com.ordermicroservice.OrderMicroservice.dtos.*;
 import com.ordermicroservice.OrderMicroservice.entities.Cart;
 import com.ordermicroservice.OrderMicroservice.exceptions.CartItemNotFoundException;
 import com.ordermicroservice.OrderMicroservice.exceptions.DifferentRestaurantException;
+import com.ordermicroservice.OrderMicroservice.exceptions.ServiceUnavailableException;
 import com.ordermicroservice.OrderMicroservice.exceptions.UnauthorizedActionException;
-import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
 import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
 import com.ordermicroservice.OrderMicroservice.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "jpa", matchIfMissing = true)
 public class CartServiceImpl implements CartService {
 
+    /** Most times a change of quantity is tried while the item keeps changing under it. */
+    static final int MAX_QUANTITY_ATTEMPTS = 3;
+
     @Autowired
     private CartRepository cartRepository;
 
     @Autowired
-    private UserFeignClient userFeignClient;
+    private UserCache userCache;
     @Override
+    @Transactional
     public CommonResponseDto addItemToCart(CartItemRequestDto cartItemRequestDto) {
         // Validate User
-        UserResponseDto user = userFeignClient.getUserById(cartItemRequestDto.getUserId());
-        if (user == null || !user.getRole().equals("CUSTOMER")) {
-            throw new UnauthorizedActionException("Only customers can add items to the cart.");
-        }
-        List<Cart> existingCartItems = cartRepository.findByUserId(cartItemRequestDto.getUserId());
-
-       /* if (!existingCartItems.isEmpty()) {
+        validateCustomer(cartItemRequestDto.getUserId());
+       /* List<Cart> existingCartItems = cartRepository.findByUserId(cartItemRequestDto.getUserId());
+        if (!existingCartItems.isEmpty()) {
             Integer existingRestaurantId = existingCartItems.get(0).getRestaurantId();
             if (!existingRestaurantId.equals(cartItemRequestDto.getRestaurantId())) {
                 throw new DifferentRestaurantException("You can only add items from one restaurant at a time. Please clear your cart before adding items from a different restaurant.");
             }
         }*/
 
-        Optional<Cart> existingCartItem = cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(
-                cartItemRequestDto.getUserId(), cartItemRequestDto.getMenuItemId(), cartItemRequestDto.getRestaurantId());
-
-        if (existingCartItem.isPresent()) {
-            return updateCartItemQuantity(existingCartItem.get().getCartId(), 1);
-        } else {
+        // Inserts the item or adds one to it in one statement, so that concurrent adds neither
+        // duplicate the item nor lose a unit
+        int quantity = cartRepository.addOne(cartItemRequestDto.getUserId(), cartItemRequestDto.getRestaurantId(),
+                cartItemRequestDto.getMenuItemId(), cartItemRequestDto.getPrice(), LocalDateTime.now());
+        return new CommonResponseDto(quantity == 1 ? "Cart Added Successfully" : "Cart Updated Successfully");
+    }
 
-            return addNewCartItem(cartItemRequestDto);
+    /**
+     * Adds a batch of items to a user's cart, validating the user once and sending all the items
+     * to the database in one batch.
+     */
+    @Override
+    @Transactional
+    public CommonResponseDto addItemsToCart(List<CartItemRequestDto> cartItemRequestDtos) {
+        int userId = CartItemBatch.userOf(cartItemRequestDtos);
+        validateCustomer(userId);
+        // Merged first, as one upsert statement cannot change the same row twice
+        cartRepository.addAll(CartItemBatch.merge(userId, cartItemRequestDtos), LocalDateTime.now());
+        return new CommonResponseDto("Items Added Successfully");
+    }
 
+    /**
+     * Replaces all the items of a user's cart with a batch of items, or empties it, in one
+     * transaction.
+     */
+    @Override
+    @Transactional
+    public CommonResponseDto replaceCart(int userId, List<CartItemRequestDto> cartItemRequestDtos) {
+        validateCustomer(userId);
+        List<Cart> items = CartItemBatch.merge(userId, cartItemRequestDtos);
+        cartRepository.deleteAllByUserIdInBatch(userId);
+        if (!items.isEmpty()) {
+            cartRepository.insertAll(items, LocalDateTime.now());
         }
-
+        return new CommonResponseDto("Cart Replaced Successfully");
     }
-    private CommonResponseDto addNewCartItem(CartItemRequestDto cartItemRequestDto) {
-        Cart newCart = new Cart();
-        newCart.setUserId(cartItemRequestDto.getUserId());
-        newCart.setMenuItemId(cartItemRequestDto.getMenuItemId());
-        newCart.setRestaurantId(cartItemRequestDto.getRestaurantId());
-        newCart.setQuantity(1);
-        newCart.setPrice(cartItemRequestDto.getPrice());
-        cartRepository.save(newCart);
-        return new CommonResponseDto("Cart Added Successfully");
 
+    private void validateCustomer(int userId) {
+        UserResponseDto user = userCache.getUser(userId);
+        if (user == null || !user.getRole().equals("CUSTOMER")) {
+            throw new UnauthorizedActionException("Only customers can add items to the cart.");
+        }
     }
     @Override
+    @Transactional
     public CommonResponseDto updateCartItemQuantity(int cartId, int quantityChange) {
-        Cart cart = getCartById(cartId);
-
-        BigDecimal unitPrice = cart.getPrice().divide(BigDecimal.valueOf(cart.getQuantity()), BigDecimal.ROUND_HALF_EVEN);
-        int newQuantity = Math.max(0, cart.getQuantity() + quantityChange);
-        if (newQuantity == 0) {
-            cartRepository.deleteById(cartId);
-            return new CommonResponseDto("Item Removed Successfully");
+        // The quantity is changed in the database rather than read and written back, so that
+        // concurrent changes to the same item all count. If the item changes between the two
+        // statements, neither applies and they are tried again, a few times at most.
+        for (int attempt = 0; attempt < MAX_QUANTITY_ATTEMPTS; attempt++) {
+            if (cartRepository.addToQuantity(cartId, quantityChange, LocalDateTime.now()) == 1) {
+                return new CommonResponseDto("Cart Updated Successfully");
+            }
+            if (cartRepository.deleteIfNoneLeft(cartId, quantityChange) == 1) {
+                return new CommonResponseDto("Item Removed Successfully");
+            }
+            if (!cartRepository.existsById(cartId)) {
+                throw new CartItemNotFoundException("Cart Item Not Found");
+            }
         }
-        BigDecimal newPrice = unitPrice.multiply(BigDecimal.valueOf(newQuantity));
-        cart.setQuantity(newQuantity);
-        cart.setPrice(newPrice);
-        cartRepository.save(cart);
-        return new CommonResponseDto("Cart Updated Successfully");  }
+        throw new ServiceUnavailableException("Cart item is being changed by another request, please try again");
+    }
 
     @Override
     public CommonResponseDto removeItemFromCart(int cartId) {
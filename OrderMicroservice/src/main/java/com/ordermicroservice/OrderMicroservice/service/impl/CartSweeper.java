@@ -0,0 +1,212 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes the cart items left unchanged for longer than {@code cart.ttl-hours}, every
+ * {@code cart.sweep.interval-seconds}.
+ * <p>
+ * Expired items are deleted in batches of {@code cart.sweep.batch-size}, oldest first, each batch in
+ * a short transaction of its own and with a pause of {@code cart.sweep.pause-millis} between two
+ * batches, so that the sweep never holds many locks nor holds them long. Items locked by other
+ * transactions, such as an order being placed, are skipped and left to the next sweep. Items saved
+ * before their changes were timed are timed first, in batches too, and expire a full time to live
+ * later.
+ * </p>
+ * <p>
+ * With {@code cart.store=memory}, changes reach the table within the flush interval and time the
+ * items then, and the items of the carts held in memory are timed again every half time to live,
+ * so that they are never swept while the store may still write to them.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "cart.sweep.enabled", matchIfMissing = true)
+public class CartSweeper implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CartSweeper.class);
+
+    private final CartRepository cartRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+
+    private final int batchSize;
+
+    private final long pauseMillis;
+
+    private final Clock clock;
+
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder deleted = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    /** Expired items still to delete, as of the start of the last sweep, less those deleted since. */
+    private final AtomicLong backlog = new AtomicLong();
+
+    private volatile double lastSweepSeconds;
+
+    @Autowired
+    public CartSweeper(CartRepository cartRepository, PlatformTransactionManager transactionManager,
+                       @Value("${cart.ttl-hours:168}") long ttlHours,
+                       @Value("${cart.sweep.interval-seconds:300}") long intervalSeconds,
+                       @Value("${cart.sweep.batch-size:500}") int batchSize,
+                       @Value("${cart.sweep.pause-millis:100}") long pauseMillis) {
+        this(cartRepository, transactionManager, ttlHours, intervalSeconds, batchSize, pauseMillis,
+                Clock.systemDefaultZone());
+    }
+
+    CartSweeper(CartRepository cartRepository, PlatformTransactionManager transactionManager, long ttlHours,
+                long intervalSeconds, int batchSize, long pauseMillis, Clock clock) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.clock = clock;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Deletes the expired cart items, stopping early if the thread is interrupted.
+     *
+     * @return the number of items deleted
+     */
+    public int sweep() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        timeUntimedItems(now);
+        LocalDateTime cutoff = now.minus(ttl);
+        backlog.set(cartRepository.countByUpdatedAtBefore(cutoff));
+        int sweptCount = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Cart> expired = cartRepository.lockUnchangedSince(cutoff, PageRequest.of(0, batchSize));
+                if (!expired.isEmpty()) {
+                    cartRepository.deleteAllByIdInBatch(
+                            expired.stream().map(Cart::getCartId).collect(Collectors.toList()));
+                }
+                return expired.size();
+            });
+            batches.increment();
+            deleted.add(count);
+            backlog.updateAndGet(remaining -> Math.max(0, remaining - count));
+            sweptCount += count;
+            // A short batch means the rest is gone, or locked by others
+            if (count < batchSize || !pause()) {
+                break;
+            }
+        }
+        lastSweepSeconds = (System.nanoTime() - start) / 1e9;
+        return sweptCount;
+    }
+
+    public long getDeletedCount() {
+        return deleted.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getBacklog() {
+        return backlog.get();
+    }
+
+    public double getLastSweepSeconds() {
+        return lastSweepSeconds;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cart.sweep.deleted", this, CartSweeper::getDeletedCount)
+                .description("Expired cart items deleted")
+                .register(registry);
+        FunctionCounter.builder("cart.sweep.batches", this, CartSweeper::getBatchCount)
+                .description("Batches of expired cart items deleted")
+                .register(registry);
+        Gauge.builder("cart.sweep.backlog", this, CartSweeper::getBacklog)
+                .description("Expired cart items still to delete")
+                .register(registry);
+        Gauge.builder("cart.sweep.last.duration", this, CartSweeper::getLastSweepSeconds)
+                .description("Seconds taken by the last sweep")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweepQuietly() {
+        try {
+            int count = sweep();
+            if (count > 0) {
+                log.info("Deleted {} expired cart items", count);
+            }
+        } catch (RuntimeException e) {
+            // The items left are deleted by the next sweep
+            log.warn("Could not delete the expired cart items", e);
+        }
+    }
+
+    private void timeUntimedItems(LocalDateTime now) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Integer> untimed = cartRepository.findUntimedIds(PageRequest.of(0, batchSize));
+            if (!untimed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> cartRepository.time(untimed, now));
+            }
+            if (untimed.size() < batchSize || !pause()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Leaves the database to other transactions for a while.
+     *
+     * @return false if interrupted
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
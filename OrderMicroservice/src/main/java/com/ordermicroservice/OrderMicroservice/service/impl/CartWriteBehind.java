@@ -0,0 +1,270 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the cart changes made in memory and writes them to the carts table in batches.
+ * <p>
+ * Changes to the same item are coalesced, only the last one being written. Each batch is written in
+ * one transaction: the removed items in one bulk delete, the changed ones loaded in one query and
+ * updated in JDBC batches. A batch that fails is put back, behind any newer change to its items,
+ * and written with the next one.
+ * </p>
+ * <p>
+ * Unless {@code cart.memory.journal-dir} is empty, every change also goes to a {@link CartJournal}
+ * before it is made, and the changes a crash left in the journal are written to the table when the
+ * service starts again. Without the journal, the changes made since the last batch are lost with
+ * the service.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store", havingValue = "memory")
+public class CartWriteBehind implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehind.class);
+
+    private final CartRepository cartRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path journalDirectory;
+
+    /** The journal, null if disabled. Guarded by {@code this}. */
+    private CartJournal journal;
+
+    /** The changes not yet written, by cart item ID. Changed only while holding {@code this}. */
+    private final ConcurrentMap<Integer, CartChange> pending = new ConcurrentHashMap<>();
+
+    /** The number of changes not yet written, by user ID. Guarded by {@code this}. */
+    private final Map<Integer, Integer> pendingByUser = new HashMap<>();
+
+    /** Held while a batch is written, so that batches are written one at a time and in order. */
+    private final Object writeLock = new Object();
+
+    private final LongAdder written = new LongAdder();
+
+    /** Number of changes recorded. Guarded by {@code this}. */
+    private long recorded;
+
+    /** Number of the first changes recorded that are all in the table. */
+    private volatile long writtenThrough;
+
+    @Autowired
+    public CartWriteBehind(CartRepository cartRepository, PlatformTransactionManager transactionManager,
+                           @Value("${cart.memory.journal-dir:./data/cart-journal}") String journalDirectory) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journalDirectory = journalDirectory.isEmpty() ? null : Paths.get(journalDirectory);
+    }
+
+    /**
+     * Opens the journal and writes the changes a crash left in it to the table.
+     *
+     * @throws IOException if the journal cannot be read or opened
+     */
+    @Override
+    public synchronized void afterPropertiesSet() throws IOException {
+        if (journalDirectory == null) {
+            return;
+        }
+        journal = new CartJournal(journalDirectory);
+        List<CartChange> leftOver = journal.readLeftOver();
+        if (!leftOver.isEmpty()) {
+            Map<Integer, CartChange> changes = new LinkedHashMap<>();
+            leftOver.forEach(change -> changes.put(change.getCartId(), change));
+            write(changes.values());
+            log.info("Recovered {} cart changes from the journal in {}", changes.size(), journalDirectory);
+        }
+        journal.deleteUpTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * Records a change to be written with the next batch. A change that cannot be journaled is not
+     * recorded, and should not be made.
+     *
+     * @param change the change
+     * @return the sequence number of the change, to compare with {@link #getWrittenThrough()}
+     * @throws UncheckedIOException if the journal cannot be written
+     */
+    synchronized long record(CartChange change) {
+        if (journal != null) {
+            try {
+                journal.append(change);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal the cart change", e);
+            }
+        }
+        if (pending.put(change.getCartId(), change) == null) {
+            pendingByUser.merge(change.getUserId(), 1, Integer::sum);
+        }
+        return ++recorded;
+    }
+
+    /**
+     * Writes the pending changes to the table.
+     */
+    public void flush() {
+        flush(() -> { });
+    }
+
+    /**
+     * Writes the pending changes to the table, then runs a task before any other batch is written.
+     *
+     * @param then the task, run only if the changes were written
+     */
+    void flush(Runnable then) {
+        synchronized (writeLock) {
+            Map<Integer, CartChange> batch = new LinkedHashMap<>();
+            long segment = -1;
+            long through;
+            synchronized (this) {
+                through = recorded;
+                batch.putAll(pending);
+                pending.clear();
+                pendingByUser.clear();
+                if (journal != null && !batch.isEmpty()) {
+                    try {
+                        segment = journal.rotate();
+                    } catch (IOException e) {
+                        putBack(batch);
+                        throw new UncheckedIOException("Could not start a new cart journal segment", e);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch.values());
+                } catch (RuntimeException e) {
+                    putBack(batch);
+                    throw e;
+                }
+                written.add(batch.size());
+                if (segment >= 0) {
+                    deleteJournalUpTo(segment);
+                }
+            }
+            writtenThrough = through;
+            then.run();
+        }
+    }
+
+    /**
+     * Times the items of users' carts as changed now, unless changed since a time, in a transaction
+     * of its own.
+     *
+     * @param userIds the user IDs
+     * @param changedBefore the time
+     */
+    void touch(Collection<Integer> userIds, LocalDateTime changedBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> cartRepository.touch(userIds, changedBefore, now));
+    }
+
+    /**
+     * Tells whether changes to a user's cart are waiting to be written.
+     *
+     * @param userId the user ID
+     * @return whether changes are waiting
+     */
+    synchronized boolean hasPendingChanges(int userId) {
+        return pendingByUser.containsKey(userId);
+    }
+
+    /**
+     * Gets the sequence number of the last change known to be in the table, every change recorded
+     * before it being in the table too.
+     *
+     * @return the sequence number
+     */
+    long getWrittenThrough() {
+        return writtenThrough;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Closes the journal. The pending changes are left in it, to be written at the next start, if
+     * they were not flushed before.
+     */
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void write(Collection<CartChange> changes) {
+        List<Integer> removed = new ArrayList<>();
+        Map<Integer, CartChange> updated = new LinkedHashMap<>();
+        for (CartChange change : changes) {
+            if (change.isRemoval()) {
+                removed.add(change.getCartId());
+            } else {
+                updated.put(change.getCartId(), change);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!removed.isEmpty()) {
+                cartRepository.deleteAllByIdInBatch(removed);
+            }
+            if (!updated.isEmpty()) {
+                for (Cart row : cartRepository.findAllById(updated.keySet())) {
+                    updated.get(row.getCartId()).applyTo(row);
+                }
+            }
+        });
+    }
+
+    /**
+     * Puts the changes of a batch that could not be written back, behind any newer change to their
+     * items.
+     */
+    private synchronized void putBack(Map<Integer, CartChange> batch) {
+        batch.forEach((cartId, change) -> {
+            if (pending.putIfAbsent(cartId, change) == null) {
+                pendingByUser.merge(change.getUserId(), 1, Integer::sum);
+            }
+        });
+    }
+
+    private synchronized void deleteJournalUpTo(long segment) {
+        try {
+            journal.deleteUpTo(segment);
+        } catch (IOException e) {
+            // The changes are in the table, and writing them again at the next start does no harm
+            log.warn("Could not delete the written cart journal segments", e);
+        }
+    }
+}
@@ -0,0 +1,615 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.CommonResponseDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.exceptions.CartItemNotFoundException;
+import com.ordermicroservice.OrderMicroservice.exceptions.ServiceUnavailableException;
+import com.ordermicroservice.OrderMicroservice.exceptions.UnauthorizedActionException;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart service keeping the carts in use in memory, selected with {@code cart.store=memory}.
+ * <p>
+ * A user's cart is loaded from the carts table the first time it is used, then read and changed
+ * in memory under a lock of its own, so that users never wait on each other. New items are
+ * inserted right away, to get their IDs; changes of quantity and removals are handed to the
+ * {@link CartWriteBehind} and written every {@code cart.memory.flush-interval-millis}, and before an
+ * order is placed. Carts left unused for {@code cart.memory.idle-minutes} are dropped from memory
+ * once their changes are written.
+ * </p>
+ * <p>
+ * The rows of a cart are timed as changed when it is loaded, and again every half
+ * {@code cart.ttl-hours} while it stays in memory, so that the {@link CartSweeper} never deletes
+ * the rows of a cart in memory, whose changes could then not be written.
+ * </p>
+ * <p>
+ * The carts in memory are the truth, so only one instance of the service may use this store.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "memory")
+public class InMemoryCartServiceImpl implements CartService, DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartServiceImpl.class);
+
+    /** Most carts whose rows are timed in one statement. */
+    private static final int TOUCH_BATCH_SIZE = 500;
+
+    /** Most times a change is tried while the cart keeps being evicted or its rows written under it. */
+    static final int MAX_ATTEMPTS = 3;
+
+    private final CartRepository cartRepository;
+
+    private final UserCache userCache;
+
+    private final CartWriteBehind writeBehind;
+
+    private final long idleMillis;
+
+    /** Time after which the rows of a cart in memory are timed again, half the time to live. */
+    private final long touchIntervalMillis;
+
+    private final Clock clock;
+
+    private final ScheduledExecutorService flusher;
+
+    /** The carts in memory, by user ID. */
+    private final ConcurrentMap<Integer, UserCart> carts = new ConcurrentHashMap<>();
+
+    /** The owners of the cart items in memory, by cart item ID. */
+    private final ConcurrentMap<Integer, Integer> owners = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemoryCartServiceImpl(CartRepository cartRepository, UserCache userCache, CartWriteBehind writeBehind,
+                                   @Value("${cart.memory.flush-interval-millis:1000}") long flushIntervalMillis,
+                                   @Value("${cart.memory.idle-minutes:30}") long idleMinutes,
+                                   @Value("${cart.ttl-hours:168}") long ttlHours) {
+        this(cartRepository, userCache, writeBehind, flushIntervalMillis, idleMinutes, ttlHours, Clock.systemUTC());
+    }
+
+    InMemoryCartServiceImpl(CartRepository cartRepository, UserCache userCache, CartWriteBehind writeBehind,
+                            long flushIntervalMillis, long idleMinutes, long ttlHours, Clock clock) {
+        this.cartRepository = cartRepository;
+        this.userCache = userCache;
+        this.writeBehind = writeBehind;
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+        this.touchIntervalMillis = TimeUnit.HOURS.toMillis(ttlHours) / 2;
+        this.clock = clock;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CommonResponseDto addItemToCart(CartItemRequestDto cartItemRequestDto) {
+        // Validate User
+        validateCustomer(cartItemRequestDto.getUserId());
+        return withInsertableCart(cartItemRequestDto.getUserId(), cart -> addItem(cart, cartItemRequestDto));
+    }
+
+    /**
+     * Adds one of an item to a cart.
+     *
+     * @return the response, or null if the item cannot be inserted until its earlier removal is
+     * written
+     */
+    private CommonResponseDto addItem(UserCart cart, CartItemRequestDto cartItemRequestDto) {
+        for (Cart item : cart.items.values()) {
+            if (item.getMenuItemId() == cartItemRequestDto.getMenuItemId()
+                    && item.getRestaurantId() == cartItemRequestDto.getRestaurantId()) {
+                setQuantity(item, item.getQuantity() + 1);
+                return new CommonResponseDto("Cart Updated Successfully");
+            }
+        }
+        if (!insertable(cart, CartItemBatch.key(cartItemRequestDto.getRestaurantId(),
+                cartItemRequestDto.getMenuItemId()))) {
+            return null;
+        }
+        Cart newCart = new Cart();
+        newCart.setUserId(cartItemRequestDto.getUserId());
+        newCart.setMenuItemId(cartItemRequestDto.getMenuItemId());
+        newCart.setRestaurantId(cartItemRequestDto.getRestaurantId());
+        newCart.setQuantity(1);
+        newCart.setPrice(cartItemRequestDto.getPrice());
+        newCart.setUnitPrice(cartItemRequestDto.getPrice());
+        Cart saved = copy(cartRepository.save(newCart));
+        cart.items.put(saved.getCartId(), saved);
+        owners.put(saved.getCartId(), saved.getUserId());
+        return new CommonResponseDto("Cart Added Successfully");
+    }
+
+    /**
+     * Adds a batch of items to a user's cart. The new items are inserted in one batch; the changes
+     * to the items already in the cart are written behind like any other.
+     */
+    @Override
+    public CommonResponseDto addItemsToCart(List<CartItemRequestDto> cartItemRequestDtos) {
+        int userId = CartItemBatch.userOf(cartItemRequestDtos);
+        validateCustomer(userId);
+        List<Cart> items = CartItemBatch.merge(userId, cartItemRequestDtos);
+        return withInsertableCart(userId, cart -> addItems(cart, items));
+    }
+
+    /**
+     * Adds items to a cart, to the quantity of those it holds.
+     *
+     * @return the response, or null if an item cannot be inserted until its earlier removal is
+     * written, in which case the cart is left as it was
+     */
+    private CommonResponseDto addItems(UserCart cart, List<Cart> items) {
+        Map<Long, Cart> held = byKey(cart);
+        List<Cart> added = new ArrayList<>();
+        for (Cart item : items) {
+            if (!held.containsKey(key(item))) {
+                if (!insertable(cart, key(item))) {
+                    return null;
+                }
+                added.add(item);
+            }
+        }
+        insert(cart, added);
+        for (Cart item : items) {
+            Cart heldItem = held.get(key(item));
+            if (heldItem != null) {
+                setQuantity(heldItem, heldItem.getQuantity() + item.getQuantity());
+            }
+        }
+        return new CommonResponseDto("Items Added Successfully");
+    }
+
+    /**
+     * Replaces the items of a user's cart with a batch of items. Other users never see the cart
+     * half replaced, and its changes are written in one batch.
+     */
+    @Override
+    public CommonResponseDto replaceCart(int userId, List<CartItemRequestDto> cartItemRequestDtos) {
+        validateCustomer(userId);
+        List<Cart> items = CartItemBatch.merge(userId, cartItemRequestDtos);
+        return withInsertableCart(userId, cart -> replaceItems(cart, items));
+    }
+
+    /**
+     * Replaces the items of a cart. The items it holds already are changed rather than removed and
+     * inserted again.
+     *
+     * @return the response, or null if an item cannot be inserted until its earlier removal is
+     * written, in which case the cart is left as it was
+     */
+    private CommonResponseDto replaceItems(UserCart cart, List<Cart> items) {
+        Map<Long, Cart> held = byKey(cart);
+        Map<Long, Cart> wanted = new HashMap<>();
+        List<Cart> added = new ArrayList<>();
+        for (Cart item : items) {
+            wanted.put(key(item), item);
+            if (!held.containsKey(key(item))) {
+                if (!insertable(cart, key(item))) {
+                    return null;
+                }
+                added.add(item);
+            }
+        }
+        insert(cart, added);
+        for (Cart heldItem : held.values()) {
+            Cart item = wanted.get(key(heldItem));
+            if (item == null) {
+                remove(cart, heldItem);
+            } else if (item.getQuantity() != heldItem.getQuantity()
+                    || item.getUnitPrice().compareTo(heldItem.getUnitPrice()) != 0) {
+                setLine(heldItem, item.getQuantity(), item.getUnitPrice());
+            }
+        }
+        return new CommonResponseDto("Cart Replaced Successfully");
+    }
+
+    @Override
+    public CommonResponseDto updateCartItemQuantity(int cartId, int quantityChange) {
+        return withItem(cartId, "Cart Item Not Found", (cart, item) -> {
+            int quantity = item.getQuantity() + quantityChange;
+            if (quantity <= 0) {
+                remove(cart, item);
+                return new CommonResponseDto("Item Removed Successfully");
+            }
+            setQuantity(item, quantity);
+            return new CommonResponseDto("Cart Updated Successfully");
+        });
+    }
+
+    @Override
+    public CommonResponseDto removeItemFromCart(int cartId) {
+        return withItem(cartId, "Cart item not found.", (cart, item) -> {
+            remove(cart, item);
+            return new CommonResponseDto("Item removed from cart successfully");
+        });
+    }
+
+    /**
+     * Removes the items of an order from the cart, then writes all pending changes, so that the
+     * table agrees with the order placed.
+     */
+    @Override
+    public CommonResponseDto clearCartAfterOrderPlaced(int userId, int restaurantId) {
+        boolean removed = withCart(userId, cart -> {
+            boolean any = false;
+            for (Iterator<Cart> items = cart.items.values().iterator(); items.hasNext(); ) {
+                Cart item = items.next();
+                if (item.getRestaurantId() == restaurantId) {
+                    long removal = writeBehind.record(CartChange.removal(item));
+                    cart.removals.put(key(item), removal);
+                    items.remove();
+                    owners.remove(item.getCartId());
+                    any = true;
+                }
+            }
+            return any;
+        });
+        writeBehind.flush();
+        return new CommonResponseDto(removed ? "Cart Deleted Successfully" : "Cart Already Empty");
+    }
+
+    @Override
+    public List<Cart> getCartItemsByUserIdAndRestaurantId(int userId, int restaurantId) {
+        return withCart(userId, cart -> {
+            List<Cart> items = new ArrayList<>();
+            for (Cart item : cart.items.values()) {
+                if (item.getRestaurantId() == restaurantId) {
+                    items.add(copy(item));
+                }
+            }
+            return items;
+        });
+    }
+
+    @Override
+    public List<Cart> getCartByUserId(int userId) {
+        return withCart(userId, cart -> {
+            List<Cart> items = new ArrayList<>();
+            cart.items.values().forEach(item -> items.add(copy(item)));
+            return items;
+        });
+    }
+
+    @Override
+    public Cart getCartById(int cartId) {
+        return withItem(cartId, "Cart Item Not Found", (cart, item) -> copy(item));
+    }
+
+    /**
+     * Gets the number of users whose carts are in memory.
+     *
+     * @return the user count
+     */
+    public int getUserCount() {
+        return carts.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cart.memory.users", this, InMemoryCartServiceImpl::getUserCount)
+                .description("Number of users whose carts are kept in memory")
+                .register(registry);
+        Gauge.builder("cart.memory.pending", writeBehind, CartWriteBehind::getPendingCount)
+                .description("Cart changes waiting to be written to the database")
+                .register(registry);
+        FunctionCounter.builder("cart.memory.written", writeBehind, CartWriteBehind::getWrittenCount)
+                .description("Cart changes written to the database")
+                .register(registry);
+    }
+
+    /**
+     * Stops the periodic writes and writes the changes still pending.
+     */
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        writeBehind.flush();
+    }
+
+    /**
+     * Writes the pending changes, then drops the idle carts and times the rows of the others when
+     * due. Run periodically.
+     */
+    void flush() {
+        try {
+            writeBehind.flush(() -> {
+                evictIdleCarts();
+                touchLiveCarts();
+            });
+        } catch (RuntimeException e) {
+            // The changes stay pending and are written with the next batch
+            log.warn("Could not write the pending cart changes", e);
+        }
+    }
+
+    /**
+     * Drops from memory the carts left unused for longer than the idle time, unless they have
+     * changes still to be written. Run between two batches, so that no change is on its way to the
+     * table.
+     */
+    private void evictIdleCarts() {
+        long idleSince = clock.millis() - idleMillis;
+        for (UserCart cart : carts.values()) {
+            if (cart.lastAccess > idleSince) {
+                continue;
+            }
+            synchronized (cart) {
+                if (cart.lastAccess > idleSince || writeBehind.hasPendingChanges(cart.userId)) {
+                    continue;
+                }
+                cart.evicted = true;
+                carts.remove(cart.userId, cart);
+                cart.items.keySet().forEach(owners::remove);
+            }
+        }
+    }
+
+    /**
+     * Times as changed the rows of the carts in memory last timed half the time to live ago, a batch
+     * of carts at a time.
+     */
+    private void touchLiveCarts() {
+        long now = clock.millis();
+        List<UserCart> due = carts.values().stream()
+                .filter(cart -> cart.touchedAt <= now - touchIntervalMillis)
+                .collect(Collectors.toList());
+        for (int from = 0; from < due.size(); from += TOUCH_BATCH_SIZE) {
+            List<UserCart> batch = due.subList(from, Math.min(from + TOUCH_BATCH_SIZE, due.size()));
+            writeBehind.touch(batch.stream().map(cart -> cart.userId).collect(Collectors.toList()), changedBefore());
+            batch.forEach(cart -> cart.touchedAt = now);
+        }
+    }
+
+    /**
+     * Runs an action on a user's cart, loading it first if it is not in memory.
+     */
+    private <T> T withCart(int userId, Function<UserCart, T> action) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            UserCart cart = carts.get(userId);
+            if (cart == null) {
+                cart = load(userId);
+            }
+            synchronized (cart) {
+                // Evicted meanwhile: load it again
+                if (!cart.evicted) {
+                    cart.lastAccess = clock.millis();
+                    return action.apply(cart);
+                }
+            }
+        }
+        throw new ServiceUnavailableException("Cart is being reloaded, please try again");
+    }
+
+    /**
+     * Runs an action inserting items on a user's cart. An action returns null when an item it
+     * inserts was removed and its row is not deleted yet; the removals are then written and the
+     * action run again, a few times at most.
+     */
+    private CommonResponseDto withInsertableCart(int userId, Function<UserCart, CommonResponseDto> action) {
+        for (int attempt = 1; ; attempt++) {
+            CommonResponseDto response = withCart(userId, action);
+            if (response != null) {
+                return response;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new ServiceUnavailableException("Cart items are being removed, please try again");
+            }
+            writeBehind.flush();
+        }
+    }
+
+    /**
+     * Runs an action on a cart item and the cart holding it.
+     *
+     * @throws CartItemNotFoundException with the given message if there is no such item
+     */
+    private <T> T withItem(int cartId, String notFoundMessage, ItemAction<T> action) {
+        Integer userId = owners.get(cartId);
+        if (userId == null) {
+            // The item is not in memory, so its owner is in the table if it exists
+            userId = cartRepository.findById(cartId)
+                    .map(Cart::getUserId)
+                    .orElseThrow(() -> new CartItemNotFoundException(notFoundMessage));
+        }
+        return withCart(userId, cart -> {
+            Cart item = cart.items.get(cartId);
+            if (item == null) {
+                throw new CartItemNotFoundException(notFoundMessage);
+            }
+            return action.apply(cart, item);
+        });
+    }
+
+    private UserCart load(int userId) {
+        UserCart loaded = new UserCart(userId);
+        loaded.lastAccess = clock.millis();
+        // Timed before being read: rows the sweep deletes meanwhile are not read, and it leaves the
+        // others alone from now on
+        writeBehind.touch(Collections.singletonList(userId), changedBefore());
+        loaded.touchedAt = loaded.lastAccess;
+        for (Cart row : cartRepository.findByUserId(userId)) {
+            Cart item = copy(row);
+            if (item.getUnitPrice() == null && item.getQuantity() > 0) {
+                // Saved before the unit price was kept
+                item.setUnitPrice(item.getPrice().divide(BigDecimal.valueOf(item.getQuantity()),
+                        item.getPrice().scale(), RoundingMode.HALF_UP));
+            }
+            loaded.items.put(item.getCartId(), item);
+        }
+        UserCart cart = carts.putIfAbsent(userId, loaded);
+        if (cart != null) {
+            return cart;
+        }
+        loaded.items.keySet().forEach(cartId -> owners.put(cartId, userId));
+        return loaded;
+    }
+
+    /**
+     * Gets the time before which the rows of a cart in memory are timed again.
+     */
+    private LocalDateTime changedBefore() {
+        return LocalDateTime.now().minus(Duration.ofMillis(touchIntervalMillis));
+    }
+
+    private void validateCustomer(int userId) {
+        UserResponseDto user = userCache.getUser(userId);
+        if (user == null || !user.getRole().equals("CUSTOMER")) {
+            throw new UnauthorizedActionException("Only customers can add items to the cart.");
+        }
+    }
+
+    /**
+     * Checks whether an item can be inserted into a cart that does not hold it: not before the
+     * removal of the item from the cart, if any, is written.
+     */
+    private boolean insertable(UserCart cart, long key) {
+        Long removal = cart.removals.get(key);
+        if (removal == null) {
+            return true;
+        }
+        if (removal > writeBehind.getWrittenThrough()) {
+            return false;
+        }
+        cart.removals.remove(key);
+        return true;
+    }
+
+    /**
+     * Inserts items into a cart in one batch, then reads the cart's rows back for the IDs of the
+     * new items.
+     */
+    private void insert(UserCart cart, List<Cart> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        cartRepository.insertAll(items, LocalDateTime.now());
+        Map<Long, Cart> added = new HashMap<>();
+        items.forEach(item -> added.put(key(item), item));
+        for (Cart row : cartRepository.findByUserId(cart.userId)) {
+            if (added.containsKey(key(row))) {
+                Cart item = copy(row);
+                cart.items.put(item.getCartId(), item);
+                owners.put(item.getCartId(), item.getUserId());
+            }
+        }
+    }
+
+    private void setQuantity(Cart item, int quantity) {
+        setLine(item, quantity, item.getUnitPrice());
+    }
+
+    private void setLine(Cart item, int quantity, BigDecimal unitPrice) {
+        Cart changed = copy(item);
+        changed.setQuantity(quantity);
+        changed.setUnitPrice(unitPrice);
+        changed.setPrice(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+        // Recorded first: a change that cannot be journaled is not made
+        writeBehind.record(CartChange.update(changed));
+        item.setQuantity(changed.getQuantity());
+        item.setUnitPrice(changed.getUnitPrice());
+        item.setPrice(changed.getPrice());
+    }
+
+    private void remove(UserCart cart, Cart item) {
+        long removal = writeBehind.record(CartChange.removal(item));
+        cart.removals.put(key(item), removal);
+        cart.items.remove(item.getCartId());
+        owners.remove(item.getCartId());
+    }
+
+    /**
+     * Gets the items of a cart by their keys.
+     */
+    private static Map<Long, Cart> byKey(UserCart cart) {
+        Map<Long, Cart> items = new LinkedHashMap<>();
+        cart.items.values().forEach(item -> items.put(key(item), item));
+        return items;
+    }
+
+    private static long key(Cart item) {
+        return CartItemBatch.key(item.getRestaurantId(), item.getMenuItemId());
+    }
+
+    /**
+     * Copies a cart item, so that neither the entities of the persistence context nor the items
+     * in memory are shared.
+     */
+    private static Cart copy(Cart item) {
+        Cart copy = new Cart(item.getUserId(), item.getRestaurantId(), item.getMenuItemId(), item.getQuantity());
+        copy.setCartId(item.getCartId());
+        copy.setPrice(item.getPrice());
+        copy.setUnitPrice(item.getUnitPrice());
+        copy.setCreatedAt(item.getCreatedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * The cart of one user: its items by cart item ID. Guarded by itself.
+     */
+    private static final class UserCart {
+
+        private final int userId;
+
+        private final Map<Integer, Cart> items = new LinkedHashMap<>();
+
+        /**
+         * The sequence numbers of the removals of items since the cart was loaded, by item key. The
+         * row of a removed item is in the table until its removal is written, so the item cannot
+         * be inserted again before.
+         */
+        private final Map<Long, Long> removals = new HashMap<>();
+
+        private long lastAccess;
+
+        /** When the rows of the cart were last timed as changed. */
+        private volatile long touchedAt;
+
+        /** Whether the cart was dropped from memory, after which it must not be used. */
+        private boolean evicted;
+
+        private UserCart(int userId) {
+            this.userId = userId;
+        }
+    }
+
+    private interface ItemAction<T> {
+
+        T apply(UserCart cart, Cart item);
+    }
+}
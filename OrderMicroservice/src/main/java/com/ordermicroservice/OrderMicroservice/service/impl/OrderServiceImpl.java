@@ -27,6 +27,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,13 +43,16 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private UserFeignClient userClient;
 
+    @Autowired
+    private UserCache userCache;
+
     @Autowired
     private AddressFeignClient addressClient;
 
     @Override
     public CommonResponseDto placeOrder(OrderRequestDto orderRequestDto) {
 
-        UserResponseDto user = userClient.getUserById(orderRequestDto.getUserId());
+        UserResponseDto user = userCache.getUser(orderRequestDto.getUserId());
         if(user == null || !user.getRole().equals("CUSTOMER")) {
             throw new UnauthorizedActionException(Constants.CUSTOMER_NOT_FOUND);
         }
@@ -142,9 +146,17 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public List<OrderResponseDto> getOrdersByRestaurantId(int restaurantId) {
         List<Order> orders = orderRepository.findByRestaurantId(restaurantId);
+        // One batched user lookup for all the customers, rather than one call per order
+        Map<Integer, UserResponseDto> customers = userCache.getUsers(
+                orders.stream().map(Order::getUserId).collect(Collectors.toSet()));
         List<OrderResponseDto> orderOutDtoList=new ArrayList<>();
         for(Order order:orders){
-            orderOutDtoList.add(DtoConversion.convertOrderToOrderOutDto(order));
+            OrderResponseDto dto = DtoConversion.convertOrderToOrderOutDto(order);
+            UserResponseDto customer = customers.get(order.getUserId());
+            if (customer != null) {
+                dto.setCustomerName(customer.getUsername());
+            }
+            orderOutDtoList.add(dto);
         }
         return orderOutDtoList;
     }
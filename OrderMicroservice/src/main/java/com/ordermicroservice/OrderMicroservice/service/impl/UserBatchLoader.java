@@ -0,0 +1,139 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gathers the single user lookups made at about the same time into one batched call to the user
+ * service.
+ * <p>
+ * The first lookup of a batch opens a window of {@code user.batch.window-millis}; the lookups made
+ * meanwhile join the batch, which is sent when the window closes or as soon as it holds
+ * {@code user.batch.max-size} users. Lookups of the same user in a batch share its result. Users
+ * the user service leaves out of its answer are unknown and resolve to null, and a failed call
+ * fails every lookup of its batch.
+ * </p>
+ */
+@Service
+public class UserBatchLoader implements DisposableBean {
+
+    /** Number of threads sending batches. */
+    private static final int THREADS = 4;
+
+    private final UserFeignClient userFeignClient;
+
+    private final long windowMillis;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService dispatcher;
+
+    /** Lookups waiting for the next batch, by user ID. Guarded by {@code this}. */
+    private Map<Integer, CompletableFuture<UserResponseDto>> pending = new LinkedHashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+
+    @Autowired
+    public UserBatchLoader(UserFeignClient userFeignClient,
+                           @Value("${user.batch.window-millis:5}") long windowMillis,
+                           @Value("${user.batch.max-size:100}") int maxBatchSize) {
+        this.userFeignClient = userFeignClient;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.dispatcher = Executors.newScheduledThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "user-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looks up a user in the next batch.
+     *
+     * @param userId the user ID
+     * @return the user once the batch is answered, or null if the user service does not know it
+     */
+    public CompletableFuture<UserResponseDto> load(int userId) {
+        CompletableFuture<UserResponseDto> user;
+        Map<Integer, CompletableFuture<UserResponseDto>> full = null;
+        synchronized (this) {
+            user = pending.get(userId);
+            if (user != null) {
+                return user;
+            }
+            user = new CompletableFuture<>();
+            pending.put(userId, user);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            } else if (pending.size() == 1) {
+                Map<Integer, CompletableFuture<UserResponseDto>> batch = pending;
+                dispatcher.schedule(() -> flush(batch), windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            Map<Integer, CompletableFuture<UserResponseDto>> batch = full;
+            dispatcher.execute(() -> send(batch));
+        }
+        return user;
+    }
+
+    /**
+     * Gets the number of batched calls made to the user service.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Sends a batch whose window closed, unless it was sent already because it filled up.
+     */
+    private void flush(Map<Integer, CompletableFuture<UserResponseDto>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = new LinkedHashMap<>();
+        }
+        send(batch);
+    }
+
+    private void send(Map<Integer, CompletableFuture<UserResponseDto>> batch) {
+        batches.increment();
+        try {
+            List<UserResponseDto> users = userFeignClient.getUsersByIds(new ArrayList<>(batch.keySet()));
+            if (users != null) {
+                for (UserResponseDto user : users) {
+                    CompletableFuture<UserResponseDto> lookup = batch.get(user.getId());
+                    if (lookup != null) {
+                        lookup.complete(user);
+                    }
+                }
+            }
+            batch.values().forEach(lookup -> lookup.complete(null));
+        } catch (RuntimeException e) {
+            batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+}
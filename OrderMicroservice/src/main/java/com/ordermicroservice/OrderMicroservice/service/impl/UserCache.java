@@ -0,0 +1,300 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the users recently looked up from the user service in memory, so that the role check of
+ * every cart and order request does not call the user service.
+ * <p>
+ * Users are kept for a fixed time, users the user service does not know for a shorter one, and
+ * the least recently used users are evicted past the entry count. Concurrent misses for the same
+ * user share a single lookup, and the lookups of different users are sent to the user service in
+ * batches by the {@link UserBatchLoader}. Failed lookups are not cached; while the user service
+ * cannot be reached, a user that expired less than {@code user.cache.stale-if-error-seconds} ago
+ * is served as it was, since a role rarely changes. {@link #invalidate(int)} drops a user whose
+ * role changed. The cached users are shared between callers and must not be
+ * modified.
+ * </p>
+ */
+@Service
+public class UserCache implements MeterBinder {
+
+    private final UserBatchLoader userBatchLoader;
+
+    private final int maxEntries;
+
+    private final long ttlMillis;
+
+    private final long negativeTtlMillis;
+
+    private final long staleIfErrorMillis;
+
+    private final Clock clock;
+
+    /** Cached users by user ID, in least recently used order. Guarded by {@code this}. */
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The lookups in progress, by user ID. */
+    private final ConcurrentMap<Integer, CompletableFuture<Entry>> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder staleHits = new LongAdder();
+
+    // The loader is made on first use: the Feign client it calls pulls in the meter registry,
+    // which binds this cache and so must not be made while the cache is
+    @Autowired
+    public UserCache(@Lazy UserBatchLoader userBatchLoader,
+                     @Value("${user.cache.max-entries:10000}") int maxEntries,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${user.cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                     @Value("${user.cache.stale-if-error-seconds:3600}") long staleIfErrorSeconds) {
+        this(userBatchLoader, maxEntries, ttlSeconds, negativeTtlSeconds, staleIfErrorSeconds, Clock.systemUTC());
+    }
+
+    UserCache(UserBatchLoader userBatchLoader, int maxEntries, long ttlSeconds, long negativeTtlSeconds,
+              long staleIfErrorSeconds, Clock clock) {
+        this.userBatchLoader = userBatchLoader;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.negativeTtlMillis = negativeTtlSeconds * 1000;
+        this.staleIfErrorMillis = staleIfErrorSeconds * 1000;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a user, loading it from the user service on a miss.
+     *
+     * @param userId the user ID
+     * @return the user, or null if the user service does not know it
+     */
+    public UserResponseDto getUser(int userId) {
+        Entry entry = get(userId);
+        if (entry == null) {
+            entry = join(load(userId));
+        }
+        return entry.user;
+    }
+
+    /**
+     * Returns several users, loading the missing ones from the user service in batches.
+     *
+     * @param userIds the user IDs
+     * @return the users the user service knows, by user ID
+     */
+    public Map<Integer, UserResponseDto> getUsers(Collection<Integer> userIds) {
+        Map<Integer, Entry> found = new HashMap<>();
+        Map<Integer, CompletableFuture<Entry>> loading = new HashMap<>();
+        for (Integer userId : userIds) {
+            if (found.containsKey(userId) || loading.containsKey(userId)) {
+                continue;
+            }
+            Entry entry = get(userId);
+            if (entry != null) {
+                found.put(userId, entry);
+            } else {
+                loading.put(userId, load(userId));
+            }
+        }
+        for (Map.Entry<Integer, CompletableFuture<Entry>> load : loading.entrySet()) {
+            found.put(load.getKey(), join(load.getValue()));
+        }
+        Map<Integer, UserResponseDto> users = new HashMap<>();
+        found.forEach((userId, entry) -> {
+            if (entry.user != null) {
+                users.put(userId, entry.user);
+            }
+        });
+        return users;
+    }
+
+    /**
+     * Drops a user, so that the next lookup loads it again. A call in progress for the user is left
+     * to finish, but its result is not cached.
+     *
+     * @param userId the user ID
+     */
+    public synchronized void invalidate(int userId) {
+        loads.remove(userId);
+        entries.remove(userId);
+    }
+
+    synchronized Entry get(int userId) {
+        Entry entry = entries.get(userId);
+        long now = clock.millis();
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        if (entry != null && entry.expiresAt + staleIfErrorMillis <= now) {
+            entries.remove(userId);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the expired entry of a user to fall back on, if it expired recently enough.
+     */
+    private synchronized Entry getStale(int userId) {
+        Entry entry = entries.get(userId);
+        return entry != null && entry.expiresAt + staleIfErrorMillis > clock.millis() ? entry : null;
+    }
+
+    /**
+     * Loads a user in the next batch, or joins the lookup already in progress for the same user.
+     */
+    private CompletableFuture<Entry> load(int userId) {
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> running = loads.putIfAbsent(userId, load);
+        if (running != null) {
+            return running;
+        }
+        loadCount.increment();
+        userBatchLoader.load(userId).whenComplete((user, error) -> {
+            if (error != null) {
+                loads.remove(userId, load);
+                Entry stale = getStale(userId);
+                if (stale != null) {
+                    staleHits.increment();
+                    load.complete(stale);
+                } else {
+                    load.completeExceptionally(error);
+                }
+                return;
+            }
+            Entry entry = new Entry(user, clock.millis() + (user != null ? ttlMillis : negativeTtlMillis));
+            synchronized (this) {
+                if (loads.remove(userId, load)) {
+                    put(userId, entry);
+                }
+            }
+            load.complete(entry);
+        });
+        return load;
+    }
+
+    private static Entry join(CompletableFuture<Entry> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private synchronized void put(int userId, Entry entry) {
+        entries.put(userId, entry);
+        Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache, 0 before the first lookup.
+     *
+     * @return the hit ratio, from 0 to 1
+     */
+    public double getHitRatio() {
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Publishes the cache statistics as {@code user.cache.*} metrics.
+     *
+     * @param registry the registry to publish to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.cache.gets", this, UserCache::getHitCount)
+                .tag("result", "hit")
+                .description("User lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("user.cache.gets", this, UserCache::getMissCount)
+                .tag("result", "miss")
+                .description("User lookups that loaded the user")
+                .register(registry);
+        Gauge.builder("user.cache.hit.ratio", this, UserCache::getHitRatio)
+                .description("Share of user lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("user.cache.loads", this, UserCache::getLoadCount)
+                .description("Users looked up from the user service")
+                .register(registry);
+        FunctionCounter.builder("user.cache.evictions", this, UserCache::getEvictionCount)
+                .description("Users evicted to stay within the cache limit")
+                .register(registry);
+        FunctionCounter.builder("user.cache.stale.hits", this, UserCache::getStaleHitCount)
+                .description("Expired users served because the user service could not be reached")
+                .register(registry);
+        Gauge.builder("user.cache.size", this, UserCache::size)
+                .description("Number of cached users")
+                .register(registry);
+    }
+
+    /** A cached lookup: the user, or none if the user service does not know it. */
+    static final class Entry {
+
+        private final UserResponseDto user;
+
+        private final long expiresAt;
+
+        Entry(UserResponseDto user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
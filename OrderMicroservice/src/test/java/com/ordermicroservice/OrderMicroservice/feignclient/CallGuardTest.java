@@ -0,0 +1,112 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import com.ordermicroservice.OrderMicroservice.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two calls at once, a breaker over the last four calls that opens at half of them failed and
+ * stays open for ten seconds, then two trial calls.
+ */
+class CallGuardTest {
+
+    private MutableClock clock;
+
+    private CallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+        guard = new CallGuard(2, 4, 4, 50, 10000, 2, clock);
+    }
+
+    @Test
+    void bulkhead_TurnsAwayCallsPastTheLimit() {
+        long first = guard.acquire();
+        long second = guard.acquire();
+
+        assertTrue(first >= 0 && second >= 0);
+        assertEquals(-1, guard.acquire());
+        assertEquals(2, guard.getActiveCalls());
+
+        guard.release(first, true);
+        assertTrue(guard.acquire() >= 0);
+        assertEquals(1, guard.getRejectionCount());
+    }
+
+    @Test
+    void breaker_OpensAtTheFailureRate() {
+        call(true);
+        call(false);
+        call(true);
+        assertEquals(CallGuard.State.CLOSED, guard.getState());
+
+        call(false);
+
+        assertEquals(CallGuard.State.OPEN, guard.getState());
+        assertEquals(-1, guard.acquire());
+        assertEquals(0, guard.getActiveCalls());
+    }
+
+    @Test
+    void breaker_ClosesAfterSuccessfulTrials() {
+        open();
+        clock.advance(Duration.ofSeconds(10));
+
+        long first = guard.acquire();
+        long second = guard.acquire();
+        assertEquals(CallGuard.State.HALF_OPEN, guard.getState());
+        guard.release(first, true);
+        assertEquals(-1, guard.acquire());
+        guard.release(second, true);
+
+        assertEquals(CallGuard.State.CLOSED, guard.getState());
+        assertTrue(guard.acquire() >= 0);
+    }
+
+    @Test
+    void breaker_ReopensOnFailedTrial() {
+        open();
+        clock.advance(Duration.ofSeconds(10));
+
+        call(false);
+
+        assertEquals(CallGuard.State.OPEN, guard.getState());
+        clock.advance(Duration.ofSeconds(9));
+        assertEquals(-1, guard.acquire());
+    }
+
+    @Test
+    void breaker_IgnoresCallsStartedBeforeItOpened() {
+        long late = guard.acquire();
+        open();
+        clock.advance(Duration.ofSeconds(10));
+        long trial = guard.acquire();
+
+        guard.release(late, false);
+        guard.release(trial, true);
+        call(true);
+
+        assertEquals(CallGuard.State.CLOSED, guard.getState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertEquals(CallGuard.State.OPEN, guard.getState());
+    }
+
+    private void call(boolean succeeded) {
+        long ticket = guard.acquire();
+        assertTrue(ticket >= 0);
+        guard.release(ticket, succeeded);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.exceptions.ServiceUnavailableException;
+import feign.RetryableException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Injects faults into a local stub of the user service and checks that the {@link FeignGuard}
+ * keeps the calling threads bounded. The user service answers within 500 ms or times out, two
+ * calls run at once, and the breaker opens at half of the last four calls failed for 300 ms.
+ */
+@SpringBootTest(classes = FeignGuardIntegrationTest.Config.class, properties = {
+        "feign.client.config.UserService.readTimeout=500",
+        "feign.guard.UserService.max-concurrent-calls=2",
+        "feign.guard.UserService.sliding-window-size=4",
+        "feign.guard.UserService.minimum-calls=4",
+        "feign.guard.UserService.failure-rate-threshold=50",
+        "feign.guard.UserService.open-millis=300",
+        "feign.guard.UserService.half-open-calls=1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FeignGuardIntegrationTest {
+
+    private static final StubUserService userService = startUserService();
+
+    @Autowired
+    private UserFeignClient userFeignClient;
+
+    @Autowired
+    private FeignGuard feignGuard;
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("user.service.url", userService::url);
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        userService.close();
+    }
+
+    @BeforeEach
+    void resetUserService() {
+        userService.reset();
+    }
+
+    @Test
+    void slowService_HoldsNoMoreThreadsThanTheBulkhead() throws Exception {
+        userService.setDelayMillis(300);
+        int callers = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Long>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    long started = System.nanoTime();
+                    try {
+                        userFeignClient.getUserById(1);
+                        return -1L;
+                    } catch (ServiceUnavailableException e) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                }));
+            }
+            start.countDown();
+
+            int rejected = 0;
+            for (Future<Long> call : calls) {
+                long rejectedAfterMillis = call.get(5, TimeUnit.SECONDS);
+                if (rejectedAfterMillis >= 0) {
+                    rejected++;
+                    assertTrue(rejectedAfterMillis < 200, "rejected after " + rejectedAfterMillis + " ms");
+                }
+            }
+            assertTrue(rejected >= callers - 2 * 2, "only " + rejected + " calls rejected");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(userService.maxActiveRequests() <= 2, userService.maxActiveRequests() + " requests at once");
+        assertEquals("CLOSED", feignGuard.getState("UserService"));
+    }
+
+    @Test
+    void timeouts_OpenTheBreakerUntilTheServiceRecovers() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals("customer1", userFeignClient.getUserById(1).getUsername());
+        }
+        userService.setDelayMillis(1000);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(RetryableException.class, () -> userFeignClient.getUserById(1));
+        }
+        assertEquals("OPEN", feignGuard.getState("UserService"));
+
+        long started = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> userFeignClient.getUserById(1));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 200);
+        assertEquals(4, userService.singleLookups());
+
+        userService.setDelayMillis(0);
+        Thread.sleep(300);
+        assertEquals("customer1", userFeignClient.getUserById(1).getUsername());
+        assertEquals("CLOSED", feignGuard.getState("UserService"));
+    }
+
+    private static StubUserService startUserService() {
+        try {
+            return StubUserService.start(new UserResponseDto(1, "customer1", "customer1@example.com", "CUSTOMER"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the stub user service", e);
+        }
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = UserFeignClient.class)
+    @ImportAutoConfiguration({FeignAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import(FeignGuard.class)
+    static class Config {
+    }
+}
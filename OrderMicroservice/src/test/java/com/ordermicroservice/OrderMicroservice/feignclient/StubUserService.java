@@ -0,0 +1,186 @@
+package com.ordermicroservice.OrderMicroservice.feignclient;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the user service, answering the lookups of {@link UserFeignClient} from a
+ * fixed set of users and recording the calls it gets. The real user service is not part of this
+ * repository. A delay can be injected into every answer to play a slow user service.
+ */
+public final class StubUserService implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Integer, UserResponseDto> users = new ConcurrentHashMap<>();
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger singleLookups = new AtomicInteger();
+
+    private final AtomicInteger walletUpdates = new AtomicInteger();
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    private volatile long delayMillis;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final HttpServer server;
+
+    private StubUserService() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // Calls are counted as they arrive, before any delay, so that calls the client gave up on count too
+        server.createContext("/api/auth/getUserBy/", exchange -> {
+            singleLookups.incrementAndGet();
+            handle(exchange, this::getUserById);
+        });
+        server.createContext("/api/auth/getUsersByIds", exchange -> handle(exchange, this::getUsersByIds));
+        server.createContext("/api/auth/wallet/", exchange -> {
+            walletUpdates.incrementAndGet();
+            handle(exchange, this::updateWalletBalance);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts a stub on a free port.
+     *
+     * @param users the users it knows
+     * @return the running stub
+     * @throws IOException if the server cannot start
+     */
+    public static StubUserService start(UserResponseDto... users) throws IOException {
+        StubUserService stub = new StubUserService();
+        for (UserResponseDto user : users) {
+            stub.users.put(user.getId(), user);
+        }
+        return stub;
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the user IDs of each batched call received, in order.
+     *
+     * @return the batches
+     */
+    public List<List<Integer>> batches() {
+        return new ArrayList<>(batches);
+    }
+
+    public int singleLookups() {
+        return singleLookups.get();
+    }
+
+    public int walletUpdates() {
+        return walletUpdates.get();
+    }
+
+    /**
+     * Gets the largest number of requests the stub was answering at once since the last reset.
+     *
+     * @return the request count
+     */
+    public int maxActiveRequests() {
+        return maxActiveRequests.get();
+    }
+
+    /**
+     * Delays every answer, to play a slow user service.
+     *
+     * @param delayMillis the delay, 0 for none
+     */
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void reset() {
+        batches.clear();
+        singleLookups.set(0);
+        walletUpdates.set(0);
+        maxActiveRequests.set(0);
+        delayMillis = 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            handler.handle(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void getUserById(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        UserResponseDto user = users.get(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)));
+        if (user == null) {
+            respond(exchange, 404, "{\"message\":\"User not found\"}".getBytes());
+        } else {
+            respond(exchange, 200, objectMapper.writeValueAsBytes(user));
+        }
+    }
+
+    private void getUsersByIds(HttpExchange exchange) throws IOException {
+        List<Integer> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<List<Integer>>() { });
+        batches.add(ids);
+        List<UserResponseDto> found = new ArrayList<>();
+        for (Integer id : ids) {
+            if (users.containsKey(id)) {
+                found.add(users.get(id));
+            }
+        }
+        respond(exchange, 200, objectMapper.writeValueAsBytes(found));
+    }
+
+    private void updateWalletBalance(HttpExchange exchange) throws IOException {
+        objectMapper.readValue(exchange.getRequestBody(), Double.class);
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private interface Handler {
+
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
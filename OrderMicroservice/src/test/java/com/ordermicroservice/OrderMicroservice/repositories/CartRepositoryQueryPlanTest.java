@@ -0,0 +1,164 @@
+package com.ordermicroservice.OrderMicroservice.repositories;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the cart queries of the add-to-cart, checkout and sweep paths are answered from the
+ * indexes of the carts table rather than by scanning it, on PostgreSQL with enough rows for its
+ * planner to tell, and that the sweep's locking query skips the rows locked by others. Skipped
+ * where Docker is not available.
+ */
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartRepositoryQueryPlanTest {
+
+    private static final int USERS = 2000;
+
+    private static final int ITEMS_PER_USER = 25;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static boolean filled;
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void fillCarts() {
+        if (filled) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO carts (user_id, restaurant_id, menu_item_id, quantity, price, unit_price, "
+                        + "created_at, updated_at) "
+                        + "SELECT n / ?, n % 5, n, 1, 10.00, 10.00, now() - n * interval '1 minute', "
+                        + "now() - n * interval '1 minute' "
+                        + "FROM generate_series(0, ? - 1) AS n",
+                ITEMS_PER_USER, USERS * ITEMS_PER_USER);
+        jdbcTemplate.execute("ANALYZE carts");
+        filled = true;
+    }
+
+    @Test
+    void findByUserId_UsesTheUniqueIndex() {
+        assertUsesIndex("uk_carts_user_restaurant_menu_item", "SELECT * FROM carts WHERE user_id = 42");
+    }
+
+    @Test
+    void findByUserIdAndRestaurantId_UsesTheUniqueIndex() {
+        assertUsesIndex("uk_carts_user_restaurant_menu_item",
+                "SELECT * FROM carts WHERE user_id = 42 AND restaurant_id = 3");
+    }
+
+    @Test
+    void findByUserIdAndMenuItemIdAndRestaurantId_UsesTheUniqueIndex() {
+        assertUsesIndex("uk_carts_user_restaurant_menu_item",
+                "SELECT * FROM carts WHERE user_id = 42 AND menu_item_id = 1053 AND restaurant_id = 3");
+    }
+
+    @Test
+    void sweep_UsesTheUpdatedAtIndex() {
+        assertUsesIndex("idx_carts_updated_at",
+                "SELECT * FROM carts WHERE updated_at < now() - interval '30 days' ORDER BY updated_at LIMIT 500");
+    }
+
+    @Test
+    void lockUnchangedSince_SkipsRowsLockedByOthers() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection checkout = dataSource.getConnection()) {
+            checkout.setAutoCommit(false);
+            int locked = lockOldestItem(checkout);
+
+            // The generated statement, in a transaction of its own; waiting on the lock would time out
+            Future<List<Cart>> sweep = executor.submit(() -> new TransactionTemplate(transactionManager).execute(
+                    status -> cartRepository.lockUnchangedSince(LocalDateTime.now(), PageRequest.of(0, 10))));
+            List<Cart> batch = sweep.get(10, TimeUnit.SECONDS);
+
+            assertEquals(10, batch.size());
+            assertTrue(batch.stream().noneMatch(cart -> cart.getCartId() == locked));
+            checkout.rollback();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int lockOldestItem(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet oldest = statement.executeQuery(
+                     "SELECT cart_id FROM carts ORDER BY updated_at LIMIT 1 FOR UPDATE")) {
+            oldest.next();
+            return oldest.getInt(1);
+        }
+    }
+
+    private void assertUsesIndex(String index, String query) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), () -> "Expected no scan of the table in:\n" + plan);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that {@link CartItemDeduplication} merges duplicated cart items into one row, so that the
+ * unique index can be created on a database that holds them.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CartItemDeduplication.class)
+class CartItemDeduplicationTest {
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @MockBean
+    private UserCache userCache;
+
+    @Autowired
+    private CartItemDeduplication cartItemDeduplication;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void dropUniqueIndex() {
+        // As on a database created before the index
+        jdbcTemplate.execute("ALTER TABLE carts DROP CONSTRAINT " + CartItemDeduplication.UNIQUE_INDEX);
+    }
+
+    @AfterEach
+    void restoreUniqueIndex() {
+        jdbcTemplate.execute("DELETE FROM carts");
+        jdbcTemplate.execute("ALTER TABLE carts ADD CONSTRAINT " + CartItemDeduplication.UNIQUE_INDEX
+                + " UNIQUE (user_id, restaurant_id, menu_item_id)");
+    }
+
+    @Test
+    void mergeDuplicates_SumsQuantitiesIntoTheFirstRow() {
+        int first = insert(1, 3, 2, "20.00", null, "2024-01-01 10:00:00");
+        insert(1, 3, 1, "10.00", "10.00", "2024-01-01 10:05:00");
+        insert(1, 3, 3, "30.00", "10.00", "2024-01-01 10:02:00");
+        int other = insert(1, 4, 2, "15.00", "7.50", "2024-01-01 10:00:00");
+
+        cartItemDeduplication.mergeDuplicates();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT cart_id, quantity, price, unit_price, updated_at FROM carts ORDER BY cart_id");
+        assertEquals(2, rows.size());
+        Map<String, Object> merged = rows.get(0);
+        assertEquals(first, ((Number) merged.get("CART_ID")).intValue());
+        assertEquals(6, ((Number) merged.get("QUANTITY")).intValue());
+        assertEquals(0, new BigDecimal("60.00").compareTo((BigDecimal) merged.get("PRICE")));
+        assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) merged.get("UNIT_PRICE")));
+        assertEquals("2024-01-01 10:05:00.0", merged.get("UPDATED_AT").toString());
+        assertEquals(other, ((Number) rows.get(1).get("CART_ID")).intValue());
+        assertEquals(2, ((Number) rows.get(1).get("QUANTITY")).intValue());
+    }
+
+    @Test
+    void mergeDuplicates_OnceTheIndexExists_ChangesNothing() {
+        insert(1, 3, 2, "20.00", "10.00", "2024-01-01 10:00:00");
+        insert(1, 3, 1, "10.00", "10.00", "2024-01-01 10:05:00");
+        // Stands in for the unique constraint, which would keep the duplicates out
+        jdbcTemplate.execute("ALTER TABLE carts ADD CONSTRAINT " + CartItemDeduplication.UNIQUE_INDEX
+                + " CHECK (quantity > 0)");
+
+        cartItemDeduplication.mergeDuplicates();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts", Integer.class));
+        jdbcTemplate.execute("ALTER TABLE carts DROP CONSTRAINT " + CartItemDeduplication.UNIQUE_INDEX);
+    }
+
+    private int insert(int userId, int menuItemId, int quantity, String price, String unitPrice, String updatedAt) {
+        jdbcTemplate.update("INSERT INTO carts (user_id, restaurant_id, menu_item_id, quantity, price, unit_price, "
+                        + "created_at, updated_at) VALUES (?, 2, ?, ?, ?, ?, ?, ?)",
+                userId, menuItemId, quantity, new BigDecimal(price), unitPrice == null ? null : new BigDecimal(unitPrice),
+                Timestamp.valueOf(updatedAt), Timestamp.valueOf(updatedAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(cart_id) FROM carts", Integer.class);
+    }
+}
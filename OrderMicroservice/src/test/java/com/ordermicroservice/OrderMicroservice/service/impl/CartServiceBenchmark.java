@@ -0,0 +1,193 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.CommonResponseDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Throughput of the cart operations with the carts in the table ({@code store=jpa}) and in memory,
+ * written behind ({@code store=memory}). Each of the eight threads is a customer with a cart of
+ * {@value #ITEMS} items, adding items, changing quantities and reading the cart. The table is in
+ * a PostgreSQL container on the same machine, so the round trips of the JPA store are as short as
+ * they get.
+ * <p>
+ * Not run by the test suite, and needs Docker. Run it from the test classpath after
+ * {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main CartServiceBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class CartServiceBenchmark {
+
+    /**
+     * Number of items in each cart.
+     */
+    private static final int ITEMS = 5;
+
+    /**
+     * The restaurant every item is ordered from.
+     */
+    private static final int RESTAURANT_ID = 7;
+
+    /**
+     * The cart store.
+     */
+    @Param({"jpa", "memory"})
+    public String store;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private CartService cartService;
+
+    private final AtomicInteger lastUserId = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        // Given as arguments, which take precedence over application.properties
+        context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--cart.store=" + store,
+                        "--cart.memory.journal-dir=" + Files.createTempDirectory("cart-journal"));
+        cartService = context.getBean(CartService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public CommonResponseDto addItem(Customer customer) {
+        return cartService.addItemToCart(customer.request(ThreadLocalRandom.current().nextInt(ITEMS)));
+    }
+
+    @Benchmark
+    public CommonResponseDto changeQuantity(Customer customer) {
+        int cartId = customer.cartIds[ThreadLocalRandom.current().nextInt(ITEMS)];
+        // Up and down in turn, so that the item is never removed
+        customer.up = !customer.up;
+        return cartService.updateCartItemQuantity(cartId, customer.up ? 1 : -1);
+    }
+
+    @Benchmark
+    public List<Cart> readCart(Customer customer) {
+        return cartService.getCartItemsByUserIdAndRestaurantId(customer.userId, RESTAURANT_ID);
+    }
+
+    /**
+     * A customer of its own for each thread, with a full cart.
+     */
+    @State(Scope.Thread)
+    public static class Customer {
+
+        private int userId;
+
+        private final int[] cartIds = new int[ITEMS];
+
+        private boolean up;
+
+        @Setup(Level.Trial)
+        public void setUp(CartServiceBenchmark benchmark) {
+            userId = benchmark.lastUserId.incrementAndGet();
+            for (int item = 0; item < ITEMS; item++) {
+                benchmark.cartService.addItemToCart(request(item));
+            }
+            List<Cart> cart = benchmark.cartService.getCartByUserId(userId);
+            for (int item = 0; item < ITEMS; item++) {
+                cartIds[item] = cart.get(item).getCartId();
+            }
+        }
+
+        private CartItemRequestDto request(int item) {
+            CartItemRequestDto request = new CartItemRequestDto();
+            request.setUserId(userId);
+            request.setRestaurantId(RESTAURANT_ID);
+            request.setMenuItemId(item + 1);
+            request.setPrice(new BigDecimal("149.50"));
+            return request;
+        }
+    }
+
+    // A test configuration, so that the application's component scan leaves it out
+    @TestConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Cart.class)
+    @EnableJpaRepositories(basePackageClasses = CartRepository.class)
+    @Import({CartServiceImpl.class, InMemoryCartServiceImpl.class, CartWriteBehind.class})
+    static class Config {
+
+        @Bean
+        UserCache stubUserCache() {
+            UserCache userCache = mock(UserCache.class, withSettings().stubOnly());
+            when(userCache.getUser(anyInt())).thenAnswer(invocation -> {
+                int userId = invocation.getArgument(0);
+                return new UserResponseDto(userId, "customer" + userId, "customer" + userId + "@example.com", "CUSTOMER");
+            });
+            return userCache;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.exceptions.CartItemNotFoundException;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Changes the quantity of cart items from many threads at once, each change in a transaction of
+ * its own, and checks that none of the changes is lost.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CartServiceImpl.class)
+class CartServiceImplConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int CHANGES_PER_THREAD = 25;
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @MockBean
+    private UserCache userCache;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @AfterEach
+    void clearCarts() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentIncrements_AreAllCounted() throws Exception {
+        int cartId = saveCartItem(1, "149.50");
+
+        runConcurrently(thread -> 1);
+
+        Cart cart = cartRepository.findById(cartId).get();
+        assertEquals(1 + THREADS * CHANGES_PER_THREAD, cart.getQuantity());
+        assertEquals(0, new BigDecimal("149.50").multiply(BigDecimal.valueOf(cart.getQuantity()))
+                .compareTo(cart.getPrice()));
+    }
+
+    @Test
+    void concurrentIncrementsAndDecrements_CancelOut() throws Exception {
+        int cartId = saveCartItem(THREADS * CHANGES_PER_THREAD, "99.99");
+
+        runConcurrently(thread -> thread % 2 == 0 ? 1 : -1);
+
+        Cart cart = cartRepository.findById(cartId).get();
+        assertEquals(THREADS * CHANGES_PER_THREAD, cart.getQuantity());
+        assertEquals(0, new BigDecimal("99.99").multiply(BigDecimal.valueOf(cart.getQuantity()))
+                .compareTo(cart.getPrice()));
+    }
+
+    @Test
+    void concurrentDecrements_RemoveTheItemOnce() throws Exception {
+        int cartId = saveCartItem(THREADS * CHANGES_PER_THREAD / 2, "10.00");
+
+        List<String> messages = runConcurrently(thread -> -1);
+
+        assertFalse(cartRepository.existsById(cartId));
+        assertEquals(1, messages.stream().filter("Item Removed Successfully"::equals).count());
+    }
+
+    @Test
+    void updateCartItemQuantity_KeepsThePriceExact() {
+        int cartId = saveCartItem(3, "33.33");
+
+        cartService.updateCartItemQuantity(cartId, 4);
+
+        Cart cart = cartRepository.findById(cartId).get();
+        assertEquals(7, cart.getQuantity());
+        assertEquals(0, new BigDecimal("233.31").compareTo(cart.getPrice()));
+    }
+
+    @Test
+    void updateCartItemQuantity_UnknownItem() {
+        assertThrows(CartItemNotFoundException.class, () -> cartService.updateCartItemQuantity(12345, 1));
+    }
+
+    private int saveCartItem(int quantity, String unitPrice) {
+        Cart cart = new Cart(1, 2, 3, quantity);
+        cart.setUnitPrice(new BigDecimal(unitPrice));
+        cart.setPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        return cartRepository.save(cart).getCartId();
+    }
+
+    /**
+     * Has every thread make its changes to the only cart item once all threads are ready.
+     *
+     * @return the messages of the changes that reached the item
+     */
+    private List<String> runConcurrently(Delta delta) throws Exception {
+        int cartId = cartRepository.findAll().get(0).getCartId();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<String>>> threads = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                threads.add(executor.submit(() -> {
+                    start.await();
+                    List<String> messages = new ArrayList<>();
+                    for (int change = 0; change < CHANGES_PER_THREAD; change++) {
+                        try {
+                            messages.add(cartService.updateCartItemQuantity(cartId, delta.of(thread)).getMessage());
+                        } catch (CartItemNotFoundException e) {
+                            messages.add(e.getMessage());
+                        }
+                    }
+                    return messages;
+                }));
+            }
+            start.countDown();
+            List<String> messages = new ArrayList<>();
+            for (Future<List<String>> thread : threads) {
+                messages.addAll(thread.get(30, TimeUnit.SECONDS));
+            }
+            return messages;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Delta {
+
+        int of(int thread);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.exceptions.ServiceUnavailableException;
+import com.ordermicroservice.OrderMicroservice.exceptions.UnauthorizedActionException;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests adding an item to a cart, and the retries of a change of quantity, against a mocked
+ * repository. The upsert itself is PostgreSQL only, and is run by {@link CartServiceImplUpsertTest}
+ * where Docker is available.
+ */
+class CartServiceImplTest {
+
+    @InjectMocks
+    private CartServiceImpl cartService;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(userCache.getUser(1)).thenReturn(new UserResponseDto(1, "customer", "customer@example.com", "CUSTOMER"));
+        when(userCache.getUser(2)).thenReturn(new UserResponseDto(2, "owner", "owner@example.com", "RESTAURANT_OWNER"));
+    }
+
+    @Test
+    void addItemToCart_NewItem_IsAdded() {
+        when(cartRepository.addOne(eq(1), eq(2), eq(3), eq(new BigDecimal("149.50")), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        assertEquals("Cart Added Successfully", cartService.addItemToCart(item(1)).getMessage());
+    }
+
+    @Test
+    void addItemToCart_ItemAlreadyInCart_IsUpdated() {
+        when(cartRepository.addOne(eq(1), eq(2), eq(3), eq(new BigDecimal("149.50")), any(LocalDateTime.class)))
+                .thenReturn(2);
+
+        assertEquals("Cart Updated Successfully", cartService.addItemToCart(item(1)).getMessage());
+    }
+
+    @Test
+    void addItemToCart_NotACustomer_IsRejected() {
+        assertThrows(UnauthorizedActionException.class, () -> cartService.addItemToCart(item(2)));
+
+        verify(cartRepository, never()).addOne(anyInt(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void updateCartItemQuantity_ItemKeepsChanging_GivesUp() {
+        // Neither statement applies, yet the item is there: it changed between them every time
+        when(cartRepository.existsById(5)).thenReturn(true);
+
+        assertThrows(ServiceUnavailableException.class, () -> cartService.updateCartItemQuantity(5, -1));
+
+        verify(cartRepository, times(CartServiceImpl.MAX_QUANTITY_ATTEMPTS))
+                .addToQuantity(eq(5), eq(-1), any(LocalDateTime.class));
+    }
+
+    private static CartItemRequestDto item(int userId) {
+        CartItemRequestDto item = new CartItemRequestDto();
+        item.setUserId(userId);
+        item.setRestaurantId(2);
+        item.setMenuItemId(3);
+        item.setPrice(new BigDecimal("149.50"));
+        return item;
+    }
+}
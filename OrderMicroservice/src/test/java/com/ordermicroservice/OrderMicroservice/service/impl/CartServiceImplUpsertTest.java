@@ -0,0 +1,217 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.exceptions.InvalidCartRequestException;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Adds items to carts with the single-statement upsert, one at a time and in batches, and replaces
+ * carts, on PostgreSQL since the upsert is written for it. Skipped where Docker is not available.
+ */
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CartServiceImpl.class)
+class CartServiceImplUpsertTest {
+
+    private static final int THREADS = 8;
+
+    private static final int ADDS_PER_THREAD = 25;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @MockBean
+    private UserCache userCache;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    void customers() {
+        when(userCache.getUser(anyInt())).thenAnswer(invocation -> {
+            int userId = invocation.getArgument(0);
+            return new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER");
+        });
+    }
+
+    @AfterEach
+    void clearCarts() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void addItemToCart_InsertsThenIncrements() {
+        assertEquals("Cart Added Successfully", cartService.addItemToCart(request(3, "12.50")).getMessage());
+        assertEquals("Cart Updated Successfully", cartService.addItemToCart(request(3, "12.50")).getMessage());
+        assertEquals("Cart Added Successfully", cartService.addItemToCart(request(4, "8.00")).getMessage());
+
+        Cart cart = cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 3, 2).get();
+        assertEquals(2, cart.getQuantity());
+        assertEquals(0, new BigDecimal("25.00").compareTo(cart.getPrice()));
+        assertEquals(2, cartRepository.count());
+    }
+
+    @Test
+    void addItemToCart_PricesItemsSavedWithoutUnitPrice() {
+        Cart legacy = new Cart(1, 2, 3, 2);
+        legacy.setPrice(new BigDecimal("30.00"));
+        cartRepository.save(legacy);
+
+        cartService.addItemToCart(request(3, "99.99"));
+
+        Cart cart = cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 3, 2).get();
+        assertEquals(3, cart.getQuantity());
+        assertEquals(0, new BigDecimal("45.00").compareTo(cart.getPrice()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(cart.getUnitPrice()));
+    }
+
+    @Test
+    void addItemsToCart_MergesTheItemsAndAddsToHeldOnes() {
+        cartService.addItemToCart(request(3, "12.50"));
+        CartItemRequestDto two = request(3, "12.50");
+        two.setQuantity(2);
+
+        assertEquals("Items Added Successfully", cartService.addItemsToCart(
+                Arrays.asList(two, request(4, "8.00"), request(3, "12.50"))).getMessage());
+
+        Cart cart = cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 3, 2).get();
+        assertEquals(4, cart.getQuantity());
+        assertEquals(0, new BigDecimal("50.00").compareTo(cart.getPrice()));
+        assertEquals(1, cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 4, 2).get().getQuantity());
+        assertEquals(2, cartRepository.count());
+    }
+
+    @Test
+    void addItemsToCart_RejectsItemsForAnotherUser() {
+        CartItemRequestDto other = request(4, "8.00");
+        other.setUserId(9);
+
+        assertThrows(InvalidCartRequestException.class,
+                () -> cartService.addItemsToCart(Arrays.asList(request(3, "12.50"), other)));
+
+        assertEquals(0, cartRepository.count());
+    }
+
+    @Test
+    void replaceCart_ReplacesAllTheItems() {
+        cartService.addItemToCart(request(3, "12.50"));
+        cartService.addItemToCart(request(4, "8.00"));
+        CartItemRequestDto two = request(4, "9.00");
+        two.setQuantity(2);
+
+        assertEquals("Cart Replaced Successfully",
+                cartService.replaceCart(1, Arrays.asList(two, request(5, "3.00"))).getMessage());
+
+        assertFalse(cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 3, 2).isPresent());
+        Cart cart = cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(1, 4, 2).get();
+        assertEquals(2, cart.getQuantity());
+        assertEquals(0, new BigDecimal("18.00").compareTo(cart.getPrice()));
+        assertEquals(2, cartRepository.count());
+
+        cartService.replaceCart(1, new ArrayList<>());
+
+        assertEquals(0, cartRepository.count());
+    }
+
+    @Test
+    void concurrentFirstAdds_MakeOneItem() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<String>>> threads = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                threads.add(executor.submit(() -> {
+                    start.await();
+                    List<String> added = new ArrayList<>();
+                    for (int add = 0; add < ADDS_PER_THREAD; add++) {
+                        added.add(cartService.addItemToCart(request(3, "149.50")).getMessage());
+                    }
+                    return added;
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> thread : threads) {
+                messages.addAll(thread.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, cartRepository.count());
+        assertEquals(1, messages.stream().filter("Cart Added Successfully"::equals).count());
+        Cart cart = cartRepository.findAll().get(0);
+        assertEquals(THREADS * ADDS_PER_THREAD, cart.getQuantity());
+        assertEquals(0, new BigDecimal("149.50").multiply(BigDecimal.valueOf(THREADS * ADDS_PER_THREAD))
+                .compareTo(cart.getPrice()));
+    }
+
+    private static CartItemRequestDto request(int menuItemId, String price) {
+        CartItemRequestDto request = new CartItemRequestDto();
+        request.setUserId(1);
+        request.setRestaurantId(2);
+        request.setMenuItemId(menuItemId);
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
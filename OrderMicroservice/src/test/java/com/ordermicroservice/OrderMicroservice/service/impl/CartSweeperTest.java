@@ -0,0 +1,121 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sweeps cart items of various ages from the carts table, in batches of three. The periodic
+ * sweeps are left to a later time than the tests take.
+ */
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "cart.ttl-hours=24", "cart.sweep.interval-seconds=3600", "cart.sweep.batch-size=3",
+        "cart.sweep.pause-millis=0"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CartSweeper.class)
+class CartSweeperTest {
+
+    private static int lastMenuItemId;
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @Autowired
+    private CartSweeper cartSweeper;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearCarts() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void sweep_DeletesOnlyExpiredItems() {
+        int expired = saveCartItem(LocalDateTime.now().minusDays(2));
+        int fresh = saveCartItem(LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, cartSweeper.sweep());
+
+        assertFalse(cartRepository.existsById(expired));
+        assertTrue(cartRepository.existsById(fresh));
+        assertEquals(0, cartSweeper.getBacklog());
+    }
+
+    @Test
+    void sweep_DeletesInBatches() {
+        for (int i = 0; i < 7; i++) {
+            saveCartItem(LocalDateTime.now().minusDays(2).plusMinutes(i));
+        }
+        long batches = cartSweeper.getBatchCount();
+        long deleted = cartSweeper.getDeletedCount();
+
+        assertEquals(7, cartSweeper.sweep());
+
+        assertEquals(batches + 3, cartSweeper.getBatchCount());
+        assertEquals(deleted + 7, cartSweeper.getDeletedCount());
+        assertEquals(0, cartRepository.count());
+    }
+
+    @Test
+    void changedItems_AreNotSwept() {
+        int changed = saveCartItem(LocalDateTime.now().minusDays(2));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> cartRepository.addToQuantity(changed, 1, LocalDateTime.now()));
+
+        assertEquals(0, cartSweeper.sweep());
+        assertEquals(2, cartRepository.findById(changed).get().getQuantity());
+    }
+
+    @Test
+    void untimedItems_AreTimedInsteadOfSwept() {
+        for (int i = 0; i < 4; i++) {
+            saveCartItem(null);
+        }
+
+        assertEquals(0, cartSweeper.sweep());
+
+        assertEquals(4, cartRepository.count());
+        cartRepository.findAll().forEach(cart -> assertNotNull(cart.getUpdatedAt()));
+    }
+
+    private int saveCartItem(LocalDateTime updatedAt) {
+        Cart cart = new Cart(1, 2, ++lastMenuItemId, 1);
+        cart.setUnitPrice(new BigDecimal("10.00"));
+        cart.setPrice(new BigDecimal("10.00"));
+        cart.setUpdatedAt(updatedAt);
+        return cartRepository.save(cart).getCartId();
+    }
+}
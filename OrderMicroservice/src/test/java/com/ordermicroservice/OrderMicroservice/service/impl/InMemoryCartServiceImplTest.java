@@ -0,0 +1,352 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CartItemRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.exceptions.CartItemNotFoundException;
+import com.ordermicroservice.OrderMicroservice.exceptions.InvalidCartRequestException;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.RestaurantFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import com.ordermicroservice.OrderMicroservice.repositories.CartRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Changes carts through the in-memory store and checks when, and how, the changes reach the carts
+ * table. The periodic writes are left to a later time than the tests take, so that only the
+ * flushes made by the tests write.
+ */
+@DataJpaTest(properties = {"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "cart.store=memory", "cart.memory.flush-interval-millis=600000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InMemoryCartServiceImpl.class, CartWriteBehind.class})
+class InMemoryCartServiceImplTest {
+
+    private static final int RESTAURANT_ID = 2;
+
+    private static int lastUserId;
+
+    private static int lastMenuItemId;
+
+    /** A user of its own for each test, whose cart is not in memory yet. */
+    private int userId;
+
+    // The Feign clients registered by the application class are not needed here
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private AddressFeignClient addressFeignClient;
+
+    @MockBean
+    private RestaurantFeignClient restaurantFeignClient;
+
+    @MockBean
+    private UserCache userCache;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartWriteBehind writeBehind;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("cart-journal");
+        registry.add("cart.memory.journal-dir", directory::toString);
+    }
+
+    @BeforeEach
+    void newUser() {
+        userId = ++lastUserId;
+    }
+
+    @AfterEach
+    void clearCarts() {
+        writeBehind.flush();
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void addItemToCart_InsertsNewItemsAtOnce() {
+        when(userCache.getUser(userId)).thenReturn(new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER"));
+
+        assertEquals("Cart Added Successfully", cartService.addItemToCart(request(3, "149.50")).getMessage());
+        assertEquals("Cart Updated Successfully", cartService.addItemToCart(request(3, "149.50")).getMessage());
+
+        List<Cart> rows = cartRepository.findByUserId(userId);
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.get(0).getQuantity());
+        assertEquals(2, cartService.getCartByUserId(userId).get(0).getQuantity());
+    }
+
+    @Test
+    void addItemsToCart_InsertsNewItemsAtOnceAndWritesTheRestOnFlush() {
+        when(userCache.getUser(userId)).thenReturn(new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER"));
+        int held = saveCartItem(2, "10.00");
+        CartItemRequestDto more = request(cartRepository.findById(held).get().getMenuItemId(), "10.00");
+        more.setQuantity(3);
+
+        assertEquals("Items Added Successfully", cartService.addItemsToCart(
+                Arrays.asList(more, request(1003, "8.00"), request(1003, "8.00"), request(1004, "4.50"))).getMessage());
+
+        assertEquals(3, cartRepository.findByUserId(userId).size());
+        assertEquals(2, cartRepository.findByUserIdAndMenuItemIdAndRestaurantId(userId, 1003, RESTAURANT_ID).get()
+                .getQuantity());
+        assertEquals(3, cartService.getCartByUserId(userId).size());
+        assertEquals(2, cartRepository.findById(held).get().getQuantity());
+
+        writeBehind.flush();
+
+        Cart cart = cartRepository.findById(held).get();
+        assertEquals(5, cart.getQuantity());
+        assertEquals(0, new BigDecimal("50.00").compareTo(cart.getPrice()));
+    }
+
+    @Test
+    void addItemsToCart_RejectsItemsForAnotherUser() {
+        when(userCache.getUser(userId)).thenReturn(new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER"));
+        CartItemRequestDto other = request(1004, "4.50");
+        other.setUserId(userId + 1000);
+
+        assertThrows(InvalidCartRequestException.class,
+                () -> cartService.addItemsToCart(Arrays.asList(request(1003, "8.00"), other)));
+
+        assertTrue(cartRepository.findByUserId(userId).isEmpty());
+        assertTrue(cartService.getCartByUserId(userId).isEmpty());
+    }
+
+    @Test
+    void replaceCart_KeepsChangesRemovesAndInsertsItems() {
+        when(userCache.getUser(userId)).thenReturn(new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER"));
+        int kept = saveCartItem(1, "10.00");
+        int dropped = saveCartItem(1, "5.00");
+        CartItemRequestDto keep = request(cartRepository.findById(kept).get().getMenuItemId(), "12.00");
+        keep.setQuantity(4);
+
+        assertEquals("Cart Replaced Successfully",
+                cartService.replaceCart(userId, Arrays.asList(keep, request(1005, "3.00"))).getMessage());
+
+        List<Cart> cart = cartService.getCartByUserId(userId);
+        assertEquals(2, cart.size());
+        assertTrue(cart.stream().anyMatch(item -> item.getCartId() == kept && item.getQuantity() == 4));
+
+        writeBehind.flush();
+
+        Cart changed = cartRepository.findById(kept).get();
+        assertEquals(4, changed.getQuantity());
+        assertEquals(0, new BigDecimal("48.00").compareTo(changed.getPrice()));
+        assertFalse(cartRepository.existsById(dropped));
+        assertEquals(2, cartRepository.findByUserId(userId).size());
+    }
+
+    @Test
+    void updateCartItemQuantity_IsWrittenOnFlush() {
+        int cartId = saveCartItem(3, "33.33");
+
+        assertEquals("Cart Updated Successfully", cartService.updateCartItemQuantity(cartId, 4).getMessage());
+
+        assertEquals(7, cartService.getCartById(cartId).getQuantity());
+        assertEquals(3, cartRepository.findById(cartId).get().getQuantity());
+
+        writeBehind.flush();
+
+        Cart cart = cartRepository.findById(cartId).get();
+        assertEquals(7, cart.getQuantity());
+        assertEquals(0, new BigDecimal("233.31").compareTo(cart.getPrice()));
+    }
+
+    @Test
+    void changesToTheSameItem_AreWrittenOnce() {
+        int cartId = saveCartItem(1, "10.00");
+        long written = writeBehind.getWrittenCount();
+
+        for (int i = 0; i < 20; i++) {
+            cartService.updateCartItemQuantity(cartId, 1);
+        }
+
+        assertEquals(1, writeBehind.getPendingCount());
+        writeBehind.flush();
+        assertEquals(written + 1, writeBehind.getWrittenCount());
+        assertEquals(21, cartRepository.findById(cartId).get().getQuantity());
+    }
+
+    @Test
+    void pendingChanges_AreTrackedByUser() {
+        int cartId = saveCartItem(1, "10.00");
+        assertFalse(writeBehind.hasPendingChanges(userId));
+
+        cartService.updateCartItemQuantity(cartId, 1);
+        cartService.updateCartItemQuantity(cartId, 1);
+
+        assertTrue(writeBehind.hasPendingChanges(userId));
+        assertFalse(writeBehind.hasPendingChanges(userId + 1000));
+
+        writeBehind.flush();
+
+        assertFalse(writeBehind.hasPendingChanges(userId));
+    }
+
+    @Test
+    void removedItems_AreDeletedOnFlush() {
+        int cartId = saveCartItem(2, "10.00");
+
+        assertEquals("Item Removed Successfully", cartService.updateCartItemQuantity(cartId, -2).getMessage());
+        assertThrows(CartItemNotFoundException.class, () -> cartService.getCartById(cartId));
+        assertThrows(CartItemNotFoundException.class, () -> cartService.removeItemFromCart(cartId));
+        assertTrue(cartRepository.existsById(cartId));
+
+        writeBehind.flush();
+
+        assertFalse(cartRepository.existsById(cartId));
+    }
+
+    @Test
+    void removedItems_CanBeAddedAgainBeforeTheirRemovalIsWritten() {
+        when(userCache.getUser(userId)).thenReturn(new UserResponseDto(userId, "customer", "c@example.com", "CUSTOMER"));
+        cartService.addItemToCart(request(3, "149.50"));
+        cartService.removeItemFromCart(cartService.getCartByUserId(userId).get(0).getCartId());
+
+        assertEquals("Cart Added Successfully", cartService.addItemToCart(request(3, "149.50")).getMessage());
+
+        writeBehind.flush();
+        List<Cart> rows = cartRepository.findByUserId(userId);
+        assertEquals(1, rows.size());
+        assertEquals(rows.get(0).getCartId(), cartService.getCartByUserId(userId).get(0).getCartId());
+    }
+
+    @Test
+    void loadedCarts_AreTimedAsInUse() {
+        Cart expired = new Cart(userId, RESTAURANT_ID, ++lastMenuItemId, 1);
+        expired.setUnitPrice(new BigDecimal("10.00"));
+        expired.setPrice(new BigDecimal("10.00"));
+        expired.setUpdatedAt(LocalDateTime.now().minusDays(10));
+        int cartId = cartRepository.save(expired).getCartId();
+
+        cartService.getCartByUserId(userId);
+
+        assertTrue(cartRepository.findById(cartId).get().getUpdatedAt().isAfter(LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    void clearCartAfterOrderPlaced_WritesAtOnce() {
+        int ordered = saveCartItem(2, "10.00");
+        cartService.updateCartItemQuantity(ordered, 1);
+
+        assertEquals("Cart Deleted Successfully",
+                cartService.clearCartAfterOrderPlaced(userId, RESTAURANT_ID).getMessage());
+
+        assertFalse(cartRepository.existsById(ordered));
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals("Cart Already Empty", cartService.clearCartAfterOrderPlaced(userId, RESTAURANT_ID).getMessage());
+    }
+
+    @Test
+    void concurrentIncrements_AreAllCounted() throws Exception {
+        int threads = 8;
+        int changesPerThread = 25;
+        int cartId = saveCartItem(1, "149.50");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> changes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                changes.add(executor.submit(() -> {
+                    start.await();
+                    for (int change = 0; change < changesPerThread; change++) {
+                        cartService.updateCartItemQuantity(cartId, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> change : changes) {
+                change.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        writeBehind.flush();
+
+        assertEquals(1 + threads * changesPerThread, cartRepository.findById(cartId).get().getQuantity());
+    }
+
+    @Test
+    void journaledChanges_AreWrittenAfterACrash() throws IOException {
+        int changed = saveCartItem(1, "10.00");
+        int removed = saveCartItem(1, "5.00");
+        Path directory = Files.createTempDirectory("cart-journal-crash");
+        CartWriteBehind crashed = new CartWriteBehind(cartRepository, transactionManager, directory.toString());
+        crashed.afterPropertiesSet();
+        Cart item = cartRepository.findById(changed).get();
+        item.setQuantity(5);
+        item.setPrice(new BigDecimal("50.00"));
+        crashed.record(CartChange.update(item));
+        crashed.record(CartChange.removal(cartRepository.findById(removed).get()));
+        // Gone without a flush
+        crashed.destroy();
+        assertEquals(1, cartRepository.findById(changed).get().getQuantity());
+
+        CartWriteBehind restarted = new CartWriteBehind(cartRepository, transactionManager, directory.toString());
+        restarted.afterPropertiesSet();
+        restarted.destroy();
+
+        assertEquals(5, cartRepository.findById(changed).get().getQuantity());
+        assertFalse(cartRepository.existsById(removed));
+    }
+
+    private int saveCartItem(int quantity, String unitPrice) {
+        Cart cart = new Cart(userId, RESTAURANT_ID, ++lastMenuItemId, quantity);
+        cart.setUnitPrice(new BigDecimal(unitPrice));
+        cart.setPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        return cartRepository.save(cart).getCartId();
+    }
+
+    private CartItemRequestDto request(int menuItemId, String price) {
+        CartItemRequestDto request = new CartItemRequestDto();
+        request.setUserId(userId);
+        request.setRestaurantId(RESTAURANT_ID);
+        request.setMenuItemId(menuItemId);
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.CommonResponseDto;
+import com.ordermicroservice.OrderMicroservice.dtos.OrderRequestDto;
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.entities.Cart;
+import com.ordermicroservice.OrderMicroservice.feignclient.AddressFeignClient;
+import com.ordermicroservice.OrderMicroservice.feignclient.FeignGuard;
+import com.ordermicroservice.OrderMicroservice.feignclient.FeignTransportConfiguration;
+import com.ordermicroservice.OrderMicroservice.feignclient.StubUserService;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import com.ordermicroservice.OrderMicroservice.repositories.OrderRepository;
+import com.ordermicroservice.OrderMicroservice.service.CartService;
+import com.ordermicroservice.OrderMicroservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Load test of {@code placeOrder} against a local stub of the user service, with the Feign clients
+ * on {@code HttpURLConnection} ({@code pooled=false}) and on the pooled OkHttp transport
+ * ({@code pooled=true}). Sixteen threads place orders for a hundred customers; each order checks
+ * the customer through the user cache and updates the wallet over HTTP, while the repositories
+ * are stubbed so that the remote hops dominate. Compare the {@code p0.99} rows of the two runs.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PlaceOrderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class PlaceOrderBenchmark {
+
+    /**
+     * Number of customers placing orders.
+     */
+    private static final int CUSTOMERS = 100;
+
+    /**
+     * The restaurant every order is placed with.
+     */
+    private static final int RESTAURANT_ID = 7;
+
+    /**
+     * Whether the Feign clients run on the pooled OkHttp transport.
+     */
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    private StubUserService userService;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UserResponseDto[] customers = new UserResponseDto[CUSTOMERS];
+        for (int id = 1; id <= CUSTOMERS; id++) {
+            customers[id - 1] = new UserResponseDto(id, "customer" + id, "customer" + id + "@example.com", "CUSTOMER");
+        }
+        userService = StubUserService.start(customers);
+        // Given as arguments, which take precedence over application.properties
+        context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .run("--user.service.url=" + userService.url(),
+                        "--feign.pool.enabled=" + pooled,
+                        "--feign.guard.default.max-concurrent-calls=64");
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        userService.close();
+    }
+
+    @Benchmark
+    public CommonResponseDto placeOrder() {
+        int userId = ThreadLocalRandom.current().nextInt(1, CUSTOMERS + 1);
+        OrderRequestDto request = new OrderRequestDto();
+        request.setUserId(userId);
+        request.setRestaurantId(RESTAURANT_ID);
+        request.setDeliveryAddressId(1);
+        request.setCartItems(cartItems(userId));
+        return orderService.placeOrder(request);
+    }
+
+    private static List<Cart> cartItems(int userId) {
+        Cart item = new Cart(userId, RESTAURANT_ID, 1, 2);
+        item.setPrice(new BigDecimal("149.50"));
+        return Collections.singletonList(item);
+    }
+
+    // A test configuration, so that the application's component scan leaves it out
+    @TestConfiguration
+    @EnableFeignClients(clients = {UserFeignClient.class, AddressFeignClient.class})
+    @ImportAutoConfiguration({FeignAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import({OrderServiceImpl.class, UserCache.class, UserBatchLoader.class, FeignGuard.class,
+            FeignTransportConfiguration.class})
+    static class Config {
+
+        @Bean
+        OrderRepository orderRepository() {
+            OrderRepository orderRepository = mock(OrderRepository.class, withSettings().stubOnly());
+            when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            return orderRepository;
+        }
+
+        @Bean
+        CartService cartService() {
+            CartService cartService = mock(CartService.class, withSettings().stubOnly());
+            when(cartService.getCartItemsByUserIdAndRestaurantId(anyInt(), anyInt()))
+                    .thenAnswer(invocation -> cartItems(invocation.getArgument(0)));
+            return cartService;
+        }
+    }
+}
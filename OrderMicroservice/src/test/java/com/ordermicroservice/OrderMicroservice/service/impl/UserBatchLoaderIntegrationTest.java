@@ -0,0 +1,116 @@
+package com.ordermicroservice.OrderMicroservice.service.impl;
+
+import com.ordermicroservice.OrderMicroservice.dtos.UserResponseDto;
+import com.ordermicroservice.OrderMicroservice.feignclient.StubUserService;
+import com.ordermicroservice.OrderMicroservice.feignclient.UserFeignClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the user lookups through Feign against a local stub of the user service. Batches stay open
+ * for 200 ms and hold at most three users; each test uses its own users since the cache is shared.
+ */
+@SpringBootTest(classes = UserBatchLoaderIntegrationTest.Config.class,
+        properties = {"user.batch.window-millis=200", "user.batch.max-size=3"})
+class UserBatchLoaderIntegrationTest {
+
+    private static final StubUserService userService = startUserService();
+
+    @Autowired
+    private UserCache userCache;
+
+    @DynamicPropertySource
+    static void userServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("user.service.url", userService::url);
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        userService.close();
+    }
+
+    @BeforeEach
+    void resetUserService() {
+        userService.reset();
+    }
+
+    @Test
+    void concurrentLookups_SentInOneBatch() throws Exception {
+        List<CompletableFuture<UserResponseDto>> lookups = new ArrayList<>();
+        for (int userId : new int[] {1, 2, 99}) {
+            lookups.add(CompletableFuture.supplyAsync(() -> userCache.getUser(userId)));
+        }
+
+        assertEquals("customer1", lookups.get(0).get(5, TimeUnit.SECONDS).getUsername());
+        assertEquals("customer2", lookups.get(1).get(5, TimeUnit.SECONDS).getUsername());
+        assertNull(lookups.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals(1, userService.batches().size());
+        assertEquals(Arrays.asList(1, 2, 99), sorted(userService.batches().get(0)));
+        assertEquals(0, userService.singleLookups());
+    }
+
+    @Test
+    void getUsers_SplitsFullBatchesAndCachesUsers() {
+        List<Integer> userIds = Arrays.asList(3, 4, 5, 6, 7, 8);
+
+        Map<Integer, UserResponseDto> users = userCache.getUsers(userIds);
+
+        assertEquals(6, users.size());
+        assertEquals("customer8", users.get(8).getUsername());
+        assertEquals(2, userService.batches().size());
+        assertEquals(userIds, sorted(userService.batches().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList())));
+
+        assertEquals(users.keySet(), userCache.getUsers(userIds).keySet());
+        assertEquals(2, userService.batches().size());
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static StubUserService startUserService() {
+        UserResponseDto[] users = new UserResponseDto[8];
+        for (int id = 1; id <= users.length; id++) {
+            users[id - 1] = new UserResponseDto(id, "customer" + id, "customer" + id + "@example.com", "CUSTOMER");
+        }
+        try {
+            return StubUserService.start(users);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the stub user service", e);
+        }
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = UserFeignClient.class)
+    @ImportAutoConfiguration({FeignAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import({UserBatchLoader.class, UserCache.class})
+    static class Config {
+    }
+}
@@ -0,0 +1,46 @@
+package com.ordermicroservice.OrderMicroservice.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A clock the tests can move forward. The clocks it returns for other zones share its time.
+ */
+public final class MutableClock extends Clock {
+
+    // Shared with the clocks for other zones
+    private final AtomicReference<Instant> instant;
+
+    private final ZoneId zone;
+
+    public MutableClock(Instant instant, ZoneId zone) {
+        this(new AtomicReference<>(instant), zone);
+    }
+
+    private MutableClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+}
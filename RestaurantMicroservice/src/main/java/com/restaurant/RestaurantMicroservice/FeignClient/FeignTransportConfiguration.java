@@ -0,0 +1,111 @@
+package com.restaurant.RestaurantMicroservice.FeignClient;
+
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the HTTP transport of the Feign clients.
+ * <p>
+ * The clients run on OkHttp over a shared pool of keep-alive connections, so a call to another
+ * service reuses an open connection rather than setting up a new one. HTTP/2 is negotiated with
+ * peers served over TLS. The peers listed in {@code feign.pool.h2c-hosts} are known to speak
+ * HTTP/2 in clear text and are called over it directly, the calls to such a peer then sharing one
+ * multiplexed connection.
+ * </p>
+ * <p>
+ * Setting {@code feign.pool.enabled=false} leaves Feign on {@code HttpURLConnection}. The pool is
+ * published as the {@code okhttp.pool.*} metrics.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "feign.pool.enabled", matchIfMissing = true)
+public class FeignTransportConfiguration {
+
+    /**
+     * Creates the connection pool shared by the Feign clients.
+     *
+     * @param maxIdleConnections the number of idle connections kept open
+     * @param keepAliveSeconds how long an idle connection is kept open
+     * @return the connection pool
+     */
+    @Bean(destroyMethod = "evictAll")
+    public ConnectionPool feignConnectionPool(@Value("${feign.pool.max-idle-connections:50}") int maxIdleConnections,
+                                              @Value("${feign.pool.keep-alive-seconds:300}") long keepAliveSeconds) {
+        return new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Publishes the active and idle connections of the pool, and its idle connection limit.
+     *
+     * @param feignConnectionPool the connection pool
+     * @param maxIdleConnections the number of idle connections kept open
+     * @return the pool metrics
+     */
+    @Bean
+    public OkHttpConnectionPoolMetrics feignConnectionPoolMetrics(ConnectionPool feignConnectionPool,
+            @Value("${feign.pool.max-idle-connections:50}") int maxIdleConnections) {
+        return new OkHttpConnectionPoolMetrics(feignConnectionPool, "okhttp.pool", Tags.of("client", "feign"),
+                maxIdleConnections);
+    }
+
+    /**
+     * Creates the OkHttp client the Feign clients share. Its timeouts are the Feign defaults, so
+     * that the calls made with them need no client of their own.
+     *
+     * @param feignConnectionPool the connection pool
+     * @param connectTimeoutMillis the connect timeout of the Feign clients
+     * @param readTimeoutMillis the read timeout of the Feign clients
+     * @return the OkHttp client
+     */
+    @Bean
+    public okhttp3.OkHttpClient feignOkHttpClient(ConnectionPool feignConnectionPool,
+            @Value("${feign.client.config.default.connectTimeout:10000}") long connectTimeoutMillis,
+            @Value("${feign.client.config.default.readTimeout:60000}") long readTimeoutMillis) {
+        return new okhttp3.OkHttpClient.Builder()
+                .connectionPool(feignConnectionPool)
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Creates the Feign client transport, calling the clear-text HTTP/2 peers over HTTP/2 and the
+     * others over whatever protocol they negotiate.
+     *
+     * @param feignOkHttpClient the OkHttp client
+     * @param h2cHosts the {@code host:port} of the peers speaking HTTP/2 in clear text
+     * @return the Feign client transport
+     */
+    @Bean
+    public Client feignClient(okhttp3.OkHttpClient feignOkHttpClient,
+                              @Value("${feign.pool.h2c-hosts:}") List<String> h2cHosts) {
+        Client client = new OkHttpClient(feignOkHttpClient);
+        if (h2cHosts.isEmpty()) {
+            return client;
+        }
+        Set<String> hosts = new HashSet<>(h2cHosts);
+        Client h2cClient = new OkHttpClient(feignOkHttpClient.newBuilder()
+                .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE))
+                .build());
+        return (request, options) -> {
+            URI uri = URI.create(request.url());
+            boolean h2c = "http".equals(uri.getScheme()) && hosts.contains(uri.getHost() + ":" + uri.getPort());
+            return (h2c ? h2cClient : client).execute(request, options);
+        };
+    }
+}
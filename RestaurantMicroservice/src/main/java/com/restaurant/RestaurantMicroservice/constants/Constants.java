@@ -75,4 +75,43 @@ public class Constants {
 
     /** Error message when an uploaded file exceeds the 10 MB size limit. */
     public static final String FILE_TOO_LARGE = "File size exceeds the 10 MB limit";
+
+    /** Error message when a requested image does not exist. */
+    public static final String IMAGE_NOT_FOUND = "Image not found";
+
+    /** Path under which stored images are served, followed by their content hash. */
+    public static final String IMAGE_URL_PREFIX = "/api/images/";
+
+    /** Response header carrying the version of the returned restaurant menu. */
+    public static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
+    /** Error message when a restaurant menu cannot be serialized for the menu cache. */
+    public static final String MENU_SERIALIZATION_FAILED = "Unable to serialize the restaurant menu";
+
+    /** Response header carrying the cursor of the next page of a paginated list. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Number of restaurants returned per page when the client does not ask for a size. */
+    public static final int DEFAULT_RESTAURANT_PAGE_SIZE = 50;
+
+    /** Largest number of restaurants returned per page. */
+    public static final int MAX_RESTAURANT_PAGE_SIZE = 200;
+
+    /** Number of menu items returned by a search when the client does not ask for a count. */
+    public static final int DEFAULT_SEARCH_RESULTS = 20;
+
+    /** Largest number of menu items returned by a search. */
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    /** Number of name suggestions returned when the client does not ask for a count. */
+    public static final int DEFAULT_SUGGESTIONS = 8;
+
+    /** Radius of a nearby restaurant search in kilometres when the client does not ask for one. */
+    public static final double DEFAULT_NEARBY_RADIUS_KM = 5;
+
+    /** Largest radius of a nearby restaurant search in kilometres. */
+    public static final double MAX_NEARBY_RADIUS_KM = 50;
+
+    /** Number of restaurants returned by a nearby search when the client does not ask for a count. */
+    public static final int DEFAULT_NEARBY_RESULTS = 20;
 }
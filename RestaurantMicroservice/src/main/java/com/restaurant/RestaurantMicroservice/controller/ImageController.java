@@ -0,0 +1,63 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class for serving stored images by their content hash.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    /**
+     * Logger instance for logging information and errors.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ImageController.class);
+
+    /**
+     * Service instance for reading stored images.
+     */
+    private final ImageService imageService;
+
+    /**
+     * Constructor to initialize the ImageController with the ImageService.
+     * @param imageService Service for image-related operations.
+     */
+    @Autowired
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    /**
+     * Retrieves a stored image by its content hash. The content behind a hash never changes, so
+     * responses may be cached indefinitely, except while a requested variant is still being generated.
+     * @param contentHash Hex-encoded SHA-256 hash of the image content.
+     * @param size Requested size: thumb, medium or original.
+     * @return ResponseEntity streaming the image; 304 if the client copy is current, 206 for a range.
+     */
+    @GetMapping("/{contentHash}")
+    public ResponseEntity<Resource> getImage(@PathVariable String contentHash,
+                                             @RequestParam(defaultValue = "original") String size) {
+        LOGGER.info("Received request to fetch " + size + " image: " + contentHash);
+
+        ImageVariant variant = ImageVariant.fromParameter(size);
+        ImageResponseDto image = imageService.getImage(contentHash, variant);
+
+        return ImageResponses.of(image, image.getVariant() == variant
+                ? ImageResponses.CACHE_IMMUTABLE
+                : ImageResponses.CACHE_PENDING_VARIANT);
+    }
+}
@@ -0,0 +1,64 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds the HTTP responses of the image endpoints.
+ * <p>
+ * Every response carries a strong ETag derived from the content hash and variant, and the time the
+ * content was stored as Last-Modified. Spring MVC answers matching {@code If-None-Match} and
+ * {@code If-Modified-Since} requests with 304 from these headers, and {@code Range} requests
+ * with 206 by reading only the requested bytes of the {@link Resource} body.
+ * </p>
+ */
+final class ImageResponses {
+
+    /**
+     * Cache policy for content-addressed URLs: the content behind them never changes.
+     */
+    static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * Cache policy for a content-addressed URL whose variant is not generated yet and is served as
+     * the original for now.
+     */
+    static final String CACHE_PENDING_VARIANT = "public, max-age=60";
+
+    /**
+     * Cache policy for URLs whose image may be replaced: caches must revalidate, which costs a 304.
+     */
+    static final String CACHE_REVALIDATE = "no-cache";
+
+    private ImageResponses() {
+    }
+
+    /**
+     * Builds the response serving an image.
+     *
+     * @param image        The image to serve.
+     * @param cacheControl The Cache-Control header value.
+     * @return The response streaming the image content.
+     */
+    static ResponseEntity<Resource> of(ImageResponseDto image, String cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .eTag(eTag(image))
+                .lastModified(image.getLastModified())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(image.getContent());
+    }
+
+    /**
+     * Derives the strong ETag of an image. Variants of the same image get different tags.
+     *
+     * @param image The image.
+     * @return The quoted entity tag.
+     */
+    static String eTag(ImageResponseDto image) {
+        return "\"" + image.getContentHash() + "-" + image.getVariant().getParameter() + "\"";
+    }
+}
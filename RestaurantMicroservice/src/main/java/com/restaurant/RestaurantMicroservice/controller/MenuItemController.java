@@ -1,13 +1,22 @@
 package com.restaurant.RestaurantMicroservice.controller;
 
+import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemUpdateRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
 import com.restaurant.RestaurantMicroservice.service.MenuItemService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,10 +30,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
 import javax.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -106,6 +117,22 @@ public class MenuItemController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the image of a menu item by ID.
+     * @param id Menu item ID.
+     * @param size Requested size: thumb, medium or original.
+     * @return ResponseEntity streaming the image; 304 if the client copy is current, 206 for a range.
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getMenuItemImage(@PathVariable int id,
+                                                     @RequestParam(defaultValue = "original") String size) {
+        LOGGER.info("Received request to fetch " + size + " image of menu item with ID: " + id);
+
+        ImageResponseDto image = menuItemService.getMenuItemImage(id, ImageVariant.fromParameter(size));
+
+        return ImageResponses.of(image, ImageResponses.CACHE_REVALIDATE);
+    }
+
     /**
      * Retrieves all menu items for a specific category by category ID.
      * @param categoryId Category ID.
@@ -127,22 +154,91 @@ public class MenuItemController {
     }
 
     /**
-     * Retrieves all menu items for a specific restaurant by restaurant ID.
+     * Retrieves all menu items for a specific restaurant by restaurant ID. The response is tagged
+     * with the menu version, and a request whose If-None-Match matches the current version gets a
+     * 304 without the menu being loaded. The menu is written pre-serialized from the menu cache,
+     * gzip-compressed if the client accepts it and the menu is large enough to benefit.
      * @param restaurantId Restaurant ID.
-     * @return ResponseEntity containing a list of menu item responses.
+     * @param webRequest The current request, used to evaluate its conditional headers.
+     * @return ResponseEntity containing the JSON list of menu item responses, or null if 304 was sent.
      */
     @GetMapping("/menuItemsByRestaurant/{restaurantId}")
-    public ResponseEntity<List<MenuItemResponseDto>> getAllMenuItemsByRestaurantId(
-            @PathVariable int restaurantId) {
+    public ResponseEntity<byte[]> getAllMenuItemsByRestaurantId(
+            @PathVariable int restaurantId, WebRequest webRequest) {
 
         LOGGER.info("Received request to fetch all menu items for restaurant ID: "
                 + restaurantId);
 
+        long menuVersion = menuItemService.getMenuVersion(restaurantId);
+        String eTag = menuETag(restaurantId, menuVersion);
+        if (webRequest.checkNotModified(eTag)) {
+            LOGGER.info("Menu of restaurant ID: " + restaurantId + " unchanged at version " + menuVersion);
+            return null;
+        }
+
+        SerializedMenuDto menu = menuItemService.getSerializedMenu(restaurantId, menuVersion);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .header(Constants.MENU_VERSION_HEADER, String.valueOf(menuVersion))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (menu.getGzip() != null && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.getGzip());
+        }
+        return response.body(menu.getJson());
+    }
+
+    /**
+     * Retrieves the changes to the menu of a restaurant since a menu version the client already has.
+     * @param restaurantId Restaurant ID.
+     * @param sinceVersion Menu version the client already has; 0 for the full menu.
+     * @param webRequest The current request, used to evaluate its conditional headers.
+     * @return ResponseEntity containing the changed and removed menu items, or null if 304 was sent.
+     */
+    @GetMapping(value = "/menuItemsByRestaurant/{restaurantId}", params = "sinceVersion")
+    public ResponseEntity<MenuDeltaResponseDto> getMenuChangesByRestaurantId(
+            @PathVariable int restaurantId, @RequestParam long sinceVersion, WebRequest webRequest) {
+
+        LOGGER.info("Received request to fetch menu changes since version " + sinceVersion
+                + " for restaurant ID: " + restaurantId);
+
+        String eTag = menuETag(restaurantId, menuItemService.getMenuVersion(restaurantId));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        MenuDeltaResponseDto delta = menuItemService.getMenuChangesSince(restaurantId, sinceVersion);
+
+        return ResponseEntity.ok()
+                .eTag(menuETag(restaurantId, delta.getVersion()))
+                .header(Constants.MENU_VERSION_HEADER, String.valueOf(delta.getVersion()))
+                .body(delta);
+    }
+
+    /**
+     * Retrieves the menu items of a restaurant filtered by price and availability, sorted by price.
+     * @param restaurantId Restaurant ID.
+     * @param minPrice Lowest price, inclusive; no lower bound if absent.
+     * @param maxPrice Highest price, inclusive; no upper bound if absent.
+     * @param available Only items with this availability; any availability if absent.
+     * @param sort ASC for the cheapest items first, DESC for the most expensive first.
+     * @return ResponseEntity containing the matching menu item responses.
+     */
+    @GetMapping("/menuItemsByRestaurant/{restaurantId}/filter")
+    public ResponseEntity<List<MenuItemResponseDto>> getFilteredMenuItemsByRestaurantId(
+            @PathVariable int restaurantId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "ASC") Sort.Direction sort) {
+
+        LOGGER.info("Received request to fetch filtered menu items for restaurant ID: " + restaurantId);
+
         List<MenuItemResponseDto> responseDTOs = menuItemService
-                .getAllMenuItemsByRestaurantId(restaurantId);
+                .getFilteredMenuItemsByRestaurantId(restaurantId, available, minPrice, maxPrice, sort);
 
-        LOGGER.info("Fetched " + responseDTOs.size() + " menu items for restaurant ID: "
-                + restaurantId);
+        LOGGER.info("Fetched " + responseDTOs.size() + " filtered menu items for restaurant ID: " + restaurantId);
         return new ResponseEntity<>(responseDTOs, HttpStatus.OK);
     }
 
@@ -195,4 +291,38 @@ public class MenuItemController {
         LOGGER.info("Menu item with ID {} retrieved successfully.", id);
         return new ResponseEntity<>(responseDTO, HttpStatus.OK);
     }*/
+
+    /**
+     * Builds the entity tag of a restaurant menu at a given version. The tag is weak because it is
+     * derived from the version rather than from the serialized response.
+     * @param restaurantId Restaurant ID.
+     * @param menuVersion Menu version.
+     * @return The quoted entity tag.
+     */
+    private static String menuETag(int restaurantId, long menuVersion) {
+        return "W/\"menu-" + restaurantId + "-" + menuVersion + "\"";
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows a gzip-encoded response.
+     * @param acceptEncoding The Accept-Encoding header value, or null if absent.
+     * @return True if gzip is listed without a zero quality value.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].trim().matches("[qQ]\\s*=\\s*0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,12 +1,17 @@
 package com.restaurant.RestaurantMicroservice.controller;
 
+import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateRestaurantDetailRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantDetailUpdateRequestDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
 import com.restaurant.RestaurantMicroservice.service.RestaurantService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -23,6 +28,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -125,6 +131,22 @@ public class RestaurantController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the image of a restaurant by ID.
+     * @param id Restaurant ID.
+     * @param size Requested size: thumb, medium or original.
+     * @return ResponseEntity streaming the image; 304 if the client copy is current, 206 for a range.
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getRestaurantImage(@PathVariable int id,
+                                                       @RequestParam(defaultValue = "original") String size) {
+        LOGGER.info("Received request to fetch " + size + " image of restaurant ID: " + id);
+
+        ImageResponseDto image = restaurantService.getRestaurantImage(id, ImageVariant.fromParameter(size));
+
+        return ImageResponses.of(image, ImageResponses.CACHE_REVALIDATE);
+    }
+
     /**
      * Updates the status of a restaurant by ID.
      * @param id Restaurant ID.
@@ -157,16 +179,77 @@ public class RestaurantController {
     }
 
     /**
-     * Retrieves all restaurants.
+     * Retrieves a page of restaurants, in ascending ID order. When the page is full, the
+     * X-Next-Cursor header carries the afterId of the next page.
+     * @param afterId ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit Maximum number of restaurants to return.
+     * @param open Only restaurants with this open status, if given.
+     * @param ownerId Only restaurants of this owner, if given.
      * @return ResponseEntity containing a list of restaurant responses.
      */
     @GetMapping("/getAllRestaurant")
-    public ResponseEntity<List<RestaurantResponseDto>> getAllRestaurants() {
-        LOGGER.info("Received request to fetch all restaurants");
+    public ResponseEntity<List<RestaurantResponseDto>> getAllRestaurants(
+            @RequestParam(defaultValue = "0") int afterId,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_RESTAURANT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) Boolean open,
+            @RequestParam(required = false) Integer ownerId) {
+        LOGGER.info("Received request to fetch restaurants after ID: " + afterId);
+
+        List<RestaurantResponseDto> response = restaurantService.getAllRestaurants(afterId, limit, open, ownerId);
+
+        LOGGER.info("Fetched " + response.size() + " restaurant details");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!response.isEmpty() && response.size() >= Math.min(limit, Constants.MAX_RESTAURANT_PAGE_SIZE)) {
+            builder.header(Constants.NEXT_CURSOR_HEADER, String.valueOf(response.get(response.size() - 1).getId()));
+        }
+        return builder.body(response);
+    }
 
-        List<RestaurantResponseDto> response = restaurantService.getAllRestaurants();
+    /**
+     * Retrieves a page of the restaurants whose opening hours are open at a time, in ascending ID
+     * order. When the page is full, the X-Next-Cursor header carries the afterId of the next page.
+     * @param at Local date and time to check, e.g. 2026-10-18T21:30; now if absent.
+     * @param afterId ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit Maximum number of restaurants to return.
+     * @return ResponseEntity containing a list of restaurant responses.
+     */
+    @GetMapping("/openAt")
+    public ResponseEntity<List<RestaurantResponseDto>> getRestaurantsOpenAt(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(defaultValue = "0") int afterId,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_RESTAURANT_PAGE_SIZE) int limit) {
+        LOGGER.info("Received request to fetch restaurants open at " + (at != null ? at : "now")
+                + " after ID: " + afterId);
+
+        List<RestaurantResponseDto> response = restaurantService.getRestaurantsOpenAt(at, afterId, limit);
+
+        LOGGER.info("Fetched " + response.size() + " open restaurants");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!response.isEmpty() && response.size() >= Math.min(limit, Constants.MAX_RESTAURANT_PAGE_SIZE)) {
+            builder.header(Constants.NEXT_CURSOR_HEADER, String.valueOf(response.get(response.size() - 1).getId()));
+        }
+        return builder.body(response);
+    }
 
-        LOGGER.info("Fetched all restaurant details");
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    /**
+     * Retrieves the restaurants nearest to a location, nearest first, each with its distance.
+     * @param lat Latitude of the location in degrees.
+     * @param lon Longitude of the location in degrees.
+     * @param radius Greatest distance of a restaurant in kilometres.
+     * @param limit Maximum number of restaurants to return.
+     * @return ResponseEntity containing a list of restaurant responses.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<RestaurantResponseDto>> getNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_NEARBY_RADIUS_KM) double radius,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_NEARBY_RESULTS) int limit) {
+        LOGGER.info("Received request to fetch restaurants within " + radius + " km of " + lat + ", " + lon);
+
+        List<RestaurantResponseDto> response = restaurantService.getNearbyRestaurants(lat, lon, radius, limit);
+
+        LOGGER.info("Fetched " + response.size() + " nearby restaurants");
+        return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,113 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Controller class for handling search requests.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    /**
+     * Logger instance for logging information and errors.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SearchController.class);
+
+    /**
+     * Service instance for searching menu items.
+     */
+    private final MenuSearchService menuSearchService;
+
+    /**
+     * Service instance for search box suggestions.
+     */
+    private final SearchSuggestionService searchSuggestionService;
+
+    /**
+     * Constructor to initialize the SearchController with the MenuSearchService and
+     * SearchSuggestionService.
+     * @param menuSearchService Service for menu search operations.
+     * @param searchSuggestionService Service for search box suggestions.
+     */
+    @Autowired
+    public SearchController(MenuSearchService menuSearchService, SearchSuggestionService searchSuggestionService) {
+        this.menuSearchService = menuSearchService;
+        this.searchSuggestionService = searchSuggestionService;
+    }
+
+    /**
+     * Searches the menu items of all restaurants by food name, description and category name,
+     * tolerating misspelled words.
+     * @param query The search text.
+     * @param limit The maximum number of results; capped at {@link Constants#MAX_SEARCH_RESULTS}.
+     * @return ResponseEntity containing the matching menu items, best match first.
+     */
+    @GetMapping("/menuItems")
+    public ResponseEntity<List<MenuItemResponseDto>> searchMenuItems(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_SEARCH_RESULTS) int limit) {
+        LOGGER.info("Received menu search request: " + query);
+
+        List<MenuItemResponseDto> response = menuSearchService.searchMenuItems(query, limit);
+
+        LOGGER.info("Menu search returned " + response.size() + " menu items");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Finds the menu items of all restaurants priced within a range, sorted by price.
+     * @param minPrice Lowest price, inclusive; no lower bound if absent.
+     * @param maxPrice Highest price, inclusive; no upper bound if absent.
+     * @param available Whether to return available items only.
+     * @param sort ASC for the cheapest items first, DESC for the most expensive first.
+     * @param limit The maximum number of results; capped at {@link Constants#MAX_SEARCH_RESULTS}.
+     * @return ResponseEntity containing the matching menu items.
+     */
+    @GetMapping("/menuItemsByPrice")
+    public ResponseEntity<List<MenuItemResponseDto>> findMenuItemsByPrice(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(defaultValue = "ASC") Sort.Direction sort,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_SEARCH_RESULTS) int limit) {
+        LOGGER.info("Received price range request: " + minPrice + " to " + maxPrice);
+
+        List<MenuItemResponseDto> response = menuSearchService
+                .findMenuItemsByPrice(minPrice, maxPrice, available, sort, limit);
+
+        LOGGER.info("Price range request returned " + response.size() + " menu items");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Suggests restaurant and dish names for the text typed in the search box, most popular first.
+     * @param prefix The typed text.
+     * @param limit The maximum number of suggestions.
+     * @return ResponseEntity containing the suggested names.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponseDto>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_SUGGESTIONS) int limit) {
+        LOGGER.debug("Received suggestion request: " + prefix);
+        return ResponseEntity.ok(searchSuggestionService.suggest(prefix, limit));
+    }
+}
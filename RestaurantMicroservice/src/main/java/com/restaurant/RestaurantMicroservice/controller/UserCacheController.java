@@ -0,0 +1,52 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.service.impl.UserCache;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class through which the user service reports changed users, so that their cached
+ * copies are dropped before they expire.
+ */
+@RestController
+@RequestMapping("/api/cache/users")
+public class UserCacheController {
+
+    /**
+     * Logger instance for logging information and errors.
+     */
+    private static final Logger LOGGER = Logger.getLogger(UserCacheController.class);
+
+    /**
+     * Cache of the users looked up from the user service.
+     */
+    private final UserCache userCache;
+
+    /**
+     * Constructor to initialize the UserCacheController with the UserCache.
+     * @param userCache Cache of the users looked up from the user service.
+     */
+    @Autowired
+    public UserCacheController(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    /**
+     * Drops a user from the cache, for instance after its role changed.
+     * @param userId The ID of the changed user.
+     * @return An empty ResponseEntity with status 204.
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> invalidateUser(@PathVariable int userId) {
+        LOGGER.info("Received user cache invalidation for user: " + userId);
+
+        userCache.invalidate(userId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
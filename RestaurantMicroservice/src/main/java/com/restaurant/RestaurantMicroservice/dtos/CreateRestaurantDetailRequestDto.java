@@ -1,5 +1,7 @@
 package com.restaurant.RestaurantMicroservice.dtos;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -59,6 +61,22 @@ public class CreateRestaurantDetailRequestDto {
     @Size(max = 255, message = "Description must be less than 255 characters")
     private String description;
 
+    /**
+     * The latitude of the restaurant in degrees.
+     * Optional; when it or the longitude is missing, the location is looked up from the address.
+     */
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    /**
+     * The longitude of the restaurant in degrees.
+     * Optional; when it or the latitude is missing, the location is looked up from the address.
+     */
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
     /**
      * Retrieves the user ID.
      * @return the user ID.
@@ -159,6 +177,38 @@ public class CreateRestaurantDetailRequestDto {
         this.description = description;
     }
 
+    /**
+     * Retrieves the latitude of the restaurant.
+     * @return the latitude, or null if not given.
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude of the restaurant.
+     * @param latitude the latitude to set.
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Retrieves the longitude of the restaurant.
+     * @return the longitude, or null if not given.
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the longitude of the restaurant.
+     * @param longitude the longitude to set.
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     /**
      * Compares this CreateRestaurantDetailRequestDto to another object for equality.
      * @param o the object to compare to.
@@ -183,7 +233,11 @@ public class CreateRestaurantDetailRequestDto {
                 &&
                 Objects.equals(openingHours, that.openingHours)
                 &&
-                Objects.equals(description, that.description);
+                Objects.equals(description, that.description)
+                &&
+                Objects.equals(latitude, that.latitude)
+                &&
+                Objects.equals(longitude, that.longitude);
     }
 
     /**
@@ -192,7 +246,8 @@ public class CreateRestaurantDetailRequestDto {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(userId, restaurantName, address, contactInformation, openingHours, description);
+        return Objects.hash(userId, restaurantName, address, contactInformation, openingHours, description,
+                latitude, longitude);
     }
 
     /**
@@ -209,6 +264,8 @@ public class CreateRestaurantDetailRequestDto {
                 + ", contactInformation='" + contactInformation + '\''
                 + ", openingHours='" + openingHours + '\''
                 + ", description='" + description + '\''
+                + ", latitude=" + latitude
+                + ", longitude=" + longitude
                 + '}';
     }
 
@@ -0,0 +1,175 @@
+package com.restaurant.RestaurantMicroservice.dtos;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import org.springframework.core.io.Resource;
+
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) for the content of a stored image.
+ */
+public class ImageResponseDto {
+
+    /**
+     * The hex-encoded SHA-256 hash of the original image content.
+     */
+    private String contentHash;
+
+    /**
+     * The variant of the image the content belongs to.
+     */
+    private ImageVariant variant;
+
+    /**
+     * The MIME type of the image.
+     */
+    private String contentType;
+
+    /**
+     * The image content, read lazily from the image store.
+     */
+    private Resource content;
+
+    /**
+     * The time the content was stored, in milliseconds since the epoch.
+     */
+    private long lastModified;
+
+    public ImageResponseDto() {
+
+    }
+
+    public ImageResponseDto(String contentHash, ImageVariant variant, String contentType,
+                            Resource content, long lastModified) {
+        this.contentHash = contentHash;
+        this.variant = variant;
+        this.contentType = contentType;
+        this.content = content;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets the content hash of the image.
+     * @return the content hash.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Sets the content hash of the image.
+     * @param contentHash the content hash to set.
+     */
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Gets the variant of the image the content belongs to.
+     * @return the variant.
+     */
+    public ImageVariant getVariant() {
+        return variant;
+    }
+
+    /**
+     * Sets the variant of the image the content belongs to.
+     * @param variant the variant to set.
+     */
+    public void setVariant(ImageVariant variant) {
+        this.variant = variant;
+    }
+
+    /**
+     * Gets the MIME type of the image.
+     * @return the content type.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Sets the MIME type of the image.
+     * @param contentType the content type to set.
+     */
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the image content.
+     * @return the image content.
+     */
+    public Resource getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the image content.
+     * @param content the image content to set.
+     */
+    public void setContent(Resource content) {
+        this.content = content;
+    }
+
+    /**
+     * Gets the time the content was stored.
+     * @return the time in milliseconds since the epoch.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the time the content was stored.
+     * @param lastModified the time in milliseconds since the epoch.
+     */
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Compares this ImageResponseDto to another object for equality.
+     * @param o the object to compare to.
+     * @return true if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ImageResponseDto that = (ImageResponseDto) o;
+        return lastModified == that.lastModified
+                && Objects.equals(contentHash, that.contentHash)
+                && variant == that.variant
+                && Objects.equals(contentType, that.contentType)
+                && Objects.equals(content, that.content);
+    }
+
+    /**
+     * Returns a hash code value for the object.
+     * @return the hash code value.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(contentHash, variant, contentType, content, lastModified);
+    }
+
+    /**
+     * Returns a string representation of the ImageResponseDto. The content is summarised by its description.
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "ImageResponseDto{"
+                + "contentHash='" + contentHash + '\''
+                + ", variant=" + variant
+                + ", contentType='" + contentType + '\''
+                + ", content=" + (content == null ? null : content.getDescription())
+                + ", lastModified=" + lastModified
+                + '}';
+    }
+}
@@ -0,0 +1,175 @@
+package com.restaurant.RestaurantMicroservice.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A Data Transfer Object (DTO) for the changes to a restaurant menu since a given version.
+ * Clients apply {@link #getChangedItems()} as inserts or replacements by item ID, drop the items in
+ * {@link #getRemovedItemIds()}, and send {@link #getVersion()} with their next request.
+ */
+public class MenuDeltaResponseDto {
+
+    /**
+     * The current version of the menu.
+     */
+    private long version;
+
+    /**
+     * Whether the changed items are the complete menu, in which case the client must drop any
+     * item not listed.
+     */
+    private boolean fullSync;
+
+    /**
+     * The menu items added or changed since the requested version.
+     */
+    private List<MenuItemResponseDto> changedItems = new ArrayList<>();
+
+    /**
+     * The IDs of the menu items removed since the requested version.
+     */
+    private List<Integer> removedItemIds = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public MenuDeltaResponseDto() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param version        the current version of the menu.
+     * @param fullSync       whether the changed items are the complete menu.
+     * @param changedItems   the menu items added or changed since the requested version.
+     * @param removedItemIds the IDs of the menu items removed since the requested version.
+     */
+    public MenuDeltaResponseDto(long version, boolean fullSync, List<MenuItemResponseDto> changedItems,
+                                List<Integer> removedItemIds) {
+        this.version = version;
+        this.fullSync = fullSync;
+        this.changedItems = changedItems;
+        this.removedItemIds = removedItemIds;
+    }
+
+    /**
+     * Gets the current version of the menu.
+     *
+     * @return the menu version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the current version of the menu.
+     *
+     * @param version the menu version.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets whether the changed items are the complete menu.
+     *
+     * @return true if the client must replace its copy of the menu, false otherwise.
+     */
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    /**
+     * Sets whether the changed items are the complete menu.
+     *
+     * @param fullSync true if the client must replace its copy of the menu.
+     */
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    /**
+     * Gets the menu items added or changed since the requested version.
+     *
+     * @return the changed menu items.
+     */
+    public List<MenuItemResponseDto> getChangedItems() {
+        return changedItems;
+    }
+
+    /**
+     * Sets the menu items added or changed since the requested version.
+     *
+     * @param changedItems the changed menu items.
+     */
+    public void setChangedItems(List<MenuItemResponseDto> changedItems) {
+        this.changedItems = changedItems;
+    }
+
+    /**
+     * Gets the IDs of the menu items removed since the requested version.
+     *
+     * @return the removed menu item IDs.
+     */
+    public List<Integer> getRemovedItemIds() {
+        return removedItemIds;
+    }
+
+    /**
+     * Sets the IDs of the menu items removed since the requested version.
+     *
+     * @param removedItemIds the removed menu item IDs.
+     */
+    public void setRemovedItemIds(List<Integer> removedItemIds) {
+        this.removedItemIds = removedItemIds;
+    }
+
+    /**
+     * Checks if this object is equal to another object.
+     *
+     * @param o the object to compare with.
+     * @return true if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MenuDeltaResponseDto that = (MenuDeltaResponseDto) o;
+        return version == that.version
+                && fullSync == that.fullSync
+                && Objects.equals(changedItems, that.changedItems)
+                && Objects.equals(removedItemIds, that.removedItemIds);
+    }
+
+    /**
+     * Returns the hash code for this object.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, fullSync, changedItems, removedItemIds);
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "MenuDeltaResponseDto{"
+                + "version=" + version
+                + ", fullSync=" + fullSync
+                + ", changedItems=" + changedItems
+                + ", removedItemIds=" + removedItemIds
+                + '}';
+    }
+}
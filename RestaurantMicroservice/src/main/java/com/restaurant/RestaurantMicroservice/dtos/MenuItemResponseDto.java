@@ -1,7 +1,6 @@
 package com.restaurant.RestaurantMicroservice.dtos;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -47,9 +46,46 @@ public class MenuItemResponseDto {
     private BigDecimal price;
 
     /**
-     * The image data associated with the food item, stored as a byte array.
+     * The URL under which the image of the food item is served, or {@code null} if it has none.
      */
-    private byte[] imageData;
+    private String imageUrl;
+
+    /**
+     * The content hash of the food item image, or {@code null} if it has none.
+     */
+    private String imageHash;
+
+    /**
+     * Default constructor.
+     */
+    public MenuItemResponseDto() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor, used by the JPQL constructor expressions in
+     * {@link com.restaurant.RestaurantMicroservice.repository.MenuItemRepository}.
+     *
+     * @param id             the ID of the menu item.
+     * @param restaurantName the name of the restaurant.
+     * @param categoryName   the name of the category, or {@code null} if the item has none.
+     * @param foodName       the name of the food item.
+     * @param description    the description of the food item.
+     * @param isAvailable    the availability status of the menu item.
+     * @param price          the price of the food item.
+     * @param imageHash      the content hash of the food item image.
+     */
+    public MenuItemResponseDto(int id, String restaurantName, String categoryName, String foodName,
+                               String description, Boolean isAvailable, BigDecimal price, String imageHash) {
+        this.id = id;
+        this.restaurantName = restaurantName;
+        this.categoryName = categoryName;
+        this.foodName = foodName;
+        this.description = description;
+        this.isAvailable = isAvailable;
+        this.price = price;
+        this.imageHash = imageHash;
+    }
 
     /**
      * Gets the unique identifier for the menu item.
@@ -178,21 +214,39 @@ public class MenuItemResponseDto {
     }
 
     /**
-     * Gets the image data associated with the menu item.
+     * Gets the URL under which the menu item image is served.
+     *
+     * @return the image URL.
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    /**
+     * Sets the URL under which the menu item image is served.
+     *
+     * @param imageUrl the image URL to set.
+     */
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    /**
+     * Gets the content hash of the menu item image.
      *
-     * @return the image data as a byte array.
+     * @return the image hash.
      */
-    public byte[] getImageData() {
-        return imageData;
+    public String getImageHash() {
+        return imageHash;
     }
 
     /**
-     * Sets the image data for the menu item.
+     * Sets the content hash of the menu item image.
      *
-     * @param imageData the image data to set.
+     * @param imageHash the image hash to set.
      */
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
     }
 
     /**
@@ -217,7 +271,8 @@ public class MenuItemResponseDto {
                 && Objects.equals(description, that.description)
                 && Objects.equals(isAvailable, that.isAvailable)
                 && Objects.equals(price, that.price)
-                && Arrays.equals(imageData, that.imageData);
+                && Objects.equals(imageUrl, that.imageUrl)
+                && Objects.equals(imageHash, that.imageHash);
     }
 
     /**
@@ -228,7 +283,7 @@ public class MenuItemResponseDto {
     @Override
     public int hashCode() {
         return Objects.hash(id, restaurantName,
-                categoryName, foodName, description, isAvailable, price, Arrays.hashCode(imageData));
+                categoryName, foodName, description, isAvailable, price, imageUrl, imageHash);
     }
 
     /**
@@ -247,7 +302,8 @@ public class MenuItemResponseDto {
                 + ", description='" + description + '\''
                 + ", isAvailable=" + isAvailable
                 + ", price=" + price
-                + ", imageData=" + Arrays.toString(imageData)
+                + ", imageUrl='" + imageUrl + '\''
+                + ", imageHash='" + imageHash + '\''
                 + '}';
     }
 
@@ -2,6 +2,8 @@ package com.restaurant.RestaurantMicroservice.dtos;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -76,6 +78,28 @@ public final class RestaurantDetailUpdateRequestDto {
     @Size(max = 255, message = "Description must be less than 255 characters")
     private String description;
 
+    /**
+     * The latitude of the restaurant in degrees.
+     * <p>
+     * Optional; when it or the longitude is missing and the address changes, the location is
+     * looked up from the new address.
+     * </p>
+     */
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    /**
+     * The longitude of the restaurant in degrees.
+     * <p>
+     * Optional; when it or the latitude is missing and the address changes, the location is
+     * looked up from the new address.
+     * </p>
+     */
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
     /**
      * Gets the restaurant name.
      *
@@ -188,6 +212,42 @@ public final class RestaurantDetailUpdateRequestDto {
         this.image = image;
     }
 
+    /**
+     * Gets the latitude.
+     *
+     * @return the latitude, or null if not given
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude.
+     *
+     * @param latitude the latitude to set
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the longitude.
+     *
+     * @return the longitude, or null if not given
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the longitude.
+     *
+     * @param longitude the longitude to set
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -207,12 +267,17 @@ public final class RestaurantDetailUpdateRequestDto {
                 &&
                 Objects.equals(image, that.image)
                 &&
-                Objects.equals(description, that.description);
+                Objects.equals(description, that.description)
+                &&
+                Objects.equals(latitude, that.latitude)
+                &&
+                Objects.equals(longitude, that.longitude);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(restaurantName, address, openingHours, contactInformation, image, description);
+        return Objects.hash(restaurantName, address, openingHours, contactInformation, image, description,
+                latitude, longitude);
     }
 
     @Override
@@ -224,6 +289,8 @@ public final class RestaurantDetailUpdateRequestDto {
                 + ", contactInformation='" + contactInformation + '\''
                 + ", image=" + image
                 + ", description='" + description + '\''
+                + ", latitude=" + latitude
+                + ", longitude=" + longitude
                 + '}';
     }
 }
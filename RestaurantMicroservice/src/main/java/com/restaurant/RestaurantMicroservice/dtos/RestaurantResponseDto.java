@@ -1,6 +1,5 @@
 package com.restaurant.RestaurantMicroservice.dtos;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -47,18 +46,90 @@ public final class RestaurantResponseDto {
     private String openingHours;
 
     /**
-     * The image data of the restaurant.
-     * <p>
-     * Stored as a byte array to accommodate large binary data.
-     * </p>
+     * The URL under which the image of the restaurant is served, or {@code null} if it has none.
      */
-    private byte[] imageUrl;
+    private String imageUrl;
+
+    /**
+     * The content hash of the restaurant image, or {@code null} if it has none.
+     */
+    private String imageHash;
 
     /**
      * The unique identifier of the owner of the restaurant.
      */
     private int ownerId;
 
+    /**
+     * The latitude of the restaurant in degrees, or {@code null} if its location is unknown.
+     */
+    private Double latitude;
+
+    /**
+     * The longitude of the restaurant in degrees, or {@code null} if its location is unknown.
+     */
+    private Double longitude;
+
+    /**
+     * The distance of the restaurant from the searched location in kilometres; only set by
+     * nearby searches.
+     */
+    private Double distanceKm;
+
+    /**
+     * Default constructor.
+     */
+    public RestaurantResponseDto() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor without a location.
+     *
+     * @param id             the unique identifier of the restaurant.
+     * @param restaurantName the name of the restaurant.
+     * @param address        the address of the restaurant.
+     * @param contactNo      the contact number of the restaurant.
+     * @param open           whether the restaurant is currently open.
+     * @param openingHours   the opening hours of the restaurant.
+     * @param imageHash      the content hash of the restaurant image, or {@code null} if it has none.
+     * @param ownerId        the unique identifier of the owner of the restaurant.
+     */
+    public RestaurantResponseDto(int id, String restaurantName, String address, String contactNo, Boolean open,
+                                 String openingHours, String imageHash, int ownerId) {
+        this(id, restaurantName, address, contactNo, open, openingHours, imageHash, ownerId, null, null);
+    }
+
+    /**
+     * Parameterized constructor, used by the JPQL constructor expressions in
+     * {@link com.restaurant.RestaurantMicroservice.repository.RestaurantRepository}.
+     *
+     * @param id             the unique identifier of the restaurant.
+     * @param restaurantName the name of the restaurant.
+     * @param address        the address of the restaurant.
+     * @param contactNo      the contact number of the restaurant.
+     * @param open           whether the restaurant is currently open.
+     * @param openingHours   the opening hours of the restaurant.
+     * @param imageHash      the content hash of the restaurant image, or {@code null} if it has none.
+     * @param ownerId        the unique identifier of the owner of the restaurant.
+     * @param latitude       the latitude of the restaurant, or {@code null} if its location is unknown.
+     * @param longitude      the longitude of the restaurant, or {@code null} if its location is unknown.
+     */
+    public RestaurantResponseDto(int id, String restaurantName, String address, String contactNo, Boolean open,
+                                 String openingHours, String imageHash, int ownerId, Double latitude,
+                                 Double longitude) {
+        this.id = id;
+        this.restaurantName = restaurantName;
+        this.address = address;
+        this.contactNo = contactNo;
+        this.open = open;
+        this.openingHours = openingHours;
+        this.imageHash = imageHash;
+        this.ownerId = ownerId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     /**
      * Gets the unique identifier of the restaurant.
      *
@@ -204,23 +275,95 @@ public final class RestaurantResponseDto {
     }
 
     /**
-     * Gets the image data of the restaurant.
+     * Gets the URL under which the restaurant image is served.
      *
-     * @return the image data
+     * @return the image URL
      */
-    public byte[] getImageUrl() {
+    public String getImageUrl() {
         return imageUrl;
     }
 
     /**
-     * Sets the image data of the restaurant.
+     * Sets the URL under which the restaurant image is served.
      *
-     * @param imageUrl the image data to set
+     * @param imageUrl the image URL to set
      */
-    public void setImageUrl(byte[] imageUrl) {
+    public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
 
+    /**
+     * Gets the content hash of the restaurant image.
+     *
+     * @return the image hash
+     */
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    /**
+     * Sets the content hash of the restaurant image.
+     *
+     * @param imageHash the image hash to set
+     */
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    /**
+     * Gets the latitude of the restaurant.
+     *
+     * @return the latitude in degrees, or {@code null} if the location is unknown
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude of the restaurant.
+     *
+     * @param latitude the latitude to set
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the longitude of the restaurant.
+     *
+     * @return the longitude in degrees, or {@code null} if the location is unknown
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the longitude of the restaurant.
+     *
+     * @param longitude the longitude to set
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Gets the distance of the restaurant from the searched location.
+     *
+     * @return the distance in kilometres, or {@code null} outside nearby searches
+     */
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    /**
+     * Sets the distance of the restaurant from the searched location.
+     *
+     * @param distanceKm the distance in kilometres to set
+     */
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -246,13 +389,21 @@ public final class RestaurantResponseDto {
                 &&
                 Objects.equals(openingHours, that.openingHours)
                 &&
-                Objects.deepEquals(imageUrl, that.imageUrl);
+                Objects.equals(imageUrl, that.imageUrl)
+                &&
+                Objects.equals(imageHash, that.imageHash)
+                &&
+                Objects.equals(latitude, that.latitude)
+                &&
+                Objects.equals(longitude, that.longitude)
+                &&
+                Objects.equals(distanceKm, that.distanceKm);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(id, restaurantName, email, address, contactNo, open,
-                openingHours, Arrays.hashCode(imageUrl), ownerId);
+                openingHours, imageUrl, imageHash, ownerId, latitude, longitude, distanceKm);
     }
 
     @Override
@@ -265,8 +416,12 @@ public final class RestaurantResponseDto {
                 + ", contactNo='" + contactNo + '\''
                 + ", open=" + open
                 + ", openingHours='" + openingHours + '\''
-                + ", imageUrl=" + Arrays.toString(imageUrl)
+                + ", imageUrl='" + imageUrl + '\''
+                + ", imageHash='" + imageHash + '\''
                 + ", ownerId=" + ownerId
+                + ", latitude=" + latitude
+                + ", longitude=" + longitude
+                + ", distanceKm=" + distanceKm
                 + '}';
     }
 
@@ -0,0 +1,123 @@
+package com.restaurant.RestaurantMicroservice.dtos;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A restaurant menu already serialized as the JSON array of {@link MenuItemResponseDto}s, ready
+ * to be written to a response as is. Instances are shared between requests and must not be
+ * modified.
+ */
+public final class SerializedMenuDto {
+
+    /**
+     * The menu version the payload was serialized for.
+     */
+    private final long version;
+
+    /**
+     * The menu as UTF-8 encoded JSON.
+     */
+    private final byte[] json;
+
+    /**
+     * The JSON compressed with gzip, or null if the menu is too small to benefit from compression.
+     */
+    private final byte[] gzip;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param version the menu version the payload was serialized for.
+     * @param json    the menu as UTF-8 encoded JSON.
+     * @param gzip    the JSON compressed with gzip, or null if not compressed.
+     */
+    public SerializedMenuDto(long version, byte[] json, byte[] gzip) {
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Gets the menu version the payload was serialized for.
+     *
+     * @return the menu version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the menu as UTF-8 encoded JSON.
+     *
+     * @return the JSON bytes.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Gets the gzip-compressed JSON.
+     *
+     * @return the compressed bytes, or null if the menu is not compressed.
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    /**
+     * Gets the number of bytes held by this payload.
+     *
+     * @return the combined length of the JSON and compressed bytes.
+     */
+    public int getWeight() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    /**
+     * Checks if this object is equal to another object.
+     *
+     * @param o the object to compare with.
+     * @return true if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SerializedMenuDto that = (SerializedMenuDto) o;
+        return version == that.version
+                && Arrays.equals(json, that.json)
+                && Arrays.equals(gzip, that.gzip);
+    }
+
+    /**
+     * Returns the hash code for this object.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(version);
+        result = 31 * result + Arrays.hashCode(json);
+        result = 31 * result + Arrays.hashCode(gzip);
+        return result;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "SerializedMenuDto{"
+                + "version=" + version
+                + ", jsonBytes=" + json.length
+                + ", gzipBytes=" + (gzip == null ? 0 : gzip.length)
+                + '}';
+    }
+}
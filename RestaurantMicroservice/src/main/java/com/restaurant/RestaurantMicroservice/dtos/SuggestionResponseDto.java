@@ -0,0 +1,117 @@
+package com.restaurant.RestaurantMicroservice.dtos;
+
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+
+import java.util.Objects;
+
+/**
+ * A Data Transfer Object (DTO) for a search box suggestion: a restaurant name or a dish name
+ * starting with the typed text.
+ */
+public class SuggestionResponseDto {
+
+    /**
+     * The suggested name, as first listed.
+     */
+    private String text;
+
+    /**
+     * Whether the name is a restaurant or a dish.
+     */
+    private SuggestionType type;
+
+    /**
+     * Default constructor.
+     */
+    public SuggestionResponseDto() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param text the suggested name.
+     * @param type whether the name is a restaurant or a dish.
+     */
+    public SuggestionResponseDto(String text, SuggestionType type) {
+        this.text = text;
+        this.type = type;
+    }
+
+    /**
+     * Gets the suggested name.
+     *
+     * @return the suggested name.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Sets the suggested name.
+     *
+     * @param text the suggested name.
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets whether the name is a restaurant or a dish.
+     *
+     * @return the suggestion type.
+     */
+    public SuggestionType getType() {
+        return type;
+    }
+
+    /**
+     * Sets whether the name is a restaurant or a dish.
+     *
+     * @param type the suggestion type.
+     */
+    public void setType(SuggestionType type) {
+        this.type = type;
+    }
+
+    /**
+     * Checks if this object is equal to another object.
+     *
+     * @param o the object to compare with.
+     * @return true if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SuggestionResponseDto that = (SuggestionResponseDto) o;
+        return Objects.equals(text, that.text) && type == that.type;
+    }
+
+    /**
+     * Returns the hash code for this object.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, type);
+    }
+
+    /**
+     * Returns a string representation of the object.
+     *
+     * @return a string representation of the object.
+     */
+    @Override
+    public String toString() {
+        return "SuggestionResponseDto{"
+                + "text='" + text + '\''
+                + ", type=" + type
+                + '}';
+    }
+}
@@ -0,0 +1,164 @@
+package com.restaurant.RestaurantMicroservice.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Objects;
+
+/**
+ * Metadata of an uploaded image. The content itself lives in the
+ * {@link com.restaurant.RestaurantMicroservice.service.ImageStore}, under the same SHA-256 hash that
+ * keys this row. Each distinct image is stored once and counts the menu items and restaurants using it.
+ */
+@Entity
+@Table(name = "images")
+public class Image {
+
+    /**
+     * The hex-encoded SHA-256 hash of the image content.
+     */
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * The MIME type of the image.
+     */
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    /**
+     * The size of the image in bytes.
+     */
+    @Column(name = "size_bytes", nullable = false)
+    private long size;
+
+    /**
+     * The number of menu items and restaurants referencing the image.
+     */
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    /**
+     * Default constructor.
+     */
+    public Image() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param contentHash the hex-encoded SHA-256 hash of the image content
+     * @param contentType the MIME type of the image
+     * @param size        the size of the image in bytes
+     * @param refCount    the number of menu items and restaurants referencing the image
+     */
+    public Image(String contentHash, String contentType, long size, int refCount) {
+        this.contentHash = contentHash;
+        this.contentType = contentType;
+        this.size = size;
+        this.refCount = refCount;
+    }
+
+    /**
+     * Gets the content hash of the image.
+     *
+     * @return the content hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Sets the content hash of the image.
+     *
+     * @param contentHash the content hash
+     */
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Gets the MIME type of the image.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Sets the MIME type of the image.
+     *
+     * @param contentType the content type
+     */
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the size of the image in bytes.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size of the image in bytes.
+     *
+     * @param size the size in bytes
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of menu items and restaurants referencing the image.
+     *
+     * @return the reference count
+     */
+    public int getRefCount() {
+        return refCount;
+    }
+
+    /**
+     * Sets the number of menu items and restaurants referencing the image.
+     *
+     * @param refCount the reference count
+     */
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    /**
+     * Compares this image to another object for equality. Images are identified by their content hash.
+     *
+     * @param o the object to compare to
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Image image = (Image) o;
+        return Objects.equals(contentHash, image.contentHash);
+    }
+
+    /**
+     * Returns the hash code for this image.
+     *
+     * @return the hash code for this image
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(contentHash);
+    }
+}
@@ -0,0 +1,142 @@
+package com.restaurant.RestaurantMicroservice.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.Objects;
+
+/**
+ * Records the deletion of a menu item, so that clients syncing a menu from an older version learn
+ * which items to drop.
+ */
+@Entity
+@Table(name = "menu_item_tombstones",
+        indexes = @Index(name = "idx_menu_item_tombstones_restaurant_version",
+                columnList = "restaurant_id, menu_version"))
+public class MenuItemTombstone {
+
+    /**
+     * The ID of the deleted menu item.
+     */
+    @Id
+    @Column(name = "menu_item_id")
+    private int menuItemId;
+
+    /**
+     * The ID of the restaurant the menu item belonged to.
+     */
+    @Column(name = "restaurant_id", nullable = false)
+    private int restaurantId;
+
+    /**
+     * The version of the restaurant menu at which the menu item was deleted.
+     */
+    @Column(name = "menu_version", nullable = false)
+    private long menuVersion;
+
+    /**
+     * Default constructor.
+     */
+    public MenuItemTombstone() {
+        super();
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param menuItemId   the ID of the deleted menu item
+     * @param restaurantId the ID of the restaurant the menu item belonged to
+     * @param menuVersion  the version of the restaurant menu at which the menu item was deleted
+     */
+    public MenuItemTombstone(int menuItemId, int restaurantId, long menuVersion) {
+        this.menuItemId = menuItemId;
+        this.restaurantId = restaurantId;
+        this.menuVersion = menuVersion;
+    }
+
+    /**
+     * Gets the ID of the deleted menu item.
+     *
+     * @return the menu item ID
+     */
+    public int getMenuItemId() {
+        return menuItemId;
+    }
+
+    /**
+     * Sets the ID of the deleted menu item.
+     *
+     * @param menuItemId the menu item ID
+     */
+    public void setMenuItemId(int menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    /**
+     * Gets the ID of the restaurant the menu item belonged to.
+     *
+     * @return the restaurant ID
+     */
+    public int getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * Sets the ID of the restaurant the menu item belonged to.
+     *
+     * @param restaurantId the restaurant ID
+     */
+    public void setRestaurantId(int restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    /**
+     * Gets the version of the restaurant menu at which the menu item was deleted.
+     *
+     * @return the menu version
+     */
+    public long getMenuVersion() {
+        return menuVersion;
+    }
+
+    /**
+     * Sets the version of the restaurant menu at which the menu item was deleted.
+     *
+     * @param menuVersion the menu version
+     */
+    public void setMenuVersion(long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
+
+    /**
+     * Compares this tombstone to another object for equality.
+     *
+     * @param o the object to compare to
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MenuItemTombstone that = (MenuItemTombstone) o;
+        return menuItemId == that.menuItemId
+                && restaurantId == that.restaurantId
+                && menuVersion == that.menuVersion;
+    }
+
+    /**
+     * Returns the hash code for this tombstone.
+     *
+     * @return the hash code for this tombstone
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(menuItemId, restaurantId, menuVersion);
+    }
+}
@@ -5,17 +5,21 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.Lob;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Represents a menu item in a restaurant.
  */
 @Entity
-@Table(name = "menu_items")
+@Table(name = "menu_items",
+        indexes = {
+                @Index(name = "idx_menu_items_restaurant_version", columnList = "restaurant_id, menu_version"),
+                @Index(name = "idx_menu_items_restaurant_available_price",
+                        columnList = "restaurant_id, is_available, price")
+        })
 public class MenuItems {
 
     /**
@@ -62,11 +66,16 @@ public class MenuItems {
     private BigDecimal price;
 
     /**
-     * The image data of the menu item.
+     * The content hash of the menu item image, referencing an {@link Image} row.
      */
-    @Column(name = "item_image", nullable = false)
-    @Lob
-    private byte[] imageData;
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    /**
+     * The version of the restaurant menu at which this menu item last changed.
+     */
+    @Column(name = "menu_version", columnDefinition = "bigint default 0 not null")
+    private long menuVersion;
 
     /**
      * Default constructor.
@@ -85,10 +94,10 @@ public class MenuItems {
      * @param description    a description of the menu item
      * @param isAvailable    indicates whether the menu item is available
      * @param price          the price of the menu item
-     * @param imageData      the image data of the menu item
+     * @param imageHash      the content hash of the menu item image
      */
     public MenuItems(int id, int restaurantId, int categoryId, String foodName, String description, Boolean isAvailable,
-                     BigDecimal price, byte[] imageData) {
+                     BigDecimal price, String imageHash) {
         this.id = id;
         this.restaurantId = restaurantId;
         this.categoryId = categoryId;
@@ -96,7 +105,7 @@ public class MenuItems {
         this.description = description;
         this.isAvailable = isAvailable;
         this.price = price;
-        this.imageData = imageData;
+        this.imageHash = imageHash;
     }
 
     // Getters and Setters
@@ -228,21 +237,39 @@ public class MenuItems {
     }
 
     /**
-     * Gets the image data of the menu item.
+     * Gets the content hash of the menu item image.
+     *
+     * @return the image hash, or {@code null} if the menu item has no image
+     */
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    /**
+     * Sets the content hash of the menu item image.
+     *
+     * @param imageHash the image hash
+     */
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    /**
+     * Gets the version of the restaurant menu at which this menu item last changed.
      *
-     * @return the image data of the menu item
+     * @return the menu version
      */
-    public byte[] getImageData() {
-        return imageData;
+    public long getMenuVersion() {
+        return menuVersion;
     }
 
     /**
-     * Sets the image data of the menu item.
+     * Sets the version of the restaurant menu at which this menu item last changed.
      *
-     * @param imageData the image data of the menu item
+     * @param menuVersion the menu version
      */
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    public void setMenuVersion(long menuVersion) {
+        this.menuVersion = menuVersion;
     }
 
     /**
@@ -274,7 +301,7 @@ public class MenuItems {
                 &&
                 Objects.equals(price, menuItems.price)
                 &&
-                Objects.deepEquals(imageData, menuItems.imageData);
+                Objects.equals(imageHash, menuItems.imageHash);
     }
 
     /**
@@ -284,6 +311,6 @@ public class MenuItems {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(id, restaurantId, categoryId, foodName, description, isAvailable, price, Arrays.hashCode(imageData));
+        return Objects.hash(id, restaurantId, categoryId, foodName, description, isAvailable, price, imageHash);
     }
 }
@@ -5,16 +5,19 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.Lob;
+import javax.persistence.Index;
 import javax.persistence.Table;
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Represents the details of a restaurant.
  */
 @Entity
-@Table(name = "restaurant")
+@Table(name = "restaurant",
+        indexes = {
+                @Index(name = "idx_restaurant_owner_id", columnList = "owner_id, id"),
+                @Index(name = "idx_restaurant_open_id", columnList = "open, id")
+        })
 public class RestaurantDetail {
 
     /**
@@ -67,11 +70,31 @@ public class RestaurantDetail {
     private String description;
 
     /**
-     * The image data of the restaurant.
+     * The content hash of the restaurant image, referencing an {@link Image} row.
      */
-    @Column(name = "image_url")
-    @Lob
-    private byte[] imageData;
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    /**
+     * The latitude of the restaurant in degrees, or {@code null} if its location is unknown.
+     */
+    @Column(name = "latitude")
+    private Double latitude;
+
+    /**
+     * The longitude of the restaurant in degrees, or {@code null} if its location is unknown.
+     */
+    @Column(name = "longitude")
+    private Double longitude;
+
+    /**
+     * The version of the restaurant menu, bumped on every change to its menu items. Only ever
+     * changed through {@code RestaurantRepository#incrementMenuVersion}, so saving a stale entity
+     * cannot move it backwards.
+     */
+    @Column(name = "menu_version", insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long menuVersion;
 
     /**
      * Default constructor.
@@ -90,12 +113,12 @@ public class RestaurantDetail {
      * @param contactNo       the contact number of the restaurant
      * @param open            indicates whether the restaurant is open
      * @param openingHours    the opening hours of the restaurant
-     * @param imageData       the image data of the restaurant
+     * @param imageHash       the content hash of the restaurant image
      * @param description     a description of the restaurant
      */
     public RestaurantDetail(int id, int ownerId, String restaurantName,
                             String address, String contactNo, Boolean open, String openingHours,
-                            byte[] imageData, String description) {
+                            String imageHash, String description) {
         this.id = id;
         this.ownerId = ownerId;
         this.restaurantName = restaurantName;
@@ -103,7 +126,7 @@ public class RestaurantDetail {
         this.contactNo = contactNo;
         this.open = open;
         this.openingHours = openingHours;
-        this.imageData = imageData;
+        this.imageHash = imageHash;
         this.description = description;
     }
 
@@ -252,21 +275,66 @@ public class RestaurantDetail {
     }
 
     /**
-     * Gets the image data of the restaurant.
+     * Gets the content hash of the restaurant image.
+     *
+     * @return the image hash, or {@code null} if the restaurant has no image
+     */
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    /**
+     * Sets the content hash of the restaurant image.
+     *
+     * @param imageHash the image hash
+     */
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    /**
+     * Gets the latitude of the restaurant.
+     *
+     * @return the latitude in degrees, or {@code null} if the location is unknown
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude of the restaurant.
+     *
+     * @param latitude the latitude in degrees
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the longitude of the restaurant.
      *
-     * @return the image data of the restaurant
+     * @return the longitude in degrees, or {@code null} if the location is unknown
      */
-    public byte[] getImageData() {
-        return imageData;
+    public Double getLongitude() {
+        return longitude;
     }
 
     /**
-     * Sets the image data of the restaurant.
+     * Sets the longitude of the restaurant.
      *
-     * @param imageData the image data of the restaurant
+     * @param longitude the longitude in degrees
      */
-    public void setImageData(byte[] imageData) {
-        this.imageData = imageData;
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Gets the version of the restaurant menu as of when this entity was loaded.
+     *
+     * @return the menu version
+     */
+    public long getMenuVersion() {
+        return menuVersion;
     }
 
     /**
@@ -300,7 +368,11 @@ public class RestaurantDetail {
                 &&
                 Objects.equals(description, that.description)
                 &&
-                Objects.deepEquals(imageData, that.imageData);
+                Objects.equals(imageHash, that.imageHash)
+                &&
+                Objects.equals(latitude, that.latitude)
+                &&
+                Objects.equals(longitude, that.longitude);
     }
 
     /**
@@ -311,6 +383,6 @@ public class RestaurantDetail {
     @Override
     public int hashCode() {
         return Objects.hash(id, ownerId, restaurantName, address, contactNo, open, openingHours, description,
-                Arrays.hashCode(imageData));
+                imageHash, latitude, longitude);
     }
 }
@@ -0,0 +1,75 @@
+package com.restaurant.RestaurantMicroservice.enums;
+
+/**
+ * Enumeration of the image formats accepted for menu items and restaurants, identified by the
+ * magic bytes at the start of the file.
+ */
+public enum ImageType {
+
+    /**
+     * JPEG image.
+     */
+    JPEG("image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+
+    /**
+     * PNG image.
+     */
+    PNG("image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+    /**
+     * Number of leading bytes needed to recognise any of the supported formats.
+     */
+    public static final int MAGIC_LENGTH = 8;
+
+    /**
+     * The MIME type of the format.
+     */
+    private final String contentType;
+
+    /**
+     * The bytes every file of this format starts with.
+     */
+    private final byte[] magic;
+
+    ImageType(String contentType, byte[] magic) {
+        this.contentType = contentType;
+        this.magic = magic;
+    }
+
+    /**
+     * Gets the MIME type of the format.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Identifies the format of an image from its leading bytes.
+     *
+     * @param header the first bytes of the image; may be shorter than {@link #MAGIC_LENGTH}
+     * @param length the number of valid bytes in {@code header}
+     * @return the matching image type, or {@code null} if the bytes match no supported format
+     */
+    public static ImageType fromMagicBytes(byte[] header, int length) {
+        for (ImageType type : values()) {
+            if (type.matches(header, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.restaurant.RestaurantMicroservice.enums;
+
+/**
+ * Enumeration of the sizes an image is served in, selected with the {@code size} request parameter
+ * of the image endpoints.
+ */
+public enum ImageVariant {
+
+    /**
+     * Small image for menu cards and list views.
+     */
+    THUMB("thumb", 160),
+
+    /**
+     * Image sized for detail views on phones.
+     */
+    MEDIUM("medium", 640),
+
+    /**
+     * The image as uploaded.
+     */
+    ORIGINAL("original", 0);
+
+    /**
+     * Value of the {@code size} request parameter selecting this variant.
+     */
+    private final String parameter;
+
+    /**
+     * Maximum width and height of the variant in pixels; 0 for the original.
+     */
+    private final int maxDimension;
+
+    ImageVariant(String parameter, int maxDimension) {
+        this.parameter = parameter;
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Gets the value of the {@code size} request parameter selecting this variant.
+     *
+     * @return the parameter value
+     */
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * Gets the maximum width and height of the variant in pixels.
+     *
+     * @return the maximum dimension, or 0 for the original
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Resolves the variant selected by a {@code size} request parameter. Unknown or missing values
+     * select the original image.
+     *
+     * @param parameter the parameter value, case-insensitive; may be null
+     * @return the selected variant
+     */
+    public static ImageVariant fromParameter(String parameter) {
+        for (ImageVariant variant : values()) {
+            if (variant.parameter.equalsIgnoreCase(parameter)) {
+                return variant;
+            }
+        }
+        return ORIGINAL;
+    }
+}
@@ -0,0 +1,17 @@
+package com.restaurant.RestaurantMicroservice.enums;
+
+/**
+ * Enumeration of the kinds of names the search box suggests.
+ */
+public enum SuggestionType {
+
+    /**
+     * The name of a restaurant.
+     */
+    RESTAURANT,
+
+    /**
+     * The food name of a menu item.
+     */
+    DISH
+}
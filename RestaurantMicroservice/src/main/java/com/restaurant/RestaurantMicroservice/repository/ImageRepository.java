@@ -0,0 +1,69 @@
+package com.restaurant.RestaurantMicroservice.repository;
+
+import com.restaurant.RestaurantMicroservice.entities.Image;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link Image} entities, keyed by their content hash.
+ */
+@Repository
+public interface ImageRepository extends JpaRepository<Image, String> {
+
+    /**
+     * Adds a reference to an image in a single statement: inserts its metadata with one reference,
+     * or, if it is stored already, adds one to its reference count. Concurrent first uploads of the
+     * same content end in one row. PostgreSQL only.
+     *
+     * @param contentHash the content hash of the image
+     * @param contentType the MIME type of the image, used only if it is inserted
+     * @param size        the size of the image in bytes, used only if it is inserted
+     * @return the reference count after the add, 1 if the image was inserted
+     */
+    @Transactional
+    @Query(value = "INSERT INTO images (content_hash, content_type, size_bytes, ref_count) "
+            + "VALUES (:contentHash, :contentType, :size, 1) "
+            + "ON CONFLICT (content_hash) DO UPDATE SET ref_count = images.ref_count + 1 "
+            + "RETURNING ref_count", nativeQuery = true)
+    int addReference(@Param("contentHash") String contentHash, @Param("contentType") String contentType,
+                     @Param("size") long size);
+
+    /**
+     * Finds an image and locks its row until the end of the transaction, so that its reference
+     * count cannot change in the meantime.
+     *
+     * @param contentHash the content hash of the image
+     * @return the image, if stored
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Image i WHERE i.contentHash = :contentHash")
+    Optional<Image> findByIdForUpdate(@Param("contentHash") String contentHash);
+
+    /**
+     * Removes a reference from an image.
+     *
+     * @param contentHash the content hash of the image
+     * @return the number of rows updated; 0 if the image is not stored or already unreferenced
+     */
+    @Modifying
+    @Query("UPDATE Image i SET i.refCount = i.refCount - 1 WHERE i.contentHash = :contentHash AND i.refCount > 0")
+    int decrementRefCount(@Param("contentHash") String contentHash);
+
+    /**
+     * Deletes the metadata of an image if nothing references it anymore.
+     *
+     * @param contentHash the content hash of the image
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Image i WHERE i.contentHash = :contentHash AND i.refCount <= 0")
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+}
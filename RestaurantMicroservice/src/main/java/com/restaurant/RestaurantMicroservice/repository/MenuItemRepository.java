@@ -1,10 +1,19 @@
 package com.restaurant.RestaurantMicroservice.repository;
 
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 import com.restaurant.RestaurantMicroservice.entities.MenuItems;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link MenuItems} entities.
@@ -22,6 +31,15 @@ public interface MenuItemRepository extends JpaRepository<MenuItems, Integer> {
      */
     List<MenuItems> findByCategoryId(int categoryId);
 
+    /**
+     * Retrieves the IDs of the menu items of a category, without loading the items.
+     *
+     * @param categoryId the ID of the category.
+     * @return the IDs of the menu items linked to the specified category.
+     */
+    @Query("SELECT m.id FROM MenuItems m WHERE m.categoryId = :categoryId")
+    List<Integer> findIdsByCategoryId(@Param("categoryId") int categoryId);
+
     /**
      * Retrieves a list of menu items associated with a specific restaurant.
      *
@@ -30,6 +48,161 @@ public interface MenuItemRepository extends JpaRepository<MenuItems, Integer> {
      */
     List<MenuItems> findByRestaurantId(int restaurantId);
 
+    /**
+     * Retrieves the menu of a restaurant as response DTOs, joining the restaurant name and the
+     * category name in a single query. Items whose category no longer exists are returned with a
+     * {@code null} category name.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @return a list of {@link MenuItemResponseDto} ordered by menu item ID.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.restaurantId = :restaurantId "
+            + "ORDER BY m.id")
+    List<MenuItemResponseDto> findMenuByRestaurantId(@Param("restaurantId") int restaurantId);
+
+    /**
+     * Retrieves the menu items of a restaurant within a price range, optionally only those with a
+     * given availability, served by the (restaurant_id, is_available, price) index.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @param available    only menu items with this availability, or {@code null} for any.
+     * @param minPrice     the lowest price, inclusive, or {@code null} for no lower bound.
+     * @param maxPrice     the highest price, inclusive, or {@code null} for no upper bound.
+     * @param sort         the order of the results.
+     * @return a list of {@link MenuItemResponseDto} in the requested order.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.restaurantId = :restaurantId "
+            + "AND (:available IS NULL OR m.isAvailable = :available) "
+            + "AND (:minPrice IS NULL OR m.price >= :minPrice) "
+            + "AND (:maxPrice IS NULL OR m.price <= :maxPrice)")
+    List<MenuItemResponseDto> findMenuByRestaurantIdFiltered(@Param("restaurantId") int restaurantId,
+                                                             @Param("available") Boolean available,
+                                                             @Param("minPrice") BigDecimal minPrice,
+                                                             @Param("maxPrice") BigDecimal maxPrice,
+                                                             Sort sort);
+
+    /**
+     * Retrieves the menu items of a category as response DTOs, joining the restaurant name and the
+     * category name in a single query.
+     *
+     * @param categoryId the ID of the category.
+     * @return a list of {@link MenuItemResponseDto} ordered by menu item ID.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.categoryId = :categoryId "
+            + "ORDER BY m.id")
+    List<MenuItemResponseDto> findMenuByCategoryId(@Param("categoryId") int categoryId);
+
+    /**
+     * Retrieves the menu items of a restaurant that changed after a given menu version, in the
+     * same shape as {@link #findMenuByRestaurantId(int)}.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @param sinceVersion the menu version the caller already has.
+     * @return a list of {@link MenuItemResponseDto} ordered by menu item ID.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.restaurantId = :restaurantId AND m.menuVersion > :sinceVersion "
+            + "ORDER BY m.id")
+    List<MenuItemResponseDto> findMenuChangesByRestaurantId(@Param("restaurantId") int restaurantId,
+                                                            @Param("sinceVersion") long sinceVersion);
+
+    /**
+     * Retrieves menu items by ID in the same shape as {@link #findMenuByRestaurantId(int)}, for
+     * search hits. IDs of menu items that no longer exist are skipped.
+     *
+     * @param ids the IDs of the menu items.
+     * @return a list of {@link MenuItemResponseDto} in no particular order.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.id IN :ids")
+    List<MenuItemResponseDto> findMenuByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Retrieves the page of menu items following the given ID, across all restaurants, in the
+     * same shape as {@link #findMenuByRestaurantId(int)}. Used to load the search index.
+     *
+     * @param afterId  the ID of the last menu item of the previous page; 0 for the first page.
+     * @param pageable the page size; the page number must be 0.
+     * @return a list of {@link MenuItemResponseDto} ordered by menu item ID.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto("
+            + "m.id, r.restaurantName, c.name, m.foodName, m.description, m.isAvailable, m.price, m.imageHash) "
+            + "FROM MenuItems m "
+            + "JOIN RestaurantDetail r ON r.id = m.restaurantId "
+            + "LEFT JOIN Category c ON c.id = m.categoryId "
+            + "WHERE m.id > :afterId "
+            + "ORDER BY m.id")
+    List<MenuItemResponseDto> findMenuPageAfterId(@Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Marks every menu item of a category as changed at the given menu version, for changes to
+     * the category that show up in the menu items.
+     *
+     * @param categoryId  the ID of the category.
+     * @param menuVersion the new menu version.
+     * @return the number of menu items updated.
+     */
+    @Modifying
+    @Query("UPDATE MenuItems m SET m.menuVersion = :menuVersion WHERE m.categoryId = :categoryId")
+    int updateMenuVersionByCategoryId(@Param("categoryId") int categoryId, @Param("menuVersion") long menuVersion);
+
+    /**
+     * Moves every menu item of a category out of it, to category ID 0, and marks them as changed
+     * at the given menu version, in a single statement.
+     *
+     * @param categoryId  the ID of the category.
+     * @param menuVersion the new menu version.
+     * @return the number of menu items moved.
+     */
+    @Modifying
+    @Query("UPDATE MenuItems m SET m.categoryId = 0, m.menuVersion = :menuVersion WHERE m.categoryId = :categoryId")
+    int clearCategory(@Param("categoryId") int categoryId, @Param("menuVersion") long menuVersion);
+
+    /**
+     * Marks every menu item of a restaurant as changed at the given menu version, for changes to
+     * the restaurant that show up in the menu items.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @param menuVersion  the new menu version.
+     * @return the number of menu items updated.
+     */
+    @Modifying
+    @Query("UPDATE MenuItems m SET m.menuVersion = :menuVersion WHERE m.restaurantId = :restaurantId")
+    int updateMenuVersionByRestaurantId(@Param("restaurantId") int restaurantId,
+                                        @Param("menuVersion") long menuVersion);
+
+    /**
+     * Retrieves the image hash of a menu item without loading the rest of the row.
+     *
+     * @param id the ID of the menu item.
+     * @return the image hash, or empty if the menu item does not exist or has no image.
+     */
+    @Query("SELECT m.imageHash FROM MenuItems m WHERE m.id = :id AND m.imageHash IS NOT NULL")
+    Optional<String> findImageHashById(@Param("id") int id);
+
     /**
      * Checks if a menu item with the specified food name exists for a given restaurant.
      *
@@ -0,0 +1,30 @@
+package com.restaurant.RestaurantMicroservice.repository;
+
+import com.restaurant.RestaurantMicroservice.entities.MenuItemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link MenuItemTombstone} entities, keyed by the ID of the
+ * deleted menu item.
+ */
+@Repository
+public interface MenuItemTombstoneRepository extends JpaRepository<MenuItemTombstone, Integer> {
+
+    /**
+     * Retrieves the IDs of the menu items of a restaurant deleted after a given menu version.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @param sinceVersion the menu version the caller already has.
+     * @return the IDs of the deleted menu items, in ascending order.
+     */
+    @Query("SELECT t.menuItemId FROM MenuItemTombstone t "
+            + "WHERE t.restaurantId = :restaurantId AND t.menuVersion > :sinceVersion "
+            + "ORDER BY t.menuItemId")
+    List<Integer> findDeletedMenuItemIds(@Param("restaurantId") int restaurantId,
+                                         @Param("sinceVersion") long sinceVersion);
+}
@@ -1,10 +1,18 @@
 package com.restaurant.RestaurantMicroservice.repository;
 
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
 import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link RestaurantDetail} entities.
@@ -29,4 +37,99 @@ public interface RestaurantRepository extends JpaRepository<RestaurantDetail, In
      * @return true if a restaurant with the specified name exists, false otherwise.
      */
     boolean existsByRestaurantNameIgnoreCase(String restaurantName);
+
+    /**
+     * Retrieves the image hash of a restaurant without loading the rest of the row.
+     *
+     * @param id the ID of the restaurant.
+     * @return the image hash, or empty if the restaurant does not exist or has no image.
+     */
+    @Query("SELECT r.imageHash FROM RestaurantDetail r WHERE r.id = :id AND r.imageHash IS NOT NULL")
+    Optional<String> findImageHashById(@Param("id") int id);
+
+    /**
+     * Bumps the menu version of a restaurant. The row stays locked until the calling transaction
+     * ends, so concurrent menu changes of one restaurant get distinct versions.
+     *
+     * @param id the ID of the restaurant.
+     * @return the number of rows updated; 0 if the restaurant does not exist.
+     */
+    @Modifying
+    @Query("UPDATE RestaurantDetail r SET r.menuVersion = r.menuVersion + 1 WHERE r.id = :id")
+    int incrementMenuVersion(@Param("id") int id);
+
+    /**
+     * Retrieves the menu version of a restaurant without loading the rest of the row.
+     *
+     * @param id the ID of the restaurant.
+     * @return the menu version, or empty if the restaurant does not exist.
+     */
+    @Query("SELECT r.menuVersion FROM RestaurantDetail r WHERE r.id = :id")
+    Optional<Long> findMenuVersionById(@Param("id") int id);
+
+    /**
+     * Sets the open status of restaurants in one statement, in a transaction of its own.
+     *
+     * @param ids  the IDs of the restaurants.
+     * @param open the new open status.
+     * @return the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RestaurantDetail r SET r.open = :open WHERE r.id IN :ids")
+    int updateOpenByIdIn(@Param("ids") Collection<Integer> ids, @Param("open") boolean open);
+
+    /**
+     * Sets the location of a restaurant, in a transaction of its own.
+     *
+     * @param id        the ID of the restaurant.
+     * @param latitude  the latitude in degrees.
+     * @param longitude the longitude in degrees.
+     * @return the number of rows updated; 0 if the restaurant does not exist.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RestaurantDetail r SET r.latitude = :latitude, r.longitude = :longitude WHERE r.id = :id")
+    int updateLocation(@Param("id") int id, @Param("latitude") double latitude,
+                       @Param("longitude") double longitude);
+
+    /**
+     * Retrieves restaurants as response DTOs by ID, selecting only the columns of the DTO.
+     *
+     * @param ids the IDs of the restaurants.
+     * @return a list of {@link RestaurantResponseDto} ordered by restaurant ID; restaurants that
+     *         do not exist are left out.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto("
+            + "r.id, r.restaurantName, r.address, r.contactNo, r.open, r.openingHours, r.imageHash, r.ownerId, "
+            + "r.latitude, r.longitude) "
+            + "FROM RestaurantDetail r "
+            + "WHERE r.id IN :ids "
+            + "ORDER BY r.id")
+    List<RestaurantResponseDto> findRestaurantsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Retrieves a page of restaurants as response DTOs, in ascending ID order after a cursor.
+     * Only the columns of the DTO are selected, and the page is found by seeking the ID index
+     * rather than skipping rows, so the cost of a page does not grow with the number of
+     * restaurants or with the cursor position.
+     *
+     * @param afterId  the ID of the last restaurant of the previous page; 0 for the first page.
+     * @param open     only restaurants with this open status, or {@code null} for any.
+     * @param ownerId  only restaurants of this owner, or {@code null} for any.
+     * @param pageable the page size; the page number must be 0.
+     * @return a list of {@link RestaurantResponseDto} ordered by restaurant ID.
+     */
+    @Query("SELECT new com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto("
+            + "r.id, r.restaurantName, r.address, r.contactNo, r.open, r.openingHours, r.imageHash, r.ownerId, "
+            + "r.latitude, r.longitude) "
+            + "FROM RestaurantDetail r "
+            + "WHERE r.id > :afterId "
+            + "AND (:open IS NULL OR r.open = :open) "
+            + "AND (:ownerId IS NULL OR r.ownerId = :ownerId) "
+            + "ORDER BY r.id")
+    List<RestaurantResponseDto> findPageAfterId(@Param("afterId") int afterId,
+                                                @Param("open") Boolean open,
+                                                @Param("ownerId") Integer ownerId,
+                                                Pageable pageable);
 }
@@ -43,6 +43,11 @@ public interface CategoryService {
 
     /**
      * Deletes a category identified by its ID.
+     * <p>
+     * The menu items of the category are not deleted: they stay on the menu without a category
+     * (category ID 0) and are listed under the placeholder category name until they are assigned
+     * to another category.
+     * </p>
      *
      * @param id the ID of the category to delete.
      * @return a {@link CommonResponseDto} indicating the result of the deletion operation.
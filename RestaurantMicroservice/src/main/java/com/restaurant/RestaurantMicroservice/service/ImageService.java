@@ -0,0 +1,42 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service interface for storing and retrieving menu item and restaurant images.
+ * <p>
+ * Images are content-addressed and reference counted: every successful {@link #saveImage} must be
+ * balanced by a {@link #releaseImage} once the caller stops referencing the returned hash.
+ * </p>
+ */
+public interface ImageService {
+
+    /**
+     * Validates and stores an uploaded image, adding one reference to it. Uploads with identical
+     * content are stored once.
+     *
+     * @param multipartFile The uploaded image file.
+     * @param maxSizeBytes The maximum accepted file size in bytes.
+     * @return The content hash identifying the stored image.
+     */
+    String saveImage(MultipartFile multipartFile, long maxSizeBytes);
+
+    /**
+     * Removes one reference from an image, deleting it once nothing references it.
+     *
+     * @param contentHash The content hash of the image; ignored if null.
+     */
+    void releaseImage(String contentHash);
+
+    /**
+     * Reads a variant of a stored image by its content hash, without going through the database.
+     * Falls back to the original if the variant does not exist.
+     *
+     * @param contentHash The content hash of the image.
+     * @param variant     The requested variant.
+     * @return The stored image content.
+     */
+    ImageResponseDto getImage(String contentHash, ImageVariant variant);
+}
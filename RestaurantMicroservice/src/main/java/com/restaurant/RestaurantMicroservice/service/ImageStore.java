@@ -0,0 +1,99 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * Storage backend for image content, keyed by the hex-encoded SHA-256 hash of the original content.
+ * Resized variants of an image are stored next to it under the same hash.
+ * <p>
+ * Because keys are derived from the content, storing the same key twice is a no-op and stored
+ * content never changes. Reference counting is done by {@link ImageService}, not by the store.
+ * </p>
+ */
+public interface ImageStore {
+
+    /**
+     * Checks whether a variant of an image is stored.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to look for.
+     * @return true if the variant is stored, false otherwise.
+     */
+    boolean exists(String contentHash, ImageVariant variant);
+
+    /**
+     * Starts writing a new original image whose hash is not known yet. The content is streamed
+     * into the returned {@link PendingWrite} and only becomes visible once it is committed under
+     * its hash.
+     *
+     * @return A pending write; must be closed.
+     */
+    PendingWrite begin();
+
+    /**
+     * Stores a resized variant of an image. Does nothing if the variant is already stored.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant being stored; not {@link ImageVariant#ORIGINAL}.
+     * @param data        The encoded variant.
+     */
+    void write(String contentHash, ImageVariant variant, byte[] data);
+
+    /**
+     * Reads a variant of an image.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to read.
+     * @return The stored content.
+     */
+    byte[] read(String contentHash, ImageVariant variant);
+
+    /**
+     * Opens a variant of an image for serving. The returned resource reads straight from the
+     * backing storage, so the content never has to be held in memory.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to open.
+     * @return The stored content.
+     */
+    Resource open(String contentHash, ImageVariant variant);
+
+    /**
+     * Removes an image and all of its variants. Does nothing if the hash is not stored.
+     *
+     * @param contentHash The content hash of the original image.
+     */
+    void delete(String contentHash);
+
+    /**
+     * Content being written to the store. Closing a pending write that was not committed
+     * discards everything written to it.
+     */
+    interface PendingWrite extends Closeable {
+
+        /**
+         * Appends the remaining bytes of a buffer to the content.
+         *
+         * @param chunk The bytes to append.
+         */
+        void write(ByteBuffer chunk);
+
+        /**
+         * Makes the written content visible under its hash. Does nothing beyond discarding the
+         * written bytes if the hash is already stored.
+         *
+         * @param contentHash The hex-encoded SHA-256 hash of everything written.
+         */
+        void commit(String contentHash);
+
+        /**
+         * Releases the pending write, discarding its content unless it was committed.
+         */
+        @Override
+        void close();
+    }
+}
@@ -2,11 +2,17 @@ package com.restaurant.RestaurantMicroservice.service;
 
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemUpdateRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -56,6 +62,49 @@ public interface MenuItemService {
      */
     List<MenuItemResponseDto> getAllMenuItemsByRestaurantId(int restaurantId);
 
+    /**
+     * Fetches the menu items of a restaurant within a price range, optionally only the available
+     * ones, sorted by price.
+     *
+     * @param restaurantId The ID of the restaurant for which to fetch menu items.
+     * @param available    Only menu items with this availability, or {@code null} for any.
+     * @param minPrice     The lowest price, inclusive, or {@code null} for no lower bound.
+     * @param maxPrice     The highest price, inclusive, or {@code null} for no upper bound.
+     * @param direction    Whether to list the cheapest or the most expensive items first.
+     * @return A list of {@link MenuItemResponseDto} sorted by price, then by ID.
+     */
+    List<MenuItemResponseDto> getFilteredMenuItemsByRestaurantId(int restaurantId, Boolean available,
+                                                                 BigDecimal minPrice, BigDecimal maxPrice,
+                                                                 Sort.Direction direction);
+
+    /**
+     * Fetches all menu items belonging to a specific restaurant, serialized as JSON. Repeated
+     * requests for an unchanged menu are served from memory.
+     *
+     * @param restaurantId The ID of the restaurant for which to fetch menu items.
+     * @param menuVersion  The current menu version of the restaurant, see {@link #getMenuVersion(int)}.
+     * @return A {@link SerializedMenuDto} holding the serialized menu items.
+     */
+    SerializedMenuDto getSerializedMenu(int restaurantId, long menuVersion);
+
+    /**
+     * Fetches the current menu version of a restaurant. The version changes whenever a menu item of
+     * the restaurant is added, changed or removed.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @return The current menu version.
+     */
+    long getMenuVersion(int restaurantId);
+
+    /**
+     * Fetches the changes to the menu of a restaurant since a given menu version.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param sinceVersion The menu version the caller already has.
+     * @return A {@link MenuDeltaResponseDto} with the changed and removed menu items.
+     */
+    MenuDeltaResponseDto getMenuChangesSince(int restaurantId, long sinceVersion);
+
     /**
      * Updates the status (e.g., available or unavailable) of a menu item.
      *
@@ -75,4 +124,13 @@ public interface MenuItemService {
     CommonResponseDto updateMenuItem(int menuItemId, MenuItemUpdateRequestDto menuItemUpdateRequestDTO,
                                      MultipartFile multipartFile);
 
+    /**
+     * Fetches the image of a menu item.
+     *
+     * @param id      The ID of the menu item whose image is to be fetched.
+     * @param variant The requested size of the image.
+     * @return The image content of the menu item.
+     */
+    ImageResponseDto getMenuItemImage(int id, ImageVariant variant);
+
 }
@@ -0,0 +1,58 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for full-text search over the menu items of all restaurants.
+ */
+public interface MenuSearchService {
+
+    /**
+     * Searches the menu items by food name, description and category name. Words the menu does
+     * not contain are taken for misspellings and matched to the closest words it does.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of results.
+     * @return The matching menu items, best match first.
+     */
+    List<MenuItemResponseDto> searchMenuItems(String query, int limit);
+
+    /**
+     * Finds the menu items of all restaurants priced within a range.
+     *
+     * @param minPrice      The lowest price, inclusive; no lower bound if null.
+     * @param maxPrice      The highest price, inclusive; no upper bound if null.
+     * @param availableOnly Whether to return available items only.
+     * @param direction     ASC for the cheapest items first, DESC for the most expensive first.
+     * @param limit         The maximum number of results.
+     * @return The matching menu items, ordered by price.
+     */
+    List<MenuItemResponseDto> findMenuItemsByPrice(BigDecimal minPrice, BigDecimal maxPrice, boolean availableOnly,
+                                                   Sort.Direction direction, int limit);
+
+    /**
+     * Re-indexes menu items from the database once the current transaction commits, or right away
+     * if there is none. Menu items that no longer exist are removed from the index.
+     *
+     * @param menuItemIds The IDs of the changed menu items.
+     */
+    void reindexMenuItems(Collection<Integer> menuItemIds);
+
+    /**
+     * Re-indexes the menu items of a category once the current transaction commits, or right away
+     * if there is none.
+     *
+     * @param categoryId The ID of the changed category.
+     */
+    void reindexCategory(int categoryId);
+
+    /**
+     * Loads every menu item into the search index.
+     */
+    void rebuildIndex();
+}
@@ -0,0 +1,57 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for the opening hours of restaurants: which restaurants are open at a given
+ * time, and keeping the open status of each restaurant in step with its hours.
+ * <p>
+ * Only opening hours in a recognised format take part; restaurants with other hours keep the open
+ * status their owner sets by hand.
+ * </p>
+ */
+public interface OpeningHoursService {
+
+    /**
+     * Finds the restaurants open at a time, in ascending ID order after a cursor.
+     *
+     * @param at      The local time, or null for now.
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurant IDs to return.
+     * @return The IDs of the open restaurants.
+     */
+    List<Integer> findRestaurantsOpenAt(LocalDateTime at, int afterId, int limit);
+
+    /**
+     * Checks whether opening hours are open now.
+     *
+     * @param openingHours The opening hours text.
+     * @return Whether the hours are open now, or null if they are not in a recognised format.
+     */
+    Boolean isOpenNow(String openingHours);
+
+    /**
+     * Records the new opening hours of a restaurant once the current transaction commits, or
+     * right away if there is none. The open status of the restaurant is switched at every
+     * opening and closing time from then on.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param openingHours The opening hours text.
+     */
+    void hoursChanged(int restaurantId, String openingHours);
+
+    /**
+     * Forgets the opening hours of a deleted restaurant once the current transaction commits, or
+     * right away if there is none.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    void restaurantRemoved(int restaurantId);
+
+    /**
+     * Loads the opening hours of every restaurant and corrects the open status of those that are
+     * out of step with their hours.
+     */
+    void rebuildSchedules();
+}
@@ -0,0 +1,61 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+
+import java.util.Map;
+
+/**
+ * Service interface for the locations of restaurants: finding the location of a restaurant from
+ * its address, and which restaurants are nearest to a point.
+ * <p>
+ * Only restaurants with a location take part in nearby searches. A restaurant gets its location
+ * from the coordinates its owner gives, or else from the places named in its address.
+ * </p>
+ */
+public interface RestaurantLocationService {
+
+    /**
+     * Finds the restaurants nearest to a point, within a radius.
+     *
+     * @param latitude  The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param radiusKm  The greatest distance of a result in kilometres.
+     * @param limit     The maximum number of restaurants to return.
+     * @return The distance in kilometres by restaurant ID, nearest first.
+     */
+    Map<Integer, Double> findNearestRestaurants(double latitude, double longitude, double radiusKm, int limit);
+
+    /**
+     * Sets the location of a restaurant: the given coordinates if both are present, or else the
+     * location of its address. The location is cleared if neither is known.
+     *
+     * @param restaurant The restaurant, with its address set.
+     * @param latitude   The latitude in degrees, or null.
+     * @param longitude  The longitude in degrees, or null.
+     */
+    void locate(RestaurantDetail restaurant, Double latitude, Double longitude);
+
+    /**
+     * Records the new location of a restaurant once the current transaction commits, or right
+     * away if there is none.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param latitude     The latitude in degrees, or null if the location is unknown.
+     * @param longitude    The longitude in degrees, or null if the location is unknown.
+     */
+    void locationChanged(int restaurantId, Double latitude, Double longitude);
+
+    /**
+     * Forgets the location of a deleted restaurant once the current transaction commits, or right
+     * away if there is none.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    void restaurantRemoved(int restaurantId);
+
+    /**
+     * Loads the location of every restaurant, locating from their address the restaurants saved
+     * without one.
+     */
+    void rebuildLocations();
+}
@@ -2,11 +2,14 @@ package com.restaurant.RestaurantMicroservice.service;
 
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateRestaurantDetailRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantDetailUpdateRequestDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -53,7 +56,17 @@ public interface RestaurantService {
     RestaurantResponseDto getRestaurantById(int id);
 
     /**
-     * Updates the status (open/closed) of a restaurant.
+     * Fetches the image of a restaurant.
+     *
+     * @param id      The ID of the restaurant whose image is to be fetched.
+     * @param variant The requested size of the image.
+     * @return The image content of the restaurant.
+     */
+    ImageResponseDto getRestaurantImage(int id, ImageVariant variant);
+
+    /**
+     * Updates the status (open/closed) of a restaurant. A restaurant whose opening hours are in a
+     * recognised format is switched back to them at its next opening or closing time.
      *
      * @param id The ID of the restaurant whose status is to be updated.
      * @return A {@link CommonResponseDto} indicating the success of the status update.
@@ -69,10 +82,42 @@ public interface RestaurantService {
     List<RestaurantResponseDto> getRestaurantByUserId(int userId);
 
     /**
-     * Fetches all restaurants in the system.
+     * Fetches a page of the restaurants in the system, in ascending ID order.
+     *
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurants to return, capped at
+     *                {@link com.restaurant.RestaurantMicroservice.constants.Constants#MAX_RESTAURANT_PAGE_SIZE}.
+     * @param open    Only restaurants with this open status, or null for any.
+     * @param ownerId Only restaurants of this owner, or null for any.
+     * @return A list of {@link RestaurantResponseDto} containing the details of the restaurants.
+     */
+    List<RestaurantResponseDto> getAllRestaurants(int afterId, int limit, Boolean open, Integer ownerId);
+
+    /**
+     * Fetches a page of the restaurants whose opening hours are open at a time, in ascending ID
+     * order. Restaurants whose opening hours are not in a recognised format are left out.
+     *
+     * @param at      The local time, or null for now.
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurants to return, capped at
+     *                {@link com.restaurant.RestaurantMicroservice.constants.Constants#MAX_RESTAURANT_PAGE_SIZE}.
+     * @return A list of {@link RestaurantResponseDto} containing the details of the restaurants.
+     */
+    List<RestaurantResponseDto> getRestaurantsOpenAt(LocalDateTime at, int afterId, int limit);
+
+    /**
+     * Fetches the restaurants nearest to a location, nearest first, with their distance.
+     * Restaurants whose location is unknown are left out.
      *
-     * @return A list of {@link RestaurantResponseDto} containing the details of all restaurants.
+     * @param latitude  The latitude of the location in degrees.
+     * @param longitude The longitude of the location in degrees.
+     * @param radiusKm  The greatest distance in kilometres, capped at
+     *                  {@link com.restaurant.RestaurantMicroservice.constants.Constants#MAX_NEARBY_RADIUS_KM}.
+     * @param limit     The maximum number of restaurants to return, capped at
+     *                  {@link com.restaurant.RestaurantMicroservice.constants.Constants#MAX_RESTAURANT_PAGE_SIZE}.
+     * @return A list of {@link RestaurantResponseDto} containing the details of the restaurants;
+     *         empty if the location is not valid.
      */
-    List<RestaurantResponseDto> getAllRestaurants();
+    List<RestaurantResponseDto> getNearbyRestaurants(double latitude, double longitude, double radiusKm, int limit);
 
 }
@@ -0,0 +1,55 @@
+package com.restaurant.RestaurantMicroservice.service;
+
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+
+import java.util.List;
+
+/**
+ * Service interface for search box suggestions of restaurant and dish names.
+ */
+public interface SearchSuggestionService {
+
+    /**
+     * Suggests the most popular restaurant and dish names starting with the typed text, or with a
+     * word starting with it.
+     *
+     * @param prefix The typed text.
+     * @param limit  The maximum number of suggestions.
+     * @return The suggestions, best first.
+     */
+    List<SuggestionResponseDto> suggest(String prefix, int limit);
+
+    /**
+     * Records a newly listed name once the current transaction commits, or right away if there is
+     * none.
+     *
+     * @param type The kind of name.
+     * @param name The name.
+     */
+    void nameAdded(SuggestionType type, String name);
+
+    /**
+     * Records a name that is no longer listed once the current transaction commits, or right away
+     * if there is none.
+     *
+     * @param type The kind of name.
+     * @param name The name.
+     */
+    void nameRemoved(SuggestionType type, String name);
+
+    /**
+     * Records a renamed listing once the current transaction commits, or right away if there is
+     * none. Does nothing if the name did not change.
+     *
+     * @param type         The kind of name.
+     * @param previousName The name before the change.
+     * @param name         The name after the change.
+     */
+    void nameChanged(SuggestionType type, String previousName, String name);
+
+    /**
+     * Loads every restaurant and dish name.
+     */
+    void rebuildSuggestions();
+}
@@ -0,0 +1,33 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers work on in-memory state until the transaction that changed the database has committed,
+ * so that a rolled back change never reaches the caches and indexes.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or right away if there is none. The
+     * action is dropped if the transaction rolls back.
+     *
+     * @param action The action to run.
+     */
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -15,11 +15,15 @@ import com.restaurant.RestaurantMicroservice.repository.CategoryRepository;
 import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
 import com.restaurant.RestaurantMicroservice.service.CategoryService;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
+
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,20 +49,36 @@ public class CategoryServiceImpl implements CategoryService {
      */
     private final MenuItemRepository menuItemRepository;
 
+    /**
+     * Menu versions of the restaurants, which change with the category names their menus include.
+     */
+    private final MenuVersions menuVersions;
+
+    /**
+     * Service keeping the menu search index current, which indexes the category names.
+     */
+    private final MenuSearchService menuSearchService;
+
     /**
      * Constructs a {@link CategoryServiceImpl} instance with the specified repositories.
      *
      * @param categoryRepository     the {@link CategoryRepository} used for category data access
      * @param restaurantRepository   the {@link RestaurantRepository} used for restaurant data access
      * @param menuItemRepository     the {@link MenuItemRepository} used for menu item data access
+     * @param menuVersions           the {@link MenuVersions} of the restaurant menus
+     * @param menuSearchService      the {@link MenuSearchService} indexing menu items for search
      */
     @Autowired
     public CategoryServiceImpl(CategoryRepository categoryRepository,
                                RestaurantRepository restaurantRepository,
-                               MenuItemRepository menuItemRepository) {
+                               MenuItemRepository menuItemRepository,
+                               MenuVersions menuVersions,
+                               MenuSearchService menuSearchService) {
         this.categoryRepository = categoryRepository;
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.menuVersions = menuVersions;
+        this.menuSearchService = menuSearchService;
     }
 
     /**
@@ -111,6 +131,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @param updateCategoryRequestDTO the data to update the category with
      * @return a {@link CommonResponseDto} indicating the result of the update operation
      */
+    @Transactional
     @Override
     public CommonResponseDto updateCategory(int id, UpdateCategoryRequestDto updateCategoryRequestDTO) {
         LOGGER.info("Updating category with ID: " + id);
@@ -121,7 +142,9 @@ public class CategoryServiceImpl implements CategoryService {
                     return new NotFoundException(Constants.CATEGORY_NOT_FOUND);
                 });
 
-        if (!category.getName().equals(updateCategoryRequestDTO.getName())) {
+        // The request's name is already normalized; the stored one may predate normalization
+        boolean renamed = !Objects.equals(normalizedName(category.getName()), updateCategoryRequestDTO.getName());
+        if (renamed) {
             boolean categoryExists = categoryRepository.existsByNameAndRestaurantId(
                     updateCategoryRequestDTO.getName(),
                     category.getRestaurantId()
@@ -138,6 +161,11 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.setName(updateCategoryRequestDTO.getName());
         categoryRepository.save(category);
+        if (renamed) {
+            long menuVersion = menuVersions.next(category.getRestaurantId());
+            menuItemRepository.updateMenuVersionByCategoryId(id, menuVersion);
+            menuSearchService.reindexCategory(id);
+        }
         LOGGER.info("Category updated successfully with ID: " + id);
 
         CommonResponseDto responseDTO = new CommonResponseDto();
@@ -172,11 +200,13 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     /**
-     * Deletes a category identified by its ID.
+     * Deletes a category identified by its ID. Its menu items are moved out of it with one bulk
+     * update, whatever their number, and keep their place on the menu without a category.
      *
      * @param categoryId the ID of the category to delete
      * @return a {@link CommonResponseDto} indicating the result of the deletion operation
      */
+    @Transactional
     @Override
     public CommonResponseDto deleteCategory(int categoryId) {
         LOGGER.info("Deleting category with ID: " + categoryId);
@@ -187,15 +217,12 @@ public class CategoryServiceImpl implements CategoryService {
                     return new NotFoundException(Constants.CATEGORY_NOT_FOUND);
                 });
 
-        List<MenuItems> menuItems = menuItemRepository.findByCategoryId(categoryId);
-        if (!menuItems.isEmpty()) {
-            LOGGER.info("Setting category ID to null for "
-                    + menuItems.size() + " menu items associated with category ID: "
-                    + categoryId);
-            for (MenuItems menuItem : menuItems) {
-                menuItem.setCategoryId(0);
-                menuItemRepository.save(menuItem);
-            }
+        List<Integer> menuItemIds = menuItemRepository.findIdsByCategoryId(categoryId);
+        if (!menuItemIds.isEmpty()) {
+            long menuVersion = menuVersions.next(category.getRestaurantId());
+            int moved = menuItemRepository.clearCategory(categoryId, menuVersion);
+            LOGGER.info("Cleared category ID " + categoryId + " from " + moved + " menu items");
+            menuSearchService.reindexMenuItems(menuItemIds);
         }
 
         categoryRepository.delete(category);
@@ -231,6 +258,16 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryResponseDTO;
     }
 
+    /**
+     * Normalizes a category name the way the request DTOs do: trimmed, single-spaced and upper case.
+     *
+     * @param name the name, may be null
+     * @return the normalized name, or null for no name
+     */
+    private static String normalizedName(String name) {
+        return name == null ? null : name.trim().replaceAll("\\s+", " ").toUpperCase();
+    }
+
     /**
      * Converts a {@link Category} entity to a {@link CategoryResponseDto}.
      *
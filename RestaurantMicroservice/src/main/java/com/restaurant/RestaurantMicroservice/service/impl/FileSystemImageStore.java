@@ -0,0 +1,291 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.exception.ImageProcessingFailedException;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ImageStore} that keeps each image in its own file on local disk.
+ * <p>
+ * Files are laid out as {@code <root>/ab/cd/abcd...} using the first two byte pairs of the hash,
+ * so no single directory grows too large. Resized variants sit next to the original as
+ * {@code abcd....thumb} and {@code abcd....medium}. New content is streamed into a file under
+ * {@code <root>/.staging} and moved into place atomically once its hash is known, so readers
+ * never see a partially written image.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "image.store.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemImageStore implements ImageStore {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(FileSystemImageStore.class);
+
+    /**
+     * Format of a valid content hash. Anything else is rejected before it is turned into a path.
+     */
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * Root directory of the store.
+     */
+    private final Path root;
+
+    /**
+     * Directory holding content that is still being written. It lives under the root so that
+     * committing is a rename within one file system.
+     */
+    private final Path staging;
+
+    /**
+     * Constructs a {@link FileSystemImageStore} rooted at the given directory.
+     *
+     * @param root The directory images are stored under; created if missing.
+     */
+    public FileSystemImageStore(@Value("${image.store.path:images}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.staging = this.root.resolve(".staging");
+        try {
+            Files.createDirectories(this.staging);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create image store directory " + this.root, e);
+        }
+        LOGGER.info("Storing images under " + this.root);
+    }
+
+    /**
+     * Checks whether a variant of an image is stored.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to look for.
+     * @return true if the variant is stored, false otherwise.
+     */
+    @Override
+    public boolean exists(String contentHash, ImageVariant variant) {
+        return isValidHash(contentHash) && Files.exists(pathOf(contentHash, variant));
+    }
+
+    /**
+     * Starts writing new content into a staging file.
+     *
+     * @return A pending write backed by the staging file.
+     * @throws ImageProcessingFailedException If the staging file cannot be created.
+     */
+    @Override
+    public PendingWrite begin() {
+        try {
+            Path temp = Files.createTempFile(staging, "upload", ".tmp");
+            return new FilePendingWrite(temp, FileChannel.open(temp, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            LOGGER.error("Error creating staging file: " + e.getMessage());
+            throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+        }
+    }
+
+    /**
+     * Stores a resized variant of an image. Does nothing if the variant is already stored.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant being stored.
+     * @param data        The encoded variant.
+     * @throws ImageProcessingFailedException If the variant cannot be written.
+     */
+    @Override
+    public void write(String contentHash, ImageVariant variant, byte[] data) {
+        try (FilePendingWrite pendingWrite = (FilePendingWrite) begin()) {
+            pendingWrite.write(ByteBuffer.wrap(data));
+            pendingWrite.commit(contentHash, variant);
+        }
+    }
+
+    /**
+     * Reads a variant of an image.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to read.
+     * @return The stored content.
+     * @throws NotFoundException If nothing is stored under the hash.
+     * @throws ImageProcessingFailedException If the content cannot be read.
+     */
+    @Override
+    public byte[] read(String contentHash, ImageVariant variant) {
+        if (!isValidHash(contentHash)) {
+            throw new NotFoundException(Constants.IMAGE_NOT_FOUND);
+        }
+        try (FileChannel channel = FileChannel.open(pathOf(contentHash, variant), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full
+            }
+            return buffer.array();
+        } catch (NoSuchFileException e) {
+            LOGGER.error("Image not found in store: " + contentHash + " (" + variant + ")");
+            throw new NotFoundException(Constants.IMAGE_NOT_FOUND);
+        } catch (IOException e) {
+            LOGGER.error("Error reading image " + contentHash + ": " + e.getMessage());
+            throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+        }
+    }
+
+    /**
+     * Opens a variant of an image as a file resource. Readers stream from the stored file, so
+     * neither whole images nor byte ranges of them are loaded into memory.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param variant     The variant to open.
+     * @return The stored file.
+     * @throws NotFoundException If nothing is stored under the hash.
+     */
+    @Override
+    public Resource open(String contentHash, ImageVariant variant) {
+        if (!isValidHash(contentHash)) {
+            throw new NotFoundException(Constants.IMAGE_NOT_FOUND);
+        }
+        Path path = pathOf(contentHash, variant);
+        if (!Files.isRegularFile(path)) {
+            LOGGER.error("Image not found in store: " + contentHash + " (" + variant + ")");
+            throw new NotFoundException(Constants.IMAGE_NOT_FOUND);
+        }
+        return new FileSystemResource(path);
+    }
+
+    /**
+     * Removes an image and all of its variants. Does nothing if the hash is not stored.
+     *
+     * @param contentHash The content hash of the original image.
+     */
+    @Override
+    public void delete(String contentHash) {
+        if (!isValidHash(contentHash)) {
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                if (Files.deleteIfExists(pathOf(contentHash, variant))) {
+                    LOGGER.info("Deleted image " + contentHash + " (" + variant + ")");
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete image " + contentHash + " (" + variant + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Resolves the file a variant of an image is stored in.
+     *
+     * @param contentHash A valid content hash.
+     * @param variant     The variant.
+     * @return The path of the image file.
+     */
+    Path pathOf(String contentHash, ImageVariant variant) {
+        String fileName = variant == ImageVariant.ORIGINAL
+                ? contentHash
+                : contentHash + "." + variant.getParameter();
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(fileName);
+    }
+
+    private static boolean isValidHash(String contentHash) {
+        return contentHash != null && CONTENT_HASH.matcher(contentHash).matches();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete staging file " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pending write streaming into a staging file through a {@link FileChannel}.
+     */
+    private final class FilePendingWrite implements PendingWrite {
+
+        private final Path temp;
+
+        private final FileChannel channel;
+
+        private boolean committed;
+
+        private FilePendingWrite(Path temp, FileChannel channel) {
+            this.temp = temp;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(ByteBuffer chunk) {
+            try {
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            } catch (IOException e) {
+                LOGGER.error("Error writing staging file " + temp + ": " + e.getMessage());
+                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+            }
+        }
+
+        @Override
+        public void commit(String contentHash) {
+            commit(contentHash, ImageVariant.ORIGINAL);
+        }
+
+        private void commit(String contentHash, ImageVariant variant) {
+            if (!isValidHash(contentHash)) {
+                throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+            }
+            Path target = pathOf(contentHash, variant);
+            try {
+                channel.force(true);
+                channel.close();
+                if (Files.exists(target)) {
+                    return;
+                }
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+                LOGGER.info("Wrote image " + contentHash + " (" + variant + ")");
+            } catch (FileAlreadyExistsException e) {
+                LOGGER.debug("Image " + contentHash + " was written concurrently");
+            } catch (IOException e) {
+                LOGGER.error("Error writing image " + contentHash + ": " + e.getMessage());
+                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close staging file " + temp + ": " + e.getMessage());
+            }
+            if (!committed) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Geocoder finding the location of an address from a local gazetteer of place names, without any
+ * call to an online service.
+ * <p>
+ * The gazetteer is a text file with one place per line: the name, the latitude and the longitude
+ * in degrees, separated by tabs. Blank lines and lines starting with {@code #} are skipped, and a
+ * place may be listed under several names. Names are matched on whole words, ignoring case and
+ * punctuation; postal codes can be listed as places too.
+ * </p>
+ * <p>
+ * An address is located at the first postal code in it that the gazetteer knows, or else at the
+ * first place name in it, preferring the longer name where two start at the same word. Addresses
+ * name the street and locality before the city, so the first match is the most precise one the
+ * gazetteer has.
+ * </p>
+ */
+final class GazetteerGeocoder {
+
+    /**
+     * Number of words in the longest place name that is looked up.
+     */
+    private static final int MAX_NAME_WORDS = 4;
+
+    /**
+     * Latitude and longitude pairs by normalized place name.
+     */
+    private final Map<String, double[]> places;
+
+    private GazetteerGeocoder(Map<String, double[]> places) {
+        this.places = places;
+    }
+
+    /**
+     * Reads a gazetteer.
+     *
+     * @param reader The gazetteer text.
+     * @return The geocoder.
+     * @throws IOException              If the text cannot be read.
+     * @throws IllegalArgumentException If a line is not a name, a latitude and a longitude.
+     */
+    static GazetteerGeocoder read(BufferedReader reader) throws IOException {
+        Map<String, double[]> places = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Gazetteer line " + lineNumber + " is not name, latitude, longitude");
+            }
+            String name = normalize(fields[0]);
+            double latitude;
+            double longitude;
+            try {
+                latitude = Double.parseDouble(fields[1].trim());
+                longitude = Double.parseDouble(fields[2].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Gazetteer line " + lineNumber + " has an invalid coordinate", e);
+            }
+            if (name.isEmpty() || !(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+                throw new IllegalArgumentException("Gazetteer line " + lineNumber + " has an invalid place");
+            }
+            places.put(name, new double[]{latitude, longitude});
+        }
+        return new GazetteerGeocoder(places);
+    }
+
+    /**
+     * Finds the location of an address.
+     *
+     * @param address The address.
+     * @return The latitude and the longitude in degrees, or null if the address names no known
+     *         place.
+     */
+    double[] geocode(String address) {
+        if (address == null) {
+            return null;
+        }
+        String normalized = normalize(address);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        String[] words = normalized.split(" ");
+        for (String word : words) {
+            if (isPostalCode(word) && places.containsKey(word)) {
+                return places.get(word).clone();
+            }
+        }
+        for (int start = 0; start < words.length; start++) {
+            StringBuilder name = new StringBuilder();
+            String longest = null;
+            for (int end = start; end < Math.min(words.length, start + MAX_NAME_WORDS); end++) {
+                if (end > start) {
+                    name.append(' ');
+                }
+                name.append(words[end]);
+                if (places.containsKey(name.toString())) {
+                    longest = name.toString();
+                }
+            }
+            if (longest != null) {
+                return places.get(longest).clone();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of place names in the gazetteer.
+     *
+     * @return The name count.
+     */
+    int size() {
+        return places.size();
+    }
+
+    /**
+     * Lowercases text and reduces it to words of letters and digits separated by single spaces.
+     */
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static boolean isPostalCode(String word) {
+        return word.length() >= 5 && word.chars().allMatch(Character::isDigit);
+    }
+}
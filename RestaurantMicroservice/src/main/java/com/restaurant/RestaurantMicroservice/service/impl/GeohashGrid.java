@@ -0,0 +1,473 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grid index of restaurant locations, answering which restaurants are nearest to a point.
+ * <p>
+ * The earth is cut into geohash cells of 13 latitude and 13 longitude bits, about 2.4 km by
+ * 4.9 km at the equator and narrower towards the poles, and each restaurant sits in the cell of
+ * its geohash. A lookup visits the cells in rings around the cell of the point, nearest ring
+ * first, keeping the k nearest restaurants in a heap, and stops as soon as the next ring can hold
+ * nothing nearer than the k-th restaurant found or than the search radius. Only the cells near
+ * the point are read, so a lookup costs about the same in a catalog of ten restaurants as in one
+ * of a million. Lookups share a read lock and changes take the write lock.
+ * </p>
+ * <p>
+ * Restaurants are kept as points on the unit sphere, and a lookup ranks them by the length of the
+ * straight chord to the point: it grows with the great-circle distance, and costs a few
+ * multiplications where the haversine formula needs a sine and an arcsine for every restaurant.
+ * Only the restaurants returned have their chord turned into kilometres.
+ * </p>
+ */
+final class GeohashGrid {
+
+    /**
+     * Mean radius of the earth in kilometres.
+     */
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Number of geohash bits per axis.
+     */
+    private static final int BITS = 13;
+
+    /**
+     * Number of cells along each axis.
+     */
+    private static final int CELLS = 1 << BITS;
+
+    private static final double CELL_HEIGHT = 180.0 / CELLS;
+
+    private static final double CELL_WIDTH = 360.0 / CELLS;
+
+    /**
+     * Orders the heap of nearest restaurants farthest first, then by descending ID, so that the
+     * head is the one to drop.
+     */
+    private static final Comparator<Candidate> FARTHEST_FIRST = Comparator.comparingDouble((Candidate candidate) ->
+            -candidate.chordSquared).thenComparingInt(candidate -> -candidate.restaurantId);
+
+    /**
+     * The non-empty cells by geohash.
+     */
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    /**
+     * The indexed location of each restaurant.
+     */
+    private final Map<Integer, Location> locations = new HashMap<>();
+
+    /**
+     * Guards the cells and the locations.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the location of a restaurant, replacing any it had.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param latitude     The latitude in degrees, from -90 to 90.
+     * @param longitude    The longitude in degrees, from -180 to 180.
+     */
+    void put(int restaurantId, double latitude, double longitude) {
+        if (!isValid(latitude, longitude)) {
+            throw new IllegalArgumentException("Invalid location: " + latitude + ", " + longitude);
+        }
+        Location location = new Location(restaurantId, latitude, longitude);
+        long geohash = cellGeohash(row(latitude), column(longitude));
+        lock.writeLock().lock();
+        try {
+            removeLocked(restaurantId);
+            locations.put(restaurantId, location);
+            cells.computeIfAbsent(geohash, key -> new Cell()).add(location);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the location of a restaurant. Does nothing if it has none.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    void remove(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the restaurants nearest to a point, within a radius.
+     *
+     * @param latitude  The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param radiusKm  The greatest distance of a result in kilometres.
+     * @param limit     The maximum number of restaurants to return.
+     * @return The distance in kilometres by restaurant ID, nearest first and then by ID.
+     */
+    Map<Integer, Double> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        Map<Integer, Double> nearest = new LinkedHashMap<>();
+        if (!isValid(latitude, longitude) || !(radiusKm >= 0) || limit <= 0) {
+            return nearest;
+        }
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(FARTHEST_FIRST);
+        Search search = new Search(latitude, longitude, radiusKm);
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= search.lastRing; ring++) {
+                double bound = chordSquared(search.distanceBeyond(ring));
+                if (bound > search.radiusChordSquared
+                        || heap.size() == limit && bound > heap.peek().chordSquared) {
+                    break;
+                }
+                search.visitRing(ring, heap, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Candidate[] sorted = new Candidate[heap.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = heap.poll();
+        }
+        for (Candidate candidate : sorted) {
+            nearest.put(candidate.restaurantId,
+                    2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(candidate.chordSquared) / 2)));
+        }
+        return nearest;
+    }
+
+    /**
+     * Gets the number of restaurants with a location.
+     *
+     * @return The restaurant count.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the great-circle distance between two points with the haversine formula.
+     *
+     * @param latitude1  The latitude of the first point in degrees.
+     * @param longitude1 The longitude of the first point in degrees.
+     * @param latitude2  The latitude of the second point in degrees.
+     * @param longitude2 The longitude of the second point in degrees.
+     * @return The distance in kilometres.
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return haversine(Math.toRadians(latitude1), Math.cos(Math.toRadians(latitude1)),
+                Math.toRadians(latitude2), Math.cos(Math.toRadians(latitude2)),
+                Math.toRadians(longitude2 - longitude1));
+    }
+
+    /**
+     * Gets the geohash of the cell of a point, as a number of 26 bits: the first 25 are those of
+     * the 5-character geohash of the point.
+     *
+     * @param latitude  The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @return The geohash.
+     */
+    static long geohash(double latitude, double longitude) {
+        return cellGeohash(row(latitude), column(longitude));
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private static int row(double latitude) {
+        return Math.min(CELLS - 1, (int) ((latitude + 90) / CELL_HEIGHT));
+    }
+
+    private static int column(double longitude) {
+        return Math.min(CELLS - 1, (int) ((longitude + 180) / CELL_WIDTH));
+    }
+
+    /**
+     * Interleaves the bits of a cell column and row, longitude first, as geohashes do.
+     */
+    private static long cellGeohash(int row, int column) {
+        long geohash = 0;
+        for (int bit = BITS - 1; bit >= 0; bit--) {
+            geohash = geohash << 1 | (column >>> bit & 1);
+            geohash = geohash << 1 | (row >>> bit & 1);
+        }
+        return geohash;
+    }
+
+    private static double haversine(double latitude1, double cosLatitude1, double latitude2, double cosLatitude2,
+                                     double longitudeDelta) {
+        double sinLatitude = Math.sin((latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(longitudeDelta / 2);
+        double a = sinLatitude * sinLatitude + cosLatitude1 * cosLatitude2 * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, a)));
+    }
+
+    /**
+     * Gets the point of the unit sphere at a location, with the poles exactly on the axis so that
+     * restaurants there are all as far from any point.
+     */
+    private static double[] unitVector(double latitude, double longitude) {
+        double cosLatitude = Math.abs(latitude) == 90 ? 0 : Math.cos(Math.toRadians(latitude));
+        return new double[]{cosLatitude * Math.cos(Math.toRadians(longitude)),
+                cosLatitude * Math.sin(Math.toRadians(longitude)), Math.sin(Math.toRadians(latitude))};
+    }
+
+    /**
+     * Gets the squared length of the chord of the unit sphere spanning a great-circle distance.
+     */
+    private static double chordSquared(double distanceKm) {
+        double sinHalfAngle = Math.sin(Math.min(Math.PI, distanceKm / EARTH_RADIUS_KM) / 2);
+        return 4 * sinHalfAngle * sinHalfAngle;
+    }
+
+    private void removeLocked(int restaurantId) {
+        Location location = locations.remove(restaurantId);
+        if (location == null) {
+            return;
+        }
+        long geohash = cellGeohash(row(location.latitude), column(location.longitude));
+        Cell cell = cells.get(geohash);
+        cell.remove(restaurantId);
+        if (cell.size == 0) {
+            cells.remove(geohash);
+        }
+    }
+
+    /**
+     * The state of one lookup.
+     */
+    private final class Search {
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final double x;
+
+        private final double y;
+
+        private final double z;
+
+        /**
+         * The squared chord of the search radius.
+         */
+        private final double radiusChordSquared;
+
+        private final int row;
+
+        private final int column;
+
+        /**
+         * The cosine of the latitude farthest from the equator that a result can have; distances
+         * across longitudes are at least as long as there.
+         */
+        private final double cosFarthestLatitude;
+
+        /**
+         * The number of rows above and below the cell of the point that can hold results.
+         */
+        private final int rowReach;
+
+        /**
+         * The number of columns on either side of the cell of the point that can hold results,
+         * short of wrapping around the earth onto the other side.
+         */
+        private final int columnReach;
+
+        /**
+         * The outermost ring that can hold results.
+         */
+        private final int lastRing;
+
+        Search(double latitude, double longitude, double radiusKm) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            double[] point = unitVector(latitude, longitude);
+            this.x = point[0];
+            this.y = point[1];
+            this.z = point[2];
+            this.radiusChordSquared = chordSquared(radiusKm);
+            this.row = row(latitude);
+            this.column = column(longitude);
+            double radiusDegrees = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            double farthestLatitude = Math.min(90, Math.abs(latitude) + radiusDegrees);
+            this.cosFarthestLatitude = farthestLatitude == 90 ? 0 : Math.cos(Math.toRadians(farthestLatitude));
+            this.rowReach = (int) Math.ceil(radiusDegrees / CELL_HEIGHT) + 1;
+            // The inverse of the bound across longitudes in distanceBeyond.
+            double sinHalfColumn = Math.sin(radiusKm / EARTH_RADIUS_KM / 2) / cosFarthestLatitude;
+            double columnDegrees = sinHalfColumn >= 1 ? 360 : Math.toDegrees(2 * Math.asin(sinHalfColumn));
+            this.columnReach = (int) Math.min((CELLS - 1) / 2, Math.ceil(columnDegrees / CELL_WIDTH) + 1);
+            this.lastRing = Math.max(rowReach, columnReach);
+        }
+
+        /**
+         * Gets a lower bound of the distance from the point to every cell outside the rings
+         * before a ring.
+         */
+        double distanceBeyond(int ring) {
+            if (ring == 0) {
+                return 0;
+            }
+            double south = (row - ring + 1) * CELL_HEIGHT - 90;
+            double north = (row + ring) * CELL_HEIGHT - 90;
+            double latitudeGap = Math.min(latitude - south, north - latitude);
+            double west = (column - ring + 1) * CELL_WIDTH - 180;
+            double east = (column + ring) * CELL_WIDTH - 180;
+            double longitudeGap = Math.min(longitude - west, east - longitude);
+            // Points with latitudes within the farthest one and this far apart in longitude are
+            // at least this far apart, whatever their latitudes.
+            double acrossLongitudes = 2 * EARTH_RADIUS_KM
+                    * Math.asin(Math.min(1, cosFarthestLatitude * Math.sin(Math.toRadians(longitudeGap) / 2)));
+            return Math.min(EARTH_RADIUS_KM * Math.toRadians(latitudeGap), acrossLongitudes);
+        }
+
+        /**
+         * Offers the restaurants of the cells on a ring to the heap.
+         */
+        void visitRing(int ring, PriorityQueue<Candidate> heap, int limit) {
+            int rowFrom = Math.max(0, row - Math.min(ring, rowReach));
+            int rowTo = Math.min(CELLS - 1, row + Math.min(ring, rowReach));
+            int columnSpan = Math.min(ring, columnReach);
+            for (int r = rowFrom; r <= rowTo; r++) {
+                boolean edgeRow = Math.abs(r - row) == ring;
+                if (edgeRow) {
+                    for (int c = -columnSpan; c <= columnSpan; c++) {
+                        visitCell(r, column + c, heap, limit);
+                    }
+                } else if (ring <= columnReach) {
+                    visitCell(r, column - ring, heap, limit);
+                    if (ring > 0) {
+                        visitCell(r, column + ring, heap, limit);
+                    }
+                }
+            }
+        }
+
+        private void visitCell(int r, int c, PriorityQueue<Candidate> heap, int limit) {
+            Cell cell = cells.get(cellGeohash(r, Math.floorMod(c, CELLS)));
+            if (cell == null) {
+                return;
+            }
+            for (int i = 0; i < cell.size; i++) {
+                double dx = cell.xs[i] - x;
+                double dy = cell.ys[i] - y;
+                double dz = cell.zs[i] - z;
+                double chordSquared = dx * dx + dy * dy + dz * dz;
+                if (chordSquared > radiusChordSquared) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(new Candidate(cell.restaurantIds[i], chordSquared));
+                } else {
+                    Candidate farthest = heap.peek();
+                    if (chordSquared < farthest.chordSquared
+                            || chordSquared == farthest.chordSquared && cell.restaurantIds[i] < farthest.restaurantId) {
+                        heap.poll();
+                        heap.add(new Candidate(cell.restaurantIds[i], chordSquared));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The restaurants of one cell, as points on the unit sphere laid out for distance computations.
+     */
+    private static final class Cell {
+
+        private int[] restaurantIds = new int[4];
+
+        private double[] xs = new double[4];
+
+        private double[] ys = new double[4];
+
+        private double[] zs = new double[4];
+
+        private int size;
+
+        void add(Location location) {
+            if (size == restaurantIds.length) {
+                int capacity = size * 2;
+                restaurantIds = Arrays.copyOf(restaurantIds, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+            }
+            double[] point = unitVector(location.latitude, location.longitude);
+            restaurantIds[size] = location.restaurantId;
+            xs[size] = point[0];
+            ys[size] = point[1];
+            zs[size] = point[2];
+            size++;
+        }
+
+        /**
+         * Removes a restaurant by moving the last one into its place.
+         */
+        void remove(int restaurantId) {
+            for (int i = 0; i < size; i++) {
+                if (restaurantIds[i] == restaurantId) {
+                    size--;
+                    restaurantIds[i] = restaurantIds[size];
+                    xs[i] = xs[size];
+                    ys[i] = ys[size];
+                    zs[i] = zs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The indexed location of a restaurant.
+     */
+    private static final class Location {
+
+        private final int restaurantId;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        Location(int restaurantId, double latitude, double longitude) {
+            this.restaurantId = restaurantId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    /**
+     * A restaurant found by a lookup.
+     */
+    private static final class Candidate {
+
+        private final int restaurantId;
+
+        /**
+         * The squared chord between the restaurant and the point of the lookup.
+         */
+        private final double chordSquared;
+
+        Candidate(int restaurantId, double chordSquared) {
+            this.restaurantId = restaurantId;
+            this.chordSquared = chordSquared;
+        }
+    }
+}
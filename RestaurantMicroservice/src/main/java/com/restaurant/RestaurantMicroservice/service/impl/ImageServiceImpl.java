@@ -0,0 +1,348 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.Image;
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.exception.ImageProcessingFailedException;
+import com.restaurant.RestaurantMicroservice.exception.InvalidFileTypeException;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.repository.ImageRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Service implementation for storing menu item and restaurant images. Content goes to the
+ * {@link ImageStore}; the {@code images} table only tracks metadata and reference counts.
+ */
+@Service
+public class ImageServiceImpl implements ImageService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ImageServiceImpl.class);
+
+    /**
+     * Hex digits used to encode content hashes.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Content type reported for stored content that matches no known image format.
+     */
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    /**
+     * Size of the buffer uploads are streamed through, in bytes.
+     */
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Repository for managing {@link Image} entities.
+     */
+    private final ImageRepository imageRepository;
+
+    /**
+     * Store holding the image content.
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * Generator of the resized variants of new images.
+     */
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * Runs the removal of unreferenced content in a transaction of its own, after the transaction
+     * that released the last reference has committed.
+     */
+    private final TransactionTemplate cleanupTransaction;
+
+    /**
+     * Constructs an {@link ImageServiceImpl} with the specified repository, store and generator.
+     *
+     * @param imageRepository       The repository for image metadata.
+     * @param imageStore            The store for image content.
+     * @param imageVariantGenerator The generator of resized variants.
+     * @param transactionManager    The transaction manager for removing unreferenced content.
+     */
+    @Autowired
+    public ImageServiceImpl(ImageRepository imageRepository, ImageStore imageStore,
+                            ImageVariantGenerator imageVariantGenerator,
+                            PlatformTransactionManager transactionManager) {
+        this.imageRepository = imageRepository;
+        this.imageStore = imageStore;
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Validates and stores an uploaded image, adding one reference to it. Uploads with identical
+     * content are stored once.
+     * <p>
+     * The upload is streamed into the store through a fixed {@value #BUFFER_SIZE}-byte buffer
+     * while its hash is computed, so memory use does not grow with the file size. The image type
+     * is taken from the magic bytes of the content, not from the declared content type.
+     * </p>
+     * <p>
+     * The reference is added in one upsert, so concurrent first uploads of the same content end in
+     * one row. The content stays in the staging area until the transaction commits, and is only
+     * then moved into place, so a rollback leaves no stored content behind. Resized variants of
+     * new images are generated in the background after that.
+     * </p>
+     *
+     * @param multipartFile The uploaded image file.
+     * @param maxSizeBytes The maximum accepted file size in bytes.
+     * @return The content hash identifying the stored image.
+     * @throws InvalidFileTypeException If the file is not a JPEG or PNG image or exceeds the size limit.
+     * @throws ImageProcessingFailedException If the file cannot be read.
+     */
+    @Transactional
+    @Override
+    public String saveImage(MultipartFile multipartFile, long maxSizeBytes) {
+        if (multipartFile.getSize() > maxSizeBytes) {
+            LOGGER.error("File size exceeds the limit of " + maxSizeBytes + " bytes. File size: "
+                    + multipartFile.getSize() + " bytes");
+            throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE);
+        }
+
+        MessageDigest digest = newSha256Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] header = new byte[ImageType.MAGIC_LENGTH];
+        int headerLength = 0;
+        ImageType imageType = null;
+        long size = 0;
+
+        ImageStore.PendingWrite pendingWrite = imageStore.begin();
+        boolean handedOver = false;
+        try (InputStream in = multipartFile.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (headerLength < header.length) {
+                    int copied = Math.min(read, header.length - headerLength);
+                    System.arraycopy(buffer, 0, header, headerLength, copied);
+                    headerLength += copied;
+                    if (headerLength == header.length) {
+                        imageType = requireImageType(header, headerLength);
+                    }
+                }
+                size += read;
+                if (size > maxSizeBytes) {
+                    LOGGER.error("File size exceeds the limit of " + maxSizeBytes + " bytes");
+                    throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE);
+                }
+                digest.update(buffer, 0, read);
+                pendingWrite.write(ByteBuffer.wrap(buffer, 0, read));
+            }
+            if (imageType == null) {
+                imageType = requireImageType(header, headerLength);
+            }
+
+            String contentHash = toHex(digest.digest());
+            boolean stored = imageRepository.addReference(contentHash, imageType.getContentType(), size) == 1;
+            // Content whose row already exists is committed too if it is missing from the store,
+            // as it is while the first upload of it has not moved its own copy into place yet.
+            if (stored || !imageStore.exists(contentHash, ImageVariant.ORIGINAL)) {
+                commitAfterTransaction(pendingWrite, contentHash, stored ? imageType : null);
+                handedOver = true;
+            }
+            if (stored) {
+                LOGGER.info("Stored image " + contentHash + " (" + size + " bytes)");
+            } else {
+                LOGGER.info("Reusing stored image " + contentHash);
+            }
+            return contentHash;
+        } catch (IOException e) {
+            LOGGER.error("Error processing image file: " + e.getMessage());
+            throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+        } finally {
+            if (!handedOver) {
+                pendingWrite.close();
+            }
+        }
+    }
+
+    /**
+     * Removes one reference from an image. Once the transaction commits, the content and the
+     * metadata row are removed if no reference is left.
+     *
+     * @param contentHash The content hash of the image; ignored if null.
+     */
+    @Transactional
+    @Override
+    public void releaseImage(String contentHash) {
+        if (contentHash == null || imageRepository.decrementRefCount(contentHash) == 0) {
+            return;
+        }
+        AfterCommit.run(() -> deleteIfUnreferenced(contentHash));
+    }
+
+    /**
+     * Removes an image's content and metadata row if nothing references it. The reference count is
+     * read under a lock on the row, which an upload of the same content waits for, so an image is
+     * never removed while it gains a reference; an upload after the removal stores it again.
+     *
+     * @param contentHash The content hash of the image.
+     */
+    private void deleteIfUnreferenced(String contentHash) {
+        cleanupTransaction.executeWithoutResult(status -> {
+            Image image = imageRepository.findByIdForUpdate(contentHash).orElse(null);
+            if (image == null || image.getRefCount() > 0) {
+                return;
+            }
+            imageStore.delete(contentHash);
+            imageRepository.deleteIfUnreferenced(contentHash);
+            LOGGER.info("Image " + contentHash + " is no longer referenced");
+        });
+    }
+
+    /**
+     * Reads a variant of a stored image by its content hash, without going through the database.
+     * The original is returned if the variant does not exist, either because the image is smaller
+     * than the variant or because it has not been generated yet. The content type is detected from
+     * the magic bytes of the image; the rest of the content is left for the caller to stream.
+     *
+     * @param contentHash The content hash of the image.
+     * @param variant     The requested variant.
+     * @return The stored image content and the variant actually served.
+     * @throws NotFoundException If no image is stored under the given hash.
+     * @throws ImageProcessingFailedException If the content cannot be read.
+     */
+    @Override
+    public ImageResponseDto getImage(String contentHash, ImageVariant variant) {
+        ImageVariant served = variant != ImageVariant.ORIGINAL && imageStore.exists(contentHash, variant)
+                ? variant
+                : ImageVariant.ORIGINAL;
+        Resource content = imageStore.open(contentHash, served);
+        byte[] header = new byte[ImageType.MAGIC_LENGTH];
+        try (InputStream inputStream = content.getInputStream()) {
+            int headerLength = 0;
+            int read;
+            while (headerLength < header.length
+                    && (read = inputStream.read(header, headerLength, header.length - headerLength)) != -1) {
+                headerLength += read;
+            }
+            ImageType type = ImageType.fromMagicBytes(header, headerLength);
+            String contentType = type != null ? type.getContentType() : DEFAULT_CONTENT_TYPE;
+            return new ImageResponseDto(contentHash, served, contentType, content, content.lastModified());
+        } catch (IOException e) {
+            LOGGER.error("Error opening image " + contentHash + ": " + e.getMessage());
+            throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
+        }
+    }
+
+    /**
+     * Moves uploaded content into place once the current transaction commits, and discards it once
+     * the transaction completes otherwise. Does both right away outside a transaction.
+     *
+     * @param pendingWrite The upload's content; closed by this method.
+     * @param contentHash  The content hash of the upload.
+     * @param newType      The type of the image if it is new, to generate its variants; else null.
+     */
+    private void commitAfterTransaction(ImageStore.PendingWrite pendingWrite, String contentHash,
+                                        ImageType newType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                commit(pendingWrite, contentHash, newType);
+            } finally {
+                pendingWrite.close();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    commit(pendingWrite, contentHash, newType);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Error storing image " + contentHash + " after commit: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // Deletes the staged content unless it was committed
+                pendingWrite.close();
+            }
+        });
+    }
+
+    /**
+     * Makes staged content visible under its hash and starts generating the variants of a new image.
+     *
+     * @param pendingWrite The upload's content.
+     * @param contentHash  The content hash of the upload.
+     * @param newType      The type of the image if it is new; else null.
+     */
+    private void commit(ImageStore.PendingWrite pendingWrite, String contentHash, ImageType newType) {
+        pendingWrite.commit(contentHash);
+        if (newType != null) {
+            imageVariantGenerator.generateAsync(contentHash, newType);
+        }
+    }
+
+    /**
+     * Identifies the image type from the leading bytes of an upload.
+     *
+     * @param header The leading bytes of the upload.
+     * @param length The number of valid bytes in {@code header}.
+     * @return The detected image type.
+     * @throws InvalidFileTypeException If the bytes are not those of a JPEG or PNG image.
+     */
+    private static ImageType requireImageType(byte[] header, int length) {
+        ImageType imageType = ImageType.fromMagicBytes(header, length);
+        if (imageType == null) {
+            LOGGER.error("Invalid file type: content is not a JPEG or PNG image");
+            throw new InvalidFileTypeException(Constants.INVALID_FILE);
+        }
+        return imageType;
+    }
+
+    /**
+     * Creates a SHA-256 message digest.
+     *
+     * @return A new digest.
+     */
+    static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hex-encodes a digest.
+     *
+     * @param digest The digest bytes.
+     * @return The lower-case hex encoding.
+     */
+    static String toHex(byte[] digest) {
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
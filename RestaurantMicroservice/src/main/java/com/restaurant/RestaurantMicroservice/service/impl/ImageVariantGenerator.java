@@ -0,0 +1,192 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the resized {@link ImageVariant}s of newly uploaded images in the background.
+ * <p>
+ * Work runs on a small fixed pool with a bounded queue. When the queue is full the request is
+ * dropped: the image endpoints fall back to the original for any variant that does not exist.
+ * </p>
+ */
+@Service
+public class ImageVariantGenerator {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    /**
+     * Compression quality of re-encoded JPEG variants.
+     */
+    private static final float JPEG_QUALITY = 0.8f;
+
+    /**
+     * Store the originals are read from and the variants written to.
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * Executor generating the variants.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructs an {@link ImageVariantGenerator}.
+     *
+     * @param imageStore    The store holding the images.
+     * @param threads       The number of generator threads.
+     * @param queueCapacity The number of images that may wait for generation.
+     */
+    @Autowired
+    public ImageVariantGenerator(ImageStore imageStore,
+                                 @Value("${image.variants.threads:2}") int threads,
+                                 @Value("${image.variants.queue-capacity:100}") int queueCapacity) {
+        this.imageStore = imageStore;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> LOGGER.warn("Image variant queue is full; variants will be served as originals"));
+    }
+
+    /**
+     * Queues generation of the variants of an image.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param imageType   The format of the original image.
+     */
+    public void generateAsync(String contentHash, ImageType imageType) {
+        executor.execute(() -> generate(contentHash, imageType));
+    }
+
+    /**
+     * Generates and stores the variants of an image that are not stored yet. Images already
+     * smaller than a variant get no file for it.
+     *
+     * @param contentHash The content hash of the original image.
+     * @param imageType   The format of the original image.
+     */
+    void generate(String contentHash, ImageType imageType) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(
+                    imageStore.read(contentHash, ImageVariant.ORIGINAL)));
+            if (source == null) {
+                LOGGER.warn("Cannot decode image {}; no variants generated", contentHash);
+                return;
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (variant == ImageVariant.ORIGINAL || imageStore.exists(contentHash, variant)) {
+                    continue;
+                }
+                byte[] encoded = encodeVariant(source, variant, imageType);
+                if (encoded != null) {
+                    imageStore.write(contentHash, variant, encoded);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Error generating variants of image {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    /**
+     * Scales an image down to fit a variant and re-encodes it in its original format.
+     *
+     * @param source    The decoded original image.
+     * @param variant   The variant to produce.
+     * @param imageType The format to encode in.
+     * @return The encoded variant, or null if the image already fits the variant.
+     * @throws IOException If encoding fails.
+     */
+    static byte[] encodeVariant(BufferedImage source, ImageVariant variant, ImageType imageType) throws IOException {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int longest = Math.max(width, height);
+        if (longest <= variant.getMaxDimension()) {
+            return null;
+        }
+        double scale = (double) variant.getMaxDimension() / longest;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int pixelType = imageType == ImageType.PNG ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Halve in steps so a single bilinear pass never skips source pixels.
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = scale(current, width, height, pixelType);
+        } while (width != targetWidth || height != targetHeight);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (imageType == ImageType.PNG) {
+            ImageIO.write(current, "png", out);
+        } else {
+            writeJpeg(current, out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Stops the generator threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, int pixelType) {
+        BufferedImage target = new BufferedImage(width, height, pixelType);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.repository.ImageRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Moves the images that menu items and restaurants kept on their own rows, before images had a
+ * store of their own, into the {@link ImageStore}.
+ * <p>
+ * Runs at startup, before any request is served. For each legacy image column, the column is
+ * first made nullable so that new rows can be inserted. Then the content of every row without an
+ * image hash is stored, referenced once in the {@code images} table and linked to the row by its
+ * hash. Once every row has moved, the legacy column is dropped. Each step can be repeated, so a
+ * startup that stops halfway, or a row that fails, is picked up by the next one.
+ * </p>
+ */
+@Component
+public class LegacyImageMigration {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(LegacyImageMigration.class);
+
+    /**
+     * The number of rows read at a time.
+     */
+    static final int BATCH_SIZE = 50;
+
+    /**
+     * Content type recorded for legacy content that matches no known image format.
+     */
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    /**
+     * The legacy image columns, as table and column name.
+     */
+    private static final String[][] LEGACY_COLUMNS = {
+        {"menu_items", "item_image"},
+        {"restaurant", "image_url"}
+    };
+
+    /**
+     * JDBC access to the legacy columns, which no entity maps anymore.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Runs the linking of each row in a transaction of its own.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Store the legacy content is moved to.
+     */
+    private final ImageStore imageStore;
+
+    /**
+     * Repository counting the references to stored images.
+     */
+    private final ImageRepository imageRepository;
+
+    /**
+     * Generator of the resized variants of newly stored images.
+     */
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * Constructs a {@link LegacyImageMigration}.
+     *
+     * @param jdbcTemplate          JDBC access to the legacy columns.
+     * @param transactionManager    The transaction manager.
+     * @param imageStore            The store for image content.
+     * @param imageRepository       The repository for image metadata.
+     * @param imageVariantGenerator The generator of resized variants.
+     */
+    @Autowired
+    public LegacyImageMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ImageStore imageStore, ImageRepository imageRepository,
+                                ImageVariantGenerator imageVariantGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageStore = imageStore;
+        this.imageRepository = imageRepository;
+        this.imageVariantGenerator = imageVariantGenerator;
+    }
+
+    /**
+     * Moves the images of every legacy column that is still there.
+     */
+    @PostConstruct
+    public void migrate() {
+        for (String[] legacy : LEGACY_COLUMNS) {
+            migrate(legacy[0], legacy[1]);
+        }
+    }
+
+    /**
+     * Moves the images of one legacy column, and drops the column once all have moved.
+     *
+     * @param table  The table.
+     * @param column The legacy image column.
+     */
+    private void migrate(String table, String column) {
+        String type = columnType(table, column);
+        if (type == null) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " DROP NOT NULL");
+
+        // PostgreSQL keeps the byte arrays of @Lob fields as large objects, referenced by an oid
+        boolean largeObject = "oid".equalsIgnoreCase(type);
+        String content = largeObject ? "lo_get(" + column + ")" : column;
+        String select = "SELECT id, " + content + " AS content FROM " + table
+                + " WHERE id > ? AND image_hash IS NULL AND " + column + " IS NOT NULL"
+                + " ORDER BY id LIMIT " + BATCH_SIZE;
+        int moved = 0;
+        int failed = 0;
+        int afterId = 0;
+        List<LegacyImage> batch;
+        do {
+            batch = jdbcTemplate.query(select,
+                    (resultSet, rowNum) -> new LegacyImage(resultSet.getInt("id"), resultSet.getBytes("content")),
+                    afterId);
+            for (LegacyImage image : batch) {
+                try {
+                    if (move(table, image)) {
+                        moved++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    LOGGER.error("Could not move the legacy image of " + table + " row " + image.id + ": "
+                            + e.getMessage());
+                }
+                afterId = image.id;
+            }
+        } while (batch.size() == BATCH_SIZE);
+        LOGGER.info("Moved " + moved + " legacy images of " + table + " to the image store");
+
+        if (failed > 0) {
+            LOGGER.warn("Keeping " + table + "." + column + " until its " + failed
+                    + " remaining images have moved");
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (largeObject) {
+                jdbcTemplate.queryForList("SELECT lo_unlink(" + column + ") FROM " + table
+                        + " WHERE " + column + " IS NOT NULL", Integer.class);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + column);
+        });
+        LOGGER.info("Dropped the legacy image column " + table + "." + column);
+    }
+
+    /**
+     * Stores the content of a legacy image and links it to its row, adding one reference to it. The
+     * row is only linked, and the reference only added, if no other run has linked it meanwhile.
+     *
+     * @param table The table of the row.
+     * @param image The row's legacy image.
+     * @return true if this run linked the row.
+     */
+    private boolean move(String table, LegacyImage image) {
+        ImageType imageType = ImageType.fromMagicBytes(image.content, image.content.length);
+        String contentHash = ImageServiceImpl.toHex(ImageServiceImpl.newSha256Digest().digest(image.content));
+        // Stored first: content is keyed by its hash, so storing it again on a later run is a no-op
+        try (ImageStore.PendingWrite pendingWrite = imageStore.begin()) {
+            pendingWrite.write(ByteBuffer.wrap(image.content));
+            pendingWrite.commit(contentHash);
+        }
+        Boolean linked = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update("UPDATE " + table + " SET image_hash = ? WHERE id = ? AND image_hash IS NULL",
+                    contentHash, image.id) == 0) {
+                return false;
+            }
+            String contentType = imageType != null ? imageType.getContentType() : DEFAULT_CONTENT_TYPE;
+            if (imageRepository.addReference(contentHash, contentType, image.content.length) == 1
+                    && imageType != null) {
+                AfterCommit.run(() -> imageVariantGenerator.generateAsync(contentHash, imageType));
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(linked);
+    }
+
+    /**
+     * Finds the type of a column of the current schema.
+     *
+     * @param table  The table.
+     * @param column The column.
+     * @return The column's data type, or null if there is no such column.
+     */
+    private String columnType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList("SELECT data_type FROM information_schema.columns"
+                        + " WHERE LOWER(table_schema) = LOWER(CURRENT_SCHEMA)"
+                        + " AND LOWER(table_name) = ? AND LOWER(column_name) = ?",
+                String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    /**
+     * The legacy image of a row.
+     */
+    private static final class LegacyImage {
+
+        private final int id;
+
+        private final byte[] content;
+
+        private LegacyImage(int id, byte[] content) {
+            this.id = id;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Radix tree of words, searched for the words closest to a misspelled one under Levenshtein
+ * distance.
+ * <p>
+ * A lookup walks the tree depth first and carries one row of the edit distance matrix per
+ * character of the path, the way a Levenshtein automaton is run against a dictionary. Once every
+ * entry of a row exceeds the allowed distance no word below can come within it, so the walk only
+ * visits the prefixes of words that are close to the query, however many words the tree holds.
+ * Words cannot be removed; callers filter out words that are no longer wanted and rebuild the tree
+ * when enough of them have piled up. Not thread-safe.
+ * </p>
+ */
+final class LevenshteinTrie {
+
+    private final Node root = new Node("");
+
+    private int size;
+
+    /**
+     * Adds a word. Does nothing if the tree holds it already.
+     *
+     * @param word The word.
+     */
+    void add(String word) {
+        Node node = root;
+        String rest = word;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                Node leaf = new Node(rest);
+                leaf.word = word;
+                node.addChild(leaf);
+                size++;
+                return;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                node.removeChild(child);
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                node.addChild(split);
+                child = split;
+            }
+            rest = rest.substring(common);
+            node = child;
+        }
+        if (node.word == null) {
+            node.word = word;
+            size++;
+        }
+    }
+
+    /**
+     * Finds the accepted words closest to a word, if any is within a given distance.
+     *
+     * @param word        The word to match.
+     * @param maxDistance The largest distance a match may have.
+     * @param accept      Filters the words that may be returned.
+     * @return The accepted words at the smallest distance found, in tree order; empty if none is
+     *         within {@code maxDistance}.
+     */
+    List<String> closest(String word, int maxDistance, Predicate<String> accept) {
+        Search search = new Search(word, maxDistance, accept);
+        int[] row = new int[word.length() + 1];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j;
+        }
+        search.visit(root, row, 0);
+        return search.closest;
+    }
+
+    /**
+     * Gets the number of words in the tree.
+     *
+     * @return The word count.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two words: the number of single character
+     * insertions, deletions and substitutions turning one into the other.
+     *
+     * @param a           The first word.
+     * @param b           The second word.
+     * @param maxDistance The largest distance of interest.
+     * @return The edit distance, or {@code maxDistance + 1} if it is larger.
+     */
+    static int distance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            if (nextRow(previous, current, b, a.charAt(i - 1)) > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], maxDistance + 1);
+    }
+
+    /**
+     * Fills the row of the edit distance matrix that follows another when one more character is
+     * read against a word.
+     *
+     * @return The smallest entry of the new row.
+     */
+    private static int nextRow(int[] previous, int[] current, String word, char c) {
+        current[0] = previous[0] + 1;
+        int rowMin = current[0];
+        for (int j = 1; j < current.length; j++) {
+            int cost = word.charAt(j - 1) == c ? 0 : 1;
+            current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+            rowMin = Math.min(rowMin, current[j]);
+        }
+        return rowMin;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * The state of one lookup. The bound tightens as closer words are found.
+     */
+    private static final class Search {
+
+        private final String word;
+
+        private final Predicate<String> accept;
+
+        private final List<String> closest = new ArrayList<>();
+
+        private final List<int[]> rows = new ArrayList<>();
+
+        private int bound;
+
+        Search(String word, int maxDistance, Predicate<String> accept) {
+            this.word = word;
+            this.bound = maxDistance;
+            this.accept = accept;
+        }
+
+        /**
+         * Visits a node whose path ends with the given row, at the given depth in characters.
+         */
+        void visit(Node node, int[] row, int depth) {
+            int distance = row[word.length()];
+            if (node.word != null && distance <= bound && accept.test(node.word)) {
+                if (distance < bound) {
+                    closest.clear();
+                    bound = distance;
+                }
+                closest.add(node.word);
+            }
+            for (Node child : node.children) {
+                int[] previous = row;
+                int childDepth = depth;
+                boolean reachable = true;
+                for (int i = 0; i < child.label.length() && reachable; i++) {
+                    int[] next = row(childDepth++);
+                    reachable = nextRow(previous, next, word, child.label.charAt(i)) <= bound;
+                    previous = next;
+                }
+                if (reachable) {
+                    visit(child, previous, childDepth);
+                }
+            }
+        }
+
+        /**
+         * Returns the reusable row for a depth, which no ancestor on the current path uses.
+         */
+        private int[] row(int depth) {
+            while (rows.size() <= depth) {
+                rows.add(new int[word.length() + 1]);
+            }
+            return rows.get(depth);
+        }
+    }
+
+    /**
+     * A radix tree node. Children are kept sorted by the first character of their label.
+     */
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private static final char[] NO_KEYS = new char[0];
+
+        private String label;
+
+        private char[] keys = NO_KEYS;
+
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * The word ending at this node, if any.
+         */
+        private String word;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = Arrays.binarySearch(keys, first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            char first = child.label.charAt(0);
+            int index = -Arrays.binarySearch(keys, first) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = first;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(Node child) {
+            int index = Arrays.binarySearch(keys, child.label.charAt(0));
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
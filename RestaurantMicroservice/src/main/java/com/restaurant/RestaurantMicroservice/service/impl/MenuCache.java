@@ -0,0 +1,329 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
+import com.restaurant.RestaurantMicroservice.exception.FailedRequestException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized menus of recently requested restaurants in memory.
+ * <p>
+ * Entries are keyed by restaurant and remember the menu version they were serialized for; a lookup
+ * for any other version is a miss, so a stale menu is never served even if an invalidation races
+ * with a reload. Menu changes invalidate the restaurant's entry once their transaction commits,
+ * which frees the memory right away. The least recently used entries are evicted when the cache
+ * exceeds its entry count or its total payload size.
+ * </p>
+ * <p>
+ * Concurrent misses for the same restaurant each load the menu; the cache keeps the newest.
+ * </p>
+ */
+@Service
+public class MenuCache implements MeterBinder {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MenuCache.class);
+
+    /**
+     * Approximate bytes an entry occupies besides its payload, counted towards the size limit.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /**
+     * Mapper producing the same JSON as the web endpoints.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The maximum number of cached menus.
+     */
+    private final int maxEntries;
+
+    /**
+     * The maximum total weight of the cached menus, in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * Menus of at least this many JSON bytes are also kept gzip-compressed.
+     */
+    private final int gzipMinBytes;
+
+    /**
+     * Cached menus by restaurant ID, in least recently used order. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<Integer, SerializedMenuDto> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The total weight of the cached menus, in bytes. Guarded by {@code this}.
+     */
+    private long weight;
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to load the menu.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of menus evicted to stay within the limits.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a {@link MenuCache}.
+     *
+     * @param objectMapper The mapper used to serialize menus.
+     * @param maxEntries   The maximum number of cached menus.
+     * @param maxBytes     The maximum total weight of the cached menus, in bytes.
+     * @param gzipMinBytes The JSON size from which menus are also kept compressed.
+     */
+    @Autowired
+    public MenuCache(ObjectMapper objectMapper,
+                     @Value("${menu.cache.max-entries:1000}") int maxEntries,
+                     @Value("${menu.cache.max-bytes:33554432}") long maxBytes,
+                     @Value("${menu.cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * Returns the serialized menu of a restaurant at a version, loading and caching it on a miss.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param menuVersion  The current menu version of the restaurant, read before loading.
+     * @param loader       Loads the menu items of the restaurant.
+     * @return The serialized menu.
+     */
+    public SerializedMenuDto getOrLoad(int restaurantId, long menuVersion,
+                                       Supplier<List<MenuItemResponseDto>> loader) {
+        SerializedMenuDto cached = get(restaurantId, menuVersion);
+        if (cached != null) {
+            return cached;
+        }
+        SerializedMenuDto menu = serialize(menuVersion, loader.get());
+        put(restaurantId, menu);
+        return menu;
+    }
+
+    /**
+     * Drops the cached menu of a restaurant once the current transaction commits, or right away
+     * if there is none.
+     *
+     * @param restaurantId The ID of the restaurant whose menu changed.
+     */
+    public void invalidate(int restaurantId) {
+        AfterCommit.run(() -> remove(restaurantId));
+    }
+
+    /**
+     * Looks up the cached menu of a restaurant. An entry for an older version is dropped.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param menuVersion  The wanted menu version.
+     * @return The cached menu, or null on a miss.
+     */
+    synchronized SerializedMenuDto get(int restaurantId, long menuVersion) {
+        SerializedMenuDto menu = entries.get(restaurantId);
+        if (menu != null && menu.getVersion() == menuVersion) {
+            hits.increment();
+            return menu;
+        }
+        misses.increment();
+        if (menu != null && menu.getVersion() < menuVersion) {
+            remove(restaurantId);
+        }
+        return null;
+    }
+
+    /**
+     * Caches a menu unless a newer version is cached already or the menu alone exceeds the size
+     * limit, then evicts the least recently used menus until the cache is within its limits.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param menu         The serialized menu.
+     */
+    synchronized void put(int restaurantId, SerializedMenuDto menu) {
+        SerializedMenuDto current = entries.get(restaurantId);
+        if (current != null && current.getVersion() > menu.getVersion()) {
+            return;
+        }
+        if (weigh(menu) > maxBytes) {
+            LOGGER.warn("Menu of restaurant {} is too large to cache ({} bytes)", restaurantId, menu.getWeight());
+            return;
+        }
+        remove(restaurantId);
+        entries.put(restaurantId, menu);
+        weight += weigh(menu);
+
+        Iterator<Map.Entry<Integer, SerializedMenuDto>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxBytes) && eldest.hasNext()) {
+            weight -= weigh(eldest.next().getValue());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drops the cached menu of a restaurant.
+     *
+     * @param restaurantId The ID of the restaurant.
+     */
+    synchronized void remove(int restaurantId) {
+        SerializedMenuDto removed = entries.remove(restaurantId);
+        if (removed != null) {
+            weight -= weigh(removed);
+        }
+    }
+
+    /**
+     * Serializes a menu to JSON, and also to gzip if it is large enough to benefit.
+     *
+     * @param menuVersion The menu version.
+     * @param menuItems   The menu items.
+     * @return The serialized menu.
+     * @throws FailedRequestException If the menu cannot be serialized.
+     */
+    SerializedMenuDto serialize(long menuVersion, List<MenuItemResponseDto> menuItems) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(menuItems);
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Error serializing menu: {}", e.getMessage());
+            throw new FailedRequestException(Constants.MENU_SERIALIZATION_FAILED);
+        }
+        byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+        if (gzip != null && gzip.length >= json.length) {
+            gzip = null;
+        }
+        return new SerializedMenuDto(menuVersion, json, gzip);
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to load the menu.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of menus evicted to stay within the limits.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of cached menus.
+     *
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total weight of the cached menus.
+     *
+     * @return The weight in bytes.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Publishes the cache statistics as {@code menu.cache.*} metrics.
+     *
+     * @param registry The registry to publish to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("menu.cache.gets", this, MenuCache::getHitCount)
+                .tag("result", "hit")
+                .description("Menu lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.gets", this, MenuCache::getMissCount)
+                .tag("result", "miss")
+                .description("Menu lookups that loaded the menu")
+                .register(registry);
+        FunctionCounter.builder("menu.cache.evictions", this, MenuCache::getEvictionCount)
+                .description("Menus evicted to stay within the cache limits")
+                .register(registry);
+        Gauge.builder("menu.cache.size", this, MenuCache::size)
+                .description("Number of cached menus")
+                .register(registry);
+        Gauge.builder("menu.cache.weight", this, MenuCache::weight)
+                .description("Total size of the cached menus")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Compresses bytes with gzip.
+     *
+     * @param data The bytes to compress.
+     * @return The compressed bytes.
+     */
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Weighs a cached menu against the size limit.
+     *
+     * @param menu The menu.
+     * @return The weight in bytes.
+     */
+    private static long weigh(SerializedMenuDto menu) {
+        return (long) menu.getWeight() + ENTRY_OVERHEAD;
+    }
+}
@@ -3,28 +3,38 @@ package com.restaurant.RestaurantMicroservice.service.impl;
 import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemUpdateRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
 import com.restaurant.RestaurantMicroservice.entities.Category;
+import com.restaurant.RestaurantMicroservice.entities.MenuItemTombstone;
 import com.restaurant.RestaurantMicroservice.entities.MenuItems;
 import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
 import com.restaurant.RestaurantMicroservice.exception.ConflictException;
-import com.restaurant.RestaurantMicroservice.exception.ImageProcessingFailedException;
 import com.restaurant.RestaurantMicroservice.exception.InvalidFileTypeException;
 import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
 import com.restaurant.RestaurantMicroservice.repository.CategoryRepository;
 import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemTombstoneRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
 import com.restaurant.RestaurantMicroservice.service.MenuItemService;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
-import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link MenuItemService} interface for managing menu items.
@@ -38,6 +48,11 @@ public class MenuItemServiceImpl implements MenuItemService {
      */
     private static final Logger LOGGER = Logger.getLogger(MenuItemServiceImpl.class.getName());
 
+    /**
+     * Maximum accepted size of a menu item image, in bytes.
+     */
+    private static final long MAX_IMAGE_SIZE = 20 * 1024 * 1024;
+
     /**
      * Repository for performing CRUD operations on the Category entity.
      */
@@ -53,19 +68,64 @@ public class MenuItemServiceImpl implements MenuItemService {
      */
     private final MenuItemRepository menuItemRepository;
 
+    /**
+     * Service for storing and retrieving menu item images.
+     */
+    private final ImageService imageService;
+
+    /**
+     * Repository recording deleted menu items for menu delta sync.
+     */
+    private final MenuItemTombstoneRepository menuItemTombstoneRepository;
+
+    /**
+     * Cache of serialized restaurant menus.
+     */
+    private final MenuCache menuCache;
+
+    /**
+     * Menu versions of the restaurants, which key the cached menus.
+     */
+    private final MenuVersions menuVersions;
+
+    /**
+     * Service keeping the menu search index current.
+     */
+    private final MenuSearchService menuSearchService;
+
+    /**
+     * Service keeping the search box suggestions of dish names current.
+     */
+    private final SearchSuggestionService searchSuggestionService;
+
     /**
      * Constructs a {@link MenuItemServiceImpl} with the specified repositories.
      *
-     * @param categoryRepository   The repository for category entities.
-     * @param restaurantRepository The repository for restaurant entities.
-     * @param menuItemRepository   The repository for menu item entities.
+     * @param categoryRepository          The repository for category entities.
+     * @param restaurantRepository        The repository for restaurant entities.
+     * @param menuItemRepository          The repository for menu item entities.
+     * @param imageService                The service for storing menu item images.
+     * @param menuItemTombstoneRepository The repository for deleted menu items.
+     * @param menuCache                   The cache of serialized restaurant menus.
+     * @param menuVersions                The menu versions of the restaurants.
+     * @param menuSearchService           The service indexing menu items for search.
+     * @param searchSuggestionService     The service suggesting dish names.
      */
     @Autowired
     public MenuItemServiceImpl(CategoryRepository categoryRepository, RestaurantRepository restaurantRepository,
-                               MenuItemRepository menuItemRepository) {
+                               MenuItemRepository menuItemRepository, ImageService imageService,
+                               MenuItemTombstoneRepository menuItemTombstoneRepository, MenuCache menuCache,
+                               MenuVersions menuVersions, MenuSearchService menuSearchService,
+                               SearchSuggestionService searchSuggestionService) {
         this.categoryRepository = categoryRepository;
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.imageService = imageService;
+        this.menuItemTombstoneRepository = menuItemTombstoneRepository;
+        this.menuCache = menuCache;
+        this.menuVersions = menuVersions;
+        this.menuSearchService = menuSearchService;
+        this.searchSuggestionService = searchSuggestionService;
     }
 
     /**
@@ -75,6 +135,7 @@ public class MenuItemServiceImpl implements MenuItemService {
      * @param multipartFile            The image file for the menu item, if any.
      * @return A {@link CommonResponseDto} indicating the result of the operation.
      */
+    @Transactional
     @Override
     public CommonResponseDto createMenuItem(CreateMenuItemRequestDto createMenuItemRequestDTO, MultipartFile multipartFile) {
         LOGGER.info("Creating menu item for restaurant ID: " + createMenuItemRequestDTO.getRestaurantId());
@@ -109,32 +170,15 @@ public class MenuItemServiceImpl implements MenuItemService {
         menuItem.setDescription(createMenuItemRequestDTO.getDescription());
         menuItem.setAvailable(false);
         menuItem.setPrice(createMenuItemRequestDTO.getPrice());
+        menuItem.setMenuVersion(menuVersions.next(restaurant.getId()));
 
         if (multipartFile != null && !multipartFile.isEmpty()) {
-            String contentType = multipartFile.getContentType();
-            if (contentType == null
-                    || !(contentType.equals("image/jpeg")
-                    || contentType.equals("image/jpg")
-                    || contentType.equals("image/png"))) {
-
-                LOGGER.error("Invalid file type: " + contentType);
-                throw new InvalidFileTypeException(Constants.INVALID_FILE);
-            }
-
-            if (multipartFile.getSize() > 20 * 1024 * 1024) {
-                LOGGER.error("File size exceeds the limit of 10MB. File size: " + multipartFile.getSize());
-                throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE);
-            }
-
-            try {
-                menuItem.setImageData(multipartFile.getBytes());
-            } catch (IOException e) {
-                LOGGER.error("Error processing image file: " + e.getMessage());
-                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
-            }
+            menuItem.setImageHash(imageService.saveImage(multipartFile, MAX_IMAGE_SIZE));
         }
 
         MenuItems savedMenuItem = menuItemRepository.save(menuItem);
+        menuSearchService.reindexMenuItems(Collections.singletonList(savedMenuItem.getId()));
+        searchSuggestionService.nameAdded(SuggestionType.DISH, savedMenuItem.getFoodName());
         LOGGER.info("Menu item created successfully with ID: " + savedMenuItem.getId());
 
         CommonResponseDto responseDTO = new CommonResponseDto();
@@ -148,6 +192,7 @@ public class MenuItemServiceImpl implements MenuItemService {
      * @param id The ID of the menu item to be deleted.
      * @return A {@link CommonResponseDto} indicating the result of the operation.
      */
+    @Transactional
     @Override
     public CommonResponseDto deleteMenuItem(int id) {
         LOGGER.info("Deleting menu item with ID: ");
@@ -158,7 +203,13 @@ public class MenuItemServiceImpl implements MenuItemService {
                     return new NotFoundException(Constants.MENUITEM_NOT_FOUND);
                 });
 
+        long menuVersion = menuVersions.next(menuItem.getRestaurantId());
         menuItemRepository.delete(menuItem);
+        menuItemTombstoneRepository.save(
+                new MenuItemTombstone(menuItem.getId(), menuItem.getRestaurantId(), menuVersion));
+        imageService.releaseImage(menuItem.getImageHash());
+        menuSearchService.reindexMenuItems(Collections.singletonList(id));
+        searchSuggestionService.nameRemoved(SuggestionType.DISH, menuItem.getFoodName());
         LOGGER.info("Menu item deleted with ID: " + id);
 
         CommonResponseDto message = new CommonResponseDto();
@@ -177,14 +228,11 @@ public class MenuItemServiceImpl implements MenuItemService {
     public List<MenuItemResponseDto> getAllMenuItemsByCategoryId(int categoryId) {
         LOGGER.info("Fetching all menu items for category ID: " + categoryId);
 
-        List<MenuItems> menuItems = menuItemRepository.findByCategoryId(categoryId);
-        if (menuItems.isEmpty()) {
-            LOGGER.warn("No menu items found for category ID: {}");
+        List<MenuItemResponseDto> responseDTOs = menuItemRepository.findMenuByCategoryId(categoryId);
+        if (responseDTOs.isEmpty()) {
+            LOGGER.warn("No menu items found for category ID: " + categoryId);
         }
-
-        List<MenuItemResponseDto> responseDTOs = menuItems.stream()
-                .map(this::convertToMenuItemResponseDTO)
-                .collect(Collectors.toList());
+        responseDTOs.forEach(MenuItemServiceImpl::completeMenuItemResponse);
 
         LOGGER.info("Successfully fetched " + responseDTOs.size() + " menu items for category ID: " + categoryId);
         return responseDTOs;
@@ -201,25 +249,113 @@ public class MenuItemServiceImpl implements MenuItemService {
     public List<MenuItemResponseDto> getAllMenuItemsByRestaurantId(int restaurantId) {
         LOGGER.info("Fetching all menu items for restaurant ID: " + restaurantId);
 
-        List<MenuItems> menuItems = menuItemRepository.findByRestaurantId(restaurantId);
+        List<MenuItemResponseDto> responseDTOs = menuItemRepository.findMenuByRestaurantId(restaurantId);
 
-        if (menuItems.isEmpty()) {
-            LOGGER.warn("No menu items found for restaurant ID");
+        if (responseDTOs.isEmpty()) {
+            LOGGER.warn("No menu items found for restaurant ID: " + restaurantId);
         }
-        List<MenuItemResponseDto> responseDTOs = menuItems.stream()
-                .map(this::convertToMenuItemResponseDTO)
-                .collect(Collectors.toList());
+        responseDTOs.forEach(MenuItemServiceImpl::completeMenuItemResponse);
 
         LOGGER.info("Successfully fetched " + responseDTOs.size() + " menu items for restaurant ID: " + restaurantId);
         return responseDTOs;
     }
 
+    /**
+     * Retrieves the menu items of a restaurant within a price range, optionally only the available
+     * ones, sorted by price in one query on the (restaurant_id, is_available, price) index.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param available    Only menu items with this availability, or {@code null} for any.
+     * @param minPrice     The lowest price, inclusive, or {@code null} for no lower bound.
+     * @param maxPrice     The highest price, inclusive, or {@code null} for no upper bound.
+     * @param direction    Whether to list the cheapest or the most expensive items first.
+     * @return A list of {@link MenuItemResponseDto} sorted by price, then by ID.
+     */
+    @Override
+    public List<MenuItemResponseDto> getFilteredMenuItemsByRestaurantId(int restaurantId, Boolean available,
+                                                                        BigDecimal minPrice, BigDecimal maxPrice,
+                                                                        Sort.Direction direction) {
+        LOGGER.info("Fetching filtered menu items for restaurant ID: " + restaurantId);
+
+        List<MenuItemResponseDto> responseDTOs = menuItemRepository.findMenuByRestaurantIdFiltered(
+                restaurantId, available, minPrice, maxPrice, Sort.by(direction, "price", "id"));
+        responseDTOs.forEach(MenuItemServiceImpl::completeMenuItemResponse);
+
+        LOGGER.info("Successfully fetched " + responseDTOs.size() + " filtered menu items for restaurant ID: "
+                + restaurantId);
+        return responseDTOs;
+    }
+
+    /**
+     * Retrieves all menu items by restaurant ID as serialized JSON, from the menu cache if it holds
+     * the menu at the given version.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param menuVersion  The current menu version of the restaurant.
+     * @return A {@link SerializedMenuDto} holding the menu items.
+     */
+    @Transactional
+    @Override
+    public SerializedMenuDto getSerializedMenu(int restaurantId, long menuVersion) {
+        return menuCache.getOrLoad(restaurantId, menuVersion, () -> getAllMenuItemsByRestaurantId(restaurantId));
+    }
+
+    /**
+     * Retrieves the current menu version of a restaurant.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @return The current menu version.
+     * @throws NotFoundException If the restaurant does not exist.
+     */
+    @Override
+    public long getMenuVersion(int restaurantId) {
+        return menuVersions.current(restaurantId);
+    }
+
+    /**
+     * Retrieves the changes to the menu of a restaurant since a given menu version.
+     * <p>
+     * The version is read before the items. A version is only visible once the change that
+     * produced it has committed, so no change up to the returned version can be missed; changes
+     * made in between may be returned again by the next request, which is harmless for clients
+     * applying items by ID. Clients without a usable version, including one newer than the
+     * current version, get the full menu.
+     * </p>
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param sinceVersion The menu version the caller already has.
+     * @return A {@link MenuDeltaResponseDto} with the changed and removed menu items.
+     * @throws NotFoundException If the restaurant does not exist.
+     */
+    @Transactional
+    @Override
+    public MenuDeltaResponseDto getMenuChangesSince(int restaurantId, long sinceVersion) {
+        LOGGER.info("Fetching menu changes since version " + sinceVersion + " for restaurant ID: " + restaurantId);
+
+        long version = getMenuVersion(restaurantId);
+        if (sinceVersion <= 0 || sinceVersion > version) {
+            List<MenuItemResponseDto> menu = menuItemRepository.findMenuByRestaurantId(restaurantId);
+            menu.forEach(MenuItemServiceImpl::completeMenuItemResponse);
+            return new MenuDeltaResponseDto(version, true, menu, Collections.<Integer>emptyList());
+        }
+
+        List<MenuItemResponseDto> changedItems =
+                menuItemRepository.findMenuChangesByRestaurantId(restaurantId, sinceVersion);
+        changedItems.forEach(MenuItemServiceImpl::completeMenuItemResponse);
+        List<Integer> removedItemIds = menuItemTombstoneRepository.findDeletedMenuItemIds(restaurantId, sinceVersion);
+
+        LOGGER.info("Found " + changedItems.size() + " changed and " + removedItemIds.size()
+                + " removed menu items for restaurant ID: " + restaurantId);
+        return new MenuDeltaResponseDto(version, false, changedItems, removedItemIds);
+    }
+
     /**
      * Updates the availability status of a menu item.
      *
      * @param id The ID of the menu item to be updated.
      * @return A {@link CommonResponseDto} indicating the result of the operation.
      */
+    @Transactional
     @Override
     public CommonResponseDto updateMenuItemStatus(int id) {
         LOGGER.info("Updating availability status for menu item ID: " + id);
@@ -232,7 +368,9 @@ public class MenuItemServiceImpl implements MenuItemService {
 
         boolean newStatus = !menuItems.getAvailable();
         menuItems.setAvailable(newStatus);
+        menuItems.setMenuVersion(menuVersions.next(menuItems.getRestaurantId()));
         menuItemRepository.save(menuItems);
+        menuSearchService.reindexMenuItems(Collections.singletonList(id));
 
         String statusMessage = newStatus ? Constants.MENU_ITEM_AVAILABLE : Constants.MENU_ITEM_NOTAVAILABLE;
         LOGGER.info("Menu item status updated to: " + statusMessage + " for ID: " + id);
@@ -263,6 +401,10 @@ public class MenuItemServiceImpl implements MenuItemService {
         responseDto.setDescription(menuItem.getDescription());
         responseDto.setPrice(menuItem.getPrice());
         responseDto.setIsAvailable(menuItem.getAvailable());
+        if (menuItem.getImageHash() != null) {
+            responseDto.setImageHash(menuItem.getImageHash());
+            responseDto.setImageUrl(Constants.IMAGE_URL_PREFIX + menuItem.getImageHash());
+        }
 
         LOGGER.info("Menu item fetched successfully with ID: " + id);
         return responseDto;
@@ -277,10 +419,10 @@ public class MenuItemServiceImpl implements MenuItemService {
      * @throws NotFoundException If the menu item or the category associated with it is not found.
      * @throws ConflictException If a menu item with the same name already exists in the same restaurant.
      * @throws InvalidFileTypeException If the provided image file is not of an allowed type or exceeds the allowed size.
-     * @throws ImageProcessingFailedException If an error occurs while processing the image file.
+     * @throws com.restaurant.RestaurantMicroservice.exception.ImageProcessingFailedException
+     * If an error occurs while processing the image file.
      */
-
-
+    @Transactional
     @Override
     public CommonResponseDto updateMenuItem(
             int menuItemId,
@@ -317,35 +459,23 @@ public class MenuItemServiceImpl implements MenuItemService {
             }
         }
 
+        String previousImageHash = null;
         if (multipartFile != null && !multipartFile.isEmpty()) {
-            String contentType = multipartFile.getContentType();
-            if (contentType == null
-                    || !(contentType.equals("image/jpeg")
-                    || contentType.equals("image/jpg")
-                    || contentType.equals("image/png"))) {
-                LOGGER.error("Invalid file type: {}. Only JPEG, JPG, and PNG files are allowed.");
-                throw new InvalidFileTypeException(Constants.INVALID_FILE); // 400 bad request
-            }
-
-            if (multipartFile.getSize() > 20 * 1024 * 1024) {
-                LOGGER.error("File size exceeds the 10 MB limit. File size: {} bytes");
-                throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE); // Custom constant for file size error
-            }
-
-            try {
-                menuItem.setImageData(multipartFile.getBytes());
-            } catch (IOException e) {
-                LOGGER.error("Error occurred while processing the image file:");
-                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED); // 500 internal server error
-            }
+            previousImageHash = menuItem.getImageHash();
+            menuItem.setImageHash(imageService.saveImage(multipartFile, MAX_IMAGE_SIZE));
         }
 
+        String previousFoodName = menuItem.getFoodName();
         menuItem.setFoodName(menuItemupdateInDTO.getFoodName());
         menuItem.setPrice(menuItemupdateInDTO.getPrice());
         menuItem.setDescription(menuItemupdateInDTO.getDescription());
         menuItem.setCategoryId(menuItemupdateInDTO.getCategoryId());
+        menuItem.setMenuVersion(menuVersions.next(restaurantId));
 
         menuItemRepository.save(menuItem);
+        imageService.releaseImage(previousImageHash);
+        menuSearchService.reindexMenuItems(Collections.singletonList(menuItemId));
+        searchSuggestionService.nameChanged(SuggestionType.DISH, previousFoodName, menuItem.getFoodName());
 
         CommonResponseDto responseDTO = new CommonResponseDto();
 
@@ -356,38 +486,39 @@ public class MenuItemServiceImpl implements MenuItemService {
     }
 
 
-    private MenuItemResponseDto convertToMenuItemResponseDTO(MenuItems menuItem) {
-        LOGGER.debug("Converting MenuItems to MenuItemResponseDTO: {} start");
-
-        MenuItemResponseDto responseDTO = new MenuItemResponseDto();
-
-        RestaurantDetail restaurant = restaurantRepository.findById(menuItem.getRestaurantId())
-                .orElseThrow(() -> new NotFoundException(
-                        Constants.RESTAURANT_NOT_FOUND)); // 404 not found
+    /**
+     * Retrieves the image of a menu item.
+     *
+     * @param id      The ID of the menu item.
+     * @param variant The requested size of the image.
+     * @return The image content of the menu item.
+     */
+    @Override
+    public ImageResponseDto getMenuItemImage(int id, ImageVariant variant) {
+        LOGGER.info("Fetching image for menu item ID: " + id);
 
+        String imageHash = menuItemRepository.findImageHashById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("No image found for menu item ID: " + id);
+                    return new NotFoundException(Constants.IMAGE_NOT_FOUND);
+                });
+        return imageService.getImage(imageHash, variant);
+    }
 
-        String categoryName;
-        if (menuItem.getCategoryId() == 0) {
-            categoryName = Constants.CATEGORY_NOT_FOUND;
-        } else {
-            Category category = categoryRepository.findById(menuItem.getCategoryId())
-                    .orElseThrow(() -> new NotFoundException(
-                            Constants.CATEGORY_NOT_FOUND)); // 404 not found
-            categoryName = category.getName();
+    /**
+     * Fills in the fields of a menu item projection that are not read from the database: a
+     * placeholder category name for items whose category was deleted or never set, and the
+     * URL under which the item image is served.
+     *
+     * @param responseDTO the menu item projection returned by the repository.
+     */
+    static void completeMenuItemResponse(MenuItemResponseDto responseDTO) {
+        if (responseDTO.getCategoryName() == null) {
+            responseDTO.setCategoryName(Constants.CATEGORY_NOT_FOUND);
+        }
+        if (responseDTO.getImageHash() != null) {
+            responseDTO.setImageUrl(Constants.IMAGE_URL_PREFIX + responseDTO.getImageHash());
         }
-
-        responseDTO.setId(menuItem.getId());
-        responseDTO.setRestaurantName(restaurant.getRestaurantName());
-        responseDTO.setCategoryName(categoryName);
-        responseDTO.setFoodName(menuItem.getFoodName());
-        responseDTO.setDescription(menuItem.getDescription());
-        responseDTO.setIsAvailable(menuItem.getAvailable());
-        responseDTO.setImageData(menuItem.getImageData());
-        responseDTO.setPrice(menuItem.getPrice());
-
-        //LOGGER.debug("Converting MenuItems to MenuItemResponseDTO: {} end", responseDTO);
-
-        return responseDTO;
     }
 
 
@@ -0,0 +1,157 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Menu items of all restaurants ordered by price, for price range queries across restaurants.
+ * <p>
+ * Items are kept in two sorted sets, one holding every item and one holding the available items
+ * only, so that a query for available items in a price range walks just the items it returns
+ * rather than skipping over unavailable ones. A query seeks to the start of the range and stops
+ * after {@code limit} items, whatever the size of the catalog.
+ * </p>
+ * <p>
+ * Queries take no lock. Changes are serialized and replace an item by removing its old entry
+ * before adding the new one, so a query running alongside a price change may miss that item
+ * once, but never sees it twice.
+ * </p>
+ */
+final class MenuPriceIndex {
+
+    /**
+     * Orders entries by price, then by menu item ID.
+     */
+    private static final Comparator<Entry> BY_PRICE = Comparator.comparing((Entry entry) -> entry.price)
+            .thenComparingInt(entry -> entry.id);
+
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * Every indexed item.
+     */
+    private final ConcurrentSkipListSet<Entry> all = new ConcurrentSkipListSet<>(BY_PRICE);
+
+    /**
+     * The indexed items that are available.
+     */
+    private final ConcurrentSkipListSet<Entry> available = new ConcurrentSkipListSet<>(BY_PRICE);
+
+    /**
+     * The current entry of every indexed item by ID. Guarded by this.
+     */
+    private final Map<Integer, Entry> byId = new HashMap<>();
+
+    /**
+     * Adds a menu item, or replaces it if already indexed. Items without a price are removed.
+     *
+     * @param id        The menu item ID.
+     * @param price     The price.
+     * @param available Whether the item can be ordered.
+     */
+    synchronized void put(int id, BigDecimal price, boolean available) {
+        remove(id);
+        if (price == null) {
+            return;
+        }
+        Entry entry = new Entry(id, price);
+        byId.put(id, entry);
+        all.add(entry);
+        if (available) {
+            this.available.add(entry);
+        }
+    }
+
+    /**
+     * Adds a menu item unless it is indexed already.
+     *
+     * @param id        The menu item ID.
+     * @param price     The price.
+     * @param available Whether the item can be ordered.
+     */
+    synchronized void putIfAbsent(int id, BigDecimal price, boolean available) {
+        if (!byId.containsKey(id)) {
+            put(id, price, available);
+        }
+    }
+
+    /**
+     * Removes a menu item. Does nothing if it is not indexed.
+     *
+     * @param id The menu item ID.
+     */
+    synchronized void remove(int id) {
+        Entry entry = byId.remove(id);
+        if (entry != null) {
+            available.remove(entry);
+            all.remove(entry);
+        }
+    }
+
+    /**
+     * Finds the menu items priced within a range.
+     *
+     * @param minPrice      The lowest price, inclusive; no lower bound if null.
+     * @param maxPrice      The highest price, inclusive; no upper bound if null.
+     * @param availableOnly Whether to return available items only.
+     * @param descending    Whether to return the most expensive items first.
+     * @param limit         The maximum number of items.
+     * @return The menu item IDs ordered by price, then by ID in the same direction.
+     */
+    int[] find(BigDecimal minPrice, BigDecimal maxPrice, boolean availableOnly, boolean descending, int limit) {
+        if (limit <= 0 || minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return NO_IDS;
+        }
+        NavigableSet<Entry> range = availableOnly ? available : all;
+        if (minPrice != null) {
+            range = range.tailSet(new Entry(Integer.MIN_VALUE, minPrice), true);
+        }
+        if (maxPrice != null) {
+            range = range.headSet(new Entry(Integer.MAX_VALUE, maxPrice), true);
+        }
+        if (descending) {
+            range = range.descendingSet();
+        }
+        int[] ids = new int[Math.min(limit, 64)];
+        int count = 0;
+        for (Entry entry : range) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(limit, ids.length * 2));
+            }
+            ids[count++] = entry.id;
+            if (count == limit) {
+                break;
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return The item count.
+     */
+    synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * The price of one menu item.
+     */
+    private static final class Entry {
+
+        private final int id;
+
+        private final BigDecimal price;
+
+        Entry(int id, BigDecimal price) {
+            this.id = id;
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the searchable text of menu items, ranked with BM25.
+ * <p>
+ * Each menu item is a document made of its food name, category name and description, analyzed
+ * by {@link MenuTextAnalyzer}. Term frequencies are weighted by field, so a match in the food name
+ * counts more than one in the category name, which counts more than one in the description.
+ * Documents are numbered by an internal ordinal in the order they were added, and every posting
+ * list is kept sorted by ordinal, so a query merges the posting lists of its terms in one pass
+ * without allocating per document.
+ * </p>
+ * <p>
+ * A query term the index does not know is taken for a misspelling and matched to the closest
+ * known terms, found in a {@link LevenshteinTrie} of the vocabulary: within one edit for terms of
+ * three to five letters and within two for longer ones, so "panner" finds "paneer" and "biriyani"
+ * finds "biryani". These fuzzy matches score at {@link #FUZZY_MATCH_WEIGHT} of an exact match, and
+ * known terms are never expanded, so correctly spelled queries cost nothing extra.
+ * </p>
+ * <p>
+ * Replacing or removing a document only marks its ordinal dead; the postings of dead documents
+ * are skipped by queries and dropped, and the ordinals renumbered, once they make up a quarter of
+ * the index. Queries share a read lock and changes take the write lock.
+ * </p>
+ */
+final class MenuSearchIndex {
+
+    /**
+     * BM25 term frequency saturation.
+     */
+    static final float K1 = 1.2f;
+
+    /**
+     * BM25 document length normalization.
+     */
+    static final float B = 0.75f;
+
+    /**
+     * Weight of a term occurrence in the food name.
+     */
+    static final float FOOD_NAME_WEIGHT = 3f;
+
+    /**
+     * Weight of a term occurrence in the category name.
+     */
+    static final float CATEGORY_WEIGHT = 2f;
+
+    /**
+     * Weight of a term occurrence in the description.
+     */
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    /**
+     * Weight of a fuzzy match of a misspelled query term, relative to an exact match.
+     */
+    static final float FUZZY_MATCH_WEIGHT = 0.5f;
+
+    /**
+     * The most known terms a misspelled query term is matched to.
+     */
+    static final int MAX_FUZZY_EXPANSIONS = 3;
+
+    /**
+     * Dead postings are only compacted away once there are at least this many.
+     */
+    private static final int MIN_COMPACTION_POSTINGS = 1024;
+
+    /**
+     * Posting lists by term.
+     */
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+
+    /**
+     * The terms of the posting lists, for matching misspelled query terms.
+     */
+    private LevenshteinTrie vocabulary = new LevenshteinTrie();
+
+    /**
+     * Ordinals of the live documents by menu item ID.
+     */
+    private final Map<Integer, Integer> ordinalsByItemId = new HashMap<>();
+
+    /**
+     * Menu item ID of each ordinal.
+     */
+    private int[] itemIds = new int[1024];
+
+    /**
+     * Weighted length of each document.
+     */
+    private float[] lengths = new float[1024];
+
+    /**
+     * Posting lists each document appears in, to keep document frequencies exact on removal.
+     */
+    private Postings[][] documentPostings = new Postings[1024][];
+
+    /**
+     * Ordinals of the live documents.
+     */
+    private final BitSet live = new BitSet();
+
+    /**
+     * The next ordinal to assign.
+     */
+    private int nextOrdinal;
+
+    /**
+     * The sum of the weighted lengths of the live documents.
+     */
+    private double totalLength;
+
+    /**
+     * The number of postings of dead documents still in the posting lists.
+     */
+    private long deadPostings;
+
+    /**
+     * The number of postings in the posting lists.
+     */
+    private long totalPostings;
+
+    /**
+     * Guards all of the above.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a menu item, replacing the document indexed for it before.
+     *
+     * @param itemId       The ID of the menu item.
+     * @param foodName     The food name.
+     * @param categoryName The category name, may be null.
+     * @param description  The description, may be null.
+     */
+    void put(int itemId, String foodName, String categoryName, String description) {
+        Map<String, Float> frequencies = frequencies(foodName, categoryName, description);
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+            addLocked(itemId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a menu item unless a document is indexed for it already. Used when loading the index,
+     * so that an item changed meanwhile is not overwritten by the copy read before the change.
+     *
+     * @param itemId       The ID of the menu item.
+     * @param foodName     The food name.
+     * @param categoryName The category name, may be null.
+     * @param description  The description, may be null.
+     */
+    void putIfAbsent(int itemId, String foodName, String categoryName, String description) {
+        Map<String, Float> frequencies = frequencies(foodName, categoryName, description);
+        lock.writeLock().lock();
+        try {
+            if (!ordinalsByItemId.containsKey(itemId)) {
+                addLocked(itemId, frequencies);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a menu item. Does nothing if it is not indexed.
+     *
+     * @param itemId The ID of the menu item.
+     */
+    void remove(int itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the menu items best matching a query. Items matching any of the query terms, or the
+     * known terms closest to a misspelled one, are candidates; they are ranked by BM25 score, ties
+     * by ascending ID.
+     *
+     * @param query The query text.
+     * @param limit The maximum number of results.
+     * @return The IDs of the matching menu items, best match first.
+     */
+    int[] search(String query, int limit) {
+        List<String> terms = MenuTextAnalyzer.analyze(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> matched = new ArrayList<>(terms.size());
+            List<Float> weights = new ArrayList<>(terms.size());
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings postings = postingsByTerm.get(term);
+                if (postings != null && postings.liveDocuments > 0) {
+                    matched.add(postings);
+                    weights.add(1f);
+                } else {
+                    for (Postings fuzzy : fuzzyMatches(term)) {
+                        if (!matched.contains(fuzzy)) {
+                            matched.add(fuzzy);
+                            weights.add(FUZZY_MATCH_WEIGHT);
+                        }
+                    }
+                }
+            }
+            if (matched.isEmpty()) {
+                return new int[0];
+            }
+            return rank(matched, weights, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed menu items.
+     *
+     * @return The document count.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct terms of the indexed menu items.
+     *
+     * @return The term count.
+     */
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postingsByTerm.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the posting lists of the known terms closest to an unknown one, those with the most
+     * live documents first. Terms shorter than three letters are not matched.
+     */
+    private List<Postings> fuzzyMatches(String term) {
+        int maxEdits = term.length() < 3 ? 0 : term.length() <= 5 ? 1 : 2;
+        if (maxEdits == 0) {
+            return new ArrayList<>();
+        }
+        List<Postings> matches = new ArrayList<>();
+        for (String candidate : vocabulary.closest(term, maxEdits, known -> {
+            Postings postings = postingsByTerm.get(known);
+            return postings != null && postings.liveDocuments > 0;
+        })) {
+            matches.add(postingsByTerm.get(candidate));
+        }
+        matches.sort((a, b) -> Integer.compare(b.liveDocuments, a.liveDocuments));
+        return matches.size() > MAX_FUZZY_EXPANSIONS ? matches.subList(0, MAX_FUZZY_EXPANSIONS) : matches;
+    }
+
+    /**
+     * Scores the live documents in the given posting lists and keeps the best ones.
+     */
+    private int[] rank(List<Postings> matched, List<Float> weights, int limit) {
+        int documents = ordinalsByItemId.size();
+        float averageLength = (float) (totalLength / documents);
+        int count = matched.size();
+        float[] idf = new float[count];
+        int[] cursors = new int[count];
+        for (int i = 0; i < count; i++) {
+            int df = matched.get(i).liveDocuments;
+            idf[i] = weights.get(i) * (float) Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+        }
+
+        TopHits top = new TopHits(limit);
+        while (true) {
+            int ordinal = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                Postings postings = matched.get(i);
+                if (cursors[i] < postings.size && postings.ordinals[cursors[i]] < ordinal) {
+                    ordinal = postings.ordinals[cursors[i]];
+                }
+            }
+            if (ordinal == Integer.MAX_VALUE) {
+                break;
+            }
+            float norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+            float score = 0;
+            for (int i = 0; i < count; i++) {
+                Postings postings = matched.get(i);
+                if (cursors[i] < postings.size && postings.ordinals[cursors[i]] == ordinal) {
+                    float tf = postings.frequencies[cursors[i]];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                    cursors[i]++;
+                }
+            }
+            if (live.get(ordinal)) {
+                top.offer(itemIds[ordinal], score);
+            }
+        }
+        return top.toSortedIds();
+    }
+
+    private void addLocked(int itemId, Map<String, Float> frequencies) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == itemIds.length) {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            documentPostings = Arrays.copyOf(documentPostings, capacity);
+        }
+        float length = 0;
+        Postings[] postingsOfDocument = new Postings[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            Postings postings = postingsByTerm.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTerm.put(entry.getKey(), postings);
+                vocabulary.add(entry.getKey());
+            }
+            postings.add(ordinal, entry.getValue());
+            postingsOfDocument[i++] = postings;
+            length += entry.getValue();
+        }
+        itemIds[ordinal] = itemId;
+        lengths[ordinal] = length;
+        documentPostings[ordinal] = postingsOfDocument;
+        live.set(ordinal);
+        ordinalsByItemId.put(itemId, ordinal);
+        totalLength += length;
+        totalPostings += postingsOfDocument.length;
+    }
+
+    private void removeLocked(int itemId) {
+        Integer ordinal = ordinalsByItemId.remove(itemId);
+        if (ordinal == null) {
+            return;
+        }
+        for (Postings postings : documentPostings[ordinal]) {
+            postings.liveDocuments--;
+        }
+        deadPostings += documentPostings[ordinal].length;
+        documentPostings[ordinal] = null;
+        live.clear(ordinal);
+        totalLength -= lengths[ordinal];
+        if (deadPostings >= MIN_COMPACTION_POSTINGS && deadPostings * 4 >= totalPostings) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * Drops the postings of dead documents and renumbers the live ones, keeping their order.
+     */
+    private void compactLocked() {
+        int[] renumbered = new int[nextOrdinal];
+        int liveCount = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (live.get(ordinal)) {
+                renumbered[ordinal] = liveCount;
+                itemIds[liveCount] = itemIds[ordinal];
+                lengths[liveCount] = lengths[ordinal];
+                documentPostings[liveCount] = documentPostings[ordinal];
+                liveCount++;
+            }
+        }
+        Arrays.fill(documentPostings, liveCount, nextOrdinal, null);
+
+        Iterator<Postings> iterator = postingsByTerm.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            if (postings.liveDocuments == 0) {
+                iterator.remove();
+            } else {
+                postings.retainLive(live, renumbered);
+            }
+        }
+        if (postingsByTerm.size() < vocabulary.size()) {
+            vocabulary = new LevenshteinTrie();
+            postingsByTerm.keySet().forEach(vocabulary::add);
+        }
+        for (Map.Entry<Integer, Integer> entry : ordinalsByItemId.entrySet()) {
+            entry.setValue(renumbered[entry.getValue()]);
+        }
+        live.clear();
+        live.set(0, liveCount);
+        nextOrdinal = liveCount;
+        totalPostings -= deadPostings;
+        deadPostings = 0;
+    }
+
+    /**
+     * Counts the field-weighted occurrences of each term of a menu item.
+     */
+    private static Map<String, Float> frequencies(String foodName, String categoryName, String description) {
+        Map<String, Float> frequencies = new HashMap<>();
+        count(frequencies, foodName, FOOD_NAME_WEIGHT);
+        count(frequencies, categoryName, CATEGORY_WEIGHT);
+        count(frequencies, description, DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void count(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : MenuTextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * The documents a term occurs in, sorted by ordinal, with the weighted term frequency in each.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+
+        private float[] frequencies = new float[4];
+
+        private int size;
+
+        /**
+         * The number of live documents in this list, the document frequency of the term.
+         */
+        private int liveDocuments;
+
+        void add(int ordinal, float frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            liveDocuments++;
+        }
+
+        void retainLive(BitSet live, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(ordinals[i])) {
+                    ordinals[kept] = renumbered[ordinals[i]];
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (ordinals.length > 16 && size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best scored menu items seen so far.
+     */
+    private static final class TopHits {
+
+        private final int[] ids;
+
+        private final float[] scores;
+
+        private int size;
+
+        TopHits(int limit) {
+            ids = new int[limit];
+            scores = new float[limit];
+        }
+
+        void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        int[] toSortedIds() {
+            int[] sorted = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return sorted;
+        }
+
+        /**
+         * Whether the first hit ranks below the second: a lower score, or an equal score and a
+         * higher ID.
+         */
+        private static boolean worse(int id, float score, int otherId, float otherScore) {
+            return score < otherScore || (score == otherScore && id > otherId);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!worse(ids[index], scores[index], ids[parent], scores[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && worse(ids[child + 1], scores[child + 1], ids[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(ids[child], scores[child], ids[index], scores[index])) {
+                    return;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link MenuSearchService} interface, backed by an in-memory
+ * {@link MenuSearchIndex} and {@link MenuPriceIndex}.
+ * <p>
+ * The indexes are loaded once the application is ready and kept current by the menu item and
+ * category services, which re-index the items they change after their transaction commits. The
+ * indexes only yield menu item IDs; the hits are read back from the database, so results always
+ * show the current item and an item deleted while the indexes were loading is never returned.
+ * </p>
+ */
+@Service
+public class MenuSearchServiceImpl implements MenuSearchService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MenuSearchServiceImpl.class);
+
+    /**
+     * Number of menu items read per query when loading the index.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Repository for reading menu items.
+     */
+    private final MenuItemRepository menuItemRepository;
+
+    /**
+     * The search index.
+     */
+    private final MenuSearchIndex index = new MenuSearchIndex();
+
+    /**
+     * The price index.
+     */
+    private final MenuPriceIndex priceIndex = new MenuPriceIndex();
+
+    /**
+     * Constructs a {@link MenuSearchServiceImpl}.
+     *
+     * @param menuItemRepository The repository for menu item entities.
+     */
+    @Autowired
+    public MenuSearchServiceImpl(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    /**
+     * Searches the menu items by food name, description and category name.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of results, capped at {@link Constants#MAX_SEARCH_RESULTS}.
+     * @return The matching menu items, best match first.
+     */
+    @Override
+    public List<MenuItemResponseDto> searchMenuItems(String query, int limit) {
+        int[] ids = index.search(query, Math.max(1, Math.min(limit, Constants.MAX_SEARCH_RESULTS)));
+        LOGGER.info("Search for '{}' matched {} menu items", query, ids.length);
+        return readMenuItems(ids);
+    }
+
+    /**
+     * Finds the menu items of all restaurants priced within a range. Items changed since the index
+     * last saw them are left out if they no longer match.
+     *
+     * @param minPrice      The lowest price, inclusive; no lower bound if null.
+     * @param maxPrice      The highest price, inclusive; no upper bound if null.
+     * @param availableOnly Whether to return available items only.
+     * @param direction     ASC for the cheapest items first, DESC for the most expensive first.
+     * @param limit         The maximum number of results, capped at {@link Constants#MAX_SEARCH_RESULTS}.
+     * @return The matching menu items, ordered by price.
+     */
+    @Override
+    public List<MenuItemResponseDto> findMenuItemsByPrice(BigDecimal minPrice, BigDecimal maxPrice,
+                                                          boolean availableOnly, Sort.Direction direction, int limit) {
+        int[] ids = priceIndex.find(minPrice, maxPrice, availableOnly, direction.isDescending(),
+                Math.max(1, Math.min(limit, Constants.MAX_SEARCH_RESULTS)));
+        LOGGER.info("Price range {} to {} matched {} menu items", minPrice, maxPrice, ids.length);
+        List<MenuItemResponseDto> results = readMenuItems(ids);
+        results.removeIf(item -> item.getPrice() == null
+                || minPrice != null && item.getPrice().compareTo(minPrice) < 0
+                || maxPrice != null && item.getPrice().compareTo(maxPrice) > 0
+                || availableOnly && !Boolean.TRUE.equals(item.getIsAvailable()));
+        return results;
+    }
+
+    /**
+     * Re-indexes menu items from the database once the current transaction commits.
+     *
+     * @param menuItemIds The IDs of the changed menu items.
+     */
+    @Override
+    public void reindexMenuItems(Collection<Integer> menuItemIds) {
+        if (menuItemIds.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(menuItemIds);
+        afterCommit(() -> {
+            Set<Integer> removed = new HashSet<>(ids);
+            for (MenuItemResponseDto item : menuItemRepository.findMenuByIdIn(ids)) {
+                index.put(item.getId(), item.getFoodName(), item.getCategoryName(), item.getDescription());
+                priceIndex.put(item.getId(), item.getPrice(), Boolean.TRUE.equals(item.getIsAvailable()));
+                removed.remove(item.getId());
+            }
+            for (int id : removed) {
+                index.remove(id);
+                priceIndex.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Re-indexes the menu items of a category once the current transaction commits.
+     *
+     * @param categoryId The ID of the changed category.
+     */
+    @Override
+    public void reindexCategory(int categoryId) {
+        afterCommit(() -> {
+            for (MenuItemResponseDto item : menuItemRepository.findMenuByCategoryId(categoryId)) {
+                index.put(item.getId(), item.getFoodName(), item.getCategoryName(), item.getDescription());
+            }
+        });
+    }
+
+    /**
+     * Loads every menu item into the search and price indexes, in pages ordered by ID. Items
+     * re-indexed while the load runs are not overwritten by the older copy the load may have read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        int afterId = 0;
+        List<MenuItemResponseDto> page;
+        do {
+            page = menuItemRepository.findMenuPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (MenuItemResponseDto item : page) {
+                index.putIfAbsent(item.getId(), item.getFoodName(), item.getCategoryName(), item.getDescription());
+                priceIndex.putIfAbsent(item.getId(), item.getPrice(), Boolean.TRUE.equals(item.getIsAvailable()));
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        LOGGER.info("Indexed {} menu items with {} terms in {} ms", index.size(), index.termCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads menu items found in an index back from the database, in the order the index returned
+     * them. Items that no longer exist are left out.
+     *
+     * @param ids The menu item IDs.
+     * @return The menu items.
+     */
+    private List<MenuItemResponseDto> readMenuItems(int[] ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            idList.add(id);
+        }
+        Map<Integer, MenuItemResponseDto> itemsById = new HashMap<>();
+        for (MenuItemResponseDto item : menuItemRepository.findMenuByIdIn(idList)) {
+            itemsById.put(item.getId(), item);
+        }
+        List<MenuItemResponseDto> results = new ArrayList<>(itemsById.size());
+        for (int id : ids) {
+            MenuItemResponseDto item = itemsById.get(id);
+            if (item != null) {
+                MenuItemServiceImpl.completeMenuItemResponse(item);
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs an index update once the current transaction commits, or right away if there is none.
+     * A failed update is logged rather than failing the request whose change already committed.
+     *
+     * @param update The index update.
+     */
+    private void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Error updating the menu search index: {}", e.getMessage());
+            }
+        });
+    }
+}
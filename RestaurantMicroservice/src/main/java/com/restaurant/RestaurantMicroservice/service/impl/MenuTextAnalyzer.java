@@ -0,0 +1,185 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns menu text into search terms, and names into keys for prefix suggestions.
+ * <p>
+ * Text is split on anything that is not a letter or digit, lower-cased and stripped of accents,
+ * so that "Crème Brûlée" and "creme brulee" produce the same terms. Common English stop words
+ * are dropped and the remaining words are reduced by a light suffix-stripping stemmer that folds
+ * plurals and the "-ed" and "-ing" forms cooking terms come in ("fries", "fried" and "frying" all
+ * become "fry"). The stemmer is deliberately conservative: it only has to map the forms of a word
+ * onto the same term, not to produce a dictionary word.
+ * </p>
+ */
+final class MenuTextAnalyzer {
+
+    /**
+     * Words too common in menu text to help ranking.
+     */
+    private static final Set<String> STOP_WORDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "our", "the", "to", "with", "your")));
+
+    private MenuTextAnalyzer() {
+    }
+
+    /**
+     * Splits text into stemmed search terms, in the order they occur. Repeated words yield
+     * repeated terms.
+     *
+     * @param text The text to analyze, may be null.
+     * @return The terms of the text.
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String folded = fold(text);
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                String token = word.toString();
+                word.setLength(0);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normalizes a name for prefix matching: lower-cased, stripped of accents, and with every run
+     * of characters other than letters and digits replaced by a single space.
+     *
+     * @param text The text to normalize, may be null.
+     * @return The normalized text, empty if it has no letters or digits.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = fold(text);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Reduces a lower-case word to its stem.
+     *
+     * @param word The word.
+     * @return The stem, or the word itself if it is too short or has no known suffix.
+     */
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = stripPlural(word);
+        stem = stripVerbEnding(stem);
+        if (stem.length() > 3 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Strips plural endings: "berries" to "berry", "dishes" to "dish", "tomatoes" to "tomato" and
+     * "wings" to "wing". Words ending in "ss", "us" or "is" are left alone.
+     */
+    private static String stripPlural(String word) {
+        int length = word.length();
+        if (word.endsWith("ies") && length > 4) {
+            return word.substring(0, length - 3) + "y";
+        }
+        if (word.endsWith("oes") && length > 4) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("sses") || word.endsWith("xes") || word.endsWith("zes")
+                || word.endsWith("ches") || word.endsWith("shes")) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Strips "-ied", "-ed" and "-ing" when a syllable remains, and undoes the doubled consonant
+     * these endings bring ("chopped" to "chop"), except for the letters that are doubled in the
+     * base word itself ("grilled" to "grill", "stuffed" to "stuff").
+     */
+    private static String stripVerbEnding(String word) {
+        int length = word.length();
+        if (word.endsWith("ied") && length > 4) {
+            return word.substring(0, length - 3) + "y";
+        }
+        String stem;
+        if (word.endsWith("ed")) {
+            stem = word.substring(0, length - 2);
+        } else if (word.endsWith("ing")) {
+            stem = word.substring(0, length - 3);
+        } else {
+            return word;
+        }
+        if (stem.length() < 3 || !hasVowel(stem)) {
+            return word;
+        }
+        int last = stem.length() - 1;
+        char c = stem.charAt(last);
+        if (c == stem.charAt(last - 1) && !isVowel(c) && c != 'l' && c != 's' && c != 'z' && c != 'f') {
+            return stem.substring(0, last);
+        }
+        return stem;
+    }
+
+    private static boolean hasVowel(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    /**
+     * Removes accents, so that accented and unaccented spellings match.
+     */
+    private static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+            }
+        }
+        return text;
+    }
+}
@@ -0,0 +1,72 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the menu version of each restaurant, which changes with every change to its menu and keys
+ * its entry in the {@link MenuCache}.
+ */
+@Component
+public class MenuVersions {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(MenuVersions.class);
+
+    /**
+     * Repository holding the menu version of each restaurant.
+     */
+    private final RestaurantRepository restaurantRepository;
+
+    /**
+     * Cache of serialized restaurant menus.
+     */
+    private final MenuCache menuCache;
+
+    /**
+     * Constructs a {@link MenuVersions}.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param menuCache            The cache of serialized restaurant menus.
+     */
+    @Autowired
+    public MenuVersions(RestaurantRepository restaurantRepository, MenuCache menuCache) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuCache = menuCache;
+    }
+
+    /**
+     * Retrieves the current menu version of a restaurant.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @return The current menu version.
+     * @throws NotFoundException If the restaurant does not exist.
+     */
+    public long current(int restaurantId) {
+        return restaurantRepository.findMenuVersionById(restaurantId)
+                .orElseThrow(() -> {
+                    LOGGER.error("Restaurant not found with ID: " + restaurantId);
+                    return new NotFoundException(Constants.RESTAURANT_NOT_FOUND);
+                });
+    }
+
+    /**
+     * Bumps the menu version of a restaurant for a change made in the current transaction, and
+     * drops its cached menu once the change commits.
+     *
+     * @param restaurantId The ID of the restaurant whose menu changes.
+     * @return The new menu version.
+     * @throws NotFoundException If the restaurant does not exist.
+     */
+    public long next(int restaurantId) {
+        restaurantRepository.incrementMenuVersion(restaurantId);
+        menuCache.invalidate(restaurantId);
+        return current(restaurantId);
+    }
+}
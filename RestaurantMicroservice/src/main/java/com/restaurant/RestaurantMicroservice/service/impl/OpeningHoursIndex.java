@@ -0,0 +1,228 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Interval index of restaurant opening hours, answering which restaurants are open at a given
+ * minute of the week.
+ * <p>
+ * Open intervals are bucketed by their start minute, and each bucket keeps its intervals ordered
+ * by end, latest first. A segment tree over the start minutes records the latest end below each
+ * node. A lookup at minute {@code t} descends only into nodes whose starts are not after {@code t}
+ * and whose latest end is after it, and reads each bucket it reaches until the ends drop to
+ * {@code t}. Every visited branch therefore leads to a result, and a lookup costs
+ * O((k + 1) log W) for k open restaurants and W minutes in a week, however many restaurants are
+ * closed. Lookups share a read lock and changes take the write lock.
+ * </p>
+ */
+final class OpeningHoursIndex {
+
+    /**
+     * Number of leaves of the segment tree: the minutes of a week, rounded up to a power of two.
+     */
+    private static final int LEAVES = Integer.highestOneBit(WeeklySchedule.MINUTES_PER_WEEK - 1) << 1;
+
+    /**
+     * Orders the intervals of a bucket by end, latest first, then by restaurant ID.
+     */
+    private static final Comparator<Interval> LATEST_END_FIRST = Comparator.comparingInt((Interval interval) ->
+            -interval.end).thenComparingInt(interval -> interval.restaurantId);
+
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * The intervals by start minute; null for minutes no interval starts at.
+     */
+    @SuppressWarnings("unchecked")
+    private final NavigableSet<Interval>[] buckets = new NavigableSet[WeeklySchedule.MINUTES_PER_WEEK];
+
+    /**
+     * The latest end of the intervals below each node of the segment tree, or -1 if there are
+     * none. Node 1 is the root and the children of node i are 2i and 2i + 1.
+     */
+    private final int[] latestEnd = new int[2 * LEAVES];
+
+    /**
+     * The indexed intervals of each restaurant, as returned by {@link WeeklySchedule#intervals()}.
+     */
+    private final Map<Integer, int[]> intervalsById = new HashMap<>();
+
+    /**
+     * Guards the buckets, the tree and the intervals by ID.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs an empty index.
+     */
+    OpeningHoursIndex() {
+        Arrays.fill(latestEnd, -1);
+    }
+
+    /**
+     * Adds the schedule of a restaurant, replacing any it had.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param schedule     The opening hours.
+     */
+    void put(int restaurantId, WeeklySchedule schedule) {
+        int[] intervals = schedule.intervals();
+        lock.writeLock().lock();
+        try {
+            removeLocked(restaurantId);
+            intervalsById.put(restaurantId, intervals);
+            for (int i = 0; i < intervals.length; i += 2) {
+                int start = intervals[i];
+                if (buckets[start] == null) {
+                    buckets[start] = new TreeSet<>(LATEST_END_FIRST);
+                }
+                buckets[start].add(new Interval(restaurantId, intervals[i + 1]));
+                update(start);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the schedule of a restaurant. Does nothing if it has none.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    void remove(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the restaurants open at a minute of the week.
+     *
+     * @param minuteOfWeek The minute, from 0 for Monday 00:00.
+     * @return The IDs of the open restaurants, in ascending order.
+     */
+    int[] openAt(int minuteOfWeek) {
+        int[] ids;
+        int count;
+        lock.readLock().lock();
+        try {
+            Collector collector = new Collector(minuteOfWeek);
+            collector.visit(1, 0, LEAVES);
+            ids = collector.ids;
+            count = collector.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (count == 0) {
+            return NO_IDS;
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Gets the number of restaurants with a schedule.
+     *
+     * @return The restaurant count.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return intervalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(int restaurantId) {
+        int[] intervals = intervalsById.remove(restaurantId);
+        if (intervals == null) {
+            return;
+        }
+        for (int i = 0; i < intervals.length; i += 2) {
+            int start = intervals[i];
+            buckets[start].remove(new Interval(restaurantId, intervals[i + 1]));
+            if (buckets[start].isEmpty()) {
+                buckets[start] = null;
+            }
+            update(start);
+        }
+    }
+
+    /**
+     * Recomputes the latest ends on the path from the leaf of a start minute to the root.
+     */
+    private void update(int start) {
+        int node = LEAVES + start;
+        latestEnd[node] = buckets[start] == null ? -1 : buckets[start].first().end;
+        for (node /= 2; node >= 1; node /= 2) {
+            latestEnd[node] = Math.max(latestEnd[2 * node], latestEnd[2 * node + 1]);
+        }
+    }
+
+    /**
+     * The state of one lookup.
+     */
+    private final class Collector {
+
+        private final int minute;
+
+        private int[] ids = new int[16];
+
+        private int count;
+
+        Collector(int minute) {
+            this.minute = minute;
+        }
+
+        /**
+         * Visits a node covering the start minutes from {@code from}, inclusive, to {@code to},
+         * exclusive.
+         */
+        void visit(int node, int from, int to) {
+            if (from > minute || latestEnd[node] <= minute) {
+                return;
+            }
+            if (to - from == 1) {
+                for (Interval interval : buckets[from]) {
+                    if (interval.end <= minute) {
+                        break;
+                    }
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = interval.restaurantId;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            visit(2 * node, from, middle);
+            visit(2 * node + 1, middle, to);
+        }
+    }
+
+    /**
+     * One open interval of a restaurant, keyed in its bucket by end.
+     */
+    private static final class Interval {
+
+        private final int restaurantId;
+
+        private final int end;
+
+        Interval(int restaurantId, int end) {
+            this.restaurantId = restaurantId;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.OpeningHoursService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link OpeningHoursService} interface.
+ * <p>
+ * The opening hours of every restaurant are parsed into a {@link WeeklySchedule} once the
+ * application is ready, and kept current by the restaurant service. Lookups by time go to an
+ * {@link OpeningHoursIndex}. Each restaurant has one timer on a {@link TimingWheel} for its next
+ * opening or closing time; a single thread advances the wheel every minute and sets the open
+ * status of the restaurants whose timers expired, with one statement per status, before arming
+ * their next timers. A status the owner toggled by hand therefore lasts until the next opening or
+ * closing time.
+ * </p>
+ */
+@Service
+public class OpeningHoursServiceImpl implements OpeningHoursService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpeningHoursServiceImpl.class);
+
+    /**
+     * Number of restaurants read per query when loading the schedules, and updated per statement.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Length of a tick of the timing wheel; opening hours are given to the minute.
+     */
+    private static final long TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Number of slots of the timing wheel, about 17 hours of ticks.
+     */
+    private static final int WHEEL_SLOTS = 1024;
+
+    /**
+     * Repository for reading restaurants and setting their open status.
+     */
+    private final RestaurantRepository restaurantRepository;
+
+    /**
+     * Clock in the time zone the opening hours are given in.
+     */
+    private final Clock clock;
+
+    /**
+     * The schedules by time.
+     */
+    private final OpeningHoursIndex index = new OpeningHoursIndex();
+
+    /**
+     * The schedules by restaurant ID. Guarded by this.
+     */
+    private final Map<Integer, WeeklySchedule> schedules = new HashMap<>();
+
+    /**
+     * The next opening or closing time of each restaurant. Guarded by this.
+     */
+    private final TimingWheel wheel;
+
+    /**
+     * Thread advancing the timing wheel.
+     */
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Constructs an {@link OpeningHoursServiceImpl}.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param zone                 The time zone the opening hours are given in.
+     */
+    @Autowired
+    public OpeningHoursServiceImpl(RestaurantRepository restaurantRepository,
+                                   @Value("${restaurant.opening-hours.zone:Asia/Kolkata}") String zone) {
+        this(restaurantRepository, Clock.system(ZoneId.of(zone)));
+    }
+
+    /**
+     * Constructs an {@link OpeningHoursServiceImpl} reading the time from a given clock.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param clock                The clock, in the time zone the opening hours are given in.
+     */
+    OpeningHoursServiceImpl(RestaurantRepository restaurantRepository, Clock clock) {
+        this.restaurantRepository = restaurantRepository;
+        this.clock = clock;
+        this.wheel = new TimingWheel(WHEEL_SLOTS, TICK_MILLIS, clock.millis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "opening-hours");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Finds the restaurants open at a time, in ascending ID order after a cursor.
+     *
+     * @param at      The local time, or null for now.
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurant IDs to return.
+     * @return The IDs of the open restaurants.
+     */
+    @Override
+    public List<Integer> findRestaurantsOpenAt(LocalDateTime at, int afterId, int limit) {
+        int[] ids = index.openAt(WeeklySchedule.minuteOfWeek(at != null ? at : LocalDateTime.now(clock)));
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<Integer> page = new ArrayList<>();
+        for (int i = from; i < ids.length && page.size() < limit; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Checks whether opening hours are open now.
+     *
+     * @param openingHours The opening hours text.
+     * @return Whether the hours are open now, or null if they are not in a recognised format.
+     */
+    @Override
+    public Boolean isOpenNow(String openingHours) {
+        try {
+            return WeeklySchedule.parse(openingHours).isOpenAt(WeeklySchedule.minuteOfWeek(LocalDateTime.now(clock)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the schedule of a restaurant and arms its next timer once the current transaction
+     * commits. Hours that are not in a recognised format remove the restaurant from the schedules.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param openingHours The opening hours text.
+     */
+    @Override
+    public void hoursChanged(int restaurantId, String openingHours) {
+        afterCommit(() -> {
+            synchronized (this) {
+                WeeklySchedule schedule = parse(restaurantId, openingHours);
+                if (schedule == null) {
+                    forget(restaurantId);
+                } else {
+                    track(restaurantId, schedule, ZonedDateTime.now(clock));
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the schedule and the timer of a restaurant once the current transaction commits.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    @Override
+    public void restaurantRemoved(int restaurantId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                forget(restaurantId);
+            }
+        });
+    }
+
+    /**
+     * Loads the opening hours of every restaurant, in pages ordered by ID, and corrects the open
+     * status of those that are out of step with their hours.
+     */
+    @Override
+    public synchronized void rebuildSchedules() {
+        long start = System.nanoTime();
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        int minute = WeeklySchedule.minuteOfWeek(now.toLocalDateTime());
+        List<Integer> opened = new ArrayList<>();
+        List<Integer> closed = new ArrayList<>();
+        int unrecognised = 0;
+        int afterId = 0;
+        List<RestaurantResponseDto> page;
+        do {
+            page = restaurantRepository.findPageAfterId(afterId, null, null, PageRequest.of(0, BATCH_SIZE));
+            for (RestaurantResponseDto restaurant : page) {
+                WeeklySchedule schedule = parse(restaurant.getId(), restaurant.getOpeningHours());
+                if (schedule == null) {
+                    unrecognised++;
+                    continue;
+                }
+                track(restaurant.getId(), schedule, now);
+                boolean open = schedule.isOpenAt(minute);
+                if (open != Boolean.TRUE.equals(restaurant.getOpen())) {
+                    (open ? opened : closed).add(restaurant.getId());
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == BATCH_SIZE);
+        updateOpen(opened, true);
+        updateOpen(closed, false);
+        LOGGER.info("Scheduled opening hours of {} restaurants ({} unrecognised), corrected {} in {} ms",
+                index.size(), unrecognised, opened.size() + closed.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Loads the schedules once the application is ready and starts advancing the timing wheel at
+     * the start of every minute.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildSchedules();
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS - clock.millis() % TICK_MILLIS, TICK_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops advancing the timing wheel.
+     */
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Advances the timing wheel to now, sets the open status of the restaurants whose timers
+     * expired and arms their next timers. Restaurants whose status could not be written are
+     * retried on the next tick.
+     */
+    synchronized void tick() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now(clock);
+            List<Integer> due = wheel.advance(now.toInstant().toEpochMilli());
+            if (due.isEmpty()) {
+                return;
+            }
+            int minute = WeeklySchedule.minuteOfWeek(now.toLocalDateTime());
+            List<Integer> opened = new ArrayList<>();
+            List<Integer> closed = new ArrayList<>();
+            for (int restaurantId : due) {
+                WeeklySchedule schedule = schedules.get(restaurantId);
+                (schedule.isOpenAt(minute) ? opened : closed).add(restaurantId);
+                arm(restaurantId, schedule, now);
+            }
+            try {
+                updateOpen(opened, true);
+                updateOpen(closed, false);
+                LOGGER.info("Opened {} and closed {} restaurants", opened.size(), closed.size());
+            } catch (RuntimeException e) {
+                LOGGER.error("Error updating restaurant open status, retrying next minute: {}", e.getMessage());
+                for (int restaurantId : due) {
+                    wheel.schedule(restaurantId, now.toInstant().toEpochMilli() + TICK_MILLIS);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Error advancing the opening hours schedule: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the opening hours of a restaurant, or returns null if they are not in a recognised
+     * format.
+     */
+    private static WeeklySchedule parse(int restaurantId, String openingHours) {
+        try {
+            return WeeklySchedule.parse(openingHours);
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Opening hours of restaurant {} not recognised: {}", restaurantId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void track(int restaurantId, WeeklySchedule schedule, ZonedDateTime now) {
+        schedules.put(restaurantId, schedule);
+        index.put(restaurantId, schedule);
+        arm(restaurantId, schedule, now);
+    }
+
+    private void forget(int restaurantId) {
+        schedules.remove(restaurantId);
+        index.remove(restaurantId);
+        wheel.cancel(restaurantId);
+    }
+
+    /**
+     * Sets the timer of a restaurant to its next opening or closing time, if it has one.
+     */
+    private void arm(int restaurantId, WeeklySchedule schedule, ZonedDateTime now) {
+        int minutes = schedule.minutesUntilChange(WeeklySchedule.minuteOfWeek(now.toLocalDateTime()));
+        if (minutes < 0) {
+            wheel.cancel(restaurantId);
+            return;
+        }
+        wheel.schedule(restaurantId,
+                now.truncatedTo(ChronoUnit.MINUTES).plusMinutes(minutes).toInstant().toEpochMilli());
+    }
+
+    private void updateOpen(List<Integer> restaurantIds, boolean open) {
+        for (int from = 0; from < restaurantIds.size(); from += BATCH_SIZE) {
+            restaurantRepository.updateOpenByIdIn(
+                    restaurantIds.subList(from, Math.min(from + BATCH_SIZE, restaurantIds.size())), open);
+        }
+    }
+
+    /**
+     * Runs a schedule update once the current transaction commits, or right away if there is
+     * none. A failed update is logged rather than failing the request whose change already
+     * committed.
+     *
+     * @param update The schedule update.
+     */
+    private void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Error updating the opening hours schedule: {}", e.getMessage());
+            }
+        });
+    }
+}
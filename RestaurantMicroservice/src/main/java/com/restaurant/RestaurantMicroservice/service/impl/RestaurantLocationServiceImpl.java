@@ -0,0 +1,224 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.RestaurantLocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the {@link RestaurantLocationService} interface, backed by a
+ * {@link GazetteerGeocoder} and an in-memory {@link GeohashGrid}.
+ * <p>
+ * The locations are loaded once the application is ready and kept current by the restaurant
+ * service, which reports the locations it sets and the restaurants it deletes after their
+ * transaction commits. Restaurants saved before they had a location are located from their address
+ * during the load, and the location is written back so that this happens only once.
+ * </p>
+ */
+@Service
+public class RestaurantLocationServiceImpl implements RestaurantLocationService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantLocationServiceImpl.class);
+
+    /**
+     * Number of restaurants read per query when loading the locations.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Repository for reading restaurants and writing back their locations.
+     */
+    private final RestaurantRepository restaurantRepository;
+
+    /**
+     * Geocoder for the addresses of restaurants.
+     */
+    private final GazetteerGeocoder geocoder;
+
+    /**
+     * The nearby search index.
+     */
+    private final GeohashGrid grid = new GeohashGrid();
+
+    /**
+     * Constructs a {@link RestaurantLocationServiceImpl}.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param gazetteer            The gazetteer of place names.
+     */
+    @Autowired
+    public RestaurantLocationServiceImpl(RestaurantRepository restaurantRepository,
+                                         @Value("${restaurant.geo.gazetteer:classpath:gazetteer.tsv}")
+                                         Resource gazetteer) {
+        this(restaurantRepository, readGazetteer(gazetteer));
+    }
+
+    /**
+     * Constructs a {@link RestaurantLocationServiceImpl} with a given geocoder.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param geocoder             The geocoder for addresses.
+     */
+    RestaurantLocationServiceImpl(RestaurantRepository restaurantRepository, GazetteerGeocoder geocoder) {
+        this.restaurantRepository = restaurantRepository;
+        this.geocoder = geocoder;
+    }
+
+    /**
+     * Finds the restaurants nearest to a point, within a radius.
+     *
+     * @param latitude  The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param radiusKm  The greatest distance of a result in kilometres.
+     * @param limit     The maximum number of restaurants to return.
+     * @return The distance in kilometres by restaurant ID, nearest first and then by ID; empty if
+     *         the point is not a valid location.
+     */
+    @Override
+    public Map<Integer, Double> findNearestRestaurants(double latitude, double longitude, double radiusKm,
+                                                      int limit) {
+        return grid.nearest(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * Sets the location of a restaurant: the given coordinates if both are present, or else the
+     * location of its address. The location is cleared if neither is known.
+     *
+     * @param restaurant The restaurant, with its address set.
+     * @param latitude   The latitude in degrees, or null.
+     * @param longitude  The longitude in degrees, or null.
+     */
+    @Override
+    public void locate(RestaurantDetail restaurant, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            restaurant.setLatitude(latitude);
+            restaurant.setLongitude(longitude);
+            return;
+        }
+        double[] location = geocoder.geocode(restaurant.getAddress());
+        if (location == null) {
+            LOGGER.info("No known place in the address of restaurant {}", restaurant.getRestaurantName());
+        }
+        restaurant.setLatitude(location != null ? location[0] : null);
+        restaurant.setLongitude(location != null ? location[1] : null);
+    }
+
+    /**
+     * Moves a restaurant in the index once the current transaction commits. A restaurant without
+     * a location is removed from it.
+     *
+     * @param restaurantId The restaurant ID.
+     * @param latitude     The latitude in degrees, or null if the location is unknown.
+     * @param longitude    The longitude in degrees, or null if the location is unknown.
+     */
+    @Override
+    public void locationChanged(int restaurantId, Double latitude, Double longitude) {
+        afterCommit(() -> {
+            if (latitude != null && longitude != null) {
+                grid.put(restaurantId, latitude, longitude);
+            } else {
+                grid.remove(restaurantId);
+            }
+        });
+    }
+
+    /**
+     * Removes a restaurant from the index once the current transaction commits.
+     *
+     * @param restaurantId The restaurant ID.
+     */
+    @Override
+    public void restaurantRemoved(int restaurantId) {
+        afterCommit(() -> grid.remove(restaurantId));
+    }
+
+    /**
+     * Loads the location of every restaurant, in pages ordered by ID. Restaurants without a
+     * location are located from their address, and the location found is written back.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuildLocations() {
+        long start = System.nanoTime();
+        int located = 0;
+        int unlocated = 0;
+        int afterId = 0;
+        List<RestaurantResponseDto> restaurants;
+        do {
+            restaurants = restaurantRepository.findPageAfterId(afterId, null, null,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (RestaurantResponseDto restaurant : restaurants) {
+                if (restaurant.getLatitude() != null && restaurant.getLongitude() != null) {
+                    grid.put(restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude());
+                    continue;
+                }
+                double[] location = geocoder.geocode(restaurant.getAddress());
+                if (location == null) {
+                    unlocated++;
+                    continue;
+                }
+                restaurantRepository.updateLocation(restaurant.getId(), location[0], location[1]);
+                grid.put(restaurant.getId(), location[0], location[1]);
+                located++;
+            }
+            if (!restaurants.isEmpty()) {
+                afterId = restaurants.get(restaurants.size() - 1).getId();
+            }
+        } while (restaurants.size() == LOAD_BATCH_SIZE);
+        LOGGER.info("Loaded {} restaurant locations ({} located from their address, {} unknown) in {} ms",
+                grid.size(), located, unlocated, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads the gazetteer of place names.
+     *
+     * @param gazetteer The gazetteer resource.
+     * @return The geocoder.
+     * @throws IllegalStateException If the gazetteer cannot be read.
+     */
+    private static GazetteerGeocoder readGazetteer(Resource gazetteer) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(gazetteer.getInputStream(), StandardCharsets.UTF_8))) {
+            GazetteerGeocoder geocoder = GazetteerGeocoder.read(reader);
+            LOGGER.info("Read {} place names from {}", geocoder.size(), gazetteer.getDescription());
+            return geocoder;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read gazetteer " + gazetteer.getDescription(), e);
+        }
+    }
+
+    /**
+     * Runs an index update once the current transaction commits, or right away if there is none.
+     * A failed update is logged rather than failing the request whose change already committed.
+     *
+     * @param update The index update.
+     */
+    private void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Error updating the restaurant locations: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -1,30 +1,43 @@
 package com.restaurant.RestaurantMicroservice.service.impl;
 
-import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
 import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateRestaurantDetailRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantDetailUpdateRequestDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.UserResponseDto;
 import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
 import com.restaurant.RestaurantMicroservice.enums.RoleType;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
 import com.restaurant.RestaurantMicroservice.exception.ConflictException;
-import com.restaurant.RestaurantMicroservice.exception.FailedRequestException;
 import com.restaurant.RestaurantMicroservice.exception.ImageProcessingFailedException;
 import com.restaurant.RestaurantMicroservice.exception.InvalidFileTypeException;
 import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
 import com.restaurant.RestaurantMicroservice.exception.UnauthorizedException;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import com.restaurant.RestaurantMicroservice.service.OpeningHoursService;
+import com.restaurant.RestaurantMicroservice.service.RestaurantLocationService;
 import com.restaurant.RestaurantMicroservice.service.RestaurantService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import javax.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +53,16 @@ public class RestaurantServiceImpl implements RestaurantService {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(RestaurantServiceImpl.class);
 
+    /**
+     * Maximum accepted size of a restaurant image on creation, in bytes.
+     */
+    private static final long MAX_CREATE_IMAGE_SIZE = 20 * 1024 * 1024;
+
+    /**
+     * Maximum accepted size of a restaurant image on update, in bytes.
+     */
+    private static final long MAX_UPDATE_IMAGE_SIZE = 10 * 1024 * 1024;
+
     /**
      * Repository for managing {@link RestaurantDetail} entities.
      */
@@ -47,10 +70,46 @@ public class RestaurantServiceImpl implements RestaurantService {
     private RestaurantRepository restaurantRepository;
 
     /**
-     * Feign client for interacting with the user service.
+     * Cache of the users looked up from the user service.
+     */
+    @Autowired
+    private UserCache userCache;
+
+    /**
+     * Service for storing and retrieving restaurant images.
      */
     @Autowired
-    private UserFeignClient userFeignClient;
+    private ImageService imageService;
+
+    /**
+     * Repository for managing menu items, whose menu version changes with the restaurant name.
+     */
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    /**
+     * Menu versions of the restaurants, which change with the restaurant name their menus include.
+     */
+    @Autowired
+    private MenuVersions menuVersions;
+
+    /**
+     * Service for search box suggestions, which include the restaurant names.
+     */
+    @Autowired
+    private SearchSuggestionService searchSuggestionService;
+
+    /**
+     * Service for opening hours, which keeps the open status in step with them.
+     */
+    @Autowired
+    private OpeningHoursService openingHoursService;
+
+    /**
+     * Service for restaurant locations, which finds them from addresses and indexes them.
+     */
+    @Autowired
+    private RestaurantLocationService restaurantLocationService;
 
     /**
      * Creates a new restaurant with the provided details and image.
@@ -64,6 +123,7 @@ public class RestaurantServiceImpl implements RestaurantService {
      * @throws InvalidFileTypeException If the image file is of an invalid type or exceeds the size limit.
      * @throws ImageProcessingFailedException If an error occurs while processing the image file.
      */
+    @Transactional
     @Override
     public CommonResponseDto createRestaurant(CreateRestaurantDetailRequestDto createRestaurantRequestDTO,
                                               MultipartFile multipartFile) {
@@ -76,11 +136,8 @@ public class RestaurantServiceImpl implements RestaurantService {
             throw new ConflictException(Constants.RESTAURANT_NAME_ALREADY_EXISTS);
         }
 
-        UserResponseDto userResponseDto;
-
-        try {
-            userResponseDto = userFeignClient.getUserById(createRestaurantRequestDTO.getUserId());
-        } catch (NotFoundException e) {
+        UserResponseDto userResponseDto = userCache.getUser(createRestaurantRequestDTO.getUserId());
+        if (userResponseDto == null) {
             LOGGER.error("User not found: {}", createRestaurantRequestDTO.getUserId());
             throw new NotFoundException(Constants.USER_NOT_FOUND);
         }
@@ -93,37 +150,25 @@ public class RestaurantServiceImpl implements RestaurantService {
         RestaurantDetail restaurant = new RestaurantDetail();
 
         if (multipartFile != null && !multipartFile.isEmpty()) {
-            String contentType = multipartFile.getContentType();
-            if (contentType == null
-                    || !(contentType.equals("image/jpeg")
-                    || contentType.equals("image/jpg")
-                    || contentType.equals("image/png"))) {
-                LOGGER.error("Invalid file type: {}", contentType);
-                throw new InvalidFileTypeException(Constants.INVALID_FILE);
-            }
-
-            if (multipartFile.getSize() > 20 * 1024 * 1024) {
-                LOGGER.error("File size exceeds the 20 MB limit. File size: {} bytes", multipartFile.getSize());
-                throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE);
-            }
-
-            try {
-                restaurant.setImageData(multipartFile.getBytes());
-            } catch (IOException e) {
-                LOGGER.error("Error processing image file: {}", e.getMessage());
-                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
-            }
+            restaurant.setImageHash(imageService.saveImage(multipartFile, MAX_CREATE_IMAGE_SIZE));
         }
 
         restaurant.setAddress(createRestaurantRequestDTO.getAddress());
         restaurant.setRestaurantName(name);
         restaurant.setContactNo(createRestaurantRequestDTO.getContactInformation());
         restaurant.setDescription(createRestaurantRequestDTO.getDescription());
-        restaurant.setOpen(false);
+        restaurant.setOpen(Boolean.TRUE.equals(
+                openingHoursService.isOpenNow(createRestaurantRequestDTO.getOpeningHours())));
         restaurant.setOpeningHours(createRestaurantRequestDTO.getOpeningHours());
         restaurant.setOwnerId(createRestaurantRequestDTO.getUserId());
+        restaurantLocationService.locate(restaurant, createRestaurantRequestDTO.getLatitude(),
+                createRestaurantRequestDTO.getLongitude());
 
         restaurantRepository.save(restaurant);
+        searchSuggestionService.nameAdded(SuggestionType.RESTAURANT, name);
+        openingHoursService.hoursChanged(restaurant.getId(), restaurant.getOpeningHours());
+        restaurantLocationService.locationChanged(restaurant.getId(), restaurant.getLatitude(),
+                restaurant.getLongitude());
         LOGGER.info("Restaurant created successfully: {}", restaurant.getRestaurantName());
 
         CommonResponseDto response = new CommonResponseDto();
@@ -145,6 +190,7 @@ public class RestaurantServiceImpl implements RestaurantService {
      * @throws ImageProcessingFailedException If an error occurs while processing the image file.
      */
 
+    @Transactional
     @Override
     public CommonResponseDto updateRestaurant(int id,
                                               RestaurantDetailUpdateRequestDto restaurantUpdateRequestDTO,
@@ -165,35 +211,48 @@ public class RestaurantServiceImpl implements RestaurantService {
             throw new ConflictException(Constants.RESTAURANT_NAME_ALREADY_EXISTS);
         }
 
+        String previousName = restaurant.getRestaurantName();
+        boolean renamed = !previousName.equals(name);
+        String openingHours = restaurantUpdateRequestDTO.getOpeningHours();
+        boolean hoursChanged = !Objects.equals(restaurant.getOpeningHours(), openingHours);
+        Double latitude = restaurantUpdateRequestDTO.getLatitude();
+        Double longitude = restaurantUpdateRequestDTO.getLongitude();
+        boolean relocated = latitude != null && longitude != null
+                || !Objects.equals(restaurant.getAddress(), restaurantUpdateRequestDTO.getAddress());
         restaurant.setRestaurantName(restaurantUpdateRequestDTO.getRestaurantName());
         restaurant.setAddress(restaurantUpdateRequestDTO.getAddress());
-        restaurant.setOpeningHours(restaurantUpdateRequestDTO.getOpeningHours());
+        if (relocated) {
+            restaurantLocationService.locate(restaurant, latitude, longitude);
+        }
+        restaurant.setOpeningHours(openingHours);
+        if (hoursChanged) {
+            Boolean openNow = openingHoursService.isOpenNow(openingHours);
+            if (openNow != null) {
+                restaurant.setOpen(openNow);
+            }
+        }
         restaurant.setContactNo(restaurantUpdateRequestDTO.getContactInformation());
         restaurant.setDescription(restaurantUpdateRequestDTO.getDescription());
 
+        String previousImageHash = null;
         if (multipartFile != null && !multipartFile.isEmpty()) {
-            String contentType = multipartFile.getContentType();
-            if (contentType == null
-                    || !(contentType.equals("image/jpeg")
-                    || contentType.equals("image/jpg")
-                    || contentType.equals("image/png"))) {
-                LOGGER.error("Invalid file type: {}", contentType);
-                throw new InvalidFileTypeException(Constants.INVALID_FILE);
-            }
-            if (multipartFile.getSize() > 10 * 1024 * 1024) {
-                LOGGER.error("File size exceeds the 10 MB limit. File size: {} bytes", multipartFile.getSize());
-                throw new InvalidFileTypeException(Constants.FILE_TOO_LARGE);
-            }
-
-            try {
-                restaurant.setImageData(multipartFile.getBytes());
-            } catch (IOException e) {
-                LOGGER.error("Error processing image file: {}", e.getMessage());
-                throw new ImageProcessingFailedException(Constants.PROCESSING_FAILED);
-            }
+            previousImageHash = restaurant.getImageHash();
+            restaurant.setImageHash(imageService.saveImage(multipartFile, MAX_UPDATE_IMAGE_SIZE));
         }
 
         restaurantRepository.save(restaurant);
+        if (renamed) {
+            // Menu items carry the restaurant name, so a rename changes every item of the menu.
+            menuItemRepository.updateMenuVersionByRestaurantId(id, menuVersions.next(id));
+            searchSuggestionService.nameChanged(SuggestionType.RESTAURANT, previousName, name);
+        }
+        if (hoursChanged) {
+            openingHoursService.hoursChanged(id, openingHours);
+        }
+        if (relocated) {
+            restaurantLocationService.locationChanged(id, restaurant.getLatitude(), restaurant.getLongitude());
+        }
+        imageService.releaseImage(previousImageHash);
         LOGGER.info("Restaurant updated successfully: {}", restaurant.getRestaurantName());
 
         CommonResponseDto message = new CommonResponseDto();
@@ -209,6 +268,7 @@ public class RestaurantServiceImpl implements RestaurantService {
      * @throws NotFoundException If the restaurant is not found.
      */
 
+    @Transactional
     @Override
     public CommonResponseDto deleteRestaurant(int id) {
         LOGGER.info("Deleting restaurant with id: {}", id);
@@ -220,6 +280,10 @@ public class RestaurantServiceImpl implements RestaurantService {
                 });
 
         restaurantRepository.delete(restaurant);
+        imageService.releaseImage(restaurant.getImageHash());
+        searchSuggestionService.nameRemoved(SuggestionType.RESTAURANT, restaurant.getRestaurantName());
+        openingHoursService.restaurantRemoved(id);
+        restaurantLocationService.restaurantRemoved(id);
         LOGGER.info("Restaurant deleted successfully: {}", restaurant.getRestaurantName());
 
         CommonResponseDto message = new CommonResponseDto();
@@ -251,6 +315,26 @@ public class RestaurantServiceImpl implements RestaurantService {
         return responseDTO;
     }
 
+    /**
+     * Fetches the image of a restaurant.
+     *
+     * @param id      The ID of the restaurant whose image is to be fetched.
+     * @param variant The requested size of the image.
+     * @return The image content of the restaurant.
+     * @throws NotFoundException If the restaurant does not exist or has no image.
+     */
+    @Override
+    public ImageResponseDto getRestaurantImage(int id, ImageVariant variant) {
+        LOGGER.info("Fetching image for restaurant id: {}", id);
+
+        String imageHash = restaurantRepository.findImageHashById(id)
+                .orElseThrow(() -> {
+                    LOGGER.error("No image found for restaurant: {}", id);
+                    return new NotFoundException(Constants.IMAGE_NOT_FOUND);
+                });
+        return imageService.getImage(imageHash, variant);
+    }
+
     /**
      * Converts a {@link RestaurantDetail} entity to a {@link RestaurantResponseDto} data transfer object.
      *
@@ -265,12 +349,18 @@ public class RestaurantServiceImpl implements RestaurantService {
         responseDTO.setContactNo(restaurant.getContactNo());
         responseDTO.setOpen(restaurant.getOpen());
         responseDTO.setOpeningHours(restaurant.getOpeningHours());
-        responseDTO.setImageUrl(restaurant.getImageData());
+        if (restaurant.getImageHash() != null) {
+            responseDTO.setImageUrl(Constants.IMAGE_URL_PREFIX + restaurant.getImageHash());
+            responseDTO.setImageHash(restaurant.getImageHash());
+        }
         responseDTO.setOwnerId(restaurant.getOwnerId());
+        responseDTO.setLatitude(restaurant.getLatitude());
+        responseDTO.setLongitude(restaurant.getLongitude());
         return responseDTO;
     }
     /**
-     * Updates the status (open/closed) of a restaurant.
+     * Updates the status (open/closed) of a restaurant. A restaurant whose opening hours are in a
+     * recognised format is switched back to them at its next opening or closing time.
      *
      * @param id The ID of the restaurant whose status is to be updated.
      * @return A {@link CommonResponseDto} object indicating the new status of the restaurant.
@@ -328,29 +418,101 @@ public class RestaurantServiceImpl implements RestaurantService {
         return responseDTOs;
     }
     /**
-     * Fetches all restaurants.
+     * Fetches a page of restaurants, in ascending ID order after a cursor.
      *
-     * @return A list of {@link RestaurantResponseDto} objects containing the details of all restaurants.
-     * @throws com.restaurant.RestaurantMicroservice.exception.FailedRequestException
-     * If there is a failure in fetching the restaurants.
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurants to return.
+     * @param open    Only restaurants with this open status, or null for any.
+     * @param ownerId Only restaurants of this owner, or null for any.
+     * @return A list of {@link RestaurantResponseDto} objects containing the details of the restaurants.
      */
+    @Override
+    public List<RestaurantResponseDto> getAllRestaurants(int afterId, int limit, Boolean open, Integer ownerId) {
+        int pageSize = Math.max(1, Math.min(limit, Constants.MAX_RESTAURANT_PAGE_SIZE));
+        LOGGER.info("Fetching {} restaurants after id: {} (open: {}, owner: {})", pageSize, afterId, open, ownerId);
+
+        List<RestaurantResponseDto> responseDTOs = restaurantRepository.findPageAfterId(
+                afterId, open, ownerId, PageRequest.of(0, pageSize));
+        responseDTOs.forEach(RestaurantServiceImpl::completeRestaurantResponse);
 
+        LOGGER.info("Fetched {} restaurants", responseDTOs.size());
+        return responseDTOs;
+    }
+
+    /**
+     * Fetches a page of the restaurants whose opening hours are open at a time, in ascending ID
+     * order after a cursor. The open restaurants are found in the opening hours index and read by
+     * ID in one query.
+     *
+     * @param at      The local time, or null for now.
+     * @param afterId The ID of the last restaurant of the previous page; 0 for the first page.
+     * @param limit   The maximum number of restaurants to return.
+     * @return A list of {@link RestaurantResponseDto} objects containing the details of the restaurants.
+     */
     @Override
-    public List<RestaurantResponseDto> getAllRestaurants() {
-        LOGGER.info("Fetching all restaurants");
+    public List<RestaurantResponseDto> getRestaurantsOpenAt(LocalDateTime at, int afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, Constants.MAX_RESTAURANT_PAGE_SIZE));
+        LOGGER.info("Fetching {} restaurants open at {} after id: {}", pageSize, at != null ? at : "now", afterId);
 
-        try {
-            List<RestaurantDetail> restaurants = restaurantRepository.findAll();
+        List<Integer> ids = openingHoursService.findRestaurantsOpenAt(at, afterId, pageSize);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<RestaurantResponseDto> responseDTOs = restaurantRepository.findRestaurantsByIdIn(ids);
+        responseDTOs.forEach(RestaurantServiceImpl::completeRestaurantResponse);
 
-            List<RestaurantResponseDto> responseDTOs = restaurants.stream()
-                    .map(this::convertToRestaurantResponseDTO)
-                    .collect(Collectors.toList());
+        LOGGER.info("Fetched {} open restaurants", responseDTOs.size());
+        return responseDTOs;
+    }
 
-            LOGGER.info("Fetched {} restaurants", responseDTOs.size());
-            return responseDTOs;
-        } catch (FailedRequestException e) {
-            LOGGER.error("Failed to fetch all restaurants");
-            throw new FailedRequestException(Constants.UNABLE_TO_FETCH_ALL_RESTAURANT);
+    /**
+     * Fetches the restaurants nearest to a location, nearest first, with their distance. The
+     * nearest restaurants are found in the location index and read by ID in one query.
+     *
+     * @param latitude  The latitude of the location in degrees.
+     * @param longitude The longitude of the location in degrees.
+     * @param radiusKm  The greatest distance in kilometres.
+     * @param limit     The maximum number of restaurants to return.
+     * @return A list of {@link RestaurantResponseDto} objects containing the details of the restaurants.
+     */
+    @Override
+    public List<RestaurantResponseDto> getNearbyRestaurants(double latitude, double longitude, double radiusKm,
+                                                            int limit) {
+        double radius = Math.max(0, Math.min(radiusKm, Constants.MAX_NEARBY_RADIUS_KM));
+        int count = Math.max(1, Math.min(limit, Constants.MAX_RESTAURANT_PAGE_SIZE));
+        LOGGER.info("Fetching {} restaurants within {} km of {}, {}", count, radius, latitude, longitude);
+
+        Map<Integer, Double> distances = restaurantLocationService.findNearestRestaurants(latitude, longitude,
+                radius, count);
+        if (distances.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, RestaurantResponseDto> restaurantsById = new HashMap<>();
+        for (RestaurantResponseDto restaurant : restaurantRepository.findRestaurantsByIdIn(distances.keySet())) {
+            restaurantsById.put(restaurant.getId(), restaurant);
+        }
+        List<RestaurantResponseDto> responseDTOs = new ArrayList<>(restaurantsById.size());
+        for (Map.Entry<Integer, Double> distance : distances.entrySet()) {
+            RestaurantResponseDto restaurant = restaurantsById.get(distance.getKey());
+            if (restaurant != null) {
+                restaurant.setDistanceKm(Math.round(distance.getValue() * 1000) / 1000.0);
+                completeRestaurantResponse(restaurant);
+                responseDTOs.add(restaurant);
+            }
+        }
+
+        LOGGER.info("Fetched {} nearby restaurants", responseDTOs.size());
+        return responseDTOs;
+    }
+
+    /**
+     * Fills in the image URL of a restaurant projection, which is derived from the image hash.
+     *
+     * @param responseDTO The restaurant read from the database.
+     */
+    private static void completeRestaurantResponse(RestaurantResponseDto responseDTO) {
+        if (responseDTO.getImageHash() != null) {
+            responseDTO.setImageUrl(Constants.IMAGE_URL_PREFIX + responseDTO.getImageHash());
         }
     }
 }
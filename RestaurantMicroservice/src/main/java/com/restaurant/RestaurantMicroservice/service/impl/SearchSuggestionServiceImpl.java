@@ -0,0 +1,175 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of the {@link SearchSuggestionService} interface, backed by an in-memory
+ * {@link SuggestionTrie}.
+ * <p>
+ * The names are loaded once the application is ready and kept current by the restaurant and menu
+ * item services, which report the names they add, remove and rename after their transaction
+ * commits. A listing changed while the load runs may be counted twice or not at all; this only
+ * shifts the ranking of that name slightly until the next restart.
+ * </p>
+ */
+@Service
+public class SearchSuggestionServiceImpl implements SearchSuggestionService {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchSuggestionServiceImpl.class);
+
+    /**
+     * Number of restaurants or menu items read per query when loading the names.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Repository for reading restaurants.
+     */
+    private final RestaurantRepository restaurantRepository;
+
+    /**
+     * Repository for reading menu items.
+     */
+    private final MenuItemRepository menuItemRepository;
+
+    /**
+     * The suggestion index.
+     */
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    /**
+     * Constructs a {@link SearchSuggestionServiceImpl}.
+     *
+     * @param restaurantRepository The repository for restaurant entities.
+     * @param menuItemRepository   The repository for menu item entities.
+     */
+    @Autowired
+    public SearchSuggestionServiceImpl(RestaurantRepository restaurantRepository,
+                                       MenuItemRepository menuItemRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    /**
+     * Suggests the most popular restaurant and dish names starting with the typed text.
+     *
+     * @param prefix The typed text.
+     * @param limit  The maximum number of suggestions, capped at {@link SuggestionTrie#MAX_SUGGESTIONS}.
+     * @return The suggestions, best first.
+     */
+    @Override
+    public List<SuggestionResponseDto> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.max(1, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Counts a listing of a name once the current transaction commits.
+     *
+     * @param type The kind of name.
+     * @param name The name.
+     */
+    @Override
+    public void nameAdded(SuggestionType type, String name) {
+        afterCommit(() -> trie.add(type, name));
+    }
+
+    /**
+     * Uncounts a listing of a name once the current transaction commits.
+     *
+     * @param type The kind of name.
+     * @param name The name.
+     */
+    @Override
+    public void nameRemoved(SuggestionType type, String name) {
+        afterCommit(() -> trie.remove(type, name));
+    }
+
+    /**
+     * Moves a listing from its previous name to its new one once the current transaction commits.
+     * Names that normalize alike share a suggestion, so changing only their case or spacing is
+     * not a move.
+     *
+     * @param type         The kind of name.
+     * @param previousName The name before the change.
+     * @param name         The name after the change.
+     */
+    @Override
+    public void nameChanged(SuggestionType type, String previousName, String name) {
+        if (MenuTextAnalyzer.normalize(previousName).equals(MenuTextAnalyzer.normalize(name))) {
+            return;
+        }
+        afterCommit(() -> {
+            trie.remove(type, previousName);
+            trie.add(type, name);
+        });
+    }
+
+    /**
+     * Loads every restaurant and dish name, in pages ordered by ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuildSuggestions() {
+        long start = System.nanoTime();
+        int afterId = 0;
+        List<RestaurantResponseDto> restaurants;
+        do {
+            restaurants = restaurantRepository.findPageAfterId(afterId, null, null,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (RestaurantResponseDto restaurant : restaurants) {
+                trie.add(SuggestionType.RESTAURANT, restaurant.getRestaurantName());
+            }
+            if (!restaurants.isEmpty()) {
+                afterId = restaurants.get(restaurants.size() - 1).getId();
+            }
+        } while (restaurants.size() == LOAD_BATCH_SIZE);
+
+        afterId = 0;
+        List<MenuItemResponseDto> menuItems;
+        do {
+            menuItems = menuItemRepository.findMenuPageAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (MenuItemResponseDto menuItem : menuItems) {
+                trie.add(SuggestionType.DISH, menuItem.getFoodName());
+            }
+            if (!menuItems.isEmpty()) {
+                afterId = menuItems.get(menuItems.size() - 1).getId();
+            }
+        } while (menuItems.size() == LOAD_BATCH_SIZE);
+        LOGGER.info("Loaded {} suggestion names in {} ms", trie.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs a suggestion update once the current transaction commits, or right away if there is
+     * none. A failed update is logged rather than failing the request whose change already
+     * committed.
+     *
+     * @param update The suggestion update.
+     */
+    private void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Error updating the search suggestions: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,406 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index of restaurant and dish names for search box suggestions.
+ * <p>
+ * Names are normalized by {@link MenuTextAnalyzer#normalize(String)} and stored in a radix tree
+ * under the full name and under every later word of it, so "biry" suggests "Chicken Biryani".
+ * Every node caches the most popular names below it, which makes a lookup a walk down the typed
+ * prefix followed by a copy of the cached list, independent of how many names match.
+ * </p>
+ * <p>
+ * A name is popular in proportion to how many listings carry it: a dish offered by many
+ * restaurants ranks above one offered by a single restaurant. Ties go to the shorter name. Adding
+ * or removing a listing updates the cached lists along the paths of the name only. Lookups share
+ * a read lock and changes take the write lock.
+ * </p>
+ */
+final class SuggestionTrie {
+
+    /**
+     * The number of suggestions cached per node, and so the most a lookup returns.
+     */
+    static final int MAX_SUGGESTIONS = 10;
+
+    /**
+     * Orders names best first: more listings, then shorter, then alphabetically.
+     */
+    private static final Comparator<Name> RANKING = Comparator.comparingInt((Name name) -> -name.listings)
+            .thenComparingInt(name -> name.key.length())
+            .thenComparing(name -> name.key)
+            .thenComparing(name -> name.type);
+
+    private static final Name[] NO_NAMES = new Name[0];
+
+    /**
+     * The root of the radix tree, with an empty label.
+     */
+    private final Node root = new Node("");
+
+    /**
+     * Indexed names by type and normalized name.
+     */
+    private final Map<String, Name> names = new HashMap<>();
+
+    /**
+     * Guards the tree and the names.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Counts a listing of a name, adding the name if it is new.
+     *
+     * @param type The kind of name.
+     * @param text The name as listed.
+     */
+    void add(SuggestionType type, String text) {
+        String key = MenuTextAnalyzer.normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Name name = names.get(type + ":" + key);
+            if (name == null) {
+                name = new Name(text, key, type);
+                names.put(type + ":" + key, name);
+                name.listings = 1;
+                for (String suffix : suffixes(key)) {
+                    insert(suffix, name);
+                }
+            } else {
+                name.listings++;
+                for (String suffix : suffixes(key)) {
+                    for (Node node : path(suffix)) {
+                        offer(node, name);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Uncounts a listing of a name, removing the name once no listing carries it.
+     *
+     * @param type The kind of name.
+     * @param text The name as listed.
+     */
+    void remove(SuggestionType type, String text) {
+        String key = MenuTextAnalyzer.normalize(text);
+        lock.writeLock().lock();
+        try {
+            Name name = names.get(type + ":" + key);
+            if (name == null) {
+                return;
+            }
+            name.listings--;
+            if (name.listings == 0) {
+                names.remove(type + ":" + key);
+            }
+            for (String suffix : suffixes(key)) {
+                List<Node> path = path(suffix);
+                if (name.listings == 0) {
+                    detach(path, name);
+                }
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    if (contains(path.get(i).top, name)) {
+                        recompute(path.get(i));
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the most popular names starting with a prefix, or with a word starting with it.
+     *
+     * @param prefix The typed text.
+     * @param limit  The maximum number of suggestions, at most {@link #MAX_SUGGESTIONS}.
+     * @return The suggestions, best first.
+     */
+    List<SuggestionResponseDto> suggest(String prefix, int limit) {
+        String rest = MenuTextAnalyzer.normalize(prefix);
+        if (rest.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            while (!rest.isEmpty()) {
+                Node child = node.child(rest.charAt(0));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                if (rest.length() <= child.label.length()) {
+                    return child.label.startsWith(rest) ? toResponse(child.top, limit) : Collections.emptyList();
+                }
+                if (!rest.startsWith(child.label)) {
+                    return Collections.emptyList();
+                }
+                rest = rest.substring(child.label.length());
+                node = child;
+            }
+            return toResponse(node.top, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct names.
+     *
+     * @return The name count.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a name under a key, splitting edges as needed, and offers it to the nodes on the way.
+     */
+    private void insert(String key, Name name) {
+        Node node = root;
+        String rest = key;
+        offer(node, name);
+        while (true) {
+            if (rest.isEmpty()) {
+                node.ends = append(node.ends, name);
+                return;
+            }
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                Node leaf = new Node(rest);
+                leaf.ends = new Name[]{name};
+                leaf.top = new Name[]{name};
+                node.addChild(leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                split.top = child.top.clone();
+                node.removeChild(child);
+                child.label = child.label.substring(common);
+                split.addChild(child);
+                node.addChild(split);
+                child = split;
+            }
+            offer(child, name);
+            rest = rest.substring(common);
+            node = child;
+        }
+    }
+
+    /**
+     * Returns the nodes from the root down to the node a key ends at, inclusive.
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+        while (!rest.isEmpty()) {
+            node = node.child(rest.charAt(0));
+            if (node == null || !rest.startsWith(node.label)) {
+                break;
+            }
+            path.add(node);
+            rest = rest.substring(node.label.length());
+        }
+        return path;
+    }
+
+    /**
+     * Removes a name from the node its key ends at, and drops the nodes left empty.
+     */
+    private static void detach(List<Node> path, Name name) {
+        Node node = path.get(path.size() - 1);
+        node.ends = without(node.ends, name);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.ends.length > 0 || current.children.length > 0) {
+                return;
+            }
+            path.get(i - 1).removeChild(current);
+            path.remove(i);
+        }
+    }
+
+    /**
+     * Puts a name whose popularity rose into the cached list of a node, if it ranks high enough.
+     */
+    private static void offer(Node node, Name name) {
+        Name[] top = contains(node.top, name) ? node.top.clone() : append(node.top, name);
+        Arrays.sort(top, RANKING);
+        node.top = top.length > MAX_SUGGESTIONS ? Arrays.copyOf(top, MAX_SUGGESTIONS) : top;
+    }
+
+    /**
+     * Rebuilds the cached list of a node from the names ending at it and its children's lists.
+     */
+    private static void recompute(Node node) {
+        Set<Name> candidates = new LinkedHashSet<>(Arrays.asList(node.ends));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        Name[] top = candidates.toArray(NO_NAMES);
+        Arrays.sort(top, RANKING);
+        node.top = top.length > MAX_SUGGESTIONS ? Arrays.copyOf(top, MAX_SUGGESTIONS) : top;
+    }
+
+    /**
+     * Returns the key and every suffix of it that starts a word.
+     */
+    private static Set<String> suffixes(String key) {
+        Set<String> suffixes = new LinkedHashSet<>();
+        suffixes.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            suffixes.add(key.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    private static List<SuggestionResponseDto> toResponse(Name[] top, int limit) {
+        int count = Math.min(top.length, limit);
+        List<SuggestionResponseDto> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(new SuggestionResponseDto(top[i].text, top[i].type));
+        }
+        return suggestions;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contains(Name[] names, Name name) {
+        for (Name candidate : names) {
+            if (candidate == name) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Name[] append(Name[] names, Name name) {
+        Name[] appended = Arrays.copyOf(names, names.length + 1);
+        appended[names.length] = name;
+        return appended;
+    }
+
+    private static Name[] without(Name[] names, Name name) {
+        List<Name> kept = new ArrayList<>(Arrays.asList(names));
+        kept.remove(name);
+        return kept.toArray(NO_NAMES);
+    }
+
+    /**
+     * A distinct name of a given type and the number of listings carrying it.
+     */
+    private static final class Name {
+
+        private final String text;
+
+        private final String key;
+
+        private final SuggestionType type;
+
+        private int listings;
+
+        Name(String text, String key, SuggestionType type) {
+            this.text = text;
+            this.key = key;
+            this.type = type;
+        }
+    }
+
+    /**
+     * A radix tree node. Children are kept sorted by the first character of their label.
+     */
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private static final char[] NO_KEYS = new char[0];
+
+        private String label;
+
+        private char[] keys = NO_KEYS;
+
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * Names whose key ends at this node.
+         */
+        private Name[] ends = NO_NAMES;
+
+        /**
+         * The most popular names in this subtree, best first.
+         */
+        private Name[] top = NO_NAMES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = Arrays.binarySearch(keys, first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            char first = child.label.charAt(0);
+            int index = -Arrays.binarySearch(keys, first) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = first;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(Node child) {
+            int index = Arrays.binarySearch(keys, child.label.charAt(0));
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of keyed one-shot timers.
+ * <p>
+ * Time is cut into ticks and the wheel has a fixed number of slots; a timer due at tick {@code d}
+ * sits in slot {@code d mod slots}, and timers further away than one turn of the wheel share the
+ * slot with nearer ones and are skipped until their tick comes. Scheduling and cancelling cost
+ * O(1) whatever the number of timers, and advancing the wheel by one tick only looks at the
+ * timers of one slot. Each key has at most one timer; scheduling a key again replaces its timer.
+ * Not thread-safe.
+ * </p>
+ */
+final class TimingWheel {
+
+    private final long tickMillis;
+
+    private final int mask;
+
+    /**
+     * The first timer of each slot; each slot is a doubly linked list.
+     */
+    private final Timer[] slots;
+
+    private final Map<Integer, Timer> timers = new HashMap<>();
+
+    /**
+     * The last tick whose timers were expired.
+     */
+    private long currentTick;
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param slotCount   The number of slots, a power of two.
+     * @param tickMillis  The length of a tick in milliseconds.
+     * @param startMillis The current time in epoch milliseconds.
+     */
+    TimingWheel(int slotCount, long tickMillis, long startMillis) {
+        if (Integer.bitCount(slotCount) != 1 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Slot count must be a power of two and tick positive");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slotCount - 1;
+        this.slots = new Timer[slotCount];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the timer of a key, replacing any it had. The timer expires on the first advance
+     * to or past its deadline, and never before it.
+     *
+     * @param key            The key.
+     * @param deadlineMillis The deadline in epoch milliseconds.
+     */
+    void schedule(int key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        Timer timer = new Timer(key, deadlineTick);
+        int slot = (int) (deadlineTick & mask);
+        timer.next = slots[slot];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        slots[slot] = timer;
+        timers.put(key, timer);
+    }
+
+    /**
+     * Cancels the timer of a key, if it has one.
+     *
+     * @param key The key.
+     */
+    void cancel(int key) {
+        Timer timer = timers.remove(key);
+        if (timer != null) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * Advances the wheel to a time and expires the timers due by then.
+     *
+     * @param nowMillis The current time in epoch milliseconds.
+     * @return The keys of the expired timers, earliest deadline first.
+     */
+    List<Integer> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Timer> expired = new ArrayList<>();
+        if (targetTick - currentTick >= slots.length) {
+            // The wheel turned at least once since the last advance: every slot is due.
+            for (int slot = 0; slot < slots.length; slot++) {
+                expire(slot, targetTick, expired);
+            }
+            expired.sort((a, b) -> Long.compare(a.deadlineTick, b.deadlineTick));
+        } else {
+            for (long tick = currentTick + 1; tick <= targetTick; tick++) {
+                expire((int) (tick & mask), targetTick, expired);
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        List<Integer> keys = new ArrayList<>(expired.size());
+        for (Timer timer : expired) {
+            keys.add(timer.key);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the number of pending timers.
+     *
+     * @return The timer count.
+     */
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the timers of a slot that are due by a tick to a list.
+     */
+    private void expire(int slot, long targetTick, List<Timer> expired) {
+        Timer timer = slots[slot];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.deadlineTick <= targetTick) {
+                unlink(timer);
+                timers.remove(timer.key);
+                expired.add(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[(int) (timer.deadlineTick & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    /**
+     * A pending timer.
+     */
+    private static final class Timer {
+
+        private final int key;
+
+        private final long deadlineTick;
+
+        private Timer previous;
+
+        private Timer next;
+
+        Timer(int key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.dtos.UserResponseDto;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the users recently looked up from the user service in memory, so that checking the role
+ * of a user does not cost a call to the user service on every request.
+ * <p>
+ * Users are kept for a fixed time after they were loaded, and users the user service does not
+ * know are remembered too, for a shorter time. The least recently used users are evicted when the
+ * cache exceeds its entry count. Concurrent misses for the same user share a single call, and a
+ * failed call is not cached: every caller waiting on it gets the error.
+ * </p>
+ * <p>
+ * A user whose role changes is served from the cache until the entry expires, unless the user
+ * service reports the change through {@link #invalidate(int)}. The cached users are shared between
+ * callers and must not be modified.
+ * </p>
+ */
+@Service
+public class UserCache implements MeterBinder {
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserCache.class);
+
+    /**
+     * Feign client for the user service.
+     */
+    private final UserFeignClient userFeignClient;
+
+    /**
+     * The maximum number of cached users.
+     */
+    private final int maxEntries;
+
+    /**
+     * How long a user is kept, in milliseconds.
+     */
+    private final long ttlMillis;
+
+    /**
+     * How long an unknown user is remembered, in milliseconds.
+     */
+    private final long negativeTtlMillis;
+
+    /**
+     * Clock the entries expire by.
+     */
+    private final Clock clock;
+
+    /**
+     * Cached users by user ID, in least recently used order. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The calls to the user service in progress, by user ID.
+     */
+    private final ConcurrentMap<Integer, CompletableFuture<Entry>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to load the user.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of calls made to the user service.
+     */
+    private final LongAdder loadCount = new LongAdder();
+
+    /**
+     * The number of users evicted to stay within the entry count.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a {@link UserCache}. The Feign client is made on first use: it pulls in the meter
+     * registry, which binds this cache and so must not be made while the cache is.
+     *
+     * @param userFeignClient    The Feign client for the user service.
+     * @param maxEntries         The maximum number of cached users.
+     * @param ttlSeconds         How long a user is kept, in seconds.
+     * @param negativeTtlSeconds How long an unknown user is remembered, in seconds.
+     */
+    @Autowired
+    public UserCache(@Lazy UserFeignClient userFeignClient,
+                     @Value("${user.cache.max-entries:10000}") int maxEntries,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${user.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this(userFeignClient, maxEntries, ttlSeconds, negativeTtlSeconds, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a {@link UserCache} reading the time from a given clock.
+     *
+     * @param userFeignClient    The Feign client for the user service.
+     * @param maxEntries         The maximum number of cached users.
+     * @param ttlSeconds         How long a user is kept, in seconds.
+     * @param negativeTtlSeconds How long an unknown user is remembered, in seconds.
+     * @param clock              The clock the entries expire by.
+     */
+    UserCache(UserFeignClient userFeignClient, int maxEntries, long ttlSeconds, long negativeTtlSeconds,
+              Clock clock) {
+        this.userFeignClient = userFeignClient;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.negativeTtlMillis = negativeTtlSeconds * 1000;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a user, loading it from the user service on a miss.
+     *
+     * @param userId The user ID.
+     * @return The user, or null if the user service does not know it.
+     * @throws FeignException If the user service cannot be reached or fails.
+     */
+    public UserResponseDto getUser(int userId) {
+        Entry entry = get(userId);
+        if (entry == null) {
+            entry = load(userId);
+        }
+        return entry.user;
+    }
+
+    /**
+     * Drops a user from the cache, so that the next lookup loads it again. A call in progress for
+     * the user is left to finish, but its result is not cached.
+     *
+     * @param userId The user ID.
+     */
+    public void invalidate(int userId) {
+        synchronized (this) {
+            loads.remove(userId);
+            entries.remove(userId);
+        }
+        LOGGER.info("Dropped user {} from the user cache", userId);
+    }
+
+    /**
+     * Looks up a cached user. An expired entry is dropped.
+     *
+     * @param userId The user ID.
+     * @return The entry, or null on a miss.
+     */
+    synchronized Entry get(int userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > clock.millis()) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        if (entry != null) {
+            entries.remove(userId);
+        }
+        return null;
+    }
+
+    /**
+     * Loads a user from the user service, or waits for the call another thread is making for the
+     * same user.
+     *
+     * @param userId The user ID.
+     * @return The entry loaded.
+     */
+    private Entry load(int userId) {
+        CompletableFuture<Entry> load = new CompletableFuture<>();
+        CompletableFuture<Entry> running = loads.putIfAbsent(userId, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            Entry entry = fetch(userId);
+            synchronized (this) {
+                if (loads.remove(userId, load)) {
+                    put(userId, entry);
+                }
+            }
+            load.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            loads.remove(userId, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Calls the user service for a user.
+     *
+     * @param userId The user ID.
+     * @return The entry, with no user if the user service does not know it.
+     */
+    private Entry fetch(int userId) {
+        loadCount.increment();
+        UserResponseDto user;
+        try {
+            user = userFeignClient.getUserById(userId);
+        } catch (FeignException.NotFound | NotFoundException e) {
+            user = null;
+        }
+        return new Entry(user, clock.millis() + (user != null ? ttlMillis : negativeTtlMillis));
+    }
+
+    /**
+     * Caches a user, then evicts the least recently used users until the cache is within its
+     * entry count.
+     *
+     * @param userId The user ID.
+     * @param entry  The entry.
+     */
+    private synchronized void put(int userId, Entry entry) {
+        entries.put(userId, entry);
+        Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to load the user.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return The hit ratio, from 0 to 1; 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Gets the number of calls made to the user service. Misses that shared a call are not
+     * counted twice.
+     *
+     * @return The load count.
+     */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Gets the number of users evicted to stay within the entry count.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of cached users, expired ones included until they are looked up again.
+     *
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Publishes the cache statistics as {@code user.cache.*} metrics.
+     *
+     * @param registry The registry to publish to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("user.cache.gets", this, UserCache::getHitCount)
+                .tag("result", "hit")
+                .description("User lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("user.cache.gets", this, UserCache::getMissCount)
+                .tag("result", "miss")
+                .description("User lookups that loaded the user")
+                .register(registry);
+        Gauge.builder("user.cache.hit.ratio", this, UserCache::getHitRatio)
+                .description("Share of user lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("user.cache.loads", this, UserCache::getLoadCount)
+                .description("Calls made to the user service")
+                .register(registry);
+        FunctionCounter.builder("user.cache.evictions", this, UserCache::getEvictionCount)
+                .description("Users evicted to stay within the cache limit")
+                .register(registry);
+        Gauge.builder("user.cache.size", this, UserCache::size)
+                .description("Number of cached users")
+                .register(registry);
+    }
+
+    /**
+     * A cached lookup: the user, or none if the user service does not know it.
+     */
+    static final class Entry {
+
+        private final UserResponseDto user;
+
+        private final long expiresAt;
+
+        Entry(UserResponseDto user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The opening hours of a restaurant over one week, parsed from the free-form opening hours text.
+ * <p>
+ * Times are minutes of the week, counted from Monday 00:00, and the schedule is a sorted list of
+ * disjoint open intervals within the week. Hours running past midnight belong to the day they
+ * start on, and hours running past Sunday midnight continue on Monday morning.
+ * </p>
+ * <p>
+ * The text is a list of rules separated by semicolons or new lines. A rule names some days and
+ * either the time ranges of those days or "closed"; a rule without days applies to every day,
+ * and a later rule replaces an earlier one for the days it names. For example:
+ * </p>
+ * <pre>
+ * 09:00-22:00
+ * Mon-Fri 11:00-15:00, 18:00-23:30; Sat, Sun 10am-1am
+ * Daily 9-21; Tuesday closed
+ * 24/7
+ * </pre>
+ */
+final class WeeklySchedule {
+
+    /**
+     * Number of minutes in a day.
+     */
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Number of minutes in a week.
+     */
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final String[] DAY_NAMES = {
+            "monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+
+    private static final String DAY = "(?:mon|tue|wed|thu|fri|sat|sun)[a-z]*\\.?";
+
+    private static final Pattern ALWAYS_OPEN = Pattern.compile("24\\s*[/x]\\s*7|(?:open\\s+)?24\\s*hours");
+
+    private static final Pattern DAYS_PREFIX = Pattern.compile(
+            "^(daily|every\\s*day|all\\s+days|" + DAY + "(?:\\s*-\\s*" + DAY + ")?(?:\\s*,\\s*" + DAY
+                    + "(?:\\s*-\\s*" + DAY + ")?)*)\\s*:?\\s*");
+
+    private static final Pattern TIME_RANGE = Pattern.compile(
+            "(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap]\\.?m\\.?)?\\s*-\\s*(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap]\\.?m\\.?)?");
+
+    /**
+     * Open intervals as start and end minute pairs, sorted and disjoint; ends are exclusive.
+     */
+    private final int[] intervals;
+
+    /**
+     * The minutes at which the schedule opens or closes, sorted.
+     */
+    private final int[] changes;
+
+    private WeeklySchedule(int[] intervals) {
+        this.intervals = intervals;
+        List<Integer> boundaries = new ArrayList<>();
+        boolean wrapsAround = intervals.length > 0 && intervals[0] == 0
+                && intervals[intervals.length - 1] == MINUTES_PER_WEEK;
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (intervals[i] != 0 || !wrapsAround) {
+                boundaries.add(intervals[i]);
+            }
+            if (intervals[i + 1] != MINUTES_PER_WEEK || !wrapsAround) {
+                boundaries.add(intervals[i + 1] % MINUTES_PER_WEEK);
+            }
+        }
+        Collections.sort(boundaries);
+        this.changes = boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Parses opening hours text.
+     *
+     * @param text The opening hours as entered by the restaurant.
+     * @return The schedule.
+     * @throws IllegalArgumentException If the text is not in a recognised format.
+     */
+    static WeeklySchedule parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("No opening hours");
+        }
+        String normalized = text.toLowerCase(Locale.ROOT)
+                .replace('–', '-')
+                .replace('—', '-')
+                .replaceAll("\\s+to\\s+", "-")
+                .trim();
+        if (ALWAYS_OPEN.matcher(normalized).matches()) {
+            return new WeeklySchedule(new int[]{0, MINUTES_PER_WEEK});
+        }
+
+        List<List<int[]>> ranges = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            ranges.add(Collections.emptyList());
+        }
+        for (String rule : normalized.split("[;\\n|]")) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            boolean[] days = new boolean[7];
+            Matcher prefix = DAYS_PREFIX.matcher(rule);
+            if (prefix.find()) {
+                parseDays(prefix.group(1), days);
+                rule = rule.substring(prefix.end());
+            } else {
+                Arrays.fill(days, true);
+            }
+            List<int[]> dayRanges = parseRanges(rule);
+            for (int day = 0; day < 7; day++) {
+                if (days[day]) {
+                    ranges.set(day, dayRanges);
+                }
+            }
+        }
+        return new WeeklySchedule(toIntervals(ranges));
+    }
+
+    /**
+     * Gets the minute of the week of a local time.
+     *
+     * @param time The local time.
+     * @return The minute, from 0 for Monday 00:00.
+     */
+    static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Checks whether the schedule is open at a minute of the week.
+     *
+     * @param minuteOfWeek The minute, from 0 for Monday 00:00.
+     * @return Whether the restaurant is open.
+     */
+    boolean isOpenAt(int minuteOfWeek) {
+        int index = Arrays.binarySearch(intervals, minuteOfWeek);
+        // Found: open if it is a start. Not found: open if it falls after a start.
+        return index >= 0 ? index % 2 == 0 : (-index - 1) % 2 == 1;
+    }
+
+    /**
+     * Gets the time until the schedule next opens or closes.
+     *
+     * @param minuteOfWeek The current minute, from 0 for Monday 00:00.
+     * @return The minutes until the next change, at least 1; -1 if the schedule is always open or
+     *         always closed.
+     */
+    int minutesUntilChange(int minuteOfWeek) {
+        if (changes.length == 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(changes, minuteOfWeek + 1);
+        int next = index >= 0 ? index : -index - 1;
+        return next < changes.length
+                ? changes[next] - minuteOfWeek
+                : changes[0] + MINUTES_PER_WEEK - minuteOfWeek;
+    }
+
+    /**
+     * Gets the open intervals.
+     *
+     * @return Start and end minute pairs, sorted and disjoint, with exclusive ends.
+     */
+    int[] intervals() {
+        return intervals.clone();
+    }
+
+    /**
+     * Marks the days named by a days prefix such as "mon-fri, sun" or "daily".
+     */
+    private static void parseDays(String text, boolean[] days) {
+        if (text.startsWith("daily") || text.startsWith("every") || text.startsWith("all")) {
+            Arrays.fill(days, true);
+            return;
+        }
+        for (String part : text.split(",")) {
+            String[] bounds = part.split("-");
+            int first = day(bounds[0]);
+            int last = bounds.length > 1 ? day(bounds[1]) : first;
+            for (int day = first; ; day = (day + 1) % 7) {
+                days[day] = true;
+                if (day == last) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int day(String text) {
+        String name = text.trim().replace(".", "");
+        for (int day = 0; day < DAY_NAMES.length; day++) {
+            if (name.length() >= 3 && DAY_NAMES[day].startsWith(name)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unrecognised day: " + text);
+    }
+
+    /**
+     * Parses the time ranges of a rule, such as "11:00-15:00, 18:00-23:30" or "closed", into start
+     * and end minutes from midnight of the day. An end before the start runs past midnight.
+     */
+    private static List<int[]> parseRanges(String text) {
+        if (text.equals("closed")) {
+            return Collections.emptyList();
+        }
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : text.split(",|&|\\band\\b")) {
+            Matcher range = TIME_RANGE.matcher(part.trim());
+            if (!range.matches()) {
+                throw new IllegalArgumentException("Unrecognised time range: " + part.trim());
+            }
+            int start = minuteOfDay(range.group(1), range.group(2), range.group(3));
+            int end = minuteOfDay(range.group(4), range.group(5), range.group(6));
+            if (start == MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("Opening time out of range: " + part.trim());
+            }
+            if (end <= start) {
+                end += MINUTES_PER_DAY;
+            }
+            ranges.add(new int[]{start, end});
+        }
+        return ranges;
+    }
+
+    private static int minuteOfDay(String hourText, String minuteText, String meridiem) {
+        int hour = Integer.parseInt(hourText);
+        int minute = minuteText == null ? 0 : Integer.parseInt(minuteText);
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) {
+                throw new IllegalArgumentException("Hour out of range: " + hour + " " + meridiem);
+            }
+            hour = hour % 12 + (meridiem.startsWith("p") ? 12 : 0);
+        }
+        if (minute > 59 || hour > 24 || hour == 24 && minute > 0) {
+            throw new IllegalArgumentException("Time out of range: " + hourText + ":" + minuteText);
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Lays the ranges of every day out on the week, wrapping past Sunday into Monday, and merges
+     * the overlapping and touching ones.
+     */
+    private static int[] toIntervals(List<List<int[]>> ranges) {
+        List<int[]> week = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            for (int[] range : ranges.get(day)) {
+                int start = day * MINUTES_PER_DAY + range[0];
+                int end = day * MINUTES_PER_DAY + range[1];
+                if (end > MINUTES_PER_WEEK) {
+                    week.add(new int[]{start, MINUTES_PER_WEEK});
+                    week.add(new int[]{0, end - MINUTES_PER_WEEK});
+                } else {
+                    week.add(new int[]{start, end});
+                }
+            }
+        }
+        week.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] interval : week) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval[0] <= last[1]) {
+                last[1] = Math.max(last[1], interval[1]);
+            } else {
+                merged.add(interval.clone());
+            }
+        }
+        int[] intervals = new int[merged.size() * 2];
+        for (int i = 0; i < merged.size(); i++) {
+            intervals[2 * i] = merged.get(i)[0];
+            intervals[2 * i + 1] = merged.get(i)[1];
+        }
+        return intervals;
+    }
+}
@@ -0,0 +1,124 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+class ImageControllerTest {
+
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @InjectMocks
+    private ImageController imageController;
+
+    @Mock
+    private ImageService imageService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = standaloneSetup(imageController).build();
+    }
+
+    @Test
+    void getImage_shouldReturnImageWithCachingHeaders() {
+        Resource content = new ByteArrayResource(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x00});
+        when(imageService.getImage("hash-1", ImageVariant.ORIGINAL))
+                .thenReturn(image(ImageVariant.ORIGINAL, content));
+
+        ResponseEntity<Resource> response = imageController.getImage("hash-1", "original");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        assertEquals("\"hash-1-original\"", response.getHeaders().getETag());
+        assertEquals(LAST_MODIFIED, response.getHeaders().getLastModified());
+        assertEquals("public, max-age=31536000, immutable", response.getHeaders().getCacheControl());
+        assertSame(content, response.getBody());
+        verify(imageService, times(1)).getImage("hash-1", ImageVariant.ORIGINAL);
+    }
+
+    @Test
+    void getImage_shouldRequestVariantBySizeParameter() {
+        when(imageService.getImage("hash-1", ImageVariant.THUMB))
+                .thenReturn(image(ImageVariant.THUMB, new ByteArrayResource(new byte[]{1})));
+
+        ResponseEntity<Resource> response = imageController.getImage("hash-1", "THUMB");
+
+        assertEquals("\"hash-1-thumb\"", response.getHeaders().getETag());
+        assertEquals("public, max-age=31536000, immutable", response.getHeaders().getCacheControl());
+        verify(imageService, times(1)).getImage("hash-1", ImageVariant.THUMB);
+    }
+
+    @Test
+    void getImage_pendingVariantShouldNotBeCachedAsImmutable() {
+        when(imageService.getImage("hash-1", ImageVariant.MEDIUM))
+                .thenReturn(image(ImageVariant.ORIGINAL, new ByteArrayResource(new byte[]{1})));
+
+        ResponseEntity<Resource> response = imageController.getImage("hash-1", "medium");
+
+        assertEquals("\"hash-1-original\"", response.getHeaders().getETag());
+        assertEquals("public, max-age=60", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getImage_matchingIfNoneMatchShouldReturnNotModified() throws Exception {
+        when(imageService.getImage("hash-1", ImageVariant.ORIGINAL))
+                .thenReturn(image(ImageVariant.ORIGINAL, new ByteArrayResource(new byte[]{1, 2, 3})));
+
+        mockMvc.perform(get("/api/images/hash-1").header(HttpHeaders.IF_NONE_MATCH, "\"hash-1-original\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"hash-1-original\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getImage_staleIfNoneMatchShouldReturnImage() throws Exception {
+        byte[] data = {1, 2, 3};
+        when(imageService.getImage("hash-1", ImageVariant.ORIGINAL))
+                .thenReturn(image(ImageVariant.ORIGINAL, new ByteArrayResource(data)));
+
+        mockMvc.perform(get("/api/images/hash-1").header(HttpHeaders.IF_NONE_MATCH, "\"hash-2-original\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void getImage_rangeShouldReturnPartialContent() throws Exception {
+        when(imageService.getImage("hash-1", ImageVariant.ORIGINAL))
+                .thenReturn(image(ImageVariant.ORIGINAL, new ByteArrayResource(new byte[]{1, 2, 3, 4, 5})));
+
+        mockMvc.perform(get("/api/images/hash-1").header(HttpHeaders.RANGE, "bytes=1-2"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1-2/5"))
+                .andExpect(content().bytes(new byte[]{2, 3}));
+    }
+
+    private static ImageResponseDto image(ImageVariant variant, Resource content) {
+        return new ImageResponseDto("hash-1", variant, "image/jpeg", content, LAST_MODIFIED);
+    }
+}
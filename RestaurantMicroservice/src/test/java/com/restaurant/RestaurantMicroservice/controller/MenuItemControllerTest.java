@@ -1,25 +1,36 @@
 package com.restaurant.RestaurantMicroservice.controller;
 
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemUpdateRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
 import com.restaurant.RestaurantMicroservice.service.MenuItemService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 
 import java.math.BigDecimal;
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -113,7 +124,8 @@ public class MenuItemControllerTest {
         menuItem.setDescription("Delicious test food");
         menuItem.setIsAvailable(true);
         menuItem.setPrice(new BigDecimal("9.99"));
-        menuItem.setImageData(new byte[]{1, 2, 3}); // Sample image data
+        menuItem.setImageUrl("/api/images/hash-1");
+        menuItem.setImageHash("hash-1");
 
         List<MenuItemResponseDto> responseDTOs = Collections.singletonList(menuItem);
 
@@ -129,8 +141,9 @@ public class MenuItemControllerTest {
                 "\"description\":\"Delicious test food\"," +
                 "\"isAvailable\":true," +
                 "\"price\":9.99," +
-                "\"imageData\":\"" + Base64.getEncoder().encodeToString(new byte[]{1, 2, 3}) + "\"" +
-                "}]"; // Encode image data to Base64
+                "\"imageUrl\":\"/api/images/hash-1\"," +
+                "\"imageHash\":\"hash-1\"" +
+                "}]";
 
         mockMvc.perform(get("/api/menuItems/menuItemsByCategory/1"))
                 .andExpect(status().isOk())
@@ -139,6 +152,148 @@ public class MenuItemControllerTest {
         verify(menuItemService, times(1)).getAllMenuItemsByCategoryId(1);
     }
 
+    @Test
+    public void testGetAllMenuItemsByRestaurantId_Success() throws Exception {
+        byte[] json = "[{\"id\":1,\"foodName\":\"Test Food\"}]".getBytes(StandardCharsets.UTF_8);
+
+        when(menuItemService.getMenuVersion(1)).thenReturn(3L);
+        when(menuItemService.getSerializedMenu(1, 3L)).thenReturn(new SerializedMenuDto(3L, json, new byte[]{1}));
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"menu-1-3\""))
+                .andExpect(header().string("X-Menu-Version", "3"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{\"id\":1,\"foodName\":\"Test Food\"}]"));
+
+        verify(menuItemService, times(1)).getSerializedMenu(1, 3L);
+    }
+
+    @Test
+    public void testGetAllMenuItemsByRestaurantId_Gzip() throws Exception {
+        byte[] gzip = {31, -117, 8, 0};
+
+        when(menuItemService.getMenuVersion(1)).thenReturn(3L);
+        when(menuItemService.getSerializedMenu(1, 3L)).thenReturn(new SerializedMenuDto(3L, new byte[]{'[', ']'}, gzip));
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1").header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzip));
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(MenuItemController.acceptsGzip("deflate, GZIP;q=0.8"));
+        assertFalse(MenuItemController.acceptsGzip("gzip;q=0"));
+        assertFalse(MenuItemController.acceptsGzip("identity"));
+        assertFalse(MenuItemController.acceptsGzip(null));
+    }
+
+    @Test
+    public void testGetAllMenuItemsByRestaurantId_NotModified() throws Exception {
+        when(menuItemService.getMenuVersion(1)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1").header("If-None-Match", "W/\"menu-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(menuItemService, never()).getSerializedMenu(anyInt(), anyLong());
+    }
+
+    @Test
+    public void testGetMenuChangesByRestaurantId_Success() throws Exception {
+        MenuItemResponseDto changed = new MenuItemResponseDto();
+        changed.setId(1);
+        changed.setFoodName("Test Food");
+
+        when(menuItemService.getMenuVersion(1)).thenReturn(5L);
+        when(menuItemService.getMenuChangesSince(1, 3L)).thenReturn(
+                new MenuDeltaResponseDto(5L, false, Collections.singletonList(changed), Collections.singletonList(2)));
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1")
+                        .param("sinceVersion", "3")
+                        .header("If-None-Match", "W/\"menu-1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"menu-1-5\""))
+                .andExpect(header().string("X-Menu-Version", "5"))
+                .andExpect(content().json("{\"version\":5,\"fullSync\":false,"
+                        + "\"changedItems\":[{\"id\":1,\"foodName\":\"Test Food\"}],"
+                        + "\"removedItemIds\":[2]}"));
+
+        verify(menuItemService, never()).getSerializedMenu(anyInt(), anyLong());
+    }
+
+    @Test
+    public void testGetFilteredMenuItemsByRestaurantId_Success() throws Exception {
+        MenuItemResponseDto item = new MenuItemResponseDto();
+        item.setId(4);
+        item.setPrice(BigDecimal.valueOf(150));
+
+        when(menuItemService.getFilteredMenuItemsByRestaurantId(1, true, new BigDecimal("100"), null,
+                Sort.Direction.DESC)).thenReturn(Collections.singletonList(item));
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1/filter")
+                        .param("available", "true")
+                        .param("minPrice", "100")
+                        .param("sort", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":4,\"price\":150}]"));
+    }
+
+    @Test
+    public void testGetFilteredMenuItemsByRestaurantId_Defaults() throws Exception {
+        when(menuItemService.getFilteredMenuItemsByRestaurantId(1, null, null, null, Sort.Direction.ASC))
+                .thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/menuItems/menuItemsByRestaurant/1/filter"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(menuItemService, times(1)).getFilteredMenuItemsByRestaurantId(1, null, null, null, Sort.Direction.ASC);
+    }
+
+    @Test
+    public void testGetMenuItemImage_Success() throws Exception {
+        byte[] data = {1, 2, 3};
+        when(menuItemService.getMenuItemImage(1, ImageVariant.ORIGINAL)).thenReturn(
+                new ImageResponseDto("hash-1", ImageVariant.ORIGINAL, "image/png", new ByteArrayResource(data), 0L));
+
+        mockMvc.perform(get("/api/menuItems/1/image"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string("ETag", "\"hash-1-original\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().bytes(data));
+
+        verify(menuItemService, times(1)).getMenuItemImage(1, ImageVariant.ORIGINAL);
+    }
+
+    @Test
+    public void testGetMenuItemImage_Thumbnail() throws Exception {
+        byte[] data = {4, 5};
+        when(menuItemService.getMenuItemImage(1, ImageVariant.THUMB)).thenReturn(
+                new ImageResponseDto("hash-1", ImageVariant.THUMB, "image/png", new ByteArrayResource(data), 0L));
+
+        mockMvc.perform(get("/api/menuItems/1/image").param("size", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+
+        verify(menuItemService, times(1)).getMenuItemImage(1, ImageVariant.THUMB);
+    }
+
+    @Test
+    public void testGetMenuItemImage_NotModified() throws Exception {
+        when(menuItemService.getMenuItemImage(1, ImageVariant.ORIGINAL)).thenReturn(
+                new ImageResponseDto("hash-1", ImageVariant.ORIGINAL, "image/png",
+                        new ByteArrayResource(new byte[]{1, 2, 3}), 0L));
+
+        mockMvc.perform(get("/api/menuItems/1/image").header("If-None-Match", "\"hash-1-original\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void testUpdateMenuItemStatus_Success() throws Exception {
         CommonResponseDto response = new CommonResponseDto("Menu item status updated successfully");
@@ -15,10 +15,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class RestaurantControllerTest {
@@ -103,13 +105,67 @@ class RestaurantControllerTest {
         restaurant.setRestaurantName("Test Restaurant");
         responseDtos.add(restaurant);
 
-        when(restaurantService.getAllRestaurants()).thenReturn(responseDtos);
+        when(restaurantService.getAllRestaurants(0, 50, null, null)).thenReturn(responseDtos);
 
-        ResponseEntity<List<RestaurantResponseDto>> response = restaurantController.getAllRestaurants();
+        ResponseEntity<List<RestaurantResponseDto>> response = restaurantController.getAllRestaurants(0, 50, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(responseDtos, response.getBody());
+        assertNull(response.getHeaders().getFirst("X-Next-Cursor"));
+        verify(restaurantService, times(1)).getAllRestaurants(0, 50, null, null);
+    }
+
+    @Test
+    void getAllRestaurants_fullPageShouldCarryNextCursor() {
+        List<RestaurantResponseDto> responseDtos = new ArrayList<>();
+        for (int id = 21; id <= 22; id++) {
+            RestaurantResponseDto restaurant = new RestaurantResponseDto();
+            restaurant.setId(id);
+            responseDtos.add(restaurant);
+        }
+
+        when(restaurantService.getAllRestaurants(20, 2, true, 7)).thenReturn(responseDtos);
+
+        ResponseEntity<List<RestaurantResponseDto>> response = restaurantController.getAllRestaurants(20, 2, true, 7);
+
+        assertEquals(responseDtos, response.getBody());
+        assertEquals("22", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void getRestaurantsOpenAt_fullPageShouldCarryNextCursor() {
+        LocalDateTime at = LocalDateTime.of(2026, 10, 18, 21, 30);
+        List<RestaurantResponseDto> responseDtos = new ArrayList<>();
+        for (int id = 4; id <= 5; id++) {
+            RestaurantResponseDto restaurant = new RestaurantResponseDto();
+            restaurant.setId(id);
+            responseDtos.add(restaurant);
+        }
+
+        when(restaurantService.getRestaurantsOpenAt(at, 3, 2)).thenReturn(responseDtos);
+
+        ResponseEntity<List<RestaurantResponseDto>> response = restaurantController.getRestaurantsOpenAt(at, 3, 2);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(responseDtos, response.getBody());
+        assertEquals("5", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void getNearbyRestaurants_shouldReturnNearestRestaurants() {
+        List<RestaurantResponseDto> responseDtos = new ArrayList<>();
+        RestaurantResponseDto restaurant = new RestaurantResponseDto();
+        restaurant.setId(7);
+        restaurant.setDistanceKm(0.25);
+        responseDtos.add(restaurant);
+
+        when(restaurantService.getNearbyRestaurants(12.97, 77.59, 5, 20)).thenReturn(responseDtos);
+
+        ResponseEntity<List<RestaurantResponseDto>> response =
+                restaurantController.getNearbyRestaurants(12.97, 77.59, 5, 20);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(responseDtos, response.getBody());
-        verify(restaurantService, times(1)).getAllRestaurants();
     }
 
     @Test
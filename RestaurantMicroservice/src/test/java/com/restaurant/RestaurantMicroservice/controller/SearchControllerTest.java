@@ -0,0 +1,119 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SearchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MenuSearchService menuSearchService;
+
+    @Mock
+    private SearchSuggestionService searchSuggestionService;
+
+    @InjectMocks
+    private SearchController searchController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(searchController).build();
+    }
+
+    @Test
+    void searchMenuItems_ReturnsMatches() throws Exception {
+        MenuItemResponseDto item = new MenuItemResponseDto(2, "Test Restaurant", "Mains", "Fried Rice",
+                "Wok tossed rice", true, BigDecimal.valueOf(120), null);
+        when(menuSearchService.searchMenuItems("fried rice", 5)).thenReturn(Collections.singletonList(item));
+
+        mockMvc.perform(get("/api/search/menuItems").param("q", "fried rice").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].foodName").value("Fried Rice"));
+    }
+
+    @Test
+    void searchMenuItems_UsesDefaultLimit() throws Exception {
+        when(menuSearchService.searchMenuItems("soup", 20)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/search/menuItems").param("q", "soup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(menuSearchService).searchMenuItems("soup", 20);
+    }
+
+    @Test
+    void searchMenuItems_WithoutQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/search/menuItems"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void findMenuItemsByPrice_ReturnsMatches() throws Exception {
+        MenuItemResponseDto item = new MenuItemResponseDto(2, "Test Restaurant", "Mains", "Fried Rice",
+                "Wok tossed rice", true, BigDecimal.valueOf(120), null);
+        when(menuSearchService.findMenuItemsByPrice(new BigDecimal("100"), new BigDecimal("200"), true,
+                Sort.Direction.DESC, 5)).thenReturn(Collections.singletonList(item));
+
+        mockMvc.perform(get("/api/search/menuItemsByPrice").param("minPrice", "100").param("maxPrice", "200")
+                        .param("available", "true").param("sort", "DESC").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].price").value(120));
+    }
+
+    @Test
+    void findMenuItemsByPrice_UsesDefaults() throws Exception {
+        when(menuSearchService.findMenuItemsByPrice(null, null, false, Sort.Direction.ASC, 20))
+                .thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/search/menuItemsByPrice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(menuSearchService).findMenuItemsByPrice(null, null, false, Sort.Direction.ASC, 20);
+    }
+
+    @Test
+    void suggest_ReturnsSuggestions() throws Exception {
+        when(searchSuggestionService.suggest("biry", 8)).thenReturn(Arrays.asList(
+                new SuggestionResponseDto("Chicken Biryani", SuggestionType.DISH),
+                new SuggestionResponseDto("Biryani House", SuggestionType.RESTAURANT)));
+
+        mockMvc.perform(get("/api/search/suggest").param("q", "biry"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Chicken Biryani"))
+                .andExpect(jsonPath("$[0].type").value("DISH"))
+                .andExpect(jsonPath("$[1].type").value("RESTAURANT"));
+    }
+
+    @Test
+    void suggest_WithoutQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/search/suggest"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,39 @@
+package com.restaurant.RestaurantMicroservice.controller;
+
+import com.restaurant.RestaurantMicroservice.service.impl.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserCacheControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private UserCache userCache;
+
+    @InjectMocks
+    private UserCacheController userCacheController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(userCacheController).build();
+    }
+
+    @Test
+    void invalidateUser_DropsCachedUser() throws Exception {
+        mockMvc.perform(delete("/api/cache/users/7"))
+                .andExpect(status().isNoContent());
+
+        verify(userCache).invalidate(7);
+    }
+}
@@ -220,6 +220,8 @@ public class CreateRestaurantDetailRequestDtoTest {
         restaurantDetailDto.setContactInformation("9861234567");
         restaurantDetailDto.setOpeningHours("9:00 AM - 9:00 PM");
         restaurantDetailDto.setDescription("A cozy place");
+        restaurantDetailDto.setLatitude(12.97);
+        restaurantDetailDto.setLongitude(77.59);
 
         String expected =
                 "CreateRestaurantDetailRequestDto{userId=1, "
@@ -228,7 +230,9 @@ public class CreateRestaurantDetailRequestDtoTest {
                 +
                 "restaurantName='Good Restaurant', address='123 Main St', contactInformation='9861234567',"
                         +
-                        " openingHours='9:00 AM - 9:00 PM', description='A cozy place'}";
+                        " openingHours='9:00 AM - 9:00 PM', description='A cozy place',"
+                        +
+                        " latitude=12.97, longitude=77.59}";
         assertThat(restaurantDetailDto.toString()).isEqualTo(expected);
     }
 }
@@ -1,6 +1,5 @@
 package com.restaurant.RestaurantMicroservice.dtos;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -33,7 +32,8 @@ public class MenuItemResponseDtoTest {
         dto.setDescription("Test Description");
         dto.setIsAvailable(true);
         dto.setPrice(new BigDecimal("9.99"));
-        dto.setImageData(new byte[]{1, 2, 3});
+        dto.setImageUrl("/api/menuItems/1/image");
+        dto.setImageHash("hash-1");
 
         assertEquals(1, dto.getId());
         assertEquals("Test Restaurant", dto.getRestaurantName());
@@ -42,7 +42,8 @@ public class MenuItemResponseDtoTest {
         assertEquals("Test Description", dto.getDescription());
         assertTrue(dto.getIsAvailable());
         assertEquals(new BigDecimal("9.99"), dto.getPrice());
-        assertArrayEquals(new byte[]{1, 2, 3}, dto.getImageData());
+        assertEquals("/api/menuItems/1/image", dto.getImageUrl());
+        assertEquals("hash-1", dto.getImageHash());
     }
 
     /**
@@ -58,7 +59,8 @@ public class MenuItemResponseDtoTest {
         dto1.setDescription("Test Description");
         dto1.setIsAvailable(true);
         dto1.setPrice(new BigDecimal("9.99"));
-        dto1.setImageData(new byte[]{1, 2, 3});
+        dto1.setImageUrl("/api/menuItems/1/image");
+        dto1.setImageHash("hash-1");
 
         MenuItemResponseDto dto2 = new MenuItemResponseDto();
         dto2.setId(1);
@@ -68,7 +70,8 @@ public class MenuItemResponseDtoTest {
         dto2.setDescription("Test Description");
         dto2.setIsAvailable(true);
         dto2.setPrice(new BigDecimal("9.99"));
-        dto2.setImageData(new byte[]{1, 2, 3});
+        dto2.setImageUrl("/api/menuItems/1/image");
+        dto2.setImageHash("hash-1");
 
         MenuItemResponseDto dto3 = new MenuItemResponseDto();
         dto3.setId(2);
@@ -78,7 +81,8 @@ public class MenuItemResponseDtoTest {
         dto3.setDescription("Different Description");
         dto3.setIsAvailable(false);
         dto3.setPrice(new BigDecimal("19.99"));
-        dto3.setImageData(new byte[]{4, 5, 6});
+        dto3.setImageUrl("/api/menuItems/2/image");
+        dto3.setImageHash("hash-2");
 
         // Test equality
         assertEquals(dto1, dto2);
@@ -102,11 +106,12 @@ public class MenuItemResponseDtoTest {
         dto.setDescription("Test Description");
         dto.setIsAvailable(true);
         dto.setPrice(new BigDecimal("9.99"));
-        dto.setImageData(new byte[]{1, 2, 3});
+        dto.setImageUrl("/api/menuItems/1/image");
+        dto.setImageHash("hash-1");
 
         String expectedString = "MenuItemResponseDto{id=1, restaurantName='Test Restaurant', categoryName='Test Category', "
                 +
-                "foodName='Test Food', description='Test Description', isAvailable=true, price=9.99, imageData=[1, 2, 3]}";
+                "foodName='Test Food', description='Test Description', isAvailable=true, price=9.99, imageUrl='/api/menuItems/1/image', imageHash='hash-1'}";
         assertEquals(expectedString, dto.toString());
     }
 
@@ -1,10 +1,8 @@
 package com.restaurant.RestaurantMicroservice.dtos;
 
 import org.junit.jupiter.api.Test;
-import java.util.Arrays;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -20,7 +18,7 @@ public class RestaurantResponseDtoTest {
     @Test
     public void testGettersAndSetters() {
         RestaurantResponseDto dto = new RestaurantResponseDto();
-        byte[] image = {1, 2, 3, 4};
+        String image = "/api/restaurants/1/image";
 
         dto.setId(1);
         dto.setOwnerId(101);
@@ -31,6 +29,7 @@ public class RestaurantResponseDtoTest {
         dto.setOpen(true);
         dto.setOpeningHours("9 AM - 9 PM");
         dto.setImageUrl(image);
+        dto.setImageHash("hash-1");
 
         assertEquals(1, dto.getId());
         assertEquals(101, dto.getOwnerId());
@@ -40,7 +39,8 @@ public class RestaurantResponseDtoTest {
         assertEquals("9876543210", dto.getContactNo());
         assertTrue(dto.getOpen());
         assertEquals("9 AM - 9 PM", dto.getOpeningHours());
-        assertArrayEquals(image, dto.getImageUrl());
+        assertEquals(image, dto.getImageUrl());
+        assertEquals("hash-1", dto.getImageHash());
     }
 
     /**
@@ -53,8 +53,7 @@ public class RestaurantResponseDtoTest {
         RestaurantResponseDto dto1 = new RestaurantResponseDto();
         RestaurantResponseDto dto2 = new RestaurantResponseDto();
         RestaurantResponseDto dto3 = new RestaurantResponseDto();
-        byte[] image = {1, 2, 3, 4};
-        byte[] differentImage = {5, 6, 7, 8};
+        String image = "/api/restaurants/1/image";
 
         dto1.setId(1);
         dto1.setOwnerId(101);
@@ -65,6 +64,7 @@ public class RestaurantResponseDtoTest {
         dto1.setOpen(true);
         dto1.setOpeningHours("9 AM - 9 PM");
         dto1.setImageUrl(image);
+        dto1.setImageHash("hash-1");
 
         dto2.setId(1);
         dto2.setOwnerId(101);
@@ -75,6 +75,7 @@ public class RestaurantResponseDtoTest {
         dto2.setOpen(true);
         dto2.setOpeningHours("9 AM - 9 PM");
         dto2.setImageUrl(image);
+        dto2.setImageHash("hash-1");
 
         dto3.setId(2); // Different ID
 
@@ -94,7 +95,7 @@ public class RestaurantResponseDtoTest {
     @Test
     public void testToString() {
         RestaurantResponseDto dto = new RestaurantResponseDto();
-        byte[] image = {1, 2, 3, 4};
+        String image = "/api/restaurants/1/image";
 
         dto.setId(1);
         dto.setOwnerId(101);
@@ -105,6 +106,10 @@ public class RestaurantResponseDtoTest {
         dto.setOpen(true);
         dto.setOpeningHours("9 AM - 9 PM");
         dto.setImageUrl(image);
+        dto.setImageHash("hash-1");
+        dto.setLatitude(12.97);
+        dto.setLongitude(77.59);
+        dto.setDistanceKm(1.5);
 
         String expectedString = "RestaurantResponseDto{"
                 +
@@ -130,10 +135,20 @@ public class RestaurantResponseDtoTest {
                 ", openingHours='" + dto.getOpeningHours()
                 + '\''
                 +
-                ", imageUrl=" + Arrays.toString(dto.getImageUrl())
+                ", imageUrl='" + dto.getImageUrl()
+                + '\''
+                +
+                ", imageHash='" + dto.getImageHash()
+                + '\''
                 +
                 ", ownerId=" + dto.getOwnerId()
                 +
+                ", latitude=" + dto.getLatitude()
+                +
+                ", longitude=" + dto.getLongitude()
+                +
+                ", distanceKm=" + dto.getDistanceKm()
+                +
                 '}';
 
         assertEquals(expectedString, dto.toString());
@@ -0,0 +1,51 @@
+package com.restaurant.RestaurantMicroservice.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link SuggestionResponseDto}.
+ */
+public class SuggestionResponseDtoTest {
+
+    /**
+     * Tests the getters and setters of {@link SuggestionResponseDto}.
+     */
+    @Test
+    public void testGettersAndSetters() {
+        SuggestionResponseDto dto = new SuggestionResponseDto();
+        dto.setText("Biryani House");
+        dto.setType(SuggestionType.RESTAURANT);
+
+        assertEquals("Biryani House", dto.getText(), "Text should be 'Biryani House'");
+        assertEquals(SuggestionType.RESTAURANT, dto.getType(), "Type should be RESTAURANT");
+    }
+
+    /**
+     * Tests the {@code equals} and {@code hashCode} methods of {@link SuggestionResponseDto}.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        SuggestionResponseDto dto1 = new SuggestionResponseDto("Biryani", SuggestionType.DISH);
+        SuggestionResponseDto dto2 = new SuggestionResponseDto("Biryani", SuggestionType.DISH);
+        SuggestionResponseDto dto3 = new SuggestionResponseDto("Biryani", SuggestionType.RESTAURANT);
+
+        assertEquals(dto1, dto2, "dto1 should be equal to dto2");
+        assertNotEquals(dto1, dto3, "dto1 should not be equal to dto3");
+        assertEquals(dto1.hashCode(), dto2.hashCode(), "Hash codes of dto1 and dto2 should be equal");
+    }
+
+    /**
+     * Tests the {@code toString} method of {@link SuggestionResponseDto}.
+     */
+    @Test
+    public void testToString() {
+        SuggestionResponseDto dto = new SuggestionResponseDto("Biryani", SuggestionType.DISH);
+
+        assertEquals("SuggestionResponseDto{text='Biryani', type=DISH}", dto.toString(),
+                "toString() method should return the expected string");
+    }
+}
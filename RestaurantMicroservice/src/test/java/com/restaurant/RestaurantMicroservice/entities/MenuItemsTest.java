@@ -19,17 +19,17 @@ public class MenuItemsTest {
 
      private MenuItems menuItem;
      /**
-     * Creating sample image.
+     * Creating sample image hash.
      */
-      private byte[] sampleImage;
+      private String sampleImage;
 
     /**
      * Sets up test data before each test.
-     * Initializes a sample byte array representing an image and creates a sample {@link MenuItems} object.
+     * Initializes a sample image content hash and creates a sample {@link MenuItems} object.
      */
     @BeforeEach
     public void setup() {
-        sampleImage = new byte[]{1, 2, 3}; // A sample byte array representing an image.
+        sampleImage = "hash-1"; // A sample content hash of a stored image.
         menuItem = new MenuItems(1, 100, 200, "Pizza", "Delicious cheese pizza", true, BigDecimal.valueOf(12.99), sampleImage);
     }
 
@@ -47,7 +47,7 @@ public class MenuItemsTest {
         assertThat(emptyMenuItem.getDescription()).isNull();
         assertThat(emptyMenuItem.getAvailable()).isNull();
         assertThat(emptyMenuItem.getPrice()).isNull();
-        assertThat(emptyMenuItem.getImageData()).isNull();
+        assertThat(emptyMenuItem.getImageHash()).isNull();
     }
 
     /**
@@ -63,7 +63,7 @@ public class MenuItemsTest {
         assertThat(menuItem.getDescription()).isEqualTo("Delicious cheese pizza");
         assertThat(menuItem.getAvailable()).isTrue();
         assertThat(menuItem.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(12.99));
-        assertThat(menuItem.getImageData()).isEqualTo(sampleImage);
+        assertThat(menuItem.getImageHash()).isEqualTo(sampleImage);
     }
 
     /**
@@ -73,7 +73,7 @@ public class MenuItemsTest {
     @Test
     public void testSettersAndGetters() {
         MenuItems localMenuItem = new MenuItems(); // Rename the local variable to 'localMenuItem'
-        byte[] newImage = new byte[]{5, 6, 7};
+        String newImage = "hash-2";
 
         localMenuItem.setId(2);
         localMenuItem.setRestaurantId(150);
@@ -82,7 +82,7 @@ public class MenuItemsTest {
         localMenuItem.setDescription("Juicy beef burger");
         localMenuItem.setAvailable(false);
         localMenuItem.setPrice(BigDecimal.valueOf(8.99));
-        localMenuItem.setImageData(newImage);
+        localMenuItem.setImageHash(newImage);
 
         assertThat(localMenuItem.getId()).isEqualTo(2);
         assertThat(localMenuItem.getRestaurantId()).isEqualTo(150);
@@ -91,7 +91,7 @@ public class MenuItemsTest {
         assertThat(localMenuItem.getDescription()).isEqualTo("Juicy beef burger");
         assertThat(localMenuItem.getAvailable()).isFalse();
         assertThat(localMenuItem.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(8.99));
-        assertThat(localMenuItem.getImageData()).isEqualTo(newImage);
+        assertThat(localMenuItem.getImageHash()).isEqualTo(newImage);
     }
 
     /**
@@ -120,7 +120,7 @@ public class MenuItemsTest {
     @Test
     public void testEqualsDifferentObjectsDifferentValues() {
         MenuItems menuItem2 = new MenuItems(2, 101, 201, "Pasta",
-                "Creamy pasta", false, BigDecimal.valueOf(9.99), new byte[]{4, 5, 6});
+                "Creamy pasta", false, BigDecimal.valueOf(9.99), "hash-2");
         assertThat(menuItem).isNotEqualTo(menuItem2);
     }
 
@@ -142,19 +142,19 @@ public class MenuItemsTest {
     @Test
     public void testHashCodeDifferentObjectsDifferentValues() {
         MenuItems menuItem2 = new MenuItems(2, 101, 201, "Pasta", "Creamy pasta", false, BigDecimal.valueOf(9.99),
-                new byte[]{4, 5, 6});
+                "hash-2");
         assertThat(menuItem.hashCode()).isNotEqualTo(menuItem2.hashCode());
     }
 
     /**
-     * Tests the {@link MenuItems#setImageData(byte[])} method.
-     * Ensures that the image data is correctly updated.
+     * Tests the {@link MenuItems#setImageHash(String)} method.
+     * Ensures that the image hash is correctly updated.
      */
     @Test
-    public void testSetImageData() {
-        byte[] newImage = new byte[]{10, 11, 12};
-        menuItem.setImageData(newImage);
-        assertThat(menuItem.getImageData()).isEqualTo(newImage);
+    public void testSetImageHash() {
+        String newImage = "hash-3";
+        menuItem.setImageHash(newImage);
+        assertThat(menuItem.getImageHash()).isEqualTo(newImage);
     }
 
     /**
@@ -15,16 +15,16 @@ public class RestaurantDetailTest {
     private RestaurantDetail restaurantDetail;
 
     /**
-     * A sample image data used for testing.
+     * A sample image content hash used for testing.
      */
-    private byte[] sampleImage;
+    private String sampleImage;
 
     /**
-     * Sets up a {@link RestaurantDetail} instance and sample image data before each test.
+     * Sets up a {@link RestaurantDetail} instance and sample image hash before each test.
      */
     @BeforeEach
     public void setup() {
-        sampleImage = new byte[]{1, 2, 3};
+        sampleImage = "hash-1";
         restaurantDetail = new RestaurantDetail(
                 1,
                 10,
@@ -53,7 +53,7 @@ public class RestaurantDetailTest {
         assertThat(emptyRestaurantDetail.getContactNo()).isNull();
         assertThat(emptyRestaurantDetail.getOpen()).isNull();
         assertThat(emptyRestaurantDetail.getOpeningHours()).isNull();
-        assertThat(emptyRestaurantDetail.getImageData()).isNull();
+        assertThat(emptyRestaurantDetail.getImageHash()).isNull();
         assertThat(emptyRestaurantDetail.getDescription()).isNull();
     }
 
@@ -71,7 +71,7 @@ public class RestaurantDetailTest {
         assertThat(restaurantDetail.getContactNo()).isEqualTo("1234567890");
         assertThat(restaurantDetail.getOpen()).isTrue();
         assertThat(restaurantDetail.getOpeningHours()).isEqualTo("9 AM - 9 PM");
-        assertThat(restaurantDetail.getImageData()).isEqualTo(sampleImage);
+        assertThat(restaurantDetail.getImageHash()).isEqualTo(sampleImage);
         assertThat(restaurantDetail.getDescription()).isEqualTo("Family-friendly Italian restaurant");
     }
 
@@ -83,7 +83,7 @@ public class RestaurantDetailTest {
     @Test
     public void testSettersAndGetters() {
         RestaurantDetail tempRestaurantDetail = new RestaurantDetail();
-        byte[] newImage = new byte[]{5, 6, 7};
+        String newImage = "hash-2";
 
         tempRestaurantDetail.setId(2);
         tempRestaurantDetail.setOwnerId(20);
@@ -92,7 +92,7 @@ public class RestaurantDetailTest {
         tempRestaurantDetail.setContactNo("0987654321");
         tempRestaurantDetail.setOpen(false);
         tempRestaurantDetail.setOpeningHours("10 AM - 10 PM");
-        tempRestaurantDetail.setImageData(newImage);
+        tempRestaurantDetail.setImageHash(newImage);
         tempRestaurantDetail.setDescription("Gourmet burger joint");
 
         assertThat(tempRestaurantDetail.getId()).isEqualTo(2);
@@ -102,7 +102,7 @@ public class RestaurantDetailTest {
         assertThat(tempRestaurantDetail.getContactNo()).isEqualTo("0987654321");
         assertThat(tempRestaurantDetail.getOpen()).isFalse();
         assertThat(tempRestaurantDetail.getOpeningHours()).isEqualTo("10 AM - 10 PM");
-        assertThat(tempRestaurantDetail.getImageData()).isEqualTo(newImage);
+        assertThat(tempRestaurantDetail.getImageHash()).isEqualTo(newImage);
         assertThat(tempRestaurantDetail.getDescription()).isEqualTo("Gourmet burger joint");
     }
 
@@ -149,7 +149,7 @@ public class RestaurantDetailTest {
                 "0987654321",
                 false,
                 "10 AM - 10 PM",
-                new byte[]{5, 6, 7},
+                "hash-2",
                 "Gourmet burger joint"
         );
         assertThat(restaurantDetail).isNotEqualTo(otherRestaurantDetail);
@@ -189,21 +189,21 @@ public class RestaurantDetailTest {
                 "0987654321",
                 false,
                 "10 AM - 10 PM",
-                new byte[]{5, 6, 7},
+                "hash-2",
                 "Gourmet burger joint"
         );
         assertThat(restaurantDetail.hashCode()).isNotEqualTo(otherRestaurantDetail.hashCode());
     }
 
     /**
-     * Tests the setter method for image data in the {@link RestaurantDetail} class.
-     * It verifies that the image data can be correctly set and retrieved.
+     * Tests the setter method for the image hash in the {@link RestaurantDetail} class.
+     * It verifies that the image hash can be correctly set and retrieved.
      */
     @Test
-    public void testSetImageData() {
-        byte[] newImage = new byte[]{8, 9, 10};
-        restaurantDetail.setImageData(newImage);
-        assertThat(restaurantDetail.getImageData()).isEqualTo(newImage);
+    public void testSetImageHash() {
+        String newImage = "hash-3";
+        restaurantDetail.setImageHash(newImage);
+        assertThat(restaurantDetail.getImageHash()).isEqualTo(newImage);
     }
 
     /**
@@ -13,6 +13,7 @@ import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
 import com.restaurant.RestaurantMicroservice.repository.CategoryRepository;
 import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -20,12 +21,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class CategoryServiceImplTest {
@@ -42,6 +46,12 @@ class CategoryServiceImplTest {
     @Mock
     private MenuItemRepository menuItemRepository;
 
+    @Mock
+    private MenuVersions menuVersions;
+
+    @Mock
+    private MenuSearchService menuSearchService;
+
     private RestaurantDetail restaurant;
     private Category category;
 
@@ -54,6 +64,7 @@ class CategoryServiceImplTest {
         category.setId(1);
         category.setName("Pizza");
         category.setRestaurantId(1);
+        when(menuVersions.next(1)).thenReturn(4L);
     }
 
     @Test
@@ -109,12 +120,46 @@ class CategoryServiceImplTest {
         requestDto.setName("Burger");
 
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-        when(categoryRepository.existsByNameAndRestaurantId("Burger", 1)).thenReturn(false);
+        when(categoryRepository.existsByNameAndRestaurantId("BURGER", 1)).thenReturn(false);
 
         CommonResponseDto response = categoryService.updateCategory(1, requestDto);
 
         assertEquals("Category Updated", response.getMessage());
         verify(categoryRepository, times(1)).save(category);
+        verify(menuVersions, times(1)).next(1);
+        verify(menuItemRepository, times(1)).updateMenuVersionByCategoryId(1, 4L);
+        verify(menuSearchService, times(1)).reindexCategory(1);
+    }
+
+    @Test
+    void updateCategory_ShouldNotBumpMenuVersion_WhenNameUnchanged() {
+        category.setName("PIZZA");
+        UpdateCategoryRequestDto requestDto = new UpdateCategoryRequestDto();
+        requestDto.setName("PIZZA");
+
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+
+        categoryService.updateCategory(1, requestDto);
+
+        verify(menuVersions, never()).next(anyInt());
+        verify(menuItemRepository, never()).updateMenuVersionByCategoryId(anyInt(), anyLong());
+        verify(menuSearchService, never()).reindexCategory(anyInt());
+    }
+
+    @Test
+    void updateCategory_ShouldNotBumpMenuVersion_WhenStoredNameOnlyDiffersInCase() {
+        category.setName(" Pizza ");
+        UpdateCategoryRequestDto requestDto = new UpdateCategoryRequestDto();
+        requestDto.setName("pizza");
+
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+
+        categoryService.updateCategory(1, requestDto);
+
+        assertEquals("PIZZA", category.getName());
+        verify(categoryRepository, never()).existsByNameAndRestaurantId(anyString(), anyInt());
+        verify(menuVersions, never()).next(anyInt());
+        verify(menuItemRepository, never()).updateMenuVersionByCategoryId(anyInt(), anyLong());
     }
 
     @Test
@@ -186,12 +231,29 @@ class CategoryServiceImplTest {
     @Test
     void deleteCategory_ShouldDeleteCategory_WhenCategoryExists() {
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-        when(menuItemRepository.findByCategoryId(1)).thenReturn(new ArrayList<>());
+        when(menuItemRepository.findIdsByCategoryId(1)).thenReturn(new ArrayList<>());
 
         CommonResponseDto response = categoryService.deleteCategory(1);
 
         assertEquals("Category Deleted", response.getMessage());
         verify(categoryRepository, times(1)).delete(category);
+        verify(menuVersions, never()).next(anyInt());
+        verify(menuItemRepository, never()).clearCategory(anyInt(), anyLong());
+    }
+
+    @Test
+    void deleteCategory_ShouldClearCategoryOfMenuItemsInBulk_WhenCategoryHasItems() {
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(menuItemRepository.findIdsByCategoryId(1)).thenReturn(Arrays.asList(9, 10));
+        when(menuItemRepository.clearCategory(1, 4L)).thenReturn(2);
+
+        categoryService.deleteCategory(1);
+
+        verify(menuVersions, times(1)).next(1);
+        verify(menuItemRepository, times(1)).clearCategory(1, 4L);
+        verify(menuItemRepository, never()).save(any(MenuItems.class));
+        verify(menuSearchService, times(1)).reindexMenuItems(Arrays.asList(9, 10));
+        verify(categoryRepository, times(1)).delete(category);
     }
 
     @Test
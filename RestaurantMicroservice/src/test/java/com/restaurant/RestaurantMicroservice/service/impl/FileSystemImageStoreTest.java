@@ -0,0 +1,212 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link FileSystemImageStore} class.
+ */
+public class FileSystemImageStoreTest {
+
+    /**
+     * SHA-256 of the ASCII string "abc".
+     */
+    private static final String ABC_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    /**
+     * Directory the store under test writes to.
+     */
+    @TempDir
+    Path root;
+
+    /**
+     * {@link FileSystemImageStore} instance under test.
+     */
+    private FileSystemImageStore imageStore;
+
+    /**
+     * Creates a store rooted in a fresh temporary directory before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        imageStore = new FileSystemImageStore(root.toString());
+    }
+
+    /**
+     * Tests that written content can be read back and is laid out in fan-out directories.
+     */
+    @Test
+    public void testWriteAndRead() {
+        byte[] data = "abc".getBytes(StandardCharsets.US_ASCII);
+
+        store(ABC_HASH, data);
+
+        assertTrue(imageStore.exists(ABC_HASH, ImageVariant.ORIGINAL));
+        assertArrayEquals(data, imageStore.read(ABC_HASH, ImageVariant.ORIGINAL));
+        assertTrue(Files.isRegularFile(root.resolve("ba").resolve("78").resolve(ABC_HASH)));
+    }
+
+    /**
+     * Tests that writing the same hash twice keeps a single file and leaves no temporary files behind.
+     */
+    @Test
+    public void testWriteSameHashTwice_StoresOneFile() throws IOException {
+        byte[] data = "abc".getBytes(StandardCharsets.US_ASCII);
+
+        store(ABC_HASH, data);
+        store(ABC_HASH, data);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    /**
+     * Tests that deleting removes the stored content.
+     */
+    @Test
+    public void testDelete() {
+        store(ABC_HASH, "abc".getBytes(StandardCharsets.US_ASCII));
+
+        imageStore.delete(ABC_HASH);
+
+        assertFalse(imageStore.exists(ABC_HASH, ImageVariant.ORIGINAL));
+        assertThrows(NotFoundException.class, () -> imageStore.read(ABC_HASH, ImageVariant.ORIGINAL));
+    }
+
+    /**
+     * Tests that a variant is stored next to the original and read back separately from it.
+     */
+    @Test
+    public void testWriteAndReadVariant() {
+        byte[] original = "abc".getBytes(StandardCharsets.US_ASCII);
+        byte[] thumb = "small".getBytes(StandardCharsets.US_ASCII);
+        store(ABC_HASH, original);
+
+        imageStore.write(ABC_HASH, ImageVariant.THUMB, thumb);
+
+        assertTrue(imageStore.exists(ABC_HASH, ImageVariant.THUMB));
+        assertFalse(imageStore.exists(ABC_HASH, ImageVariant.MEDIUM));
+        assertArrayEquals(thumb, imageStore.read(ABC_HASH, ImageVariant.THUMB));
+        assertArrayEquals(original, imageStore.read(ABC_HASH, ImageVariant.ORIGINAL));
+        assertTrue(Files.isRegularFile(root.resolve("ba").resolve("78").resolve(ABC_HASH + ".thumb")));
+    }
+
+    /**
+     * Tests that deleting an image also removes its variants.
+     */
+    @Test
+    public void testDeleteRemovesVariants() {
+        store(ABC_HASH, "abc".getBytes(StandardCharsets.US_ASCII));
+        imageStore.write(ABC_HASH, ImageVariant.THUMB, new byte[]{1});
+        imageStore.write(ABC_HASH, ImageVariant.MEDIUM, new byte[]{2});
+
+        imageStore.delete(ABC_HASH);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertFalse(imageStore.exists(ABC_HASH, variant));
+        }
+    }
+
+    /**
+     * Tests that opening an image gives a resource streaming the stored file.
+     */
+    @Test
+    public void testOpen() throws IOException {
+        byte[] data = "abc".getBytes(StandardCharsets.US_ASCII);
+        store(ABC_HASH, data);
+
+        Resource resource = imageStore.open(ABC_HASH, ImageVariant.ORIGINAL);
+
+        assertEquals(data.length, resource.contentLength());
+        assertEquals(root.resolve("ba").resolve("78").resolve(ABC_HASH).toFile(), resource.getFile());
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertArrayEquals(data, StreamUtils.copyToByteArray(inputStream));
+        }
+    }
+
+    /**
+     * Tests that opening a variant that is not stored throws a {@link NotFoundException}.
+     */
+    @Test
+    public void testOpenMissingVariant() {
+        store(ABC_HASH, "abc".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(NotFoundException.class, () -> imageStore.open(ABC_HASH, ImageVariant.THUMB));
+        assertThrows(NotFoundException.class, () -> imageStore.open("../../etc/passwd", ImageVariant.ORIGINAL));
+    }
+
+    /**
+     * Tests that reading an unknown hash throws a {@link NotFoundException}.
+     */
+    @Test
+    public void testReadMissing() {
+        assertThrows(NotFoundException.class, () -> imageStore.read(ABC_HASH, ImageVariant.ORIGINAL));
+    }
+
+    /**
+     * Tests that keys which are not content hashes never reach the file system.
+     */
+    @Test
+    public void testReadInvalidHash() {
+        assertThrows(NotFoundException.class, () -> imageStore.read("../../etc/passwd", ImageVariant.ORIGINAL));
+        assertFalse(imageStore.exists("../../etc/passwd", ImageVariant.ORIGINAL));
+        assertThrows(IllegalArgumentException.class, () -> store("not-a-hash", new byte[]{1}));
+    }
+
+    /**
+     * Tests that content written in several chunks is stored as one file.
+     */
+    @Test
+    public void testWriteInChunks() {
+        try (ImageStore.PendingWrite pendingWrite = imageStore.begin()) {
+            pendingWrite.write(ByteBuffer.wrap("a".getBytes(StandardCharsets.US_ASCII)));
+            pendingWrite.write(ByteBuffer.wrap("bc".getBytes(StandardCharsets.US_ASCII)));
+            pendingWrite.commit(ABC_HASH);
+        }
+
+        assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), imageStore.read(ABC_HASH, ImageVariant.ORIGINAL));
+    }
+
+    /**
+     * Tests that closing a pending write without committing it leaves nothing behind.
+     */
+    @Test
+    public void testUncommittedWriteIsDiscarded() throws IOException {
+        try (ImageStore.PendingWrite pendingWrite = imageStore.begin()) {
+            pendingWrite.write(ByteBuffer.wrap("abc".getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        assertFalse(imageStore.exists(ABC_HASH, ImageVariant.ORIGINAL));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    private void store(String contentHash, byte[] data) {
+        try (ImageStore.PendingWrite pendingWrite = imageStore.begin()) {
+            pendingWrite.write(ByteBuffer.wrap(data));
+            pendingWrite.commit(contentHash);
+        }
+    }
+}
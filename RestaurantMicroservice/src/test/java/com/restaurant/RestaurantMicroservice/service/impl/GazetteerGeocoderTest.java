@@ -0,0 +1,100 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link GazetteerGeocoder} class.
+ */
+public class GazetteerGeocoderTest {
+
+    private GazetteerGeocoder geocoder;
+
+    /**
+     * Reads a small gazetteer with a city, two of its localities, an alias and a postal code.
+     *
+     * @throws IOException never.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        geocoder = read("# Test gazetteer\n"
+                + "Bengaluru\t12.9716\t77.5946\n"
+                + "Bangalore\t12.9716\t77.5946\n"
+                + "\n"
+                + "Indiranagar\t12.9784\t77.6408\n"
+                + "HSR Layout\t12.9116\t77.6389\n"
+                + "560034\t12.9352\t77.6245\n");
+    }
+
+    /**
+     * Tests that the first place in the address wins, so a locality beats its city.
+     */
+    @Test
+    public void testGeocode_FirstPlaceWins() {
+        assertArrayEquals(new double[]{12.9784, 77.6408}, geocoder.geocode("12, 100 Feet Road, Indiranagar, Bengaluru"));
+        assertArrayEquals(new double[]{12.9116, 77.6389}, geocoder.geocode("27th Main, HSR-Layout, Bangalore"));
+        assertArrayEquals(new double[]{12.9716, 77.5946}, geocoder.geocode("MG Road, BENGALURU."));
+    }
+
+    /**
+     * Tests that a known postal code beats every place name.
+     */
+    @Test
+    public void testGeocode_PostalCodeFirst() {
+        assertArrayEquals(new double[]{12.9352, 77.6245}, geocoder.geocode("Indiranagar, Bengaluru 560034"));
+        assertArrayEquals(new double[]{12.9784, 77.6408}, geocoder.geocode("Indiranagar, Bengaluru 560999"));
+    }
+
+    /**
+     * Tests that addresses naming no known place are not located.
+     */
+    @Test
+    public void testGeocode_UnknownPlace() {
+        assertNull(geocoder.geocode("1 Infinite Loop, Cupertino"));
+        assertNull(geocoder.geocode("Bengalurus"));
+        assertNull(geocoder.geocode("  , "));
+        assertNull(geocoder.geocode(null));
+    }
+
+    /**
+     * Tests that malformed gazetteer lines are rejected with their line number.
+     */
+    @Test
+    public void testRead_RejectsMalformedLines() {
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> read("Bengaluru\t12.9716\t77.5946\nMysuru\t12.2958\n"));
+        assertTrue(missing.getMessage().contains("line 2"));
+        assertThrows(IllegalArgumentException.class, () -> read("Mysuru\tnorth\t76.6394\n"));
+        assertThrows(IllegalArgumentException.class, () -> read("Mysuru\t12.2958\t196.6394\n"));
+    }
+
+    /**
+     * Tests that the gazetteer shipped with the application reads and locates a sample address.
+     *
+     * @throws IOException if the gazetteer cannot be read.
+     */
+    @Test
+    public void testRead_BundledGazetteer() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/gazetteer.tsv"), StandardCharsets.UTF_8))) {
+            GazetteerGeocoder bundled = GazetteerGeocoder.read(reader);
+            assertTrue(bundled.size() > 50);
+            assertArrayEquals(new double[]{28.6139, 77.2090}, bundled.geocode("Janpath, New Delhi"));
+        }
+    }
+
+    private static GazetteerGeocoder read(String text) throws IOException {
+        return GazetteerGeocoder.read(new BufferedReader(new StringReader(text)));
+    }
+}
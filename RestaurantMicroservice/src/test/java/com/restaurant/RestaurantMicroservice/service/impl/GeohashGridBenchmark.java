@@ -0,0 +1,136 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of nearby restaurant lookups over synthetic restaurants gathered around a few
+ * cities: the {@link GeohashGrid} against a haversine scan of every restaurant, as a query
+ * ordering the whole table by distance would run.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main GeohashGridBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeohashGridBenchmark {
+
+    /**
+     * Number of restaurants a lookup returns, as one page of results.
+     */
+    private static final int LIMIT = 20;
+
+    /**
+     * Latitudes and longitudes of the cities the restaurants gather around.
+     */
+    private static final double[][] CITIES = {
+            {12.9716, 77.5946}, {19.0760, 72.8777}, {28.6139, 77.2090}, {17.3850, 78.4867}, {13.0827, 80.2707}};
+
+    /**
+     * Number of restaurants.
+     */
+    @Param({"100000"})
+    public int restaurants;
+
+    /**
+     * Search radius in kilometres.
+     */
+    @Param({"5", "50"})
+    public double radiusKm;
+
+    private double[] latitudes;
+
+    private double[] longitudes;
+
+    private double[][] points;
+
+    private GeohashGrid grid;
+
+    private int next;
+
+    /**
+     * Scatters the restaurants around the cities, about ten kilometres apart for most, and
+     * lookups from the same spread.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        latitudes = new double[restaurants];
+        longitudes = new double[restaurants];
+        grid = new GeohashGrid();
+        for (int id = 0; id < restaurants; id++) {
+            double[] city = CITIES[id % CITIES.length];
+            latitudes[id] = city[0] + random.nextGaussian() * 0.08;
+            longitudes[id] = city[1] + random.nextGaussian() * 0.08;
+            grid.put(id, latitudes[id], longitudes[id]);
+        }
+        points = new double[256][];
+        for (int i = 0; i < points.length; i++) {
+            double[] city = CITIES[i % CITIES.length];
+            points[i] = new double[]{city[0] + random.nextGaussian() * 0.08, city[1] + random.nextGaussian() * 0.08};
+        }
+    }
+
+    /**
+     * Finds the restaurants nearest to a point from the grid.
+     *
+     * @return The distance by restaurant ID.
+     */
+    @Benchmark
+    public Map<Integer, Double> index() {
+        double[] point = points[next++ & (points.length - 1)];
+        return grid.nearest(point[0], point[1], radiusKm, LIMIT);
+    }
+
+    /**
+     * Finds the restaurants nearest to a point by computing the distance of every restaurant and
+     * keeping the nearest ones in a bounded buffer, which beats a full sort of the matches.
+     *
+     * @return The restaurant IDs.
+     */
+    @Benchmark
+    public int[] naiveScan() {
+        double[] point = points[next++ & (points.length - 1)];
+        int[] best = new int[LIMIT];
+        double[] bestDistances = new double[LIMIT];
+        int count = 0;
+        for (int id = 0; id < restaurants; id++) {
+            double distanceKm = GeohashGrid.distanceKm(point[0], point[1], latitudes[id], longitudes[id]);
+            if (distanceKm > radiusKm || count == LIMIT && distanceKm >= bestDistances[LIMIT - 1]) {
+                continue;
+            }
+            int position = count == LIMIT ? LIMIT - 1 : count++;
+            while (position > 0 && distanceKm < bestDistances[position - 1]) {
+                best[position] = best[position - 1];
+                bestDistances[position] = bestDistances[position - 1];
+                position--;
+            }
+            best[position] = id;
+            bestDistances[position] = distanceKm;
+        }
+        return Arrays.copyOf(best, count);
+    }
+}
@@ -0,0 +1,152 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link GeohashGrid} class.
+ */
+public class GeohashGridTest {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeohashGrid grid;
+
+    /**
+     * Indexes five restaurants in Bengaluru, two of them at the same spot, and one in Chennai.
+     */
+    @BeforeEach
+    public void setUp() {
+        grid = new GeohashGrid();
+        grid.put(1, 12.9716, 77.5946);
+        grid.put(2, 12.9784, 77.6408);
+        grid.put(3, 12.9352, 77.6245);
+        grid.put(4, 12.9698, 77.7500);
+        grid.put(5, 12.9716, 77.5946);
+        grid.put(6, 13.0827, 80.2707);
+    }
+
+    /**
+     * Tests that the cell of a point is its geohash: the first 25 bits spell the 5-character
+     * geohash of the point.
+     */
+    @Test
+    public void testGeohash_MatchesStandardGeohash() {
+        assertEquals(decode("u4pru"), GeohashGrid.geohash(57.64911, 10.40744) >>> 1);
+        assertEquals(decode("tdr1v"), GeohashGrid.geohash(12.9716, 77.5946) >>> 1);
+        assertEquals(decode("00000"), GeohashGrid.geohash(-90, -180) >>> 1);
+        assertEquals(decode("zzzzz"), GeohashGrid.geohash(90, 180) >>> 1);
+    }
+
+    /**
+     * Tests the haversine distance against known distances.
+     */
+    @Test
+    public void testDistanceKm() {
+        assertEquals(111.195, GeohashGrid.distanceKm(0, 0, 1, 0), 0.001);
+        assertEquals(111.195, GeohashGrid.distanceKm(0, 179.5, 0, -179.5), 0.001);
+        assertEquals(290.2, GeohashGrid.distanceKm(12.9716, 77.5946, 13.0827, 80.2707), 0.5);
+        assertEquals(0, GeohashGrid.distanceKm(12.9716, 77.5946, 12.9716, 77.5946), 1e-9);
+    }
+
+    /**
+     * Tests that results are ordered by distance then ID, and cut by radius and limit.
+     */
+    @Test
+    public void testNearest_OrderRadiusAndLimit() {
+        Map<Integer, Double> nearest = grid.nearest(12.9716, 77.5946, 10, 10);
+        assertEquals(Arrays.asList(1, 5, 2, 3), new ArrayList<>(nearest.keySet()));
+        assertEquals(0, nearest.get(1), 1e-9);
+        assertEquals(5.0, nearest.get(2), 0.1);
+
+        assertEquals(Arrays.asList(1, 5), new ArrayList<>(grid.nearest(12.9716, 77.5946, 10, 2).keySet()));
+        assertEquals(Arrays.asList(1, 5, 2, 3, 4), new ArrayList<>(grid.nearest(12.9716, 77.5946, 20, 10).keySet()));
+        assertEquals(6, grid.nearest(12.9716, 77.5946, 500, 10).size());
+        assertTrue(grid.nearest(12.5, 77.0, 5, 10).isEmpty());
+        assertTrue(grid.nearest(12.9716, 77.5946, 10, 0).isEmpty());
+        assertTrue(grid.nearest(91, 77.5946, 10, 10).isEmpty());
+    }
+
+    /**
+     * Tests that moving a restaurant replaces its location and removing it drops it.
+     */
+    @Test
+    public void testPutAndRemove() {
+        grid.put(6, 12.9717, 77.5947);
+        grid.remove(1);
+        grid.remove(99);
+
+        assertEquals(5, grid.size());
+        assertEquals(Arrays.asList(5, 6), new ArrayList<>(grid.nearest(12.9716, 77.5946, 1, 10).keySet()));
+        assertThrows(IllegalArgumentException.class, () -> grid.put(7, 12.9, 181));
+    }
+
+    /**
+     * Tests lookups against a scan of every location, around cities, across the antimeridian and
+     * near the poles.
+     */
+    @Test
+    public void testNearest_MatchesFullScan() {
+        Random random = new Random(7);
+        GeohashGrid randomGrid = new GeohashGrid();
+        double[][] centers = {{12.97, 77.59}, {19.07, 72.87}, {0.0, 179.99}, {-0.5, -179.9}, {89.9, 10.0}, {-89.5, 0}};
+        List<double[]> locations = new ArrayList<>();
+        for (int id = 0; id < 6000; id++) {
+            double[] center = centers[id % centers.length];
+            double latitude = Math.max(-90, Math.min(90, center[0] + random.nextGaussian() * 0.2));
+            double longitude = center[1] + random.nextGaussian() * 0.2;
+            longitude = longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+            locations.add(new double[]{id, latitude, longitude});
+            randomGrid.put(id, latitude, longitude);
+        }
+        for (int query = 0; query < 300; query++) {
+            double[] center = centers[query % centers.length];
+            double latitude = Math.max(-90, Math.min(90, center[0] + random.nextGaussian() * 0.2));
+            double longitude = Math.max(-180, Math.min(180, center[1] + random.nextGaussian() * 0.2));
+            double radiusKm = new double[]{0.5, 2, 5, 25, 50}[query % 5];
+            int limit = 1 + random.nextInt(30);
+
+            List<double[]> expected = new ArrayList<>();
+            for (double[] location : locations) {
+                double distanceKm = GeohashGrid.distanceKm(latitude, longitude, location[1], location[2]);
+                if (distanceKm <= radiusKm) {
+                    expected.add(new double[]{location[0], distanceKm});
+                }
+            }
+            // Rounded to a tenth of a millimetre, so that restaurants at the same spot tie.
+            expected.sort(Comparator.<double[]>comparingDouble(match -> Math.round(match[1] * 1e7))
+                    .thenComparingDouble(match -> match[0]));
+            Map<Integer, Double> expectedNearest = new LinkedHashMap<>();
+            for (double[] match : expected.subList(0, Math.min(limit, expected.size()))) {
+                expectedNearest.put((int) match[0], match[1]);
+            }
+
+            Map<Integer, Double> nearest = randomGrid.nearest(latitude, longitude, radiusKm, limit);
+            assertEquals(new ArrayList<>(expectedNearest.keySet()), new ArrayList<>(nearest.keySet()),
+                    "query " + query + " at " + latitude + ", " + longitude + " within " + radiusKm);
+        }
+    }
+
+    /**
+     * Decodes a geohash string into its bits.
+     */
+    private static long decode(String geohash) {
+        long bits = 0;
+        for (char c : geohash.toCharArray()) {
+            bits = bits << 5 | BASE32.indexOf(c);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,422 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.ImageResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.Image;
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.exception.InvalidFileTypeException;
+import com.restaurant.RestaurantMicroservice.repository.ImageRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link ImageServiceImpl} class.
+ */
+public class ImageServiceImplTest {
+
+    /**
+     * SHA-256 of the ASCII string "abc".
+     */
+    private static final String ABC_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    /**
+     * Modification time reported for stored content.
+     */
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    /**
+     * Mocked {@link ImageRepository} instance.
+     */
+    @Mock
+    private ImageRepository imageRepository;
+
+    /**
+     * Mocked {@link ImageStore} instance.
+     */
+    @Mock
+    private ImageStore imageStore;
+
+    /**
+     * Mocked {@link ImageStore.PendingWrite} returned by the store.
+     */
+    @Mock
+    private ImageStore.PendingWrite pendingWrite;
+
+    /**
+     * Mocked {@link ImageVariantGenerator} instance.
+     */
+    @Mock
+    private ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * Mocked {@link PlatformTransactionManager} for the removal of unreferenced content.
+     */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * {@link ImageServiceImpl} instance under test.
+     */
+    @InjectMocks
+    private ImageServiceImpl imageService;
+
+    /**
+     * Initializes mocks before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(imageStore.begin()).thenReturn(pendingWrite);
+    }
+
+    /**
+     * Tests that a new image is streamed to the store, committed under the SHA-256 hash of its
+     * content and recorded with a single reference and the sniffed content type.
+     */
+    @Test
+    public void testSaveImage_NewImageIsStored() throws Exception {
+        byte[] data = png(100);
+        String expectedHash = sha256(data);
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", data);
+        when(imageRepository.addReference(expectedHash, "image/png", 100)).thenReturn(1);
+
+        String hash = imageService.saveImage(file, 1024);
+
+        assertEquals(expectedHash, hash);
+        verify(pendingWrite).commit(expectedHash);
+        verify(pendingWrite).close();
+        verify(imageVariantGenerator).generateAsync(expectedHash, ImageType.PNG);
+    }
+
+    /**
+     * Tests that in a transaction the content is only moved into place once the transaction
+     * commits.
+     */
+    @Test
+    public void testSaveImage_ContentIsCommittedAfterTransaction() throws Exception {
+        byte[] data = png(100);
+        String expectedHash = sha256(data);
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", data);
+        when(imageRepository.addReference(expectedHash, "image/png", 100)).thenReturn(1);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> imageService.saveImage(file, 1024));
+
+        verify(pendingWrite, never()).commit(anyString());
+        verify(pendingWrite, never()).close();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        verify(pendingWrite).commit(expectedHash);
+        verify(pendingWrite).close();
+        verify(imageVariantGenerator).generateAsync(expectedHash, ImageType.PNG);
+    }
+
+    /**
+     * Tests that a rolled back upload discards its staged content without storing it.
+     */
+    @Test
+    public void testSaveImage_RollbackDiscardsContent() throws Exception {
+        byte[] data = png(100);
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", data);
+        when(imageRepository.addReference(sha256(data), "image/png", 100)).thenReturn(1);
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> imageService.saveImage(file, 1024));
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verify(pendingWrite, never()).commit(anyString());
+        verify(pendingWrite).close();
+        verifyNoInteractions(imageVariantGenerator);
+    }
+
+    /**
+     * Tests that a large upload reaches the store in chunks no larger than the fixed buffer.
+     */
+    @Test
+    public void testSaveImage_StreamsThroughFixedBuffer() {
+        byte[] data = png(1024 * 1024 + 17);
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", data);
+
+        imageService.saveImage(file, 2 * 1024 * 1024);
+
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(pendingWrite, atLeast(2)).write(captor.capture());
+        long total = 0;
+        for (ByteBuffer chunk : captor.getAllValues()) {
+            assertTrue(chunk.remaining() <= ImageServiceImpl.BUFFER_SIZE);
+            total += chunk.remaining();
+        }
+        assertEquals(data.length, total);
+    }
+
+    /**
+     * Tests that uploading content that is already stored only adds a reference.
+     */
+    @Test
+    public void testSaveImage_DuplicateContentOnlyAddsReference() throws Exception {
+        byte[] data = jpeg(64);
+        MockMultipartFile file = new MockMultipartFile("image", "a.jpg", "image/jpeg", data);
+        when(imageRepository.addReference(sha256(data), "image/jpeg", 64)).thenReturn(2);
+        when(imageStore.exists(sha256(data), ImageVariant.ORIGINAL)).thenReturn(true);
+
+        assertEquals(sha256(data), imageService.saveImage(file, 1024));
+        verify(pendingWrite, never()).commit(anyString());
+        verify(pendingWrite).close();
+        verifyNoInteractions(imageVariantGenerator);
+    }
+
+    /**
+     * Tests that content whose row exists but which is not in the store yet, as while the first
+     * upload of it is still committing, is committed by the later upload too.
+     */
+    @Test
+    public void testSaveImage_MissingContentOfKnownImageIsCommitted() throws Exception {
+        byte[] data = jpeg(64);
+        MockMultipartFile file = new MockMultipartFile("image", "a.jpg", "image/jpeg", data);
+        when(imageRepository.addReference(sha256(data), "image/jpeg", 64)).thenReturn(2);
+
+        imageService.saveImage(file, 1024);
+
+        verify(pendingWrite).commit(sha256(data));
+        verify(pendingWrite).close();
+        verifyNoInteractions(imageVariantGenerator);
+    }
+
+    /**
+     * Tests that the type is taken from the content: a JPEG declared as PNG is stored as JPEG.
+     */
+    @Test
+    public void testSaveImage_ContentTypeIsSniffed() {
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", jpeg(64));
+
+        imageService.saveImage(file, 1024);
+
+        verify(imageRepository).addReference(anyString(), eq("image/jpeg"), eq(64L));
+    }
+
+    /**
+     * Tests that content which is not a JPEG or PNG image is rejected even if declared as one,
+     * and that nothing is committed.
+     */
+    @Test
+    public void testSaveImage_SpoofedContentTypeIsRejected() {
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png",
+                "GIF89a not really a png".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(InvalidFileTypeException.class, () -> imageService.saveImage(file, 1024));
+        verify(pendingWrite, never()).commit(anyString());
+        verify(pendingWrite).close();
+        verifyNoInteractions(imageRepository);
+    }
+
+    /**
+     * Tests that files larger than the given limit are rejected.
+     */
+    @Test
+    public void testSaveImage_FileTooLarge() {
+        MockMultipartFile file = new MockMultipartFile("image", "a.png", "image/png", png(16));
+
+        assertThrows(InvalidFileTypeException.class, () -> imageService.saveImage(file, 8));
+        verifyNoInteractions(imageRepository, imageStore);
+    }
+
+    /**
+     * Tests that releasing the last reference deletes both the metadata and the content.
+     */
+    @Test
+    public void testReleaseImage_LastReferenceDeletesContent() {
+        when(imageRepository.decrementRefCount(ABC_HASH)).thenReturn(1);
+        when(imageRepository.findByIdForUpdate(ABC_HASH))
+                .thenReturn(Optional.of(new Image(ABC_HASH, "image/png", 3, 0)));
+
+        imageService.releaseImage(ABC_HASH);
+
+        verify(imageStore).delete(ABC_HASH);
+        verify(imageRepository).deleteIfUnreferenced(ABC_HASH);
+    }
+
+    /**
+     * Tests that releasing a reference keeps the content while other references remain, including
+     * one added by an upload since the release.
+     */
+    @Test
+    public void testReleaseImage_OtherReferencesKeepContent() {
+        when(imageRepository.decrementRefCount(ABC_HASH)).thenReturn(1);
+        when(imageRepository.findByIdForUpdate(ABC_HASH))
+                .thenReturn(Optional.of(new Image(ABC_HASH, "image/png", 3, 1)));
+
+        imageService.releaseImage(ABC_HASH);
+
+        verify(imageStore, never()).delete(anyString());
+        verify(imageRepository, never()).deleteIfUnreferenced(anyString());
+    }
+
+    /**
+     * Tests that in a transaction the content is only removed once the release commits.
+     */
+    @Test
+    public void testReleaseImage_ContentIsDeletedAfterTransaction() {
+        when(imageRepository.decrementRefCount(ABC_HASH)).thenReturn(1);
+        when(imageRepository.findByIdForUpdate(ABC_HASH))
+                .thenReturn(Optional.of(new Image(ABC_HASH, "image/png", 3, 0)));
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> {
+            imageService.releaseImage(ABC_HASH);
+            return null;
+        });
+
+        verify(imageStore, never()).delete(anyString());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(imageStore).delete(ABC_HASH);
+    }
+
+    /**
+     * Tests that releasing a null hash does nothing.
+     */
+    @Test
+    public void testReleaseImage_NullHash() {
+        imageService.releaseImage(null);
+
+        verifyNoInteractions(imageRepository, imageStore);
+    }
+
+    /**
+     * Tests that reading an image goes straight to the store and detects the type from its magic bytes.
+     */
+    @Test
+    public void testGetImage_DetectsContentTypeFromMagicBytes() {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0};
+        Resource content = resource(png);
+        when(imageStore.open(ABC_HASH, ImageVariant.ORIGINAL)).thenReturn(content);
+
+        ImageResponseDto image = imageService.getImage(ABC_HASH, ImageVariant.ORIGINAL);
+
+        assertEquals("image/png", image.getContentType());
+        assertSame(content, image.getContent());
+        assertEquals(ImageVariant.ORIGINAL, image.getVariant());
+        assertEquals(LAST_MODIFIED, image.getLastModified());
+        verify(imageStore, never()).read(anyString(), any(ImageVariant.class));
+        verifyNoInteractions(imageRepository);
+    }
+
+    /**
+     * Tests that content matching no known format is served as a generic binary type.
+     */
+    @Test
+    public void testGetImage_UnknownFormat() {
+        when(imageStore.open(ABC_HASH, ImageVariant.ORIGINAL)).thenReturn(resource(new byte[]{1, 2, 3}));
+
+        assertEquals("application/octet-stream",
+                imageService.getImage(ABC_HASH, ImageVariant.ORIGINAL).getContentType());
+    }
+
+    /**
+     * Tests that a generated variant is served when it is requested.
+     */
+    @Test
+    public void testGetImage_ServesVariant() {
+        Resource thumb = resource(jpeg(16));
+        when(imageStore.exists(ABC_HASH, ImageVariant.THUMB)).thenReturn(true);
+        when(imageStore.open(ABC_HASH, ImageVariant.THUMB)).thenReturn(thumb);
+
+        ImageResponseDto image = imageService.getImage(ABC_HASH, ImageVariant.THUMB);
+
+        assertEquals("image/jpeg", image.getContentType());
+        assertSame(thumb, image.getContent());
+        assertEquals(ImageVariant.THUMB, image.getVariant());
+        verify(imageStore, never()).open(ABC_HASH, ImageVariant.ORIGINAL);
+    }
+
+    /**
+     * Tests that the original is served while a variant has not been generated, and reported as such.
+     */
+    @Test
+    public void testGetImage_MissingVariantFallsBackToOriginal() {
+        Resource original = resource(jpeg(64));
+        when(imageStore.exists(ABC_HASH, ImageVariant.MEDIUM)).thenReturn(false);
+        when(imageStore.open(ABC_HASH, ImageVariant.ORIGINAL)).thenReturn(original);
+
+        ImageResponseDto image = imageService.getImage(ABC_HASH, ImageVariant.MEDIUM);
+
+        assertSame(original, image.getContent());
+        assertEquals(ImageVariant.ORIGINAL, image.getVariant());
+    }
+
+    /**
+     * Runs an action with transaction synchronization active, as in a transaction, and returns the
+     * synchronizations it registered without running them.
+     */
+    private static List<TransactionSynchronization> inTransaction(Supplier<?> action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.get();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Wraps content in a resource with a fixed modification time, as the store would return it.
+     */
+    private static Resource resource(byte[] data) {
+        return new ByteArrayResource(data) {
+            @Override
+            public long lastModified() {
+                return LAST_MODIFIED;
+            }
+        };
+    }
+
+    private static byte[] png(int length) {
+        byte[] data = new byte[length];
+        byte[] magic = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+        System.arraycopy(magic, 0, data, 0, magic.length);
+        for (int i = magic.length; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] jpeg(int length) {
+        byte[] data = new byte[length];
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xD8;
+        data[2] = (byte) 0xFF;
+        return data;
+    }
+
+    private static String sha256(byte[] data) throws NoSuchAlgorithmException {
+        return ImageServiceImpl.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
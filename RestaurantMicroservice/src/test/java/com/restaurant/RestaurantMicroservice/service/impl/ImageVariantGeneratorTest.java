@@ -0,0 +1,168 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.enums.ImageVariant;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ImageVariantGenerator} class.
+ */
+public class ImageVariantGeneratorTest {
+
+    /**
+     * Directory the store used by the generator writes to.
+     */
+    @TempDir
+    Path root;
+
+    /**
+     * Store holding the originals and the generated variants.
+     */
+    private FileSystemImageStore imageStore;
+
+    /**
+     * {@link ImageVariantGenerator} instance under test.
+     */
+    private ImageVariantGenerator generator;
+
+    /**
+     * Creates a generator backed by a store in a fresh temporary directory.
+     */
+    @BeforeEach
+    public void setUp() {
+        imageStore = new FileSystemImageStore(root.toString());
+        generator = new ImageVariantGenerator(imageStore, 1, 10);
+    }
+
+    /**
+     * Stops the generator threads.
+     */
+    @AfterEach
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    /**
+     * Tests that a variant keeps the aspect ratio and fits the variant's maximum dimension.
+     */
+    @Test
+    public void testEncodeVariant_FitsMaxDimension() throws IOException {
+        BufferedImage source = photo(1200, 900, 1);
+
+        byte[] thumb = ImageVariantGenerator.encodeVariant(source, ImageVariant.THUMB, ImageType.JPEG);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb));
+        assertEquals(160, decoded.getWidth());
+        assertEquals(120, decoded.getHeight());
+    }
+
+    /**
+     * Tests that no variant is produced for an image that already fits.
+     */
+    @Test
+    public void testEncodeVariant_SmallImageIsNotUpscaled() throws IOException {
+        assertNull(ImageVariantGenerator.encodeVariant(photo(100, 80, 2), ImageVariant.THUMB, ImageType.PNG));
+    }
+
+    /**
+     * Tests that generating stores every variant smaller than the original next to it.
+     */
+    @Test
+    public void testGenerate_StoresVariants() throws Exception {
+        String hash = storeOriginal(jpeg(photo(1024, 768, 3)));
+
+        generator.generate(hash, ImageType.JPEG);
+
+        assertTrue(imageStore.exists(hash, ImageVariant.THUMB));
+        assertTrue(imageStore.exists(hash, ImageVariant.MEDIUM));
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(imageStore.read(hash, ImageVariant.MEDIUM)));
+        assertEquals(640, medium.getWidth());
+        assertEquals(480, medium.getHeight());
+    }
+
+    /**
+     * Tests that content which cannot be decoded is left without variants.
+     */
+    @Test
+    public void testGenerate_UndecodableImage() throws Exception {
+        String hash = storeOriginal(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0, 1, 2});
+
+        generator.generate(hash, ImageType.JPEG);
+
+        assertFalse(imageStore.exists(hash, ImageVariant.THUMB));
+    }
+
+    /**
+     * Compares the bytes sent for a menu page of 20 photos: thumbnails must cost a small fraction
+     * of the originals.
+     */
+    @Test
+    public void testThumbnailsShrinkMenuPagePayload() throws IOException {
+        long originalBytes = 0;
+        long thumbBytes = 0;
+        for (int i = 0; i < 20; i++) {
+            BufferedImage photo = photo(1024, 768, i);
+            originalBytes += jpeg(photo).length;
+            thumbBytes += ImageVariantGenerator.encodeVariant(photo, ImageVariant.THUMB, ImageType.JPEG).length;
+        }
+
+        assertTrue(thumbBytes * 10 < originalBytes,
+                "thumbnails " + thumbBytes + " bytes vs originals " + originalBytes + " bytes");
+    }
+
+    private String storeOriginal(byte[] data) throws Exception {
+        String hash = ImageServiceImpl.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+        try (ImageStore.PendingWrite pendingWrite = imageStore.begin()) {
+            pendingWrite.write(ByteBuffer.wrap(data));
+            pendingWrite.commit(hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Builds a photo-like image: a smooth gradient with seeded noise, so it compresses like a
+     * real photo rather than like a flat colour.
+     */
+    private static BufferedImage photo(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = clamp(x * 255 / width + random.nextInt(40) - 20);
+                int g = clamp(y * 255 / height + random.nextInt(40) - 20);
+                int b = clamp((x + y) * 255 / (width + height) + random.nextInt(40) - 20);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return image;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+}
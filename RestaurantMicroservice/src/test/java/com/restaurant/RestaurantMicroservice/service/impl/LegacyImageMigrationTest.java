@@ -0,0 +1,147 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.enums.ImageType;
+import com.restaurant.RestaurantMicroservice.repository.ImageRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that {@link LegacyImageMigration} moves images kept on their rows into the image store,
+ * and can run again after stopping halfway.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(LegacyImageMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacyImageMigrationTest {
+
+    /**
+     * Replaces the Feign client registered by the application class, which is not needed here.
+     */
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    @MockBean
+    private ImageStore imageStore;
+
+    /**
+     * Replaces the repository, whose reference upsert is PostgreSQL only.
+     */
+    @MockBean
+    private ImageRepository imageRepository;
+
+    @MockBean
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Autowired
+    private LegacyImageMigration legacyImageMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ImageStore.PendingWrite pendingWrite;
+
+    @BeforeEach
+    void setUp() {
+        pendingWrite = mock(ImageStore.PendingWrite.class);
+        when(imageStore.begin()).thenReturn(pendingWrite);
+        when(imageRepository.addReference(anyString(), anyString(), anyLong())).thenReturn(1);
+        // The legacy column as the old schema had it
+        jdbcTemplate.execute("ALTER TABLE menu_items ADD COLUMN item_image BLOB DEFAULT X'' NOT NULL");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE menu_items DROP COLUMN IF EXISTS item_image");
+        jdbcTemplate.execute("DELETE FROM menu_items");
+    }
+
+    /**
+     * Tests that a legacy image is stored, referenced and linked to its row, and that the legacy
+     * column is dropped once every image has moved.
+     */
+    @Test
+    void migrate_MovesLegacyImagesAndDropsColumn() throws Exception {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+        int id = insertLegacyItem(png);
+
+        legacyImageMigration.migrate();
+
+        String hash = sha256(png);
+        assertEquals(hash, imageHashOf(id));
+        verify(pendingWrite).commit(hash);
+        verify(imageRepository).addReference(hash, "image/png", png.length);
+        verify(imageVariantGenerator).generateAsync(hash, ImageType.PNG);
+        assertEquals(0, legacyColumnCount());
+    }
+
+    /**
+     * Tests that the legacy column is kept, but no longer required, while an image could not be
+     * moved, and that a later run moves it without referencing the images it moved before again.
+     */
+    @Test
+    void migrate_AfterFailure_RunsAgain() throws Exception {
+        byte[] first = {1, 2, 3};
+        byte[] second = {4, 5, 6};
+        int firstId = insertLegacyItem(first);
+        int secondId = insertLegacyItem(second);
+        doThrow(new IllegalStateException("disk full")).when(pendingWrite).commit(sha256(second));
+
+        legacyImageMigration.migrate();
+
+        assertEquals(sha256(first), imageHashOf(firstId));
+        assertNull(imageHashOf(secondId));
+        assertEquals(1, legacyColumnCount());
+        jdbcTemplate.update("INSERT INTO menu_items (restaurant_id, category_id, food_name, is_available, price) "
+                + "VALUES (1, 1, 'SALAD', TRUE, 10)");
+
+        doNothing().when(pendingWrite).commit(sha256(second));
+        legacyImageMigration.migrate();
+
+        assertEquals(sha256(second), imageHashOf(secondId));
+        verify(imageRepository, times(1)).addReference(sha256(first), "application/octet-stream", 3);
+        assertEquals(0, legacyColumnCount());
+    }
+
+    private int insertLegacyItem(byte[] image) {
+        jdbcTemplate.update("INSERT INTO menu_items (restaurant_id, category_id, food_name, is_available, price, "
+                + "item_image) VALUES (1, 1, 'SOUP', TRUE, 10, ?)", (Object) image);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM menu_items", Integer.class);
+    }
+
+    private String imageHashOf(int id) {
+        return jdbcTemplate.queryForObject("SELECT image_hash FROM menu_items WHERE id = ?", String.class, id);
+    }
+
+    private int legacyColumnCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE LOWER(table_name) = 'menu_items' AND LOWER(column_name) = 'item_image'", Integer.class);
+    }
+
+    private static String sha256(byte[] data) throws NoSuchAlgorithmException {
+        return ImageServiceImpl.toHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
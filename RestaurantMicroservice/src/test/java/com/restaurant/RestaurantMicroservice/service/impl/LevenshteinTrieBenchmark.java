@@ -0,0 +1,141 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of misspelling lookups in a menu vocabulary: the {@link LevenshteinTrie} used by
+ * the {@link MenuSearchIndex} against a scan computing the bounded edit distance to every word.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main LevenshteinTrieBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevenshteinTrieBenchmark {
+
+    /**
+     * Number of distinct words in the vocabulary.
+     */
+    @Param({"10000", "100000", "300000"})
+    public int words;
+
+    private String[] vocabulary;
+
+    private String[] queries;
+
+    private LevenshteinTrie trie;
+
+    private int next;
+
+    /**
+     * Generates a vocabulary of pronounceable words and misspellings of some of them.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Set<String> generated = new LinkedHashSet<>();
+        while (generated.size() < words) {
+            generated.add(word(random));
+        }
+        vocabulary = generated.toArray(new String[0]);
+        trie = new LevenshteinTrie();
+        for (String word : vocabulary) {
+            trie.add(word);
+        }
+        queries = new String[256];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = misspell(vocabulary[random.nextInt(vocabulary.length)], random);
+        }
+    }
+
+    /**
+     * Finds the closest words within two edits by walking the trie.
+     *
+     * @return The closest words.
+     */
+    @Benchmark
+    public List<String> trie() {
+        return trie.closest(queries[next++ & (queries.length - 1)], 2, word -> true);
+    }
+
+    /**
+     * Finds the closest words within two edits by scanning the whole vocabulary.
+     *
+     * @return The closest words.
+     */
+    @Benchmark
+    public List<String> naiveScan() {
+        String query = queries[next++ & (queries.length - 1)];
+        int bound = 2;
+        List<String> closest = new ArrayList<>();
+        for (String word : vocabulary) {
+            int distance = LevenshteinTrie.distance(query, word, bound);
+            if (distance <= bound) {
+                if (distance < bound) {
+                    closest.clear();
+                    bound = distance;
+                }
+                closest.add(word);
+            }
+        }
+        return closest;
+    }
+
+    private static String word(Random random) {
+        String consonants = "bcdghjklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        if (random.nextBoolean()) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+        }
+        return word.toString();
+    }
+
+    private static String misspell(String word, Random random) {
+        StringBuilder misspelled = new StringBuilder(word);
+        int position = random.nextInt(word.length());
+        switch (random.nextInt(3)) {
+            case 0:
+                misspelled.deleteCharAt(position);
+                break;
+            case 1:
+                misspelled.insert(position, misspelled.charAt(position));
+                break;
+            default:
+                misspelled.setCharAt(position, 'y');
+                break;
+        }
+        return misspelled.toString();
+    }
+}
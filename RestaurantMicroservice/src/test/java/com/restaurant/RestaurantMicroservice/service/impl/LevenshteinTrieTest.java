@@ -0,0 +1,99 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link LevenshteinTrie} class.
+ */
+public class LevenshteinTrieTest {
+
+    /**
+     * Tests the bounded edit distance.
+     */
+    @Test
+    public void testDistance() {
+        assertEquals(0, LevenshteinTrie.distance("tikka", "tikka", 2));
+        assertEquals(1, LevenshteinTrie.distance("panner", "paneer", 2));
+        assertEquals(1, LevenshteinTrie.distance("biriyani", "biryani", 2));
+        assertEquals(2, LevenshteinTrie.distance("tikak", "tikka", 2));
+        assertEquals(3, LevenshteinTrie.distance("kitten", "sitting", 5));
+        assertEquals(4, LevenshteinTrie.distance("", "naan", 5));
+        assertEquals(2, LevenshteinTrie.distance("kitten", "sitting", 1));
+        assertEquals(2, LevenshteinTrie.distance("dal", "dosai", 1));
+    }
+
+    /**
+     * Tests that only the closest accepted words are returned, and none beyond the bound.
+     */
+    @Test
+    public void testClosest() {
+        LevenshteinTrie trie = new LevenshteinTrie();
+        for (String word : Arrays.asList("paneer", "panner", "pander", "pan", "biryani", "tikka", "tikka", "naan")) {
+            trie.add(word);
+        }
+
+        assertEquals(7, trie.size());
+        assertEquals(Collections.singletonList("biryani"), trie.closest("biriyani", 2, word -> true));
+        assertEquals(Collections.singletonList("panner"), trie.closest("panner", 2, word -> true));
+        assertEquals(Arrays.asList("pander", "paneer"), trie.closest("panner", 2, word -> !word.equals("panner")));
+        assertEquals(Collections.singletonList("pan"), trie.closest("pa", 1, word -> true));
+        assertTrue(trie.closest("sushi", 2, word -> true).isEmpty());
+        assertTrue(new LevenshteinTrie().closest("naan", 2, word -> true).isEmpty());
+    }
+
+    /**
+     * Tests that lookups find exactly what a scan of every word finds.
+     */
+    @Test
+    public void testClosest_MatchesFullScan() {
+        Random random = new Random(5);
+        List<String> words = new ArrayList<>();
+        LevenshteinTrie trie = new LevenshteinTrie();
+        for (int i = 0; i < 5000; i++) {
+            String word = randomWord(random);
+            words.add(word);
+            trie.add(word);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomWord(random);
+            int maxDistance = 1 + i % 2;
+            int best = maxDistance;
+            List<String> expected = new ArrayList<>();
+            for (String word : words) {
+                int distance = LevenshteinTrie.distance(query, word, maxDistance);
+                if (distance < best) {
+                    best = distance;
+                    expected.clear();
+                }
+                if (distance == best && !expected.contains(word)) {
+                    expected.add(word);
+                }
+            }
+            assertEquals(sorted(expected), sorted(trie.closest(query, maxDistance, word -> true)), query);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[3 + random.nextInt(5)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = "aeiknprst".charAt(random.nextInt(9));
+        }
+        return new String(word);
+    }
+
+    private static List<String> sorted(List<String> words) {
+        List<String> sorted = new ArrayList<>(words);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,96 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of a menu request: rebuilding the DTOs and serializing them on every request, as
+ * before the {@link MenuCache}, against serving the cached payload. Run with the GC profiler, whose
+ * {@code gc.alloc.rate.norm} shows the bytes allocated per request; the cached path should
+ * allocate a small fraction of the uncached one.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuCacheBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuCacheBenchmark {
+
+    /**
+     * Number of items on the menu.
+     */
+    @Param({"10", "60"})
+    public int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MenuCache menuCache;
+
+    /**
+     * Creates the cache and loads the menu into it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        menuCache = new MenuCache(objectMapper, 3, 1024 * 1024, 1024);
+        menuCache.getOrLoad(1, 1, this::menu);
+    }
+
+    /**
+     * Builds the menu and serializes it.
+     *
+     * @return The serialized menu.
+     * @throws JsonProcessingException If the menu cannot be serialized.
+     */
+    @Benchmark
+    public byte[] uncached() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(menu());
+    }
+
+    /**
+     * Serves the serialized menu from the cache.
+     *
+     * @return The serialized menu.
+     */
+    @Benchmark
+    public byte[] cached() {
+        return menuCache.getOrLoad(1, 1, this::menu).getJson();
+    }
+
+    private List<MenuItemResponseDto> menu() {
+        List<MenuItemResponseDto> menu = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            MenuItemResponseDto item = new MenuItemResponseDto(i, "Test Restaurant", "Mains", "Dish " + i,
+                    "A generous plate of dish number " + i + " with seasonal sides", true,
+                    BigDecimal.valueOf(100 + i), "hash-" + i);
+            item.setImageUrl("/api/images/hash-" + i);
+            menu.add(item);
+        }
+        return menu;
+    }
+}
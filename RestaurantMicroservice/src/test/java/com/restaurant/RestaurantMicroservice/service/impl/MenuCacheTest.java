@@ -0,0 +1,215 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link MenuCache} class.
+ */
+public class MenuCacheTest {
+
+    /**
+     * Mapper the cache serializes with.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * {@link MenuCache} instance under test.
+     */
+    private MenuCache menuCache;
+
+    /**
+     * Number of times a loader was asked for a menu.
+     */
+    private AtomicInteger loads;
+
+    /**
+     * Creates a cache of up to three menus and 1 MB.
+     */
+    @BeforeEach
+    public void setUp() {
+        menuCache = new MenuCache(objectMapper, 3, 1024 * 1024, 1024);
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Tests that a menu is loaded once and then served from the cache for the same version.
+     */
+    @Test
+    public void testGetOrLoad_HitsForSameVersion() throws IOException {
+        SerializedMenuDto first = menuCache.getOrLoad(1, 5, loader(menu(2)));
+        SerializedMenuDto second = menuCache.getOrLoad(1, 5, loader(menu(2)));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, menuCache.getHitCount());
+        assertEquals(1, menuCache.getMissCount());
+        assertEquals(5, first.getVersion());
+        assertEquals(2, objectMapper.readTree(first.getJson()).size());
+    }
+
+    /**
+     * Tests that a newer menu version misses and replaces the cached menu.
+     */
+    @Test
+    public void testGetOrLoad_ReloadsForNewVersion() {
+        menuCache.getOrLoad(1, 5, loader(menu(2)));
+        SerializedMenuDto reloaded = menuCache.getOrLoad(1, 6, loader(menu(3)));
+
+        assertEquals(2, loads.get());
+        assertEquals(6, reloaded.getVersion());
+        assertEquals(1, menuCache.size());
+        assertSame(reloaded, menuCache.getOrLoad(1, 6, loader(menu(3))));
+    }
+
+    /**
+     * Tests that a reader that saw an older version does not replace a newer cached menu.
+     */
+    @Test
+    public void testPut_KeepsNewerVersion() {
+        SerializedMenuDto newer = menuCache.getOrLoad(1, 6, loader(menu(3)));
+
+        menuCache.getOrLoad(1, 5, loader(menu(2)));
+
+        assertSame(newer, menuCache.getOrLoad(1, 6, loader(menu(3))));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that invalidation outside a transaction drops the menu right away.
+     */
+    @Test
+    public void testInvalidate_DropsMenu() {
+        menuCache.getOrLoad(1, 5, loader(menu(2)));
+
+        menuCache.invalidate(1);
+
+        assertEquals(0, menuCache.size());
+        assertEquals(0, menuCache.weight());
+        menuCache.getOrLoad(1, 5, loader(menu(2)));
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that the least recently used menu is evicted when the entry limit is exceeded.
+     */
+    @Test
+    public void testPut_EvictsLeastRecentlyUsedOverEntryLimit() {
+        menuCache.getOrLoad(1, 1, loader(menu(1)));
+        menuCache.getOrLoad(2, 1, loader(menu(1)));
+        menuCache.getOrLoad(3, 1, loader(menu(1)));
+        menuCache.getOrLoad(1, 1, loader(menu(1)));
+
+        menuCache.getOrLoad(4, 1, loader(menu(1)));
+
+        assertEquals(3, menuCache.size());
+        assertEquals(1, menuCache.getEvictionCount());
+        assertNotNull(menuCache.get(1, 1));
+        assertNull(menuCache.get(2, 1));
+    }
+
+    /**
+     * Tests that menus are evicted to keep the cached bytes within the size limit, and that a menu
+     * larger than the limit is served without being cached.
+     */
+    @Test
+    public void testPut_EvictsOverWeightLimit() {
+        SerializedMenuDto small = menuCache.serialize(1, menu(1));
+        long limit = (small.getWeight() + 128) * 2L;
+        menuCache = new MenuCache(objectMapper, 100, limit, Integer.MAX_VALUE);
+
+        menuCache.getOrLoad(1, 1, loader(menu(1)));
+        menuCache.getOrLoad(2, 1, loader(menu(1)));
+        menuCache.getOrLoad(3, 1, loader(menu(1)));
+        SerializedMenuDto large = menuCache.getOrLoad(4, 1, loader(menu(50)));
+
+        assertEquals(2, menuCache.size());
+        assertTrue(menuCache.weight() <= limit);
+        assertNotNull(large);
+        assertNull(menuCache.get(4, 1));
+    }
+
+    /**
+     * Tests that large menus are also kept compressed and small ones are not.
+     */
+    @Test
+    public void testSerialize_CompressesLargeMenusOnly() throws IOException {
+        SerializedMenuDto small = menuCache.serialize(1, menu(1));
+        SerializedMenuDto large = menuCache.serialize(1, menu(60));
+
+        assertNull(small.getGzip());
+        assertNotNull(large.getGzip());
+        assertTrue(large.getGzip().length < large.getJson().length);
+        assertArrayEquals(large.getJson(), gunzip(large.getGzip()));
+    }
+
+    /**
+     * Tests that the cache statistics are published as metrics.
+     */
+    @Test
+    public void testBindTo_PublishesStatistics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        menuCache.bindTo(registry);
+
+        menuCache.getOrLoad(1, 1, loader(menu(1)));
+        menuCache.getOrLoad(1, 1, loader(menu(1)));
+
+        assertEquals(1.0, registry.get("menu.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("menu.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("menu.cache.size").gauge().value());
+        assertEquals(menuCache.weight(), registry.get("menu.cache.weight").gauge().value(), 0.0);
+    }
+
+    private Supplier<List<MenuItemResponseDto>> loader(List<MenuItemResponseDto> menu) {
+        return () -> {
+            loads.incrementAndGet();
+            return menu;
+        };
+    }
+
+    private static List<MenuItemResponseDto> menu(int items) {
+        List<MenuItemResponseDto> menu = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            MenuItemResponseDto item = new MenuItemResponseDto(i, "Test Restaurant", "Mains", "Dish " + i,
+                    "A generous plate of dish number " + i + " with seasonal sides", true,
+                    BigDecimal.valueOf(100 + i), "hash-" + i);
+            item.setImageUrl("/api/images/hash-" + i);
+            menu.add(item);
+        }
+        return Collections.unmodifiableList(menu);
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.UpdateCategoryRequestDto;
+import com.restaurant.RestaurantMicroservice.entities.Category;
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.service.CategoryService;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import com.restaurant.RestaurantMicroservice.service.MenuItemService;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that menu changes bump the restaurant menu version and that the delta since a version
+ * contains exactly the items changed and removed after it.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({MenuItemServiceImpl.class, CategoryServiceImpl.class, MenuVersions.class, ImageServiceImpl.class})
+class MenuItemServiceImplMenuVersionTest {
+
+    /**
+     * Replaces the Feign client registered by the application class, which is not needed here.
+     */
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    /**
+     * Keeps the test off the local disk; no images are uploaded.
+     */
+    @MockBean
+    private ImageStore imageStore;
+
+    /**
+     * Keeps image variant generation threads out of the test context.
+     */
+    @MockBean
+    private ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * Stands in for the menu cache, which needs the web layer's object mapper.
+     */
+    @MockBean
+    private MenuCache menuCache;
+
+    /**
+     * Keeps the search index out of the test; it has tests of its own.
+     */
+    @MockBean
+    private MenuSearchService menuSearchService;
+
+    /**
+     * Keeps the search box suggestions out of the test; they have tests of their own.
+     */
+    @MockBean
+    private SearchSuggestionService searchSuggestionService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private RestaurantDetail restaurant;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new RestaurantDetail();
+        restaurant.setOwnerId(1);
+        restaurant.setRestaurantName("Versioned Diner");
+        restaurant.setAddress("1 Test Street");
+        restaurant.setContactNo("9999999999");
+        restaurant.setOpen(true);
+        restaurant.setOpeningHours("09:00-22:00");
+        restaurant.setDescription("Test restaurant");
+        restaurant = entityManager.persist(restaurant);
+        category = entityManager.persist(new Category("MAINS", restaurant.getId()));
+        entityManager.flush();
+    }
+
+    /**
+     * Tests that every menu change bumps the version and shows up in the delta since the version before it.
+     */
+    @Test
+    void menuChanges_BumpVersionAndAppearInDelta() {
+        assertEquals(0, menuItemService.getMenuVersion(restaurant.getId()));
+
+        menuItemService.createMenuItem(newItem("SOUP"), null);
+        menuItemService.createMenuItem(newItem("SALAD"), null);
+        long afterCreate = menuItemService.getMenuVersion(restaurant.getId());
+        assertEquals(2, afterCreate);
+        int soupId = findId("SOUP");
+        int saladId = findId("SALAD");
+
+        menuItemService.updateMenuItemStatus(soupId);
+        MenuDeltaResponseDto statusDelta = menuItemService.getMenuChangesSince(restaurant.getId(), afterCreate);
+        assertEquals(afterCreate + 1, statusDelta.getVersion());
+        assertFalse(statusDelta.isFullSync());
+        assertEquals(1, statusDelta.getChangedItems().size());
+        assertEquals(soupId, statusDelta.getChangedItems().get(0).getId());
+        assertTrue(statusDelta.getChangedItems().get(0).getIsAvailable());
+        assertTrue(statusDelta.getRemovedItemIds().isEmpty());
+
+        menuItemService.deleteMenuItem(saladId);
+        MenuDeltaResponseDto deleteDelta = menuItemService.getMenuChangesSince(restaurant.getId(), afterCreate + 1);
+        assertEquals(afterCreate + 2, deleteDelta.getVersion());
+        assertTrue(deleteDelta.getChangedItems().isEmpty());
+        assertEquals(Collections.singletonList(saladId), deleteDelta.getRemovedItemIds());
+
+        MenuDeltaResponseDto current = menuItemService.getMenuChangesSince(restaurant.getId(), afterCreate + 2);
+        assertTrue(current.getChangedItems().isEmpty());
+        assertTrue(current.getRemovedItemIds().isEmpty());
+    }
+
+    /**
+     * Tests that renaming a category marks its items as changed, since they carry the category name.
+     */
+    @Test
+    void categoryRename_MarksItemsOfCategoryChanged() {
+        menuItemService.createMenuItem(newItem("CURRY"), null);
+        long before = menuItemService.getMenuVersion(restaurant.getId());
+
+        UpdateCategoryRequestDto rename = new UpdateCategoryRequestDto();
+        rename.setName("CURRIES");
+        categoryService.updateCategory(category.getId(), rename);
+        entityManager.flush();
+        entityManager.clear();
+
+        MenuDeltaResponseDto delta = menuItemService.getMenuChangesSince(restaurant.getId(), before);
+        assertEquals(before + 1, delta.getVersion());
+        assertEquals(1, delta.getChangedItems().size());
+        assertEquals("CURRIES", delta.getChangedItems().get(0).getCategoryName());
+    }
+
+    /**
+     * Tests that clients without a usable version get the whole menu.
+     */
+    @Test
+    void getMenuChangesSince_UnknownVersion_ReturnsFullMenu() {
+        menuItemService.createMenuItem(newItem("BREAD"), null);
+
+        MenuDeltaResponseDto fromScratch = menuItemService.getMenuChangesSince(restaurant.getId(), 0);
+        MenuDeltaResponseDto fromFuture = menuItemService.getMenuChangesSince(restaurant.getId(), 99);
+
+        assertTrue(fromScratch.isFullSync());
+        assertEquals(1, fromScratch.getChangedItems().size());
+        assertTrue(fromFuture.isFullSync());
+        assertEquals(1, fromFuture.getChangedItems().size());
+    }
+
+    private CreateMenuItemRequestDto newItem(String foodName) {
+        CreateMenuItemRequestDto dto = new CreateMenuItemRequestDto();
+        dto.setRestaurantId(restaurant.getId());
+        dto.setCategoryId(category.getId());
+        dto.setFoodName(foodName);
+        dto.setDescription("Tasty");
+        dto.setPrice(BigDecimal.valueOf(120));
+        return dto;
+    }
+
+    private int findId(String foodName) {
+        List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByRestaurantId(restaurant.getId());
+        return menu.stream()
+                .filter(item -> foodName.equals(item.getFoodName()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new)
+                .getId();
+    }
+}
@@ -0,0 +1,271 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.Category;
+import com.restaurant.RestaurantMicroservice.entities.MenuItems;
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.service.CategoryService;
+import com.restaurant.RestaurantMicroservice.service.ImageStore;
+import com.restaurant.RestaurantMicroservice.service.MenuItemService;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that the menu read paths of {@link MenuItemServiceImpl}, and category deletion in
+ * {@link CategoryServiceImpl}, issue a constant number of SQL statements regardless of how many
+ * items the menu contains.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({MenuItemServiceImpl.class, CategoryServiceImpl.class, MenuVersions.class, ImageServiceImpl.class})
+class MenuItemServiceImplQueryCountTest {
+
+    /**
+     * Replaces the Feign client registered by the application class, which is not needed here.
+     */
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    /**
+     * Keeps the test off the local disk; the menu read paths never touch image content.
+     */
+    @MockBean
+    private ImageStore imageStore;
+
+    /**
+     * Keeps image variant generation threads out of the test context.
+     */
+    @MockBean
+    private ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * Stands in for the menu cache, which needs the web layer's object mapper.
+     */
+    @MockBean
+    private MenuCache menuCache;
+
+    /**
+     * Keeps the search index out of the test; it has tests of its own.
+     */
+    @MockBean
+    private MenuSearchService menuSearchService;
+
+    /**
+     * Keeps the search box suggestions out of the test; they have tests of their own.
+     */
+    @MockBean
+    private SearchSuggestionService searchSuggestionService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tests that fetching a small and a large restaurant menu costs the same single query.
+     */
+    @Test
+    void getAllMenuItemsByRestaurantId_UsesOneStatementIndependentOfMenuSize() {
+        int smallRestaurantId = createRestaurantWithMenu("Small Diner", 5);
+        int largeRestaurantId = createRestaurantWithMenu("Large Diner", 150);
+
+        long smallMenuStatements = countStatements(() -> {
+            List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByRestaurantId(smallRestaurantId);
+            assertEquals(5, menu.size());
+        });
+        long largeMenuStatements = countStatements(() -> {
+            List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByRestaurantId(largeRestaurantId);
+            assertEquals(150, menu.size());
+            assertEquals("Large Diner", menu.get(0).getRestaurantName());
+        });
+
+        assertEquals(1, smallMenuStatements);
+        assertEquals(smallMenuStatements, largeMenuStatements);
+    }
+
+    /**
+     * Tests that fetching the items of a category costs a single query and resolves names through the join.
+     */
+    @Test
+    void getAllMenuItemsByCategoryId_UsesOneStatement() {
+        RestaurantDetail restaurant = persistRestaurant("Category Diner");
+        Category category = entityManager.persist(new Category("Starters", restaurant.getId()));
+        for (int i = 0; i < 40; i++) {
+            entityManager.persist(newMenuItem(restaurant.getId(), category.getId(), "Starter " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = countStatements(() -> {
+            List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByCategoryId(category.getId());
+            assertEquals(40, menu.size());
+            assertEquals("Starters", menu.get(0).getCategoryName());
+            assertEquals("Category Diner", menu.get(0).getRestaurantName());
+        });
+
+        assertEquals(1, statements);
+    }
+
+    /**
+     * Tests that items without a category are still returned, with the placeholder category name.
+     */
+    @Test
+    void getAllMenuItemsByRestaurantId_ItemWithoutCategory_UsesPlaceholderName() {
+        RestaurantDetail restaurant = persistRestaurant("Orphan Diner");
+        entityManager.persist(newMenuItem(restaurant.getId(), 0, "Orphan Dish"));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByRestaurantId(restaurant.getId());
+
+        assertEquals(1, menu.size());
+        assertEquals(Constants.CATEGORY_NOT_FOUND, menu.get(0).getCategoryName());
+    }
+
+    /**
+     * Tests that deleting a category with a handful or with hundreds of items costs the same
+     * statements, and that its items stay on the menu without a category.
+     */
+    @Test
+    void deleteCategory_UsesSameStatementsIndependentOfItemCount() {
+        RestaurantDetail restaurant = persistRestaurant("Bulk Diner");
+        Category small = entityManager.persist(new Category("Small", restaurant.getId()));
+        Category large = entityManager.persist(new Category("Large", restaurant.getId()));
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(newMenuItem(restaurant.getId(), small.getId(), "Small Dish " + i));
+        }
+        for (int i = 0; i < 300; i++) {
+            entityManager.persist(newMenuItem(restaurant.getId(), large.getId(), "Large Dish " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long smallStatements = countStatements(() -> {
+            categoryService.deleteCategory(small.getId());
+            entityManager.flush();
+        });
+        long largeStatements = countStatements(() -> {
+            categoryService.deleteCategory(large.getId());
+            entityManager.flush();
+        });
+        entityManager.clear();
+
+        assertEquals(smallStatements, largeStatements);
+        List<MenuItemResponseDto> menu = menuItemService.getAllMenuItemsByRestaurantId(restaurant.getId());
+        assertEquals(303, menu.size());
+        assertTrue(menu.stream().allMatch(item -> Constants.CATEGORY_NOT_FOUND.equals(item.getCategoryName())));
+        assertEquals(2L, entityManager.find(RestaurantDetail.class, restaurant.getId()).getMenuVersion());
+    }
+
+    /**
+     * Tests that filtering a menu by price and availability is one query that sorts by price in
+     * the database, with ties broken by ID.
+     */
+    @Test
+    void getFilteredMenuItemsByRestaurantId_FiltersAndSortsInOneStatement() {
+        RestaurantDetail restaurant = persistRestaurant("Priced Diner");
+        int[] prices = {300, 80, 150, 150, 220, 40};
+        for (int i = 0; i < prices.length; i++) {
+            MenuItems menuItem = newMenuItem(restaurant.getId(), 0, "Priced Dish " + i);
+            menuItem.setPrice(BigDecimal.valueOf(prices[i]));
+            menuItem.setAvailable(i != 4);
+            entityManager.persist(menuItem);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = countStatements(() -> {
+            List<MenuItemResponseDto> menu = menuItemService.getFilteredMenuItemsByRestaurantId(restaurant.getId(),
+                    true, BigDecimal.valueOf(100), null, Sort.Direction.DESC);
+            assertEquals(Arrays.asList("Priced Dish 0", "Priced Dish 3", "Priced Dish 2"),
+                    menu.stream().map(MenuItemResponseDto::getFoodName).collect(Collectors.toList()));
+        });
+        List<MenuItemResponseDto> cheapest = menuItemService.getFilteredMenuItemsByRestaurantId(restaurant.getId(),
+                null, null, BigDecimal.valueOf(150), Sort.Direction.ASC);
+
+        assertEquals(1, statements);
+        assertEquals(Arrays.asList("Priced Dish 5", "Priced Dish 1", "Priced Dish 2", "Priced Dish 3"),
+                cheapest.stream().map(MenuItemResponseDto::getFoodName).collect(Collectors.toList()));
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private int createRestaurantWithMenu(String name, int itemCount) {
+        RestaurantDetail restaurant = persistRestaurant(name);
+        Category[] categories = new Category[3];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = entityManager.persist(new Category(name + " Category " + i, restaurant.getId()));
+        }
+        for (int i = 0; i < itemCount; i++) {
+            Category category = categories[i % categories.length];
+            entityManager.persist(newMenuItem(restaurant.getId(), category.getId(), name + " Dish " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return restaurant.getId();
+    }
+
+    private RestaurantDetail persistRestaurant(String name) {
+        RestaurantDetail restaurant = new RestaurantDetail();
+        restaurant.setOwnerId(1);
+        restaurant.setRestaurantName(name);
+        restaurant.setAddress("1 Test Street");
+        restaurant.setContactNo("9999999999");
+        restaurant.setOpen(true);
+        restaurant.setOpeningHours("09:00-22:00");
+        restaurant.setDescription("Test restaurant");
+        return entityManager.persist(restaurant);
+    }
+
+    private MenuItems newMenuItem(int restaurantId, int categoryId, String foodName) {
+        MenuItems menuItem = new MenuItems();
+        menuItem.setRestaurantId(restaurantId);
+        menuItem.setCategoryId(categoryId);
+        menuItem.setFoodName(foodName);
+        menuItem.setDescription("Tasty");
+        menuItem.setAvailable(true);
+        menuItem.setPrice(BigDecimal.valueOf(120));
+        return menuItem;
+    }
+}
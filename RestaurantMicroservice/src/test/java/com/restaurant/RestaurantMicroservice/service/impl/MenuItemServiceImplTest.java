@@ -1,31 +1,48 @@
 package com.restaurant.RestaurantMicroservice.service.impl;
 
+import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.controller.MenuItemController;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CreateMenuItemRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuDeltaResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.MenuItemUpdateRequestDto;
+import com.restaurant.RestaurantMicroservice.dtos.SerializedMenuDto;
 import com.restaurant.RestaurantMicroservice.entities.Category;
+import com.restaurant.RestaurantMicroservice.entities.MenuItemTombstone;
 import com.restaurant.RestaurantMicroservice.entities.MenuItems;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
 import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
 import com.restaurant.RestaurantMicroservice.repository.CategoryRepository;
 import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemTombstoneRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import com.restaurant.RestaurantMicroservice.service.MenuSearchService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.awt.*;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -51,6 +68,41 @@ public class MenuItemServiceImplTest {
     @Mock
     private MenuItemRepository menuItemRepository;
 
+    /**
+     * Mocked {@link ImageService} instance.
+     */
+    @Mock
+    private ImageService imageService;
+
+    /**
+     * Mocked {@link MenuItemTombstoneRepository} instance.
+     */
+    @Mock
+    private MenuItemTombstoneRepository menuItemTombstoneRepository;
+
+    /**
+     * Mocked {@link MenuCache} instance.
+     */
+    @Mock
+    private MenuCache menuCache;
+
+    /**
+     * Mocked {@link MenuVersions} instance.
+     */
+    @Mock
+    private MenuVersions menuVersions;
+
+    /**
+     * Mocked {@link MenuSearchService} instance.
+     */
+    @Mock
+    private MenuSearchService menuSearchService;
+
+    /**
+     * Mocked {@link SearchSuggestionService} instance.
+     */
+    @Mock
+    private SearchSuggestionService searchSuggestionService;
 
     @InjectMocks
     private MenuItemController menuItemController;
@@ -67,6 +119,7 @@ public class MenuItemServiceImplTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(menuVersions.next(anyInt())).thenReturn(1L);
     }
 
     /**
@@ -100,11 +153,20 @@ public class MenuItemServiceImplTest {
     @Test
     public void testDeleteMenuItemSuccess() {
         MenuItems menuItem = new MenuItems();
+        menuItem.setId(1);
+        menuItem.setRestaurantId(3);
+        menuItem.setFoodName("Pizza");
+        menuItem.setImageHash("image-hash");
         when(menuItemRepository.findById(anyInt())).thenReturn(Optional.of(menuItem));
 
         menuItemService.deleteMenuItem(1);
 
         verify(menuItemRepository).delete(menuItem);
+        verify(menuVersions).next(3);
+        verify(menuItemTombstoneRepository).save(new MenuItemTombstone(1, 3, 1L));
+        verify(imageService).releaseImage("image-hash");
+        verify(menuSearchService).reindexMenuItems(Collections.singletonList(1));
+        verify(searchSuggestionService).nameRemoved(SuggestionType.DISH, "Pizza");
     }
 
     /**
@@ -121,6 +183,102 @@ public class MenuItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> menuItemService.deleteMenuItem(1));
     }
 
+    /**
+     * Tests that the changes since a known menu version contain the changed and removed items only.
+     */
+    @Test
+    void testGetMenuChangesSince_ReturnsDelta() {
+        MenuItemResponseDto changed = new MenuItemResponseDto();
+        changed.setFoodName("Soup");
+        when(menuVersions.current(1)).thenReturn(7L);
+        when(menuItemRepository.findMenuChangesByRestaurantId(1, 5L)).thenReturn(Collections.singletonList(changed));
+        when(menuItemTombstoneRepository.findDeletedMenuItemIds(1, 5L)).thenReturn(Arrays.asList(4, 9));
+
+        MenuDeltaResponseDto delta = menuItemService.getMenuChangesSince(1, 5L);
+
+        assertEquals(7L, delta.getVersion());
+        assertFalse(delta.isFullSync());
+        assertEquals(Collections.singletonList(changed), delta.getChangedItems());
+        assertEquals(Arrays.asList(4, 9), delta.getRemovedItemIds());
+        verify(menuItemRepository, never()).findMenuByRestaurantId(anyInt());
+    }
+
+    /**
+     * Tests that a client without a version, or with a version the server never issued, gets the full menu.
+     */
+    @Test
+    void testGetMenuChangesSince_UnknownVersion_ReturnsFullMenu() {
+        MenuItemResponseDto item = new MenuItemResponseDto();
+        item.setFoodName("Bread");
+        when(menuVersions.current(1)).thenReturn(7L);
+        when(menuItemRepository.findMenuByRestaurantId(1)).thenReturn(Collections.singletonList(item));
+
+        MenuDeltaResponseDto fromScratch = menuItemService.getMenuChangesSince(1, 0L);
+        MenuDeltaResponseDto fromFuture = menuItemService.getMenuChangesSince(1, 8L);
+
+        assertTrue(fromScratch.isFullSync());
+        assertEquals(Collections.singletonList(item), fromScratch.getChangedItems());
+        assertTrue(fromFuture.isFullSync());
+        assertTrue(fromFuture.getRemovedItemIds().isEmpty());
+        verify(menuItemRepository, never()).findMenuChangesByRestaurantId(anyInt(), anyLong());
+    }
+
+    /**
+     * Tests that the serialized menu is served from the menu cache, which loads the menu on a miss.
+     */
+    @Test
+    void testGetSerializedMenu_LoadsThroughCache() {
+        MenuItemResponseDto item = new MenuItemResponseDto();
+        item.setFoodName("Bread");
+        SerializedMenuDto serialized = new SerializedMenuDto(7L, new byte[]{'[', ']'}, null);
+        when(menuItemRepository.findMenuByRestaurantId(1)).thenReturn(Collections.singletonList(item));
+        when(menuCache.getOrLoad(eq(1), eq(7L), any())).thenAnswer(invocation -> {
+            Supplier<List<MenuItemResponseDto>> loader = invocation.getArgument(2);
+            assertEquals(Collections.singletonList(item), loader.get());
+            return serialized;
+        });
+
+        assertSame(serialized, menuItemService.getSerializedMenu(1, 7L));
+        verify(menuItemRepository, times(1)).findMenuByRestaurantId(1);
+    }
+
+    /**
+     * Tests that the filtered menu is read in one query sorted by price, then ID, and completed.
+     */
+    @Test
+    void testGetFilteredMenuItemsByRestaurantId_SortsByPriceInQuery() {
+        MenuItemResponseDto item = new MenuItemResponseDto();
+        item.setId(4);
+        when(menuItemRepository.findMenuByRestaurantIdFiltered(1, true, BigDecimal.TEN, null,
+                Sort.by(Sort.Direction.DESC, "price", "id"))).thenReturn(Collections.singletonList(item));
+
+        List<MenuItemResponseDto> result = menuItemService.getFilteredMenuItemsByRestaurantId(1, true,
+                BigDecimal.TEN, null, Sort.Direction.DESC);
+
+        assertEquals(Collections.singletonList(item), result);
+        assertEquals(Constants.CATEGORY_NOT_FOUND, result.get(0).getCategoryName());
+    }
+
+    /**
+     * Tests that toggling availability re-indexes the item, so price queries see the new status.
+     */
+    @Test
+    void testUpdateMenuItemStatus_ReindexesItem() {
+        MenuItems menuItem = new MenuItems();
+        menuItem.setId(5);
+        menuItem.setRestaurantId(1);
+        menuItem.setAvailable(true);
+        when(menuItemRepository.findById(5)).thenReturn(Optional.of(menuItem));
+        when(menuVersions.next(1)).thenReturn(8L);
+
+        CommonResponseDto response = menuItemService.updateMenuItemStatus(5);
+
+        assertEquals(Constants.MENU_ITEM_NOTAVAILABLE, response.getMessage());
+        assertFalse(menuItem.getAvailable());
+        assertEquals(8L, menuItem.getMenuVersion());
+        verify(menuSearchService).reindexMenuItems(Collections.singletonList(5));
+    }
+
     @Test
     void testUpdateMenuItem_Success() {
         // Mock data setup
@@ -133,8 +291,9 @@ public class MenuItemServiceImplTest {
 
         MenuItems existingMenuItem = new MenuItems();
         existingMenuItem.setId(menuItemId);
-        existingMenuItem.setFoodName("Old Dish");
+        existingMenuItem.setFoodName("OLD DISH");
         existingMenuItem.setRestaurantId(1); // Set a valid restaurant ID
+        existingMenuItem.setImageHash("old-image-hash");
 
         // Mock MultipartFile
         MockMultipartFile multipartFile = new MockMultipartFile("image", "test.jpg", "image/jpeg", "Test Image".getBytes());
@@ -146,6 +305,7 @@ public class MenuItemServiceImplTest {
         // Mock menu item repository behavior
         when(menuItemRepository.findById(menuItemId)).thenReturn(Optional.of(existingMenuItem));
         when(menuItemRepository.save(any(MenuItems.class))).thenReturn(existingMenuItem);
+        when(imageService.saveImage(eq(multipartFile), anyLong())).thenReturn("image-hash");
 
         // Call the service method
         CommonResponseDto responseDto = menuItemService.updateMenuItem(menuItemId, menuItemUpdateRequestDto, multipartFile);
@@ -153,8 +313,14 @@ public class MenuItemServiceImplTest {
         // Assertions
         assertNotNull(responseDto);
         assertEquals("Updated Successfully", responseDto.getMessage());
+        assertEquals("image-hash", existingMenuItem.getImageHash());
+        verify(imageService, times(1)).releaseImage("old-image-hash");
         verify(menuItemRepository, times(1)).findById(menuItemId);
         verify(menuItemRepository, times(1)).save(any(MenuItems.class));
+        verify(menuVersions, times(1)).next(1);
+        assertEquals(1L, existingMenuItem.getMenuVersion());
+        verify(menuSearchService, times(1)).reindexMenuItems(Collections.singletonList(menuItemId));
+        verify(searchSuggestionService, times(1)).nameChanged(SuggestionType.DISH, "OLD DISH", "NEW DISH");
         verify(categoryRepository, times(1)).findById(menuItemUpdateRequestDto.getCategoryId()); // Verify category check
     }
 
@@ -0,0 +1,128 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of cross-restaurant price queries over a synthetic catalog: the
+ * {@link MenuPriceIndex} against a scan of every item, as a client holding the full catalog would
+ * run.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -Xmx2g -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuPriceIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuPriceIndexBenchmark {
+
+    /**
+     * Number of items a query returns, as one page of results.
+     */
+    private static final int LIMIT = 20;
+
+    /**
+     * Number of menu items in the catalog.
+     */
+    @Param({"1000000"})
+    public int items;
+
+    private BigDecimal[] prices;
+
+    private boolean[] available;
+
+    private BigDecimal[] maxPrices;
+
+    private MenuPriceIndex index;
+
+    private int next;
+
+    /**
+     * Generates a catalog priced between 20 and 1000 rupees with one item in five unavailable,
+     * and "under N" queries spread over the same range.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new BigDecimal[items];
+        available = new boolean[items];
+        index = new MenuPriceIndex();
+        for (int id = 0; id < items; id++) {
+            prices[id] = BigDecimal.valueOf(2000 + random.nextInt(98000), 2);
+            available[id] = random.nextInt(5) != 0;
+            index.put(id, prices[id], available[id]);
+        }
+        maxPrices = new BigDecimal[256];
+        for (int i = 0; i < maxPrices.length; i++) {
+            maxPrices[i] = BigDecimal.valueOf(50 + random.nextInt(950));
+        }
+    }
+
+    /**
+     * Finds the most expensive available items under a price from the index.
+     *
+     * @return The item IDs.
+     */
+    @Benchmark
+    public int[] index() {
+        return index.find(null, maxPrices[next++ & (maxPrices.length - 1)], true, true, LIMIT);
+    }
+
+    /**
+     * Finds the most expensive available items under a price by filtering every item and keeping
+     * the best ones in a bounded buffer, which beats a full sort of the matches.
+     *
+     * @return The item IDs.
+     */
+    @Benchmark
+    public int[] naiveScan() {
+        BigDecimal maxPrice = maxPrices[next++ & (maxPrices.length - 1)];
+        int[] best = new int[LIMIT];
+        int count = 0;
+        for (int id = 0; id < items; id++) {
+            if (!available[id] || prices[id].compareTo(maxPrice) > 0) {
+                continue;
+            }
+            if (count == LIMIT && compare(id, best[LIMIT - 1]) <= 0) {
+                continue;
+            }
+            int position = count == LIMIT ? LIMIT - 1 : count++;
+            while (position > 0 && compare(id, best[position - 1]) > 0) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = id;
+        }
+        return Arrays.copyOf(best, count);
+    }
+
+    /**
+     * Compares two items by price, then by ID.
+     */
+    private int compare(int a, int b) {
+        int byPrice = prices[a].compareTo(prices[b]);
+        return byPrice != 0 ? byPrice : Integer.compare(a, b);
+    }
+}
@@ -0,0 +1,123 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link MenuPriceIndex} class.
+ */
+public class MenuPriceIndexTest {
+
+    private MenuPriceIndex index;
+
+    /**
+     * Indexes six items, two of them sharing a price and one of them unavailable.
+     */
+    @BeforeEach
+    public void setUp() {
+        index = new MenuPriceIndex();
+        index.put(1, price(300), true);
+        index.put(2, price(80), true);
+        index.put(3, price(150), true);
+        index.put(4, new BigDecimal("150.00"), true);
+        index.put(5, price(220), false);
+        index.put(6, price(40), true);
+    }
+
+    /**
+     * Tests that ranges are inclusive, open ended when a bound is missing, and ordered by price
+     * then ID in the requested direction.
+     */
+    @Test
+    public void testFind_RangesAndDirection() {
+        assertArrayEquals(new int[]{6, 2, 3, 4, 5, 1}, index.find(null, null, false, false, 10));
+        assertArrayEquals(new int[]{1, 5, 4, 3, 2, 6}, index.find(null, null, false, true, 10));
+        assertArrayEquals(new int[]{2, 3, 4}, index.find(price(80), price(150), false, false, 10));
+        assertArrayEquals(new int[]{5, 1}, index.find(price(200), null, false, false, 10));
+        assertArrayEquals(new int[]{6, 2}, index.find(null, price(100), false, false, 10));
+        assertArrayEquals(new int[]{6, 2}, index.find(null, null, false, false, 2));
+        assertArrayEquals(new int[0], index.find(price(200), price(100), false, false, 10));
+        assertArrayEquals(new int[0], index.find(null, null, false, false, 0));
+    }
+
+    /**
+     * Tests that unavailable items are left out of availability queries only.
+     */
+    @Test
+    public void testFind_AvailableOnly() {
+        assertArrayEquals(new int[]{1, 4, 3}, index.find(price(100), null, true, true, 10));
+        assertArrayEquals(new int[]{1, 5, 4}, index.find(price(100), null, false, true, 3));
+    }
+
+    /**
+     * Tests that changing an item moves it, toggling it updates the availability set, and
+     * removing it or clearing its price drops it.
+     */
+    @Test
+    public void testPutAndRemove() {
+        index.put(1, price(10), true);
+        index.put(5, price(220), true);
+        index.put(6, null, true);
+        index.remove(2);
+        index.remove(99);
+        index.putIfAbsent(3, price(1), false);
+        index.putIfAbsent(7, price(500), false);
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[]{1, 3, 4, 5, 7}, index.find(null, null, false, false, 10));
+        assertArrayEquals(new int[]{1, 3, 4, 5}, index.find(null, null, true, false, 10));
+    }
+
+    /**
+     * Tests that queries return exactly what filtering and sorting every item returns.
+     */
+    @Test
+    public void testFind_MatchesFullScan() {
+        Random random = new Random(14);
+        MenuPriceIndex large = new MenuPriceIndex();
+        List<Object[]> items = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(50000), 2);
+            boolean available = random.nextInt(4) != 0;
+            large.put(id, price, available);
+            items.add(new Object[]{id, price, available});
+        }
+
+        for (int i = 0; i < 200; i++) {
+            BigDecimal min = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(50000), 2) : null;
+            BigDecimal max = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(50000), 2) : null;
+            boolean availableOnly = random.nextBoolean();
+            boolean descending = random.nextBoolean();
+            int limit = 1 + random.nextInt(100);
+
+            Comparator<Object[]> order = Comparator.comparing((Object[] item) -> (BigDecimal) item[1])
+                    .thenComparingInt(item -> (Integer) item[0]);
+            int[] expected = items.stream()
+                    .filter(item -> min == null || ((BigDecimal) item[1]).compareTo(min) >= 0)
+                    .filter(item -> max == null || ((BigDecimal) item[1]).compareTo(max) <= 0)
+                    .filter(item -> !availableOnly || (Boolean) item[2])
+                    .sorted(descending ? order.reversed() : order)
+                    .limit(limit)
+                    .mapToInt(item -> (Integer) item[0])
+                    .toArray();
+
+            assertArrayEquals(expected, large.find(min, max, availableOnly, descending, limit),
+                    "min " + min + " max " + max + " available " + availableOnly + " descending " + descending
+                            + " limit " + limit + ": " + Arrays.toString(expected));
+        }
+    }
+
+    private static BigDecimal price(int rupees) {
+        return BigDecimal.valueOf(rupees);
+    }
+}
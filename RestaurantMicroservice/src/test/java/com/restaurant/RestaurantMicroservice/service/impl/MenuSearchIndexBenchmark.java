@@ -0,0 +1,126 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the {@link MenuSearchIndex}: the time to index a menu catalogue and the
+ * latency of a query against it. A query over a few hundred thousand items should answer well
+ * within 100 milliseconds.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MenuSearchIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MenuSearchIndexBenchmark {
+
+    /**
+     * Words the synthetic menu items are made of.
+     */
+    private static final String[] WORDS = ("chicken paneer rice noodle soup curry masala spicy grilled fried "
+            + "butter garlic naan biryani tikka kebab lamb fish prawn salad sweet sour cheese tomato onion "
+            + "potato lentil mushroom spinach coconut mango lime chilli ginger pepper roasted steamed crispy "
+            + "creamy smoked tandoori korma vindaloo dal paratha idli dosa sambar chutney pickle raita").split(" ");
+
+    /**
+     * Number of indexed menu items.
+     */
+    @Param({"10000", "100000", "300000"})
+    public int items;
+
+    private String[] foodNames;
+
+    private String[] categoryNames;
+
+    private String[] descriptions;
+
+    private String[] queries;
+
+    private MenuSearchIndex index;
+
+    private int next;
+
+    /**
+     * Generates the menu items and indexes them for the query benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        foodNames = new String[items];
+        categoryNames = new String[items];
+        descriptions = new String[items];
+        for (int i = 0; i < items; i++) {
+            foodNames[i] = word(random) + " " + word(random) + " " + i;
+            categoryNames[i] = WORDS[random.nextInt(12)];
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < 12; j++) {
+                description.append(word(random)).append(' ');
+            }
+            descriptions[i] = description.toString();
+        }
+        queries = new String[256];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = i % 2 == 0 ? word(random) : word(random) + " " + word(random);
+        }
+        index = build();
+    }
+
+    /**
+     * Indexes all menu items into an empty index.
+     *
+     * @return The number of terms, so that the build is not optimized away.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int buildIndex() {
+        return build().termCount();
+    }
+
+    /**
+     * Runs a one or two word query for the top 20 menu items.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void search(Blackhole blackhole) {
+        blackhole.consume(index.search(queries[next++ & (queries.length - 1)], 20));
+    }
+
+    private MenuSearchIndex build() {
+        MenuSearchIndex built = new MenuSearchIndex();
+        for (int i = 0; i < items; i++) {
+            built.put(i + 1, foodNames[i], categoryNames[i], descriptions[i]);
+        }
+        return built;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,174 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link MenuSearchIndex} class.
+ */
+public class MenuSearchIndexTest {
+
+    /**
+     * {@link MenuSearchIndex} instance under test.
+     */
+    private MenuSearchIndex index;
+
+    /**
+     * Creates an index holding a small menu.
+     */
+    @BeforeEach
+    public void setUp() {
+        index = new MenuSearchIndex();
+        index.put(1, "Chicken Wings", "Starters", "Crispy fried wings tossed in hot sauce");
+        index.put(2, "Paneer Tikka", "Starters", "Grilled cottage cheese marinated in spices");
+        index.put(3, "Fried Rice", "Mains", "Wok tossed rice with vegetables");
+        index.put(4, "Butter Chicken", "Mains", "Chicken in a creamy tomato gravy");
+        index.put(5, "Masala Dosa", "Breakfast", "Rice crepe filled with spiced potatoes");
+    }
+
+    /**
+     * Tests that a match in the food name outranks a match in the description only.
+     */
+    @Test
+    public void testSearch_RanksFoodNameAboveDescription() {
+        assertArrayEquals(new int[]{3, 5}, index.search("rice", 10));
+    }
+
+    /**
+     * Tests that items matching more query terms rank first and that word forms match.
+     */
+    @Test
+    public void testSearch_MatchesStemmedTermsAndRanksByScore() {
+        int[] hits = index.search("frying chicken", 10);
+
+        assertEquals(1, hits[0]);
+        assertEquals(3, hits.length);
+        assertTrue(contains(hits, 3));
+        assertTrue(contains(hits, 4));
+    }
+
+    /**
+     * Tests that category names are searchable and that, for equal matches, the shorter item
+     * ranks first.
+     */
+    @Test
+    public void testSearch_MatchesCategoryName() {
+        assertArrayEquals(new int[]{2, 1}, index.search("starter", 10));
+    }
+
+    /**
+     * Tests that queries without known terms find nothing and that the limit is applied.
+     */
+    @Test
+    public void testSearch_EmptyAndLimitedResults() {
+        assertEquals(0, index.search("sushi", 10).length);
+        assertEquals(0, index.search("the and of", 10).length);
+        assertEquals(0, index.search("rice", 0).length);
+        assertArrayEquals(new int[]{3}, index.search("rice", 1));
+    }
+
+    /**
+     * Tests that misspelled terms match the closest known terms, and rank below exact matches.
+     */
+    @Test
+    public void testSearch_MatchesMisspelledTerms() {
+        index.put(6, "Chicken Biryani", "Mains", "Fragrant basmati rice layered with chicken");
+
+        assertArrayEquals(new int[]{2}, index.search("panner", 10));
+        assertArrayEquals(new int[]{6}, index.search("biriyani", 10));
+        assertEquals(2, index.search("panner tikka", 10)[0]);
+        assertEquals(6, index.search("chiken biriyani", 10)[0]);
+        assertEquals(0, index.search("sushi", 10).length);
+        assertEquals(0, index.search("ri", 10).length);
+    }
+
+    /**
+     * Tests that misspellings do not match terms of removed items, even after compaction.
+     */
+    @Test
+    public void testSearch_MisspellingSkipsRemovedTerms() {
+        index.remove(2);
+
+        assertEquals(0, index.search("panner", 10).length);
+
+        for (int id = 100; id < 1400; id++) {
+            index.put(id, "Dish " + id, null, null);
+        }
+        for (int id = 100; id < 1400; id++) {
+            index.remove(id);
+        }
+        index.put(7, "Paneer Butter Masala", "Mains", null);
+
+        assertArrayEquals(new int[]{7}, index.search("panner", 10));
+        assertArrayEquals(new int[]{5}, index.search("masla dosa", 1));
+    }
+
+    /**
+     * Tests that putting an item again replaces its document.
+     */
+    @Test
+    public void testPut_ReplacesDocument() {
+        index.put(3, "Ghee Roast", "Mains", "Roasted in clarified butter");
+
+        assertArrayEquals(new int[]{5}, index.search("rice", 10));
+        assertArrayEquals(new int[]{3}, index.search("roast", 10));
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Tests that loading an item does not overwrite a document indexed for it already.
+     */
+    @Test
+    public void testPutIfAbsent_KeepsExistingDocument() {
+        index.putIfAbsent(3, "Old Name", "Mains", null);
+        index.putIfAbsent(6, "Mango Lassi", "Drinks", null);
+
+        assertArrayEquals(new int[]{3, 5}, index.search("rice", 10));
+        assertArrayEquals(new int[]{6}, index.search("lassi", 10));
+    }
+
+    /**
+     * Tests that removed items are no longer found.
+     */
+    @Test
+    public void testRemove_DropsDocument() {
+        index.remove(1);
+        index.remove(42);
+
+        assertArrayEquals(new int[]{4}, index.search("chicken wings", 10));
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Tests that results stay correct when enough documents are replaced to compact the index.
+     */
+    @Test
+    public void testCompaction_KeepsLiveDocuments() {
+        for (int round = 0; round < 3; round++) {
+            for (int id = 100; id < 1100; id++) {
+                index.put(id, "Dish " + id, "Specials", "Round " + round + " special");
+            }
+        }
+        for (int id = 100; id < 1100; id += 2) {
+            index.remove(id);
+        }
+
+        assertEquals(505, index.size());
+        assertEquals(500, index.search("special", 1000).length);
+        assertArrayEquals(new int[]{3, 5}, index.search("rice", 10));
+        assertArrayEquals(new int[]{101}, index.search("101", 10));
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
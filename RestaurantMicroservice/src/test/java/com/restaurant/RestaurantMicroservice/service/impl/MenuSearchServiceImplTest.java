@@ -0,0 +1,207 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.constants.Constants;
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link MenuSearchServiceImpl} class. No transaction is active, so index
+ * updates apply right away.
+ */
+public class MenuSearchServiceImplTest {
+
+    /**
+     * Mocked {@link MenuItemRepository} instance.
+     */
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    /**
+     * {@link MenuSearchServiceImpl} instance under test.
+     */
+    @InjectMocks
+    private MenuSearchServiceImpl menuSearchService;
+
+    /**
+     * The menu items in the mocked database, by position.
+     */
+    private List<MenuItemResponseDto> database;
+
+    /**
+     * Initializes mocks and a database of three menu items.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        database = new ArrayList<>(Arrays.asList(
+                item(1, "Chicken Wings", "Starters", "Fried wings in hot sauce", "hash-1"),
+                item(2, "Fried Rice", "Mains", "Wok tossed rice", null),
+                item(3, "Masala Dosa", null, "Rice crepe with potatoes", null)));
+        when(menuItemRepository.findMenuByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Integer> ids = new ArrayList<>(invocation.getArgument(0));
+            return database.stream()
+                    .filter(item -> ids.contains(item.getId()))
+                    .map(MenuSearchServiceImplTest::copy)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Tests that the index is loaded page by page and that hits are returned in rank order,
+     * completed like the menu endpoints.
+     */
+    @Test
+    public void testRebuildIndex_LoadsAllPagesAndSearches() {
+        when(menuItemRepository.findMenuPageAfterId(eq(0), any(Pageable.class)))
+                .thenReturn(database.stream().map(MenuSearchServiceImplTest::copy).collect(Collectors.toList()));
+
+        menuSearchService.rebuildIndex();
+        List<MenuItemResponseDto> results = menuSearchService.searchMenuItems("rice", 10);
+
+        verify(menuItemRepository, never()).findMenuPageAfterId(eq(3), any(Pageable.class));
+        assertEquals(Arrays.asList(2, 3), ids(results));
+        assertEquals(Constants.CATEGORY_NOT_FOUND, results.get(1).getCategoryName());
+        assertEquals(Constants.IMAGE_URL_PREFIX + "hash-1",
+                menuSearchService.searchMenuItems("wings", 10).get(0).getImageUrl());
+    }
+
+    /**
+     * Tests that hits for items deleted since they were indexed are skipped.
+     */
+    @Test
+    public void testSearchMenuItems_SkipsItemsMissingFromDatabase() {
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 2, 3));
+        database.remove(1);
+
+        assertEquals(Collections.singletonList(3), ids(menuSearchService.searchMenuItems("rice", 10)));
+    }
+
+    /**
+     * Tests that re-indexing picks up changed items and drops deleted ones.
+     */
+    @Test
+    public void testReindexMenuItems_UpdatesAndRemoves() {
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 2, 3));
+        database.set(0, item(1, "Lamb Kebab", "Starters", "Charcoal grilled", null));
+        database.remove(2);
+
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 3));
+
+        assertTrue(menuSearchService.searchMenuItems("wings", 10).isEmpty());
+        assertEquals(Collections.singletonList(1), ids(menuSearchService.searchMenuItems("kebab", 10)));
+        assertEquals(Collections.singletonList(2), ids(menuSearchService.searchMenuItems("rice", 10)));
+    }
+
+    /**
+     * Tests that re-indexing a category picks up its new name.
+     */
+    @Test
+    public void testReindexCategory_IndexesNewCategoryName() {
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 2, 3));
+        when(menuItemRepository.findMenuByCategoryId(7))
+                .thenReturn(Collections.singletonList(item(2, "Fried Rice", "Chinese", "Wok tossed rice", null)));
+
+        menuSearchService.reindexCategory(7);
+
+        assertEquals(Collections.singletonList(2), ids(menuSearchService.searchMenuItems("chinese", 10)));
+        assertTrue(menuSearchService.searchMenuItems("mains", 10).isEmpty());
+    }
+
+    /**
+     * Tests that a failed index update does not fail the caller.
+     */
+    @Test
+    public void testReindexMenuItems_FailureIsNotPropagated() {
+        when(menuItemRepository.findMenuByIdIn(anyCollection())).thenThrow(new IllegalStateException("down"));
+
+        menuSearchService.reindexMenuItems(Collections.singletonList(1));
+        menuSearchService.reindexMenuItems(Collections.<Integer>emptyList());
+
+        verify(menuItemRepository, never()).findMenuByCategoryId(anyInt());
+    }
+
+    /**
+     * Tests that price range queries are answered from the price index in price order, honouring
+     * the bounds, the availability filter and the direction.
+     */
+    @Test
+    public void testFindMenuItemsByPrice_FiltersAndSorts() {
+        priced(database.get(0), 250, true);
+        priced(database.get(1), 120, false);
+        priced(database.get(2), 90, true);
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 2, 3));
+
+        assertEquals(Arrays.asList(3, 2, 1), ids(menuSearchService.findMenuItemsByPrice(
+                null, null, false, Sort.Direction.ASC, 10)));
+        assertEquals(Arrays.asList(1, 3), ids(menuSearchService.findMenuItemsByPrice(
+                null, null, true, Sort.Direction.DESC, 10)));
+        assertEquals(Arrays.asList(2, 1), ids(menuSearchService.findMenuItemsByPrice(
+                BigDecimal.valueOf(100), BigDecimal.valueOf(250), false, Sort.Direction.ASC, 10)));
+        assertEquals(Collections.singletonList(3), ids(menuSearchService.findMenuItemsByPrice(
+                null, null, false, Sort.Direction.ASC, 1)));
+        assertTrue(menuSearchService.findMenuItemsByPrice(
+                BigDecimal.valueOf(300), BigDecimal.valueOf(200), false, Sort.Direction.ASC, 10).isEmpty());
+    }
+
+    /**
+     * Tests that re-indexing moves changed items within the price index and drops deleted ones,
+     * and that items changed since they were indexed are filtered against their current price.
+     */
+    @Test
+    public void testFindMenuItemsByPrice_FollowsReindexing() {
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 2, 3));
+        priced(database.get(0), 40, true);
+        database.remove(2);
+        menuSearchService.reindexMenuItems(Arrays.asList(1, 3));
+        priced(database.get(1), 500, true);
+
+        assertEquals(Collections.singletonList(1), ids(menuSearchService.findMenuItemsByPrice(
+                null, BigDecimal.valueOf(100), false, Sort.Direction.ASC, 10)));
+    }
+
+    private static List<Integer> ids(List<MenuItemResponseDto> items) {
+        return items.stream().map(MenuItemResponseDto::getId).collect(Collectors.toList());
+    }
+
+    private static MenuItemResponseDto item(int id, String foodName, String categoryName, String description,
+                                            String imageHash) {
+        return new MenuItemResponseDto(id, "Test Restaurant", categoryName, foodName, description, true,
+                BigDecimal.valueOf(100), imageHash);
+    }
+
+    private static MenuItemResponseDto priced(MenuItemResponseDto item, int price, boolean available) {
+        item.setPrice(BigDecimal.valueOf(price));
+        item.setIsAvailable(available);
+        return item;
+    }
+
+    private static MenuItemResponseDto copy(MenuItemResponseDto item) {
+        return new MenuItemResponseDto(item.getId(), item.getRestaurantName(), item.getCategoryName(),
+                item.getFoodName(), item.getDescription(), item.getIsAvailable(), item.getPrice(),
+                item.getImageHash());
+    }
+}
@@ -0,0 +1,79 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link MenuTextAnalyzer} class.
+ */
+public class MenuTextAnalyzerTest {
+
+    /**
+     * Tests that text is split, lower-cased, stripped of accents and stop words, and stemmed.
+     */
+    @Test
+    public void testAnalyze_NormalizesText() {
+        assertEquals(Arrays.asList("crem", "brule", "fry", "chicken", "wing", "2", "pcs"),
+                MenuTextAnalyzer.analyze("Crème Brûlée with the FRIED chicken-wings, 2 pcs"));
+    }
+
+    /**
+     * Tests that empty text yields no terms.
+     */
+    @Test
+    public void testAnalyze_EmptyText() {
+        assertEquals(Collections.emptyList(), MenuTextAnalyzer.analyze(null));
+        assertEquals(Collections.emptyList(), MenuTextAnalyzer.analyze(" - "));
+    }
+
+    /**
+     * Tests that the forms of a word a menu uses share a stem.
+     */
+    @Test
+    public void testStem_FoldsWordForms() {
+        assertSameStem("fry", "fries", "fried", "frying");
+        assertSameStem("bake", "baked", "baking", "bakes");
+        assertSameStem("chop", "chopped", "chopping");
+        assertSameStem("grill", "grilled", "grilling");
+        assertSameStem("stuff", "stuffed", "stuffing");
+        assertSameStem("cheese", "cheeses");
+        assertSameStem("tomato", "tomatoes");
+        assertSameStem("sandwich", "sandwiches");
+        assertSameStem("berry", "berries");
+        assertSameStem("noodle", "noodles");
+    }
+
+    /**
+     * Tests that words that only look inflected are left alone.
+     */
+    @Test
+    public void testStem_KeepsWordsWithoutSuffix() {
+        assertEquals("hummus", MenuTextAnalyzer.stem("hummus"));
+        assertEquals("glass", MenuTextAnalyzer.stem("glass"));
+        assertEquals("spring", MenuTextAnalyzer.stem("spring"));
+        assertEquals("wing", MenuTextAnalyzer.stem("wing"));
+        assertEquals("red", MenuTextAnalyzer.stem("red"));
+    }
+
+    /**
+     * Tests that names are normalized for prefix matching without dropping or stemming words.
+     */
+    @Test
+    public void testNormalize_FoldsCaseAccentsAndPunctuation() {
+        assertEquals("the creme brulee co", MenuTextAnalyzer.normalize("  The Crème-Brûlée Co. "));
+        assertEquals("chicken 65", MenuTextAnalyzer.normalize("Chicken (65)"));
+        assertEquals("", MenuTextAnalyzer.normalize("--"));
+        assertEquals("", MenuTextAnalyzer.normalize(null));
+    }
+
+    private static void assertSameStem(String word, String... forms) {
+        String stem = MenuTextAnalyzer.stem(word);
+        for (String form : forms) {
+            assertEquals(stem, MenuTextAnalyzer.stem(form), form);
+        }
+    }
+}
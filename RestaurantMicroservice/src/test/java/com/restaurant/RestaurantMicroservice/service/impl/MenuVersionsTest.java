@@ -0,0 +1,75 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link MenuVersions} class.
+ */
+public class MenuVersionsTest {
+
+    /**
+     * Mocked {@link RestaurantRepository} instance.
+     */
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    /**
+     * Mocked {@link MenuCache} instance.
+     */
+    @Mock
+    private MenuCache menuCache;
+
+    /**
+     * {@link MenuVersions} instance under test.
+     */
+    @InjectMocks
+    private MenuVersions menuVersions;
+
+    /**
+     * Initializes mocks before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests that a change bumps the menu version, drops the cached menu and returns the new version.
+     */
+    @Test
+    public void testNext_BumpsVersionAndInvalidatesCache() {
+        when(restaurantRepository.findMenuVersionById(1)).thenReturn(Optional.of(5L));
+
+        assertEquals(5L, menuVersions.next(1));
+
+        InOrder order = inOrder(restaurantRepository, menuCache);
+        order.verify(restaurantRepository).incrementMenuVersion(1);
+        order.verify(menuCache).invalidate(1);
+        order.verify(restaurantRepository).findMenuVersionById(1);
+    }
+
+    /**
+     * Tests that the menu version of an unknown restaurant is reported as not found.
+     */
+    @Test
+    public void testCurrent_RestaurantNotFound() {
+        when(restaurantRepository.findMenuVersionById(1)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> menuVersions.current(1));
+        assertThrows(NotFoundException.class, () -> menuVersions.next(1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link OpeningHoursIndex} class.
+ */
+public class OpeningHoursIndexTest {
+
+    /**
+     * Tests lookups at and around the opening and closing times, including hours past midnight
+     * and past the end of the week.
+     */
+    @Test
+    public void testOpenAt() {
+        OpeningHoursIndex index = new OpeningHoursIndex();
+        index.put(1, WeeklySchedule.parse("09:00-22:00"));
+        index.put(2, WeeklySchedule.parse("Sun 20:00-03:00"));
+        index.put(3, WeeklySchedule.parse("24/7"));
+        index.put(4, WeeklySchedule.parse("closed"));
+
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[]{2, 3}, index.openAt(0));
+        assertArrayEquals(new int[]{3}, index.openAt(3 * 60));
+        assertArrayEquals(new int[]{1, 3}, index.openAt(9 * 60));
+        assertArrayEquals(new int[]{1, 2, 3}, index.openAt(6 * WeeklySchedule.MINUTES_PER_DAY + 21 * 60));
+        assertArrayEquals(new int[]{2, 3}, index.openAt(WeeklySchedule.MINUTES_PER_WEEK - 1));
+    }
+
+    /**
+     * Tests that replacing and removing schedules drop the old intervals.
+     */
+    @Test
+    public void testPutAndRemove() {
+        OpeningHoursIndex index = new OpeningHoursIndex();
+        index.put(1, WeeklySchedule.parse("09:00-22:00"));
+        index.put(2, WeeklySchedule.parse("09:00-22:00"));
+        index.put(1, WeeklySchedule.parse("18:00-23:00"));
+        index.remove(2);
+        index.remove(7);
+
+        assertEquals(1, index.size());
+        assertArrayEquals(new int[0], index.openAt(10 * 60));
+        assertArrayEquals(new int[]{1}, index.openAt(22 * 60 + 30));
+    }
+
+    /**
+     * Tests that lookups find exactly the restaurants whose schedule is open.
+     */
+    @Test
+    public void testOpenAt_MatchesFullScan() {
+        Random random = new Random(15);
+        OpeningHoursIndex index = new OpeningHoursIndex();
+        Map<Integer, WeeklySchedule> schedules = new HashMap<>();
+        for (int id = 1; id <= 500; id++) {
+            int open = random.nextInt(48) * 30;
+            int close = random.nextInt(48) * 30;
+            String hours = String.format("%s %02d:%02d-%02d:%02d; %s closed",
+                    random.nextBoolean() ? "Daily" : "Mon-Sat", open / 60, open % 60, close / 60, close % 60,
+                    new String[]{"Mon", "Wed", "Sun"}[random.nextInt(3)]);
+            WeeklySchedule schedule = WeeklySchedule.parse(hours);
+            schedules.put(id, schedule);
+            index.put(id, schedule);
+        }
+
+        for (int minute = 0; minute < WeeklySchedule.MINUTES_PER_WEEK; minute += 7) {
+            int at = minute;
+            int[] expected = schedules.entrySet().stream()
+                    .filter(entry -> entry.getValue().isOpenAt(at))
+                    .mapToInt(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, index.openAt(at));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link OpeningHoursServiceImpl} class. The service reads a test clock set to
+ * Monday evening, and the ticker thread is never started: ticks are run by the tests. No
+ * transaction is active, so schedule updates apply right away.
+ */
+public class OpeningHoursServiceImplTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    /**
+     * Monday 19 October 2026, 21:30.
+     */
+    private static final LocalDateTime MONDAY_EVENING = LocalDateTime.of(2026, 10, 19, 21, 30);
+
+    /**
+     * Mocked {@link RestaurantRepository} instance.
+     */
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MutableClock clock;
+
+    /**
+     * {@link OpeningHoursServiceImpl} instance under test.
+     */
+    private OpeningHoursServiceImpl openingHoursService;
+
+    /**
+     * Initializes mocks and the service.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MutableClock(MONDAY_EVENING.atZone(ZONE).toInstant(), ZONE);
+        openingHoursService = new OpeningHoursServiceImpl(restaurantRepository, clock);
+    }
+
+    /**
+     * Tests that loading the schedules corrects the open status of the restaurants that are out of
+     * step with their hours, and leaves restaurants with unrecognised hours alone.
+     */
+    @Test
+    public void testRebuildSchedules_CorrectsOpenStatus() {
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        restaurant(1, "09:00-22:00", false),
+                        restaurant(2, "09:00-22:00", true),
+                        restaurant(3, "10:00-21:00", true),
+                        restaurant(4, "Call us for hours", true)));
+
+        openingHoursService.rebuildSchedules();
+
+        verify(restaurantRepository).updateOpenByIdIn(Collections.singletonList(1), true);
+        verify(restaurantRepository).updateOpenByIdIn(Collections.singletonList(3), false);
+        assertEquals(Arrays.asList(1, 2), openingHoursService.findRestaurantsOpenAt(null, 0, 10));
+    }
+
+    /**
+     * Tests that a tick sets the status of the restaurants whose hours change at that minute, and
+     * no others.
+     */
+    @Test
+    public void testTick_ClosesRestaurantsAtClosingTime() {
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        restaurant(1, "09:00-22:00", true),
+                        restaurant(2, "Mon-Sat 11:00-15:00, 18:00-22:00", true),
+                        restaurant(3, "09:00-23:00", true)));
+        openingHoursService.rebuildSchedules();
+
+        clock.set(MONDAY_EVENING.plusMinutes(15));
+        openingHoursService.tick();
+        verify(restaurantRepository, never()).updateOpenByIdIn(any(), anyBoolean());
+
+        clock.set(MONDAY_EVENING.plusMinutes(30));
+        openingHoursService.tick();
+        verify(restaurantRepository).updateOpenByIdIn(
+                argThat(ids -> new HashSet<>(ids).equals(new HashSet<>(Arrays.asList(1, 2)))), eq(false));
+        assertEquals(Collections.singletonList(3), openingHoursService.findRestaurantsOpenAt(null, 0, 10));
+
+        clock.set(MONDAY_EVENING.plusMinutes(90));
+        openingHoursService.tick();
+        verify(restaurantRepository).updateOpenByIdIn(Collections.singletonList(3), false);
+    }
+
+    /**
+     * Tests that restaurants whose status could not be written are retried on the next tick.
+     */
+    @Test
+    public void testTick_RetriesFailedUpdateNextMinute() {
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(restaurant(1, "09:00-22:00", true)));
+        openingHoursService.rebuildSchedules();
+        when(restaurantRepository.updateOpenByIdIn(Collections.singletonList(1), false))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(1);
+
+        clock.set(MONDAY_EVENING.plusMinutes(30));
+        openingHoursService.tick();
+        clock.set(MONDAY_EVENING.plusMinutes(31));
+        openingHoursService.tick();
+
+        verify(restaurantRepository, times(2)).updateOpenByIdIn(Collections.singletonList(1), false);
+    }
+
+    /**
+     * Tests that the open restaurants are paged by cursor in ascending ID order.
+     */
+    @Test
+    public void testFindRestaurantsOpenAt_PagesByCursor() {
+        for (int id = 1; id <= 5; id++) {
+            openingHoursService.hoursChanged(id, id % 2 == 0 ? "12:00-15:00; Sun closed" : "24/7");
+        }
+        LocalDateTime mondayNoon = MONDAY_EVENING.withHour(12);
+        LocalDateTime sundayNoon = mondayNoon.minusDays(1);
+
+        assertEquals(Arrays.asList(1, 2, 3), openingHoursService.findRestaurantsOpenAt(mondayNoon, 0, 3));
+        assertEquals(Arrays.asList(4, 5), openingHoursService.findRestaurantsOpenAt(mondayNoon, 3, 3));
+        assertEquals(Arrays.asList(3, 5), openingHoursService.findRestaurantsOpenAt(sundayNoon, 2, 3));
+        assertEquals(Arrays.asList(1, 3, 5), openingHoursService.findRestaurantsOpenAt(null, 0, 10));
+    }
+
+    /**
+     * Tests that changed hours replace the schedule, and that unrecognised hours and removed
+     * restaurants drop out of it.
+     */
+    @Test
+    public void testHoursChangedAndRestaurantRemoved() {
+        openingHoursService.hoursChanged(1, "09:00-22:00");
+        openingHoursService.hoursChanged(2, "09:00-22:00");
+        assertEquals(Arrays.asList(1, 2), openingHoursService.findRestaurantsOpenAt(null, 0, 10));
+
+        openingHoursService.hoursChanged(1, "Mon closed");
+        openingHoursService.hoursChanged(2, "By appointment");
+        assertTrue(openingHoursService.findRestaurantsOpenAt(null, 0, 10).isEmpty());
+
+        openingHoursService.hoursChanged(2, "09:00-22:00");
+        openingHoursService.restaurantRemoved(2);
+        assertTrue(openingHoursService.findRestaurantsOpenAt(null, 0, 10).isEmpty());
+    }
+
+    /**
+     * Tests that opening hours are checked against the clock, and that unrecognised hours give no
+     * answer.
+     */
+    @Test
+    public void testIsOpenNow() {
+        assertTrue(openingHoursService.isOpenNow("9 AM - 10 PM"));
+        assertFalse(openingHoursService.isOpenNow("9 AM - 9 PM"));
+        assertNull(openingHoursService.isOpenNow("Call us"));
+        assertNull(openingHoursService.isOpenNow(null));
+    }
+
+    private static RestaurantResponseDto restaurant(int id, String openingHours, boolean open) {
+        return new RestaurantResponseDto(id, "Restaurant " + id, id + " Street", "9999999999", open, openingHours,
+                null, 1);
+    }
+}
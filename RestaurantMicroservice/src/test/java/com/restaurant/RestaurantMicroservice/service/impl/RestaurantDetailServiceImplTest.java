@@ -1,6 +1,5 @@
 package com.restaurant.RestaurantMicroservice.service.impl;
 
-import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
 import com.restaurant.RestaurantMicroservice.constants.Constants;
 import com.restaurant.RestaurantMicroservice.dtos.CreateRestaurantDetailRequestDto;
 import com.restaurant.RestaurantMicroservice.dtos.RestaurantDetailUpdateRequestDto;
@@ -9,23 +8,45 @@ import com.restaurant.RestaurantMicroservice.dtos.UserResponseDto;
 import com.restaurant.RestaurantMicroservice.dtos.CommonResponseDto;
 import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
 import com.restaurant.RestaurantMicroservice.enums.RoleType;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
 import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
 import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import com.restaurant.RestaurantMicroservice.service.OpeningHoursService;
+import com.restaurant.RestaurantMicroservice.service.RestaurantLocationService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -49,10 +70,46 @@ public class RestaurantDetailServiceImplTest {
     private RestaurantRepository restaurantRepository;
 
     /**
-     * Mocked {@link UserFeignClient} instance.
+     * Mocked {@link MenuItemRepository} instance.
      */
     @Mock
-    private UserFeignClient userFeignClient;
+    private MenuItemRepository menuItemRepository;
+
+    /**
+     * Mocked {@link MenuVersions} instance.
+     */
+    @Mock
+    private MenuVersions menuVersions;
+
+    /**
+     * Mocked {@link UserCache} instance.
+     */
+    @Mock
+    private UserCache userCache;
+
+    /**
+     * Mocked {@link ImageService} instance.
+     */
+    @Mock
+    private ImageService imageService;
+
+    /**
+     * Mocked {@link SearchSuggestionService} instance.
+     */
+    @Mock
+    private SearchSuggestionService searchSuggestionService;
+
+    /**
+     * Mocked {@link OpeningHoursService} instance.
+     */
+    @Mock
+    private OpeningHoursService openingHoursService;
+
+    /**
+     * Mocked {@link RestaurantLocationService} instance.
+     */
+    @Mock
+    private RestaurantLocationService restaurantLocationService;
 
     /**
      * Mocked {@link MultipartFile} instance.
@@ -90,17 +147,21 @@ public class RestaurantDetailServiceImplTest {
         UserResponseDto userResponse = new UserResponseDto();
         userResponse.setRole(RoleType.RESTAURANT_OWNER);
 
-        when(userFeignClient.getUserById(1)).thenReturn(userResponse);
+        when(userCache.getUser(1)).thenReturn(userResponse);
         when(restaurantRepository.existsByRestaurantNameIgnoreCase("Test Restaurant")).thenReturn(false);
 
-        when(multipartFile.getContentType()).thenReturn("image/jpeg");
-        when(multipartFile.getSize()).thenReturn(5 * 1024 * 1024L);
-        when(multipartFile.getBytes()).thenReturn("dummy".getBytes());
+        when(imageService.saveImage(eq(multipartFile), anyLong())).thenReturn("dummy-hash");
+        when(openingHoursService.isOpenNow("9 AM - 9 PM")).thenReturn(true);
 
         CommonResponseDto response = restaurantService.createRestaurant(dto, multipartFile);
 
         assertEquals(Constants.RESTAURANT_CREATED_SUCCESSFULLY, response.getMessage());
-        verify(restaurantRepository, times(1)).save(any(RestaurantDetail.class));
+        verify(restaurantRepository, times(1))
+                .save(argThat((RestaurantDetail restaurant) -> Boolean.TRUE.equals(restaurant.getOpen())));
+        verify(searchSuggestionService, times(1)).nameAdded(SuggestionType.RESTAURANT, "Test Restaurant");
+        verify(openingHoursService, times(1)).hoursChanged(anyInt(), eq("9 AM - 9 PM"));
+        verify(restaurantLocationService, times(1)).locate(any(RestaurantDetail.class), isNull(), isNull());
+        verify(restaurantLocationService, times(1)).locationChanged(anyInt(), isNull(), isNull());
     }
 
     /**
@@ -116,7 +177,7 @@ public class RestaurantDetailServiceImplTest {
         dto.setRestaurantName("Test Restaurant");
         dto.setUserId(1);
 
-        when(userFeignClient.getUserById(1)).thenThrow(new NotFoundException(Constants.USER_NOT_FOUND));
+        when(userCache.getUser(1)).thenReturn(null);
 
         assertThrows(NotFoundException.class, () -> restaurantService.createRestaurant(dto, null));
     }
@@ -134,6 +195,7 @@ public class RestaurantDetailServiceImplTest {
         RestaurantDetail existingRestaurant = new RestaurantDetail();
         existingRestaurant.setId(1);
         existingRestaurant.setRestaurantName("Old Restaurant");
+        existingRestaurant.setImageHash("old-hash");
 
         RestaurantDetailUpdateRequestDto updateDto = new RestaurantDetailUpdateRequestDto();
         updateDto.setRestaurantName("Updated Restaurant");
@@ -145,14 +207,51 @@ public class RestaurantDetailServiceImplTest {
         when(restaurantRepository.findById(1)).thenReturn(Optional.of(existingRestaurant));
         when(restaurantRepository.existsByRestaurantNameIgnoreCase("Updated Restaurant")).thenReturn(false);
 
-        when(multipartFile.getContentType()).thenReturn("image/png");
-        when(multipartFile.getSize()).thenReturn(5 * 1024 * 1024L);
-        when(multipartFile.getBytes()).thenReturn("updated".getBytes());
+        when(menuVersions.next(1)).thenReturn(6L);
+        when(imageService.saveImage(eq(multipartFile), anyLong())).thenReturn("updated-hash");
+        when(openingHoursService.isOpenNow("10 AM - 10 PM")).thenReturn(false);
 
         CommonResponseDto response = restaurantService.updateRestaurant(1, updateDto, multipartFile);
 
         assertEquals(Constants.UPDATED_SUCCESSFULLY, response.getMessage());
+        assertEquals("updated-hash", existingRestaurant.getImageHash());
+        verify(imageService, times(1)).releaseImage("old-hash");
         verify(restaurantRepository, times(1)).save(existingRestaurant);
+        verify(menuItemRepository, times(1)).updateMenuVersionByRestaurantId(1, 6L);
+        verify(menuVersions, times(1)).next(1);
+        verify(searchSuggestionService, times(1))
+                .nameChanged(SuggestionType.RESTAURANT, "Old Restaurant", "Updated Restaurant");
+        assertFalse(existingRestaurant.getOpen());
+        verify(openingHoursService, times(1)).hoursChanged(1, "10 AM - 10 PM");
+        verify(restaurantLocationService, times(1)).locate(existingRestaurant, null, null);
+        verify(restaurantLocationService, times(1)).locationChanged(1, null, null);
+    }
+
+    /**
+     * Tests that updating a restaurant without changing its opening hours keeps the open status
+     * the owner set and leaves the schedule alone.
+     */
+    @Test
+    public void testUpdateRestaurantKeepsStatusWhenHoursUnchanged() {
+        RestaurantDetail existingRestaurant = new RestaurantDetail();
+        existingRestaurant.setId(1);
+        existingRestaurant.setRestaurantName("Restaurant");
+        existingRestaurant.setOpeningHours("10 AM - 10 PM");
+        existingRestaurant.setOpen(true);
+
+        RestaurantDetailUpdateRequestDto updateDto = new RestaurantDetailUpdateRequestDto();
+        updateDto.setRestaurantName("Restaurant");
+        updateDto.setOpeningHours("10 AM - 10 PM");
+
+        when(restaurantRepository.findById(1)).thenReturn(Optional.of(existingRestaurant));
+
+        restaurantService.updateRestaurant(1, updateDto, null);
+
+        assertTrue(existingRestaurant.getOpen());
+        verify(openingHoursService, never()).isOpenNow(any());
+        verify(openingHoursService, never()).hoursChanged(anyInt(), any());
+        verify(restaurantLocationService, never()).locate(any(), any(), any());
+        verify(restaurantLocationService, never()).locationChanged(anyInt(), any(), any());
     }
 
     /**
@@ -184,6 +283,7 @@ public class RestaurantDetailServiceImplTest {
         RestaurantDetail existingRestaurant = new RestaurantDetail();
         existingRestaurant.setId(1);
         existingRestaurant.setRestaurantName("Test Restaurant");
+        existingRestaurant.setImageHash("image-hash");
 
         when(restaurantRepository.findById(1)).thenReturn(Optional.of(existingRestaurant));
 
@@ -191,6 +291,10 @@ public class RestaurantDetailServiceImplTest {
 
         assertEquals(Constants.DELETED_SUCCESSFULLY, response.getMessage());
         verify(restaurantRepository, times(1)).delete(existingRestaurant);
+        verify(imageService, times(1)).releaseImage("image-hash");
+        verify(searchSuggestionService, times(1)).nameRemoved(SuggestionType.RESTAURANT, "Test Restaurant");
+        verify(openingHoursService, times(1)).restaurantRemoved(1);
+        verify(restaurantLocationService, times(1)).restaurantRemoved(1);
     }
 
     /**
@@ -242,30 +346,127 @@ public class RestaurantDetailServiceImplTest {
     }
 
     /**
-     * Tests the successful retrieval of all restaurants.
+     * Tests the successful retrieval of a page of restaurants.
      * <p>
-     * This test verifies that all restaurants are retrieved successfully
-     * from the repository.
+     * This test verifies that the page is read through the keyset projection query
+     * and that image URLs are derived from the image hashes.
      * </p>
      */
     @Test
     public void testGetAllRestaurantsSuccess() {
-        RestaurantDetail restaurant1 = new RestaurantDetail();
-        restaurant1.setRestaurantName("Restaurant 1");
-
-        RestaurantDetail restaurant2 = new RestaurantDetail();
-        restaurant2.setRestaurantName("Restaurant 2");
+        RestaurantResponseDto restaurant1 = new RestaurantResponseDto(11, "Restaurant 1", "1 Street", "1111111111",
+                true, "09:00-22:00", "hash-1", 3);
+        RestaurantResponseDto restaurant2 = new RestaurantResponseDto(12, "Restaurant 2", "2 Street", "2222222222",
+                true, "09:00-22:00", null, 3);
 
-        List<RestaurantDetail> restaurants = new ArrayList<>();
+        List<RestaurantResponseDto> restaurants = new ArrayList<>();
         restaurants.add(restaurant1);
         restaurants.add(restaurant2);
 
-        when(restaurantRepository.findAll()).thenReturn(restaurants);
+        when(restaurantRepository.findPageAfterId(10, true, 3, PageRequest.of(0, 2))).thenReturn(restaurants);
 
-        List<RestaurantResponseDto> response = restaurantService.getAllRestaurants();
+        List<RestaurantResponseDto> response = restaurantService.getAllRestaurants(10, 2, true, 3);
 
         assertEquals(2, response.size());
         assertEquals("Restaurant 1", response.get(0).getRestaurantName());
         assertEquals("Restaurant 2", response.get(1).getRestaurantName());
+        assertEquals("/api/images/hash-1", response.get(0).getImageUrl());
+        assertNull(response.get(1).getImageUrl());
+        verify(restaurantRepository, never()).findAll();
+    }
+
+    /**
+     * Tests that the page size is capped, so one request cannot load the whole catalog.
+     */
+    @Test
+    public void testGetAllRestaurantsCapsPageSize() {
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
+
+        restaurantService.getAllRestaurants(0, 100_000, null, null);
+
+        verify(restaurantRepository).findPageAfterId(0, null, null, PageRequest.of(0, Constants.MAX_RESTAURANT_PAGE_SIZE));
+    }
+
+    /**
+     * Tests the retrieval of the restaurants open at a time.
+     * <p>
+     * This test verifies that the open restaurants found by the opening hours service are read
+     * by ID in one query, and that the page size is capped.
+     * </p>
+     */
+    @Test
+    public void testGetRestaurantsOpenAtSuccess() {
+        LocalDateTime at = LocalDateTime.of(2026, 10, 18, 21, 30);
+        RestaurantResponseDto restaurant = new RestaurantResponseDto(4, "Restaurant 4", "4 Street", "4444444444",
+                true, "09:00-22:00", "hash-4", 2);
+        List<RestaurantResponseDto> restaurants = new ArrayList<>();
+        restaurants.add(restaurant);
+
+        when(openingHoursService.findRestaurantsOpenAt(at, 3, Constants.MAX_RESTAURANT_PAGE_SIZE))
+                .thenReturn(Arrays.asList(4));
+        when(restaurantRepository.findRestaurantsByIdIn(Arrays.asList(4))).thenReturn(restaurants);
+
+        List<RestaurantResponseDto> response = restaurantService.getRestaurantsOpenAt(at, 3, 100_000);
+
+        assertEquals(1, response.size());
+        assertEquals("/api/images/hash-4", response.get(0).getImageUrl());
+    }
+
+    /**
+     * Tests that no query is made when no restaurant is open.
+     */
+    @Test
+    public void testGetRestaurantsOpenAtNoneOpen() {
+        when(openingHoursService.findRestaurantsOpenAt(isNull(), eq(0), anyInt())).thenReturn(new ArrayList<>());
+
+        List<RestaurantResponseDto> response = restaurantService.getRestaurantsOpenAt(null, 0, 10);
+
+        assertTrue(response.isEmpty());
+        verify(restaurantRepository, never()).findRestaurantsByIdIn(any());
+    }
+
+    /**
+     * Tests that nearby restaurants are read by ID in one query and returned nearest first with
+     * their distance, skipping any deleted since the lookup, and that the radius is capped.
+     */
+    @Test
+    public void testGetNearbyRestaurantsSuccess() {
+        Map<Integer, Double> distances = new LinkedHashMap<>();
+        distances.put(7, 0.25);
+        distances.put(3, 1.23456);
+        distances.put(9, 2.5);
+        List<RestaurantResponseDto> restaurants = new ArrayList<>();
+        restaurants.add(new RestaurantResponseDto(3, "Restaurant 3", "3 Street", "3333333333", true, null,
+                "hash-3", 2, 12.98, 77.64));
+        restaurants.add(new RestaurantResponseDto(7, "Restaurant 7", "7 Street", "7777777777", true, null,
+                null, 2, 12.97, 77.59));
+
+        when(restaurantLocationService.findNearestRestaurants(12.97, 77.59, Constants.MAX_NEARBY_RADIUS_KM, 5))
+                .thenReturn(distances);
+        when(restaurantRepository.findRestaurantsByIdIn(distances.keySet())).thenReturn(restaurants);
+
+        List<RestaurantResponseDto> response = restaurantService.getNearbyRestaurants(12.97, 77.59, 1000, 5);
+
+        assertEquals(2, response.size());
+        assertEquals(7, response.get(0).getId());
+        assertEquals(0.25, response.get(0).getDistanceKm());
+        assertEquals(3, response.get(1).getId());
+        assertEquals(1.235, response.get(1).getDistanceKm());
+        assertEquals("/api/images/hash-3", response.get(1).getImageUrl());
+    }
+
+    /**
+     * Tests that no query is made when no restaurant is nearby.
+     */
+    @Test
+    public void testGetNearbyRestaurantsNoneNearby() {
+        when(restaurantLocationService.findNearestRestaurants(anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenReturn(new LinkedHashMap<>());
+
+        List<RestaurantResponseDto> response = restaurantService.getNearbyRestaurants(12.97, 77.59, 5, 20);
+
+        assertTrue(response.isEmpty());
+        verify(restaurantRepository, never()).findRestaurantsByIdIn(any());
     }
 }
@@ -0,0 +1,152 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link RestaurantLocationServiceImpl} class, with a small gazetteer of
+ * Bengaluru places. No transaction is active, so index updates apply right away.
+ */
+public class RestaurantLocationServiceImplTest {
+
+    private static final String GAZETTEER = "Bengaluru\t12.9716\t77.5946\n"
+            + "Indiranagar\t12.9784\t77.6408\n"
+            + "Whitefield\t12.9698\t77.7500\n";
+
+    /**
+     * Mocked {@link RestaurantRepository} instance.
+     */
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    /**
+     * {@link RestaurantLocationServiceImpl} instance under test.
+     */
+    private RestaurantLocationServiceImpl restaurantLocationService;
+
+    /**
+     * Initializes mocks and the service.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        restaurantLocationService = new RestaurantLocationServiceImpl(restaurantRepository,
+                GazetteerGeocoder.read(new BufferedReader(new StringReader(GAZETTEER))));
+    }
+
+    /**
+     * Tests that given coordinates are kept as they are, whatever the address says.
+     */
+    @Test
+    public void testLocate_KeepsGivenCoordinates() {
+        RestaurantDetail restaurant = new RestaurantDetail();
+        restaurant.setAddress("100 Feet Road, Indiranagar");
+
+        restaurantLocationService.locate(restaurant, 12.5, 77.5);
+
+        assertEquals(12.5, restaurant.getLatitude());
+        assertEquals(77.5, restaurant.getLongitude());
+    }
+
+    /**
+     * Tests that a restaurant without coordinates is located at the first place in its address,
+     * and that the location is cleared when the address names no known place.
+     */
+    @Test
+    public void testLocate_GeocodesAddress() {
+        RestaurantDetail restaurant = new RestaurantDetail();
+        restaurant.setAddress("100 Feet Road, Indiranagar, Bengaluru");
+
+        restaurantLocationService.locate(restaurant, null, 77.5);
+
+        assertEquals(12.9784, restaurant.getLatitude());
+        assertEquals(77.6408, restaurant.getLongitude());
+
+        restaurant.setAddress("Somewhere else");
+        restaurantLocationService.locate(restaurant, null, null);
+
+        assertNull(restaurant.getLatitude());
+        assertNull(restaurant.getLongitude());
+    }
+
+    /**
+     * Tests that loading the locations indexes the stored ones, writes back the locations found
+     * from addresses, and skips restaurants that cannot be located.
+     */
+    @Test
+    public void testRebuildLocations_GeocodesMissingLocations() {
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        restaurant(1, "Somewhere", 12.9716, 77.5946),
+                        restaurant(2, "Main Road, Whitefield", null, null),
+                        restaurant(3, "Nowhere", null, null)));
+
+        restaurantLocationService.rebuildLocations();
+
+        verify(restaurantRepository).updateLocation(2, 12.9698, 77.7500);
+        verify(restaurantRepository, never()).updateLocation(eq(1), anyDouble(), anyDouble());
+        verify(restaurantRepository, never()).updateLocation(eq(3), anyDouble(), anyDouble());
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(
+                restaurantLocationService.findNearestRestaurants(12.9716, 77.5946, 50, 10).keySet()));
+    }
+
+    /**
+     * Tests that location changes and deletions update the index.
+     */
+    @Test
+    public void testLocationChanged_UpdatesIndex() {
+        restaurantLocationService.locationChanged(1, 12.9784, 77.6408);
+        restaurantLocationService.locationChanged(2, 12.9698, 77.7500);
+
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(
+                restaurantLocationService.findNearestRestaurants(12.9784, 77.6408, 20, 10).keySet()));
+
+        restaurantLocationService.locationChanged(1, null, null);
+        restaurantLocationService.restaurantRemoved(2);
+
+        assertTrue(restaurantLocationService.findNearestRestaurants(12.9784, 77.6408, 20, 10).isEmpty());
+        verify(restaurantRepository, never()).updateLocation(anyInt(), anyDouble(), anyDouble());
+    }
+
+    /**
+     * Tests that a lookup returns the distances of the restaurants within the radius only.
+     */
+    @Test
+    public void testFindNearestRestaurants_WithinRadius() {
+        restaurantLocationService.locationChanged(1, 12.9784, 77.6408);
+        restaurantLocationService.locationChanged(2, 12.9698, 77.7500);
+
+        assertEquals(Collections.singletonMap(1, 0.0),
+                restaurantLocationService.findNearestRestaurants(12.9784, 77.6408, 5, 10));
+    }
+
+    private static RestaurantResponseDto restaurant(int id, String address, Double latitude, Double longitude) {
+        return new RestaurantResponseDto(id, "Restaurant " + id, address, "9999999999", true, null, null, 1,
+                latitude, longitude);
+    }
+}
@@ -0,0 +1,202 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.entities.RestaurantDetail;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import com.restaurant.RestaurantMicroservice.service.ImageService;
+import com.restaurant.RestaurantMicroservice.service.OpeningHoursService;
+import com.restaurant.RestaurantMicroservice.service.RestaurantLocationService;
+import com.restaurant.RestaurantMicroservice.service.RestaurantService;
+import com.restaurant.RestaurantMicroservice.service.SearchSuggestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the keyset pagination of the restaurant list against a real database: pages follow
+ * each other without gaps or repeats, and the filters apply before the page is cut.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({RestaurantServiceImpl.class, MenuVersions.class})
+class RestaurantServiceImplPaginationTest {
+
+    /**
+     * Replaces the Feign client registered by the application class, which is not needed here.
+     */
+    @MockBean
+    private UserFeignClient userFeignClient;
+
+    /**
+     * The restaurant list never looks up users.
+     */
+    @MockBean
+    private UserCache userCache;
+
+    /**
+     * The restaurant list never touches image content.
+     */
+    @MockBean
+    private ImageService imageService;
+
+    /**
+     * Stands in for the menu cache, which needs the web layer's object mapper.
+     */
+    @MockBean
+    private MenuCache menuCache;
+
+    /**
+     * Keeps the search box suggestions out of the test; they have tests of their own.
+     */
+    @MockBean
+    private SearchSuggestionService searchSuggestionService;
+
+    /**
+     * Stands in for the opening hours schedule, which is tested on its own.
+     */
+    @MockBean
+    private OpeningHoursService openingHoursService;
+
+    /**
+     * Stands in for the nearby search index, which is tested on its own.
+     */
+    @MockBean
+    private RestaurantLocationService restaurantLocationService;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * IDs of the persisted restaurants, in ascending order.
+     */
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            RestaurantDetail restaurant = new RestaurantDetail();
+            restaurant.setOwnerId(i % 5 == 0 ? 7 : 8);
+            restaurant.setRestaurantName("Diner " + i);
+            restaurant.setAddress("1 Test Street");
+            restaurant.setContactNo("9999999999");
+            restaurant.setOpen(i % 2 == 0);
+            restaurant.setOpeningHours("09:00-22:00");
+            restaurant.setDescription("Test restaurant");
+            ids.add(entityManager.persist(restaurant).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Tests that walking the pages by cursor returns every restaurant exactly once, in ID order.
+     */
+    @Test
+    void getAllRestaurants_PagesCoverAllRestaurantsOnce() {
+        List<Integer> seen = new ArrayList<>();
+        int afterId = 0;
+        List<RestaurantResponseDto> page;
+        do {
+            page = restaurantService.getAllRestaurants(afterId, 10, null, null);
+            assertTrue(page.size() <= 10);
+            for (RestaurantResponseDto restaurant : page) {
+                seen.add(restaurant.getId());
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 10);
+
+        assertEquals(ids, seen);
+    }
+
+    /**
+     * Tests that the open status and owner filters combine and keep the ID order.
+     */
+    @Test
+    void getAllRestaurants_AppliesFilters() {
+        List<RestaurantResponseDto> openOfOwner = restaurantService.getAllRestaurants(0, 50, true, 7);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (i % 5 == 0 && i % 2 == 0) {
+                expected.add(ids.get(i));
+            }
+        }
+        assertEquals(expected, openOfOwner.stream().map(RestaurantResponseDto::getId).collect(Collectors.toList()));
+        assertEquals("Diner 0", openOfOwner.get(0).getRestaurantName());
+        assertEquals(7, openOfOwner.get(0).getOwnerId());
+
+        List<RestaurantResponseDto> closedAfterCursor = restaurantService.getAllRestaurants(ids.get(20), 50, false, null);
+        assertEquals(2, closedAfterCursor.size());
+        assertEquals(ids.get(21).intValue(), closedAfterCursor.get(0).getId());
+    }
+
+    /**
+     * Tests that the restaurants open at a time are read by ID in one query, in ID order.
+     */
+    @Test
+    void getRestaurantsOpenAt_ReadsOpenRestaurantsById() {
+        List<Integer> open = Arrays.asList(ids.get(3), ids.get(7), ids.get(12));
+        when(openingHoursService.findRestaurantsOpenAt(null, 0, 10)).thenReturn(open);
+
+        List<RestaurantResponseDto> page = restaurantService.getRestaurantsOpenAt(null, 0, 10);
+
+        assertEquals(open, page.stream().map(RestaurantResponseDto::getId).collect(Collectors.toList()));
+        assertEquals("Diner 7", page.get(1).getRestaurantName());
+    }
+
+    /**
+     * Tests that the scheduler's bulk update sets the open status of exactly the given restaurants.
+     */
+    @Test
+    void updateOpenByIdIn_SetsStatusOfGivenRestaurants() {
+        int updated = restaurantRepository.updateOpenByIdIn(Arrays.asList(ids.get(0), ids.get(1)), false);
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        assertFalse(entityManager.find(RestaurantDetail.class, ids.get(0)).getOpen());
+        assertFalse(entityManager.find(RestaurantDetail.class, ids.get(1)).getOpen());
+        assertTrue(entityManager.find(RestaurantDetail.class, ids.get(2)).getOpen());
+    }
+
+    /**
+     * Tests that a location written back by the backfill is read by the pages the nearby index is
+     * loaded from, and that other restaurants stay without one.
+     */
+    @Test
+    void updateLocation_IsReadBackByPages() {
+        int updated = restaurantRepository.updateLocation(ids.get(1), 12.9716, 77.5946);
+        entityManager.clear();
+
+        List<RestaurantResponseDto> page = restaurantRepository.findPageAfterId(ids.get(0), null, null,
+                PageRequest.of(0, 2));
+
+        assertEquals(1, updated);
+        assertEquals(12.9716, page.get(0).getLatitude());
+        assertEquals(77.5946, page.get(0).getLongitude());
+        assertNull(page.get(1).getLatitude());
+    }
+}
@@ -0,0 +1,125 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.MenuItemResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.RestaurantResponseDto;
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import com.restaurant.RestaurantMicroservice.repository.MenuItemRepository;
+import com.restaurant.RestaurantMicroservice.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link SearchSuggestionServiceImpl} class. No transaction is active, so
+ * suggestion updates apply right away.
+ */
+public class SearchSuggestionServiceImplTest {
+
+    /**
+     * Mocked {@link RestaurantRepository} instance.
+     */
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    /**
+     * Mocked {@link MenuItemRepository} instance.
+     */
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    /**
+     * {@link SearchSuggestionServiceImpl} instance under test.
+     */
+    @InjectMocks
+    private SearchSuggestionServiceImpl searchSuggestionService;
+
+    /**
+     * Initializes mocks.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests that restaurant and dish names are loaded and that a dish listed by several
+     * restaurants ranks first.
+     */
+    @Test
+    public void testRebuildSuggestions_LoadsRestaurantsAndDishes() {
+        RestaurantResponseDto restaurant = new RestaurantResponseDto();
+        restaurant.setId(1);
+        restaurant.setRestaurantName("Paneer Palace");
+        when(restaurantRepository.findPageAfterId(eq(0), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(restaurant));
+        when(menuItemRepository.findMenuPageAfterId(eq(0), any(Pageable.class))).thenReturn(Arrays.asList(
+                dish(1, "Paneer Tikka"), dish(2, "Paneer Tikka"), dish(3, "Palak Paneer")));
+
+        searchSuggestionService.rebuildSuggestions();
+
+        assertEquals(Arrays.asList(
+                new SuggestionResponseDto("Paneer Tikka", SuggestionType.DISH),
+                new SuggestionResponseDto("Palak Paneer", SuggestionType.DISH),
+                new SuggestionResponseDto("Paneer Palace", SuggestionType.RESTAURANT)),
+                searchSuggestionService.suggest("pan", 10));
+    }
+
+    /**
+     * Tests that added, renamed and removed names are reflected in the suggestions.
+     */
+    @Test
+    public void testNameChanges_UpdateSuggestions() {
+        searchSuggestionService.nameAdded(SuggestionType.DISH, "Garlic Naan");
+        searchSuggestionService.nameAdded(SuggestionType.RESTAURANT, "Naan Stop");
+
+        searchSuggestionService.nameChanged(SuggestionType.DISH, "Garlic Naan", "Butter Naan");
+        searchSuggestionService.nameChanged(SuggestionType.RESTAURANT, "Naan Stop", "Naan Stop");
+        searchSuggestionService.nameChanged(SuggestionType.RESTAURANT, "Naan Stop", "NAAN  STOP");
+
+        assertEquals(Arrays.asList("Naan Stop", "Butter Naan"), texts(searchSuggestionService.suggest("naan", 10)));
+        assertTrue(searchSuggestionService.suggest("garlic", 10).isEmpty());
+
+        searchSuggestionService.nameRemoved(SuggestionType.RESTAURANT, "Naan Stop");
+
+        assertEquals(Collections.singletonList("Butter Naan"), texts(searchSuggestionService.suggest("naan", 10)));
+    }
+
+    /**
+     * Tests that the limit is kept between one and the number of cached suggestions.
+     */
+    @Test
+    public void testSuggest_ClampsLimit() {
+        for (int i = 0; i < 20; i++) {
+            searchSuggestionService.nameAdded(SuggestionType.DISH, "Dosa " + i);
+        }
+
+        assertEquals(1, searchSuggestionService.suggest("dosa", 0).size());
+        assertEquals(SuggestionTrie.MAX_SUGGESTIONS, searchSuggestionService.suggest("dosa", 50).size());
+    }
+
+    private static List<String> texts(List<SuggestionResponseDto> suggestions) {
+        return suggestions.stream().map(SuggestionResponseDto::getText).collect(Collectors.toList());
+    }
+
+    private static MenuItemResponseDto dish(int id, String foodName) {
+        return new MenuItemResponseDto(id, "Test Restaurant", "Mains", foodName, null, true,
+                BigDecimal.valueOf(100), null);
+    }
+}
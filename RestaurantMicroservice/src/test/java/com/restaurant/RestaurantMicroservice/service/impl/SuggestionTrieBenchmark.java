@@ -0,0 +1,89 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of prefix lookups in the {@link SuggestionTrie}. The sampled percentiles it reports
+ * show the latency of a lookup, which should stay well within a millisecond at the 99th percentile
+ * for a quarter of a million names.
+ * <p>
+ * Not run by the test suite. Run it from the test classpath after {@code mvn test-compile}:
+ * </p>
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main SuggestionTrieBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuggestionTrieBenchmark {
+
+    /**
+     * Words the synthetic names are made of.
+     */
+    private static final String[] WORDS = ("chicken paneer rice noodle soup curry masala spicy grilled fried "
+            + "butter garlic naan biryani tikka kebab lamb fish prawn salad sweet sour cheese tomato onion "
+            + "potato lentil").split(" ");
+
+    /**
+     * Number of names added to the trie.
+     */
+    @Param({"10000", "250000"})
+    public int names;
+
+    private String[] prefixes;
+
+    private SuggestionTrie trie;
+
+    private int next;
+
+    /**
+     * Fills the trie with restaurant and dish names, and picks the prefixes to look up.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        trie = new SuggestionTrie();
+        for (int i = 0; i < names; i++) {
+            trie.add(random.nextInt(10) == 0 ? SuggestionType.RESTAURANT : SuggestionType.DISH,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                            + random.nextInt(1000));
+        }
+        prefixes = new String[256];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+    }
+
+    /**
+     * Looks up the top suggestions for a prefix.
+     *
+     * @return The suggestions.
+     */
+    @Benchmark
+    public List<SuggestionResponseDto> suggest() {
+        return trie.suggest(prefixes[next++ & (prefixes.length - 1)], SuggestionTrie.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,149 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.dtos.SuggestionResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.SuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link SuggestionTrie} class.
+ */
+public class SuggestionTrieTest {
+
+    /**
+     * {@link SuggestionTrie} instance under test.
+     */
+    private SuggestionTrie trie;
+
+    /**
+     * Creates a trie holding a few restaurants and their dishes.
+     */
+    @BeforeEach
+    public void setUp() {
+        trie = new SuggestionTrie();
+        trie.add(SuggestionType.RESTAURANT, "Biryani House");
+        trie.add(SuggestionType.RESTAURANT, "Spice Garden");
+        trie.add(SuggestionType.DISH, "Chicken Biryani");
+        trie.add(SuggestionType.DISH, "Chicken Biryani");
+        trie.add(SuggestionType.DISH, "Chicken Biryani");
+        trie.add(SuggestionType.DISH, "Chicken Tikka");
+        trie.add(SuggestionType.DISH, "Chicken Tikka");
+        trie.add(SuggestionType.DISH, "Chicken 65");
+    }
+
+    /**
+     * Tests that names listed more often rank first, and shorter names win ties.
+     */
+    @Test
+    public void testSuggest_RanksByListings() {
+        assertEquals(Arrays.asList("Chicken Biryani", "Chicken Tikka", "Chicken 65"), texts(trie.suggest("chi", 10)));
+    }
+
+    /**
+     * Tests that later words of a name match, and that names of both types are suggested.
+     */
+    @Test
+    public void testSuggest_MatchesWordStarts() {
+        List<SuggestionResponseDto> suggestions = trie.suggest("biry", 10);
+
+        assertEquals(Arrays.asList(
+                new SuggestionResponseDto("Chicken Biryani", SuggestionType.DISH),
+                new SuggestionResponseDto("Biryani House", SuggestionType.RESTAURANT)), suggestions);
+        assertTrue(trie.suggest("iryani", 10).isEmpty());
+    }
+
+    /**
+     * Tests that matching ignores case, accents and punctuation.
+     */
+    @Test
+    public void testSuggest_NormalizesText() {
+        trie.add(SuggestionType.DISH, "Crème Brûlée");
+
+        assertEquals(Collections.singletonList("Crème Brûlée"), texts(trie.suggest("CREME-bru", 10)));
+        assertEquals(Collections.singletonList("Spice Garden"), texts(trie.suggest("  spice   g", 10)));
+        assertTrue(trie.suggest("", 10).isEmpty());
+        assertTrue(trie.suggest("!!", 10).isEmpty());
+    }
+
+    /**
+     * Tests that unknown prefixes find nothing and that the limit is applied.
+     */
+    @Test
+    public void testSuggest_EmptyAndLimitedResults() {
+        assertTrue(trie.suggest("sushi", 10).isEmpty());
+        assertTrue(trie.suggest("chickenx", 10).isEmpty());
+        assertTrue(trie.suggest("chi", 0).isEmpty());
+        assertEquals(Collections.singletonList("Chicken Biryani"), texts(trie.suggest("chicken", 1)));
+    }
+
+    /**
+     * Tests that removing listings lowers a name's rank and that a name goes once no listing
+     * carries it.
+     */
+    @Test
+    public void testRemove_UpdatesRankingAndDropsName() {
+        trie.remove(SuggestionType.DISH, "Chicken Biryani");
+        trie.remove(SuggestionType.DISH, "Chicken Biryani");
+
+        assertEquals(Arrays.asList("Chicken Tikka", "Chicken 65", "Chicken Biryani"), texts(trie.suggest("chi", 10)));
+
+        trie.remove(SuggestionType.DISH, "Chicken Biryani");
+        trie.remove(SuggestionType.DISH, "Unknown Dish");
+
+        assertEquals(Collections.singletonList("Biryani House"), texts(trie.suggest("biry", 10)));
+        assertEquals(4, trie.size());
+    }
+
+    /**
+     * Tests that every node's cached list stays correct as names beyond the cache size come and go.
+     */
+    @Test
+    public void testSuggest_MatchesFullScanAfterChanges() {
+        String[] words = "chicken chilli chickpea cheese chai chow mein paneer pasta".split(" ");
+        Random random = new Random(11);
+        trie = new SuggestionTrie();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + random.nextInt(30);
+            if (random.nextInt(3) == 0 && !names.isEmpty()) {
+                String removed = names.remove(random.nextInt(names.size()));
+                trie.remove(SuggestionType.DISH, removed);
+            } else {
+                names.add(name);
+                trie.add(SuggestionType.DISH, name);
+            }
+        }
+
+        for (String prefix : new String[]{"c", "ch", "chi", "chick", "p", "pa", "mein 1", "cheese ch"}) {
+            List<String> expected = names.stream()
+                    .filter(name -> (" " + name).contains(" " + prefix))
+                    .collect(Collectors.groupingBy(name -> name, Collectors.counting()))
+                    .entrySet().stream()
+                    .sorted((a, b) -> a.getValue().equals(b.getValue())
+                            ? a.getKey().length() != b.getKey().length()
+                            ? Integer.compare(a.getKey().length(), b.getKey().length())
+                            : a.getKey().compareTo(b.getKey())
+                            : Long.compare(b.getValue(), a.getValue()))
+                    .limit(SuggestionTrie.MAX_SUGGESTIONS)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            assertEquals(expected, texts(trie.suggest(prefix, SuggestionTrie.MAX_SUGGESTIONS)), prefix);
+        }
+    }
+
+    private static List<String> texts(List<SuggestionResponseDto> suggestions) {
+        return suggestions.stream().map(SuggestionResponseDto::getText).collect(Collectors.toList());
+    }
+}
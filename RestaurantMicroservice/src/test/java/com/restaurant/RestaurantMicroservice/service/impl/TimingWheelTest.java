@@ -0,0 +1,89 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link TimingWheel} class.
+ */
+public class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    /**
+     * Tests that timers expire on the first advance past their deadline, never before it.
+     */
+    @Test
+    public void testAdvance_ExpiresAtDeadline() {
+        TimingWheel wheel = new TimingWheel(8, TICK, 0);
+        wheel.schedule(1, 2500);
+        wheel.schedule(2, 2000);
+        wheel.schedule(3, 5000);
+
+        assertTrue(wheel.advance(1999).isEmpty());
+        assertEquals(Collections.singletonList(2), wheel.advance(2000));
+        assertTrue(wheel.advance(2999).isEmpty());
+        assertEquals(Collections.singletonList(1), wheel.advance(3000));
+        assertEquals(Collections.singletonList(3), wheel.advance(6500));
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that timers more than one turn of the wheel away wait for their own turn.
+     */
+    @Test
+    public void testAdvance_TimersBeyondOneTurn() {
+        TimingWheel wheel = new TimingWheel(8, TICK, 0);
+        wheel.schedule(1, 3 * TICK);
+        wheel.schedule(2, 11 * TICK);
+        wheel.schedule(3, 19 * TICK);
+
+        assertEquals(Collections.singletonList(1), wheel.advance(3 * TICK));
+        assertTrue(wheel.advance(10 * TICK).isEmpty());
+        assertEquals(Collections.singletonList(2), wheel.advance(11 * TICK));
+        assertEquals(Collections.singletonList(3), wheel.advance(19 * TICK));
+    }
+
+    /**
+     * Tests that an advance over more than a full turn expires every due timer, earliest first.
+     */
+    @Test
+    public void testAdvance_LongPause() {
+        TimingWheel wheel = new TimingWheel(8, TICK, 0);
+        wheel.schedule(1, 30 * TICK);
+        wheel.schedule(2, 4 * TICK);
+        wheel.schedule(3, 12 * TICK);
+        wheel.schedule(4, 100 * TICK);
+
+        assertEquals(Arrays.asList(2, 3, 1), wheel.advance(50 * TICK));
+        assertEquals(1, wheel.size());
+        assertEquals(Collections.singletonList(4), wheel.advance(100 * TICK));
+    }
+
+    /**
+     * Tests that rescheduling replaces a timer, cancelling removes it, and past deadlines expire
+     * on the next tick.
+     */
+    @Test
+    public void testScheduleAndCancel() {
+        TimingWheel wheel = new TimingWheel(8, TICK, 10 * TICK);
+        wheel.schedule(1, 12 * TICK);
+        wheel.schedule(1, 14 * TICK);
+        wheel.schedule(2, 13 * TICK);
+        wheel.cancel(2);
+        wheel.cancel(9);
+        wheel.schedule(3, 0);
+
+        assertEquals(2, wheel.size());
+        assertEquals(Collections.singletonList(3), wheel.advance(11 * TICK));
+        assertTrue(wheel.advance(13 * TICK).isEmpty());
+        assertEquals(Collections.singletonList(1), wheel.advance(14 * TICK));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(6, TICK, 0));
+    }
+}
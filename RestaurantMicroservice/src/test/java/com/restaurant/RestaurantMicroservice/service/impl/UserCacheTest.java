@@ -0,0 +1,186 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import com.restaurant.RestaurantMicroservice.FeignClient.UserFeignClient;
+import com.restaurant.RestaurantMicroservice.dtos.UserResponseDto;
+import com.restaurant.RestaurantMicroservice.enums.RoleType;
+import com.restaurant.RestaurantMicroservice.exception.NotFoundException;
+import com.restaurant.RestaurantMicroservice.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link UserCache} class, with a user service mock and a test clock. Users are
+ * kept for five minutes, unknown users for thirty seconds, and at most two users are cached.
+ */
+public class UserCacheTest {
+
+    /**
+     * Mocked {@link UserFeignClient} instance.
+     */
+    @Mock
+    private UserFeignClient userFeignClient;
+
+    private MutableClock clock;
+
+    /**
+     * {@link UserCache} instance under test.
+     */
+    private UserCache userCache;
+
+    /**
+     * Initializes mocks and the cache.
+     */
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MutableClock(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+        userCache = new UserCache(userFeignClient, 2, 300, 30, clock);
+    }
+
+    /**
+     * Tests that a user is loaded once and served from the cache until it expires.
+     */
+    @Test
+    public void testGetUser_CachesUntilExpiry() {
+        UserResponseDto user = user(1);
+        when(userFeignClient.getUserById(1)).thenReturn(user);
+
+        assertSame(user, userCache.getUser(1));
+        clock.advance(Duration.ofMinutes(4));
+        assertSame(user, userCache.getUser(1));
+        verify(userFeignClient, times(1)).getUserById(1);
+
+        clock.advance(Duration.ofMinutes(1));
+        assertSame(user, userCache.getUser(1));
+        verify(userFeignClient, times(2)).getUserById(1);
+        assertEquals(1, userCache.getHitCount());
+        assertEquals(2, userCache.getMissCount());
+    }
+
+    /**
+     * Tests that unknown users are remembered for the shorter time.
+     */
+    @Test
+    public void testGetUser_RemembersUnknownUsers() {
+        when(userFeignClient.getUserById(1)).thenThrow(new NotFoundException("User not found"));
+        when(userFeignClient.getUserById(2)).thenReturn(null);
+
+        assertNull(userCache.getUser(1));
+        assertNull(userCache.getUser(2));
+        clock.advance(Duration.ofSeconds(29));
+        assertNull(userCache.getUser(1));
+        verify(userFeignClient, times(1)).getUserById(1);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(userCache.getUser(1));
+        verify(userFeignClient, times(2)).getUserById(1);
+    }
+
+    /**
+     * Tests that a failed call is not cached.
+     */
+    @Test
+    public void testGetUser_DoesNotCacheFailures() {
+        UserResponseDto user = user(1);
+        when(userFeignClient.getUserById(1))
+                .thenThrow(new IllegalStateException("User service unavailable"))
+                .thenReturn(user);
+
+        assertThrows(IllegalStateException.class, () -> userCache.getUser(1));
+        assertSame(user, userCache.getUser(1));
+        assertEquals(2, userCache.getLoadCount());
+    }
+
+    /**
+     * Tests that an invalidated user is loaded again.
+     */
+    @Test
+    public void testInvalidate_ReloadsUser() {
+        when(userFeignClient.getUserById(1)).thenReturn(user(1));
+
+        userCache.getUser(1);
+        userCache.invalidate(1);
+        userCache.getUser(1);
+
+        verify(userFeignClient, times(2)).getUserById(1);
+    }
+
+    /**
+     * Tests that the least recently used user is evicted past the entry count.
+     */
+    @Test
+    public void testGetUser_EvictsLeastRecentlyUsed() {
+        for (int id = 1; id <= 3; id++) {
+            when(userFeignClient.getUserById(id)).thenReturn(user(id));
+        }
+
+        userCache.getUser(1);
+        userCache.getUser(2);
+        userCache.getUser(1);
+        userCache.getUser(3);
+        userCache.getUser(1);
+        userCache.getUser(2);
+
+        verify(userFeignClient, times(1)).getUserById(1);
+        verify(userFeignClient, times(2)).getUserById(2);
+        assertEquals(2, userCache.size());
+        assertEquals(2, userCache.getEvictionCount());
+    }
+
+    /**
+     * Tests that concurrent misses for the same user share a single call.
+     */
+    @Test
+    public void testGetUser_CoalescesConcurrentMisses() throws Exception {
+        UserResponseDto user = user(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userFeignClient.getUserById(1)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return user;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] lookups = new Future<?>[4];
+            for (int i = 0; i < lookups.length; i++) {
+                lookups[i] = executor.submit(() -> userCache.getUser(1));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (userCache.getMissCount() < lookups.length && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> lookup : lookups) {
+                assertSame(user, lookup.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(userFeignClient, times(1)).getUserById(1);
+        assertEquals(1, userCache.getLoadCount());
+    }
+
+    private static UserResponseDto user(int id) {
+        return new UserResponseDto(id, "user" + id, "user" + id + "@example.com", RoleType.RESTAURANT_OWNER);
+    }
+}
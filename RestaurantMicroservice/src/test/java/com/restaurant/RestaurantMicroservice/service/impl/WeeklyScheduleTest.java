@@ -0,0 +1,139 @@
+package com.restaurant.RestaurantMicroservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link WeeklySchedule} class.
+ */
+public class WeeklyScheduleTest {
+
+    private static final int MONDAY = 0;
+
+    private static final int FRIDAY = 4 * WeeklySchedule.MINUTES_PER_DAY;
+
+    private static final int SATURDAY = 5 * WeeklySchedule.MINUTES_PER_DAY;
+
+    private static final int SUNDAY = 6 * WeeklySchedule.MINUTES_PER_DAY;
+
+    /**
+     * Tests that plain daily hours open every day of the week.
+     */
+    @Test
+    public void testParse_DailyHours() {
+        WeeklySchedule schedule = WeeklySchedule.parse("09:00-22:00");
+
+        assertEquals(14, schedule.intervals().length);
+        assertFalse(schedule.isOpenAt(MONDAY + at(8, 59)));
+        assertTrue(schedule.isOpenAt(MONDAY + at(9, 0)));
+        assertTrue(schedule.isOpenAt(SUNDAY + at(21, 59)));
+        assertFalse(schedule.isOpenAt(SUNDAY + at(22, 0)));
+    }
+
+    /**
+     * Tests day lists and ranges, split shifts, twelve hour times and later rules overriding
+     * earlier ones.
+     */
+    @Test
+    public void testParse_DaysAndRanges() {
+        WeeklySchedule schedule = WeeklySchedule.parse("Mon-Fri 11:00-15:00, 18:00-23:30; Sat, Sunday: 10am - 4.30pm");
+
+        assertTrue(schedule.isOpenAt(MONDAY + at(14, 59)));
+        assertFalse(schedule.isOpenAt(MONDAY + at(16, 0)));
+        assertTrue(schedule.isOpenAt(FRIDAY + at(23, 29)));
+        assertFalse(schedule.isOpenAt(SATURDAY + at(9, 59)));
+        assertTrue(schedule.isOpenAt(SATURDAY + at(16, 29)));
+        assertFalse(schedule.isOpenAt(SUNDAY + at(16, 30)));
+
+        WeeklySchedule overridden = WeeklySchedule.parse("Daily 9-21\nTuesday closed");
+        assertTrue(overridden.isOpenAt(MONDAY + at(20, 0)));
+        assertFalse(overridden.isOpenAt(WeeklySchedule.MINUTES_PER_DAY + at(12, 0)));
+        assertArrayEquals(WeeklySchedule.parse("Daily 09:00 to 21:00; tue closed").intervals(), overridden.intervals());
+        assertEquals(at(12, 0), WeeklySchedule.parse("12am-12pm").intervals()[1]);
+    }
+
+    /**
+     * Tests that hours past midnight run into the next day, and Sunday night into Monday morning.
+     */
+    @Test
+    public void testParse_PastMidnight() {
+        WeeklySchedule schedule = WeeklySchedule.parse("Fri-Sun 18:00-02:00");
+
+        assertTrue(schedule.isOpenAt(SATURDAY + at(1, 59)));
+        assertFalse(schedule.isOpenAt(SATURDAY + at(2, 0)));
+        assertTrue(schedule.isOpenAt(MONDAY + at(1, 0)));
+        assertFalse(schedule.isOpenAt(MONDAY + at(18, 0)));
+        assertArrayEquals(new int[]{0, at(2, 0), FRIDAY + at(18, 0), SATURDAY + at(2, 0),
+                        SATURDAY + at(18, 0), SUNDAY + at(2, 0), SUNDAY + at(18, 0), WeeklySchedule.MINUTES_PER_WEEK},
+                schedule.intervals());
+    }
+
+    /**
+     * Tests schedules that never change.
+     */
+    @Test
+    public void testParse_AlwaysOpenAndClosed() {
+        WeeklySchedule always = WeeklySchedule.parse("24/7");
+        WeeklySchedule midnightToMidnight = WeeklySchedule.parse("00:00-24:00");
+        WeeklySchedule never = WeeklySchedule.parse("closed");
+
+        assertTrue(always.isOpenAt(SUNDAY + at(23, 59)));
+        assertEquals(-1, always.minutesUntilChange(MONDAY));
+        assertArrayEquals(always.intervals(), midnightToMidnight.intervals());
+        assertEquals(-1, midnightToMidnight.minutesUntilChange(FRIDAY));
+        assertFalse(never.isOpenAt(MONDAY));
+        assertEquals(-1, never.minutesUntilChange(MONDAY));
+    }
+
+    /**
+     * Tests the time to the next opening or closing, across the end of the week.
+     */
+    @Test
+    public void testMinutesUntilChange() {
+        WeeklySchedule schedule = WeeklySchedule.parse("Mon-Fri 09:00-17:00");
+
+        assertEquals(60, schedule.minutesUntilChange(MONDAY + at(8, 0)));
+        assertEquals(8 * 60, schedule.minutesUntilChange(MONDAY + at(9, 0)));
+        assertEquals(1, schedule.minutesUntilChange(MONDAY + at(16, 59)));
+        assertEquals(16 * 60, schedule.minutesUntilChange(MONDAY + at(17, 0)));
+        assertEquals(60 + 2 * WeeklySchedule.MINUTES_PER_DAY + 9 * 60, schedule.minutesUntilChange(FRIDAY + at(23, 0)));
+
+        WeeklySchedule lateNight = WeeklySchedule.parse("Sun 20:00-03:00");
+        assertEquals(at(3, 0), lateNight.minutesUntilChange(MONDAY));
+        assertEquals(60, lateNight.minutesUntilChange(SUNDAY + at(19, 0)));
+    }
+
+    /**
+     * Tests the minute of the week of local times.
+     */
+    @Test
+    public void testMinuteOfWeek() {
+        assertEquals(0, WeeklySchedule.minuteOfWeek(LocalDateTime.of(2026, 10, 19, 0, 0)));
+        assertEquals(SUNDAY + at(21, 30), WeeklySchedule.minuteOfWeek(LocalDateTime.of(2026, 10, 18, 21, 30, 59)));
+    }
+
+    /**
+     * Tests that text that is not in a recognised format is rejected.
+     */
+    @Test
+    public void testParse_Unrecognised() {
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("Call us for timings"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("Mon-Fri"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("25:00-26:00"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("13pm-2am"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("Monkey 09:00-10:00"));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse(null));
+    }
+
+    private static int at(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+}
@@ -0,0 +1,72 @@
+package com.restaurant.RestaurantMicroservice.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A clock the tests can set and move forward. The clocks it returns for other zones share its time.
+ */
+public final class MutableClock extends Clock {
+
+    /**
+     * The current time, shared with the clocks for other zones.
+     */
+    private final AtomicReference<Instant> instant;
+
+    /**
+     * The zone of this clock.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Constructs a {@link MutableClock}.
+     *
+     * @param instant The time to start at.
+     * @param zone    The zone of the clock.
+     */
+    public MutableClock(Instant instant, ZoneId zone) {
+        this(new AtomicReference<>(instant), zone);
+    }
+
+    private MutableClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Sets the clock to a local time of its zone.
+     *
+     * @param time The local time.
+     */
+    public void set(LocalDateTime time) {
+        instant.set(time.atZone(zone).toInstant());
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration The time to move it by.
+     */
+    public void advance(Duration duration) {
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+}